@@ -13,6 +13,7 @@
  *
  * Copyright 2015-2016 ForgeRock AS.
  * Portions copyright 2019-2022 OSSTech Corporation
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.authentication.modules.saml2;
 
@@ -229,9 +230,7 @@ public class SAML2 extends AMLoginModule {
         final AuthnRequestInfo reqInfo = new AuthnRequestInfo(request, response, realm, spEntityID, null,
                 authnRequest, null, params);
 
-        synchronized (SPCache.requestHash) {
-            SPCache.requestHash.put(authnRequest.getID(), reqInfo);
-        }
+        SPCache.requestHash.put(authnRequest.getID(), reqInfo);
 
         saveAuthnRequest(authnRequest, reqInfo);
 
@@ -520,9 +519,7 @@ public class SAML2 extends AMLoginModule {
      * response data - can be used to call into SAML2ServiceProviderAdapter methods.
      */
     private void setSessionAttributes(Assertion assertion, String userName) throws AuthLoginException, SAML2Exception {
-        synchronized (SPCache.authnRequestHash) {
-            SPCache.authnRequestHash.put(storageKey, authnRequest);
-        }
+        SPCache.authnRequestHash.put(storageKey, authnRequest);
 
         linkAttributeValues(assertion, userName);
     }
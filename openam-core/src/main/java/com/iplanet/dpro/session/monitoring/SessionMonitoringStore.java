@@ -12,14 +12,19 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package com.iplanet.dpro.session.monitoring;
 
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
 
 /**
  * The store for session monitoring information. Each of the operations which can be applied to sessions
@@ -28,10 +33,10 @@ import javax.inject.Singleton;
  * {@link SessionTimingEntry} samples, which can be used to calculate e.g. the slowest, or average speed of a given
  * operation.
  *
- * Uses an ExecutorService to perform writes out to the store (which may block).
+ * Uses an ExecutorService to perform writes out to the store.
  */
 @Singleton
-public class SessionMonitoringStore {
+public class SessionMonitoringStore implements MetricsSource {
 
     private final ConcurrentHashMap<SessionMonitorType, SessionMonitoringTimingStore> refreshStore;
     private final ConcurrentHashMap<SessionMonitorType, SessionMonitoringTimingStore> propertyStore;
@@ -225,4 +230,26 @@ public class SessionMonitoringStore {
         return logoutStore.get(type).getDurationAverage();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Writes the distribution of the durations of each operation for each type of session which has performed it.
+     */
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        writeMetrics(writer, "refresh", refreshStore);
+        writeMetrics(writer, "set_property", propertyStore);
+        writeMetrics(writer, "destroy", destroyStore);
+        writeMetrics(writer, "logout", logoutStore);
+    }
+
+    private void writeMetrics(OpenMetricsWriter writer, String operation,
+            Map<SessionMonitorType, SessionMonitoringTimingStore> store) {
+        for (Map.Entry<SessionMonitorType, SessionMonitoringTimingStore> entry : store.entrySet()) {
+            writer.summary("openam_session_operation_duration_seconds", "Duration of session operations.",
+                    entry.getValue().getHistogram(), OpenMetricsWriter.NANOSECONDS,
+                    "operation", operation, "session_type", entry.getKey().name().toLowerCase(Locale.ROOT));
+        }
+    }
+
 }
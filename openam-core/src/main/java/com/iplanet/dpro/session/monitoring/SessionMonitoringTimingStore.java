@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package com.iplanet.dpro.session.monitoring;
 
@@ -45,7 +46,7 @@ public class SessionMonitoringTimingStore extends AbstractTimingStore {
      * @param duration the length of time the operation took
      */
     public void addTimingEntry(long duration) {
-        durationStore.add(new SessionTimingEntry(duration));
+        add(new SessionTimingEntry(duration));
     }
 
 }
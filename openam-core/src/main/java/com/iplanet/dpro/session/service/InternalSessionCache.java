@@ -12,19 +12,24 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package com.iplanet.dpro.session.service;
 
 import com.iplanet.dpro.session.SessionID;
 
-import org.forgerock.openam.utils.SingleValueMapper;
 import org.forgerock.util.Reject;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Responsible for caching and providing access to {@link com.iplanet.dpro.session.service.InternalSession} objects.
@@ -40,12 +45,32 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * This cache has been designed to remove previous references to Session handles and restricted tokens
  * when they are no longer referenced by the InternalSession.
+ *
+ * Thread Safety: no global lock is taken. The primary index records, for each session, the secondary keys
+ * that were indexed for it. The secondary indexes refer to those entries rather than to the sessions, so a
+ * stale key is only removed or replaced while it still refers to the very entry that indexed it; a concurrent
+ * put of the same session, which creates a new entry, is never undone by the removal of an older one. After
+ * publishing its secondary keys, {@link #put(InternalSession)} checks that its entry is still current and hands
+ * any keys a concurrent remove or put has made stale over to the current entry, or withdraws them.
+ *
+ * The cache also keeps an approximate count of the heap used by the cached sessions, refreshed each time a
+ * session is stored, so that the number of sessions can be limited by memory as well as by count.
  */
 @Singleton
 public class InternalSessionCache {
-    private final ConcurrentHashMap<SessionID, InternalSession> cache;
-    private final SingleValueMapper<String, InternalSession> handle = new SingleValueMapper<String, InternalSession>();
-    private final SingleValueMapper<SessionID, InternalSession> restricted = new SingleValueMapper<SessionID, InternalSession>();
+    /**
+     * Approximate fixed heap cost of an InternalSession and its supporting objects.
+     */
+    static final long SESSION_OVERHEAD = 2048;
+    private static final long PROPERTY_OVERHEAD = 64;
+    private static final long RESTRICTED_TOKEN_OVERHEAD = 512;
+    private static final long STRING_OVERHEAD = 40;
+
+    private final ConcurrentHashMap<SessionID, Entry> cache;
+    private final ConcurrentHashMap<String, Entry> handle = new ConcurrentHashMap<String, Entry>();
+    private final ConcurrentHashMap<SessionID, Entry> restricted = new ConcurrentHashMap<SessionID, Entry>();
+    private final AtomicLong approximateSize = new AtomicLong();
+    private final Collection<InternalSession> sessions = new SessionCollection();
 
     /**
      * Construct an InternalSessionCache intended to provide Session caching for provided SessionService configuration.
@@ -53,19 +78,24 @@ public class InternalSessionCache {
      */
     @Inject
     public InternalSessionCache(SessionServiceConfig config) {
-        cache = new ConcurrentHashMap<SessionID, InternalSession>(config.getMaxSessions());
+        cache = new ConcurrentHashMap<SessionID, Entry>(config.getMaxSessions());
     }
 
     public InternalSession getBySessionID(SessionID sessionID) {
-        return cache.get(sessionID);
+        Entry entry = cache.get(sessionID);
+        return entry == null ? null : entry.session;
     }
 
     public InternalSession getByHandle(String sessionHandle) {
-        return handle.get(sessionHandle);
+        Reject.ifNull(sessionHandle);
+        Entry entry = handle.get(sessionHandle);
+        return entry == null ? null : entry.session;
     }
 
     public InternalSession getByRestrictedID(SessionID sessionID) {
-        return restricted.get(sessionID);
+        Reject.ifNull(sessionID);
+        Entry entry = restricted.get(sessionID);
+        return entry == null ? null : entry.session;
     }
 
     /**
@@ -75,52 +105,46 @@ public class InternalSessionCache {
      * - Session Handle
      * - Restricted Tokens
      *
-     * Synchronized: makes updates to multiple data structures atomic.
+     * References which were stored for a previous version of the Session and are no longer present are removed.
      *
      * @param session Non null InternalSession to store.
      */
-    public synchronized void put(InternalSession session) {
+    public void put(InternalSession session) {
         Reject.ifNull(session);
-        cache.put(session.getID(), session);
+        SessionID sessionID = session.getID();
+        Entry entry = new Entry(session);
+        Entry previous = cache.put(sessionID, entry);
+        approximateSize.addAndGet(entry.size - (previous == null ? 0 : previous.size));
 
-        // Session Handle
-        if (session.getSessionHandle() != null) {
-            handle.put(session.getSessionHandle(), session);
+        index(entry);
+        if (previous != null) {
+            unindex(previous, entry);
         }
 
-        // Restricted Sessions
-        for (SessionID restrictedID : session.getRestrictedTokens()) {
-            restricted.put(restrictedID, session);
+        // A concurrent remove or put may have overtaken this one.
+        Entry current = cache.get(sessionID);
+        if (current != entry) {
+            unindex(entry, current);
         }
     }
 
     /**
      * Remove the Session from the cache.
      *
-     * Synchronized: makes updates to multiple data structures atomic.
-     *
      * @param sessionID Non null SessionID.
      *
      * @return The InternalSession that was removed from the cache.
      */
-    public synchronized InternalSession remove(SessionID sessionID) {
-        InternalSession remove = cache.remove(sessionID);
+    public InternalSession remove(SessionID sessionID) {
+        Entry remove = cache.remove(sessionID);
 
         if (remove == null) {
             return null;
         }
 
-        // Clear Session Handle
-        if (remove.getSessionHandle() != null) {
-            handle.remove(remove.getSessionHandle());
-        }
-
-        // Clear Restricted Tokens
-        for (SessionID restrictedID : remove.getRestrictedTokens()) {
-            restricted.remove(restrictedID);
-        }
-
-        return remove;
+        approximateSize.addAndGet(-remove.size);
+        unindex(remove, null);
+        return remove.session;
     }
 
     /**
@@ -145,10 +169,128 @@ public class InternalSessionCache {
         return cache.isEmpty();
     }
 
+    /**
+     * @return The approximate number of bytes of heap used by the sessions stored in the cache, as estimated
+     * when each session was last stored.
+     */
+    public long getApproximateSize() {
+        return approximateSize.get();
+    }
+
     /**
      * @return Unmodifiable collection of all Sessions that are stored in the cache.
      */
     public Collection<InternalSession> getAllSessions() {
-        return Collections.unmodifiableCollection(cache.values());
+        return sessions;
+    }
+
+    private void index(Entry entry) {
+        if (entry.handle != null) {
+            handle.put(entry.handle, entry);
+        }
+        for (SessionID restrictedID : entry.restrictedIDs) {
+            restricted.put(restrictedID, entry);
+        }
+    }
+
+    /**
+     * Releases the secondary keys still held by a stale entry. Keys shared with the current entry are handed over
+     * to it, others are removed. Keys which have since been indexed by any other entry are left alone.
+     *
+     * @param stale Non null entry whose keys should be released.
+     * @param current Possibly null entry whose keys should be kept.
+     */
+    private void unindex(Entry stale, Entry current) {
+        if (stale.handle != null) {
+            if (current != null && stale.handle.equals(current.handle)) {
+                handle.replace(stale.handle, stale, current);
+            } else {
+                handle.remove(stale.handle, stale);
+            }
+        }
+        for (SessionID restrictedID : stale.restrictedIDs) {
+            if (current != null && current.restrictedIDs.contains(restrictedID)) {
+                restricted.replace(restrictedID, stale, current);
+            } else {
+                restricted.remove(restrictedID, stale);
+            }
+        }
+    }
+
+    /**
+     * Estimates the heap used by a session from its variable sized content.
+     *
+     * @param session Non null session.
+     * @param sessionHandle Possibly null handle of the session.
+     * @param restrictedIDs Non null restricted tokens of the session.
+     * @return An approximate number of bytes.
+     */
+    static long estimateSize(InternalSession session, String sessionHandle, Set<SessionID> restrictedIDs) {
+        long size = SESSION_OVERHEAD;
+        size += estimateSize(sessionHandle);
+        size += estimateSize(session.getClientID());
+        size += estimateSize(session.getClientDomain());
+        size += restrictedIDs.size() * RESTRICTED_TOKEN_OVERHEAD;
+        Enumeration names = session.getPropertyNames();
+        if (names != null) {
+            while (names.hasMoreElements()) {
+                String name = (String) names.nextElement();
+                size += PROPERTY_OVERHEAD + estimateSize(name) + estimateSize(session.getProperty(name));
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    /**
+     * The session together with the secondary keys it was indexed under.
+     */
+    private static final class Entry {
+        private final InternalSession session;
+        private final String handle;
+        private final Set<SessionID> restrictedIDs;
+        private final long size;
+
+        private Entry(InternalSession session) {
+            this.session = session;
+            this.handle = session.getSessionHandle();
+            Set<SessionID> ids = session.getRestrictedTokens();
+            this.restrictedIDs = ids == null ? Collections.<SessionID>emptySet() : ids;
+            this.size = estimateSize(session, handle, restrictedIDs);
+        }
+    }
+
+    /**
+     * Read only view of the sessions in the primary index.
+     */
+    private final class SessionCollection extends AbstractCollection<InternalSession> {
+        @Override
+        public Iterator<InternalSession> iterator() {
+            final Iterator<Entry> entries = cache.values().iterator();
+            return new Iterator<InternalSession>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public InternalSession next() {
+                    return entries.next().session;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
     }
 }
@@ -25,6 +25,7 @@
  * $Id: SessionMaxStats.java,v 1.4 2008/06/25 05:41:31 qcheng Exp $
  *
  * Portions Copyrighted 2011-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.iplanet.dpro.session.service;
 
@@ -92,11 +93,16 @@ public class SessionMaxStats implements StatsListener {
                            "Max active sessions Current/Peak:" +
                            maxActiveSessions + "/" + peakActiveSessions + "\n" +
                            "Session Notifications in Queue Current/Peak:"
-                           + notificationQueue + "/" + peakNotificationQueue);
+                           + notificationQueue + "/" + peakNotificationQueue
+                           + destinationStats(sessionNotificationSender.getNotificationDestinationStats()));
        } 
        else {
            stats.record("No sessions found in session table");
        }
    }
+
+   private String destinationStats(String destinations) {
+       return destinations.isEmpty() ? "" : "\nSession Notification Destinations:\n" + destinations;
+   }
 }
 
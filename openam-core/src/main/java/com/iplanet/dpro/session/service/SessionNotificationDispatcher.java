@@ -0,0 +1,340 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.iplanet.dpro.session.service;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.iplanet.services.comm.server.SendNotificationException;
+import com.iplanet.services.comm.share.Notification;
+import com.iplanet.services.comm.share.NotificationSet;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Queues remote session notifications per destination URL and sends them in batches.
+ *
+ * Notifications for a destination are held for up to the batch window, or until a full batch has been queued,
+ * and then sent together as one {@link NotificationSet}. Each destination has at most one batch in flight, so
+ * its notifications are delivered in the order they were queued and a slow or failed destination only delays
+ * its own queue. A batch which cannot be delivered is retried with exponential back-off and dropped once its
+ * retries are exhausted. Notifications queued while a destination already holds its maximum are dropped.
+ *
+ * @since 15.0.0
+ */
+public class SessionNotificationDispatcher {
+
+    /**
+     * Delivers a batch of notifications to a destination.
+     */
+    public interface Transport {
+        /**
+         * @param url The destination.
+         * @param set The notifications.
+         * @throws SendNotificationException If the notifications could not be delivered.
+         */
+        void send(URL url, NotificationSet set) throws SendNotificationException;
+    }
+
+    private final Debug debug;
+    private final String serviceName;
+    private final Transport transport;
+    private final ScheduledExecutorService scheduler;
+    private final long batchWindow;
+    private final int batchSize;
+    private final int queueSize;
+    private final int maxRetries;
+    private final long retryBackoff;
+    private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    /**
+     * @param debug Required for debugging.
+     * @param serviceName The service name of the notification sets sent.
+     * @param transport Required for sending batches.
+     * @param scheduler Required for sending batches and scheduling retries.
+     * @param batchWindow The longest time in milliseconds a notification waits for others to join its batch.
+     * @param batchSize The maximum number of notifications in a batch.
+     * @param queueSize The maximum number of notifications queued for a destination.
+     * @param maxRetries The number of times a batch is retried before it is dropped.
+     * @param retryBackoff The delay in milliseconds before the first retry, doubled for each further retry.
+     */
+    public SessionNotificationDispatcher(Debug debug, String serviceName, Transport transport,
+            ScheduledExecutorService scheduler, long batchWindow, int batchSize, int queueSize, int maxRetries,
+            long retryBackoff) {
+        this.debug = debug;
+        this.serviceName = serviceName;
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.batchWindow = Math.max(0, batchWindow);
+        this.batchSize = Math.max(1, batchSize);
+        this.queueSize = Math.max(1, queueSize);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoff = Math.max(1, retryBackoff);
+    }
+
+    /**
+     * Queues a notification for a destination.
+     *
+     * @param url The destination.
+     * @param notification The notification.
+     * @return False if the notification was dropped because the queue of the destination is full.
+     */
+    public boolean dispatch(URL url, Notification notification) {
+        Destination destination = destinations.get(url.toString());
+        if (destination == null) {
+            destination = destinations.computeIfAbsent(url.toString(), key -> new Destination(url));
+        }
+        return destination.add(notification);
+    }
+
+    /**
+     * @return The number of notifications queued for every destination.
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (Destination destination : destinations.values()) {
+            size += destination.size.get();
+        }
+        return size;
+    }
+
+    /**
+     * @return The URLs of the destinations notifications have been queued for.
+     */
+    public List<String> getDestinations() {
+        return new ArrayList<>(destinations.keySet());
+    }
+
+    /**
+     * @param url A destination.
+     * @return The number of notifications queued for the destination.
+     */
+    public int getQueueSize(String url) {
+        Destination destination = destinations.get(url);
+        return destination == null ? 0 : destination.size.get();
+    }
+
+    /**
+     * @param url A destination.
+     * @return How long in milliseconds the oldest notification queued or in flight for the destination has been
+     * waiting, or zero if there are none.
+     */
+    public long getLag(String url) {
+        Destination destination = destinations.get(url);
+        return destination == null ? 0 : destination.getLag();
+    }
+
+    /**
+     * @param url A destination.
+     * @return The number of notifications delivered to the destination.
+     */
+    public long getSentCount(String url) {
+        Destination destination = destinations.get(url);
+        return destination == null ? 0 : destination.sent.sum();
+    }
+
+    /**
+     * @param url A destination.
+     * @return The number of notifications dropped for the destination, because its queue was full or because
+     * they could not be delivered.
+     */
+    public long getDroppedCount(String url) {
+        Destination destination = destinations.get(url);
+        return destination == null ? 0 : destination.dropped.sum();
+    }
+
+    /**
+     * @param url A destination.
+     * @return The number of times a batch for the destination has been retried.
+     */
+    public long getRetryCount(String url) {
+        Destination destination = destinations.get(url);
+        return destination == null ? 0 : destination.retries.sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String url : destinations.keySet()) {
+            sb.append(url).append(": queued=").append(getQueueSize(url))
+                    .append(", lag=").append(getLag(url))
+                    .append("ms, sent=").append(getSentCount(url))
+                    .append(", dropped=").append(getDroppedCount(url))
+                    .append(", retries=").append(getRetryCount(url)).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A notification and when it was queued.
+     */
+    private static final class Queued {
+        private final Notification notification;
+        private final long queuedAt;
+
+        private Queued(Notification notification, long queuedAt) {
+            this.notification = notification;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    /**
+     * The queue of a destination. A timer is armed when a notification is queued, and a flush is submitted
+     * straight away once a full batch is queued. Only one flush sends at a time; when it has finished with its
+     * batch it submits or arms the next flush if notifications are still queued.
+     */
+    private final class Destination {
+        private final URL url;
+        private final Queue<Queued> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean armed = new AtomicBoolean();
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        // The time the oldest notification of the batch in flight was queued, or zero
+        private volatile long inFlightSince;
+
+        private Destination(URL url) {
+            this.url = url;
+        }
+
+        private boolean add(Notification notification) {
+            if (size.incrementAndGet() > queueSize) {
+                size.decrementAndGet();
+                dropped.increment();
+                if (debug.warningEnabled()) {
+                    debug.warning("SessionNotificationDispatcher: Queue full, dropping notification to " + url);
+                }
+                return false;
+            }
+            queue.add(new Queued(notification, currentTimeMillis()));
+            if (size.get() >= batchSize && !busy.get()) {
+                submit(this::flush, 0);
+            } else {
+                arm();
+            }
+            return true;
+        }
+
+        private void arm() {
+            if (armed.compareAndSet(false, true)) {
+                submit(() -> {
+                    armed.set(false);
+                    flush();
+                }, batchWindow);
+            }
+        }
+
+        private void submit(Runnable task, long delay) {
+            try {
+                scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                int remaining = size.getAndSet(0);
+                queue.clear();
+                dropped.add(remaining);
+            }
+        }
+
+        private long getLag() {
+            long oldest = inFlightSince;
+            if (oldest == 0) {
+                Queued head = queue.peek();
+                oldest = head == null ? 0 : head.queuedAt;
+            }
+            return oldest == 0 ? 0 : currentTimeMillis() - oldest;
+        }
+
+        /**
+         * Takes the next batch from the queue and sends it, unless a batch is already being sent.
+         */
+        private void flush() {
+            if (!busy.compareAndSet(false, true)) {
+                return;
+            }
+            List<Queued> batch = new ArrayList<>();
+            for (Queued queued = queue.poll(); queued != null; queued = queue.poll()) {
+                batch.add(queued);
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+            }
+            size.addAndGet(-batch.size());
+            if (batch.isEmpty()) {
+                finished();
+                return;
+            }
+            inFlightSince = batch.get(0).queuedAt;
+            NotificationSet set = new NotificationSet(serviceName);
+            for (Queued queued : batch) {
+                set.addNotification(queued.notification);
+            }
+            send(set, batch.size(), 0);
+        }
+
+        private void send(NotificationSet set, int count, int attempt) {
+            try {
+                transport.send(url, set);
+                sent.add(count);
+            } catch (SendNotificationException | RuntimeException e) {
+                if (attempt < maxRetries) {
+                    retries.increment();
+                    long delay = retryBackoff << Math.min(attempt, 20);
+                    if (debug.messageEnabled()) {
+                        debug.message("SessionNotificationDispatcher: Retrying " + count + " notifications to "
+                                + url + " in " + delay + "ms");
+                    }
+                    try {
+                        scheduler.schedule(() -> send(set, count, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                        return;
+                    } catch (RejectedExecutionException ree) {
+                        // Shutting down, drop the batch
+                    }
+                }
+                dropped.add(count);
+                debug.error("SessionNotificationDispatcher: Dropping " + count + " notifications to " + url
+                        + " after " + (attempt + 1) + " attempts", e);
+            }
+            inFlightSince = 0;
+            finished();
+        }
+
+        /**
+         * Releases the destination, then sends or arms the next batch if notifications were queued meanwhile.
+         */
+        private void finished() {
+            busy.set(false);
+            if (size.get() >= batchSize) {
+                submit(this::flush, 0);
+            } else if (!queue.isEmpty()) {
+                arm();
+            }
+        }
+    }
+}
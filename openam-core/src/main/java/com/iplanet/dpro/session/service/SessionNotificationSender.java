@@ -25,6 +25,7 @@
  * $Id: SessionService.java,v 1.37 2010/02/03 03:52:54 bina Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.dpro.session.service;
@@ -54,6 +55,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Responsible for sending PLL session notification events to registered listeners.
@@ -61,6 +64,10 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * Remote listeners (e.g. other instances of AM, Agents, and rich clients) will be notified using PLL/HTTP.
  *
  * Local listeners (i.e. this instance of AM) will be notified by calling SessionNotificationHandler directly.
+ *
+ * When notification batching is enabled, remote notifications are handed to a
+ * {@link SessionNotificationDispatcher}, which coalesces them into batches per destination, rather than being sent
+ * one request per notification from the thread pool.
  */
 /*
  * Further refactoring is warranted.
@@ -75,6 +82,7 @@ public class SessionNotificationSender {
     private final SessionServerConfig serverConfig;
     private final SessionInfoFactory sessionInfoFactory;
     private final ThreadPool threadPool;
+    private final SessionNotificationDispatcher dispatcher;
     /**
      * The URL Vector for ALL session events : SESSION_CREATION, IDLE_TIMEOUT,
      * MAX_TIMEOUT, LOGOUT, REACTIVATION, DESTROY.
@@ -96,10 +104,29 @@ public class SessionNotificationSender {
 
         threadPool = new ThreadPool(THREAD_POOL_NAME, serviceConfig.getNotificationThreadPoolSize(),
                 serviceConfig.getNotificationThreadPoolThreshold(), true, sessionDebug);
+        final ScheduledThreadPoolExecutor scheduler;
+        if (serviceConfig.isNotificationBatchEnabled()) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            scheduler = new ScheduledThreadPoolExecutor(serviceConfig.getNotificationThreadPoolSize(), runnable -> {
+                Thread thread = new Thread(runnable, THREAD_POOL_NAME + "-dispatcher-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            dispatcher = new SessionNotificationDispatcher(sessionDebug, SessionService.SESSION_SERVICE,
+                    PLLServer::deliver, scheduler, serviceConfig.getNotificationBatchWindow(),
+                    serviceConfig.getNotificationBatchSize(), serviceConfig.getNotificationQueueSize(),
+                    serviceConfig.getNotificationRetryMax(), serviceConfig.getNotificationRetryBackoff());
+        } else {
+            scheduler = null;
+            dispatcher = null;
+        }
         shutdownManager.addShutdownListener(
                 new ShutdownListener() {
                     public void shutdown() {
                         threadPool.shutdown();
+                        if (scheduler != null) {
+                            scheduler.shutdown();
+                        }
                     }
                 }
         );
@@ -110,7 +137,15 @@ public class SessionNotificationSender {
      * Returns current Notification queue size.
      */
     public int getNotificationQueueSize() {
-        return threadPool.getCurrentSize();
+        return dispatcher == null ? threadPool.getCurrentSize() : dispatcher.getQueueSize();
+    }
+
+    /**
+     * Returns the queue size, lag, and sent and dropped counts of each destination when notification batching is
+     * enabled, one destination per line, or an empty string.
+     */
+    public String getNotificationDestinationStats() {
+        return dispatcher == null ? "" : dispatcher.toString();
     }
 
     /**
@@ -136,7 +171,11 @@ public class SessionNotificationSender {
             // true if remote URL's exists than add the notification
             // to the thread pool to process remote notifications.
             if (sns.sendToLocal()) {
-                threadPool.run(sns);
+                if (dispatcher != null) {
+                    sns.dispatch();
+                } else {
+                    threadPool.run(sns);
+                }
             }
 
         } catch (ThreadPoolException e) {
@@ -217,6 +256,54 @@ public class SessionNotificationSender {
         }
 
 
+        /**
+         * Queues the remote notifications with the dispatcher, to be sent in batches.
+         */
+        void dispatch() {
+            if (urls == null) {
+                throw new IllegalStateException("Must call sendToLocal before dispatching");
+            }
+
+            // Check global URLs first
+            if (!sessionEventURLs.isEmpty()) {
+
+                SessionNotification globalNotification =
+                        new SessionNotification(session.toSessionInfo(), eventType, currentTimeMillis());
+                Notification globalNotificationXml = new Notification(globalNotification.toXMLString());
+
+                for (String globalUrl : sessionEventURLs) {
+                    try {
+                        URL parsedGlobalUrl = new URL(globalUrl);
+                        // Only send to remote URLs, local URLs should be handled by sendToLocal
+                        if (!serverConfig.isLocalNotificationService(parsedGlobalUrl)) {
+                            dispatcher.dispatch(parsedGlobalUrl, globalNotificationXml);
+                        }
+                    } catch (Exception e) {
+                        sessionDebug.error("Remote Global notification to " + globalUrl, e);
+                    }
+                }
+            }
+
+            // The check individual URLs
+            for (Map.Entry<String, Set<SessionID>> entry : urls.entrySet()) {
+                String url = entry.getKey();
+                try {
+                    URL parsedUrl = new URL(url);
+                    // Only send to remote URLs, local URLs should be handled by sendToLocal
+                    if (!serverConfig.isLocalNotificationService(parsedUrl)) {
+                        for (SessionID sid : entry.getValue()) {
+                            SessionInfo info = sessionInfoFactory.makeSessionInfo(session, sid);
+                            SessionNotification notification =
+                                    new SessionNotification(info, eventType, currentTimeMillis());
+                            dispatcher.dispatch(parsedUrl, new Notification(notification.toXMLString()));
+                        }
+                    }
+                } catch (Exception e) {
+                    sessionDebug.error("Remote Individual notification to " + url, e);
+                }
+            }
+        }
+
         /**
          * Thread which sends the Session Notification.
          */
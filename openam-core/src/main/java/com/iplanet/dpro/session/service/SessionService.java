@@ -2061,7 +2061,11 @@ public class SessionService {
     }
 
     public boolean hasExceededMaxSessions() {
-        return monitoringOperations.getActiveSessions() >= serviceConfig.getMaxSessions();
+        if (monitoringOperations.getActiveSessions() >= serviceConfig.getMaxSessions()) {
+            return true;
+        }
+        long maxSessionsBytes = serviceConfig.getMaxSessionsBytes();
+        return maxSessionsBytes > 0 && cache.getApproximateSize() >= maxSessionsBytes;
     }
     public static String getAMServerID() {
         String serverid;
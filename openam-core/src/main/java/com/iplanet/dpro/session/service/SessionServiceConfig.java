@@ -25,6 +25,7 @@
  * $Id: SessionService.java,v 1.37 2010/02/03 03:52:54 bina Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.dpro.session.service;
@@ -97,6 +98,9 @@ public class SessionServiceConfig {
     static final int DEFAULT_MAX_SESSIONS = 10000;
     private final int maxSessions;
 
+    static final long DEFAULT_MAX_SESSIONS_BYTES = 0;
+    private final long maxSessionsBytes;
+
     private static final String LOGSTATUS_ACTIVE = "ACTIVE";
     private final boolean logStatus;
 
@@ -112,6 +116,24 @@ public class SessionServiceConfig {
     private static final int DEFAULT_NOTIFICATION_THEAD_POOL_THRESHOLD = DEFAULT_NOTIFICATION_THEAD_POOL_SIZE * 10;
     private final int notificationThreadPoolThreshold;
 
+    private static final boolean DEFAULT_NOTIFICATION_BATCH_ENABLED = false;
+    private final boolean notificationBatchEnabled;
+
+    private static final long DEFAULT_NOTIFICATION_BATCH_WINDOW = 100;
+    private final long notificationBatchWindow;
+
+    private static final int DEFAULT_NOTIFICATION_BATCH_SIZE = 100;
+    private final int notificationBatchSize;
+
+    private static final int DEFAULT_NOTIFICATION_QUEUE_SIZE = 10000;
+    private final int notificationQueueSize;
+
+    private static final int DEFAULT_NOTIFICATION_RETRY_MAX = 3;
+    private final int notificationRetryMax;
+
+    private static final long DEFAULT_NOTIFICATION_RETRY_BACKOFF = 500;
+    private final long notificationRetryBackoff;
+
     private static final long DEFAULT_APPLICATION_MAX_CACHING_TIME = Long.MAX_VALUE / 60;
     private final long applicationMaxCachingTime;
 
@@ -337,6 +359,8 @@ public class SessionServiceConfig {
         // Initialize values set from System properties
         maxSessions =
                 SystemProperties.getAsInt(AM_SESSION_MAX_SESSIONS, DEFAULT_MAX_SESSIONS);
+        maxSessionsBytes =
+                SystemProperties.getAsLong(AM_SESSION_MAX_SESSIONS_BYTES, DEFAULT_MAX_SESSIONS_BYTES);
         logStatus =
                 LOGSTATUS_ACTIVE.equalsIgnoreCase(SystemProperties.get(AM_LOGSTATUS));
         httpSessionTrackingCookieName =
@@ -347,6 +371,18 @@ public class SessionServiceConfig {
                 loadNotificationThreadPoolSizeSystemProperty();
         notificationThreadPoolThreshold =
                 loadNotificationThreadPoolThresholdSystemProperty();
+        notificationBatchEnabled =
+                SystemProperties.getAsBoolean(NOTIFICATION_BATCH_ENABLED, DEFAULT_NOTIFICATION_BATCH_ENABLED);
+        notificationBatchWindow =
+                SystemProperties.getAsLong(NOTIFICATION_BATCH_WINDOW, DEFAULT_NOTIFICATION_BATCH_WINDOW);
+        notificationBatchSize =
+                SystemProperties.getAsInt(NOTIFICATION_BATCH_SIZE, DEFAULT_NOTIFICATION_BATCH_SIZE);
+        notificationQueueSize =
+                SystemProperties.getAsInt(NOTIFICATION_QUEUE_SIZE, DEFAULT_NOTIFICATION_QUEUE_SIZE);
+        notificationRetryMax =
+                SystemProperties.getAsInt(NOTIFICATION_RETRY_MAX, DEFAULT_NOTIFICATION_RETRY_MAX);
+        notificationRetryBackoff =
+                SystemProperties.getAsLong(NOTIFICATION_RETRY_BACKOFF, DEFAULT_NOTIFICATION_RETRY_BACKOFF);
         applicationMaxCachingTime =
                 SystemProperties.getAsLong(APPLICATION_SESSION_MAX_CACHING_TIME, DEFAULT_APPLICATION_MAX_CACHING_TIME);
         returnAppSession =
@@ -579,6 +615,16 @@ public class SessionServiceConfig {
         return maxSessions;
     }
 
+    /**
+     * Returns SystemProperty "com.iplanet.am.session.maxSessionsBytes", the approximate heap the sessions
+     * held on this server may use.
+     *
+     * Defaults to 0, meaning that sessions are only limited by {@link #getMaxSessions()}.
+     */
+    public long getMaxSessionsBytes() {
+        return maxSessionsBytes;
+    }
+
     /**
      * Returns true if SystemProperty "com.iplanet.am.logstatus" is "ACTIVE" (case insensitive).
      *
@@ -623,6 +669,61 @@ public class SessionServiceConfig {
         return notificationThreadPoolThreshold;
     }
 
+    /**
+     * Returns true if SystemProperty "com.iplanet.am.notification.batch.enabled" is true, in which case remote
+     * session notifications are queued per destination and sent in batches.
+     *
+     * Defaults to false.
+     */
+    public boolean isNotificationBatchEnabled() {
+        return notificationBatchEnabled;
+    }
+
+    /**
+     * Returns value of SystemProperty "com.iplanet.am.notification.batch.window" in milliseconds.
+     *
+     * Defaults to 100 if not specified.
+     */
+    public long getNotificationBatchWindow() {
+        return notificationBatchWindow;
+    }
+
+    /**
+     * Returns value of SystemProperty "com.iplanet.am.notification.batch.size".
+     *
+     * Defaults to 100 if not specified.
+     */
+    public int getNotificationBatchSize() {
+        return notificationBatchSize;
+    }
+
+    /**
+     * Returns value of SystemProperty "com.iplanet.am.notification.queue.size".
+     *
+     * Defaults to 10000 if not specified.
+     */
+    public int getNotificationQueueSize() {
+        return notificationQueueSize;
+    }
+
+    /**
+     * Returns value of SystemProperty "com.iplanet.am.notification.retry.max".
+     *
+     * Defaults to 3 if not specified.
+     */
+    public int getNotificationRetryMax() {
+        return notificationRetryMax;
+    }
+
+    /**
+     * Returns value of SystemProperty "com.iplanet.am.notification.retry.backoff" in milliseconds.
+     *
+     * Defaults to 500 if not specified.
+     */
+    public long getNotificationRetryBackoff() {
+        return notificationRetryBackoff;
+    }
+
     /**
      * Returns value of SystemProperty "com.sun.identity.session.returnAppSession".
      *
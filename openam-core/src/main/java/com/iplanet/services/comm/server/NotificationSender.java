@@ -24,6 +24,7 @@
  *
  * $Id: NotificationSender.java,v 1.4 2008/06/25 05:41:34 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 /**
@@ -62,8 +63,29 @@ public class NotificationSender {
     }
 
     public void run() throws SendNotificationException {
+        try {
+            send(false);
+        } catch (SendNotificationException e) {
+            PLLServer.pllDebug.error("Cannot send notification to " + url, e);
+            // FIXME: Currently we ignore the exception received here, because
+            // not all the agent answers with 'OK' if the notification was
+            // received, see OPENAM-498 (and linked RFE) for more details.
+        }
+    }
+
+    /**
+     * Sends the NotificationSet, reporting failures to deliver it. A response
+     * other than 'OK' is only logged, as not every agent sends one.
+     *
+     * @param keepAlive true to leave the connection open so that it may be
+     *        reused for the next NotificationSet sent to the same server.
+     * @throws SendNotificationException if the NotificationSet could not be
+     *         delivered.
+     */
+    void send(boolean keepAlive) throws SendNotificationException {
         HttpURLConnection conn = null;
         OutputStream httpOut = null;
+        BufferedReader in = null;
         try {
             conn = HttpURLConnectionManager.getConnection(url);
             conn.setDoOutput(true);
@@ -90,7 +112,7 @@ public class NotificationSender {
             // URLs of the apps in case the apps died.
             // Read input stream fully
             StringBuilder in_buf = new StringBuilder();
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn
+            in = new BufferedReader(new InputStreamReader(conn
                     .getInputStream()));
             String in_string;
             while ((in_string = in.readLine()) != null) {
@@ -98,17 +120,17 @@ public class NotificationSender {
             }
             in_string = in_buf.toString();
             if (!in_string.equals("OK")) {
-                throw new SendNotificationException(PLLBundle
-                        .getString("sendNotificationFailed"));
+                PLLServer.pllDebug.error("Cannot send notification to " + url + ": "
+                        + PLLBundle.getString("sendNotificationFailed"));
             }
         } catch (Exception e) {
-            PLLServer.pllDebug.error("Cannot send notification to " + url, e);
-            // FIXME: Currently we ignore the exception received here, because
-            // not all the agent answers with 'OK' if the notification was
-            // received, see OPENAM-498 (and linked RFE) for more details.
+            throw new SendNotificationException(e);
         } finally {
             try {
-                if (conn != null) {
+                if (in != null) {
+                    in.close();
+                }
+                if (conn != null && !keepAlive) {
                     conn.disconnect();
                 }
                 if (httpOut != null) {
@@ -25,6 +25,7 @@
  * $Id: PLLRequestServlet.java,v 1.9 2009/02/12 17:24:13 bina Exp $
  *
  * Portions Copyrighted 2012-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.iplanet.services.comm.server;
 
@@ -41,7 +42,8 @@ import org.forgerock.openam.audit.AuditEventPublisher;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Hashtable;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
@@ -127,7 +129,7 @@ public class PLLRequestServlet extends HttpServlet {
                 rlength += r;
                 offset += r;
             }
-            String xml = new String(reqData, 0, length, "UTF-8");
+            String xml = new String(reqData, 0, length, StandardCharsets.UTF_8);
 
             RequestSet set = RequestSet.parseXML(xml);
             String svcid = set.getServiceID();
@@ -137,10 +139,10 @@ public class PLLRequestServlet extends HttpServlet {
                 }
             }
 
-            String responseXML = handleRequest(auditor, set, req, res);
-            res.setContentLength(responseXML.getBytes("UTF-8").length);
-            OutputStreamWriter out = new OutputStreamWriter(res.getOutputStream(),
-                    "UTF-8");
+            // Encode the response once, both to find its length and to send it
+            byte[] responseXML = handleRequest(auditor, set, req, res).getBytes(StandardCharsets.UTF_8);
+            res.setContentLength(responseXML.length);
+            OutputStream out = res.getOutputStream();
             try {
                 out.write(responseXML);
                 out.flush();
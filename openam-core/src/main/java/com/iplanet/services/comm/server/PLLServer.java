@@ -24,6 +24,7 @@
  *
  * $Id: PLLServer.java,v 1.3 2008/06/25 05:41:35 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.services.comm.server;
@@ -68,4 +69,24 @@ public class PLLServer {
         NotificationSender sender = new NotificationSender(url, set);
         sender.run();
     }
+
+    /**
+     * Translates the Java object to an XML NotificationSet document and sends
+     * it to the URL, over a connection which is kept open to be reused by the
+     * next call for the same server. Unlike {@link #send(URL, NotificationSet)}
+     * failures to deliver the document are thrown, so that the caller may
+     * retry.
+     *
+     * @param url
+     *            The destination URL for the NotificationSet XML document.
+     * @param set
+     *            The NotificationSet Java object to be translated to an XML
+     *            NotificationSet document.
+     * @exception SendNotificationException
+     *                is thrown if the document could not be delivered.
+     */
+    public static void deliver(URL url, NotificationSet set)
+            throws SendNotificationException {
+        new NotificationSender(url, set).send(true);
+    }
 }
@@ -25,6 +25,7 @@
  * $Id: NotificationSet.java,v 1.2 2008/06/25 05:41:35 qcheng Exp $
  *
  * Portions Copyrighted 2011-2014 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.iplanet.services.comm.share;
 
@@ -155,7 +156,12 @@ public class NotificationSet {
      * @return An XML NotificationSet document in String format.
      */
     public String toXMLString() {
-        StringBuilder xml = new StringBuilder(300);
+        int length = 300;
+        for (int i = 0; i < notificationVector.size(); i++) {
+            Notification notif = notificationVector.elementAt(i);
+            length += RequestSet.ELEMENT_LENGTH + RequestSet.length(notif.getContent());
+        }
+        StringBuilder xml = new StringBuilder(length);
         xml.append("<?xml version=").append(QUOTE).append("1.0").append(QUOTE)
                 .append(" encoding=").append(QUOTE).append("UTF-8").append(
                         QUOTE).append(" standalone=").append(QUOTE).append(
@@ -24,11 +24,13 @@
  *
  * $Id: NotificationSetParser.java,v 1.3 2008/06/25 05:41:35 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.services.comm.share;
 
-import com.sun.identity.shared.xml.XMLUtils;
+import javax.xml.stream.XMLStreamException;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -41,21 +43,29 @@ class NotificationSetParser {
      */
     Document document;
 
+    /**
+     * XML document to be read without building a Document
+     */
+    String xml;
+
     public NotificationSetParser(Document xmlDoc) {
         document = xmlDoc;
     }
 
     public NotificationSetParser(String xmlString) {
-        document = XMLUtils.toDOMDocument(xmlString, RequestSetParser.debug);
+        xml = xmlString;
     }
 
     /**
      * Parses the tree from root element. Please see NotificationSet.java for
      * the corresponding DTD of the NotificationSet.
      * 
-     * @return a NotificationSet object.
+     * @return a NotificationSet object, or null if the document cannot be parsed.
      */
     public NotificationSet parseXML() {
+        if (xml != null) {
+            return parseStream();
+        }
         if (document == null) {
             return null;
         }
@@ -83,6 +93,44 @@ class NotificationSetParser {
         return notificationSet;
     }
 
+    /**
+     * Reads the NotificationSet in a single pass over the XML string, without
+     * building a DOM of it.
+     */
+    private NotificationSet parseStream() {
+        if (xml.length() == 0) {
+            return null;
+        }
+        PLLStreamReader reader = null;
+        try {
+            reader = new PLLStreamReader(xml);
+            NotificationSet notificationSet = new NotificationSet();
+            notificationSet.setNotificationSetVersion(reader.getAttribute("vers"));
+            notificationSet.setServiceID(reader.getAttribute("svcid"));
+            notificationSet.setNotificationSetID(reader.getAttribute("notid"));
+
+            while (reader.nextElement("Notification")) {
+                Notification notification = new Notification();
+                notification.setDtdID(reader.getAttribute("dtdid"));
+                String content = reader.readContent(true);
+                if (content != null) {
+                    notification.setContent(content);
+                }
+                notificationSet.addNotification(notification);
+            }
+            return notificationSet;
+        } catch (XMLStreamException e) {
+            if (RequestSetParser.debug.warningEnabled()) {
+                RequestSetParser.debug.warning("Can't parse the XML document", e);
+            }
+            return null;
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
     /**
      * This method is an internal method used by parseXML method.
      */
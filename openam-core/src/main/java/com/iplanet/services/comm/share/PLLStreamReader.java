@@ -0,0 +1,184 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.iplanet.services.comm.share;
+
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads a PLL envelope (a RequestSet, ResponseSet or NotificationSet document) in a single pass, without building
+ * a DOM of it.
+ * <br/>
+ * The reader starts positioned on the document element, whose attributes can be read with
+ * {@link #getAttribute(String)}. Each call to {@link #nextElement(String)} then moves to the next Request, Response
+ * or Notification element, and {@link #readContent(boolean)} reads its text and moves past it. Attributes and
+ * content are read the same way the DOM based parsers read them, so both give the same objects.
+ * <br/>
+ * DTDs are not processed, so a document cannot reference external entities or expand entities of its own.
+ *
+ * @since 15.0.0
+ */
+final class PLLStreamReader {
+
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final XMLStreamReader reader;
+
+    /**
+     * Starts reading a document, and moves to its document element.
+     *
+     * @param xml The document.
+     * @throws XMLStreamException If the document has no document element, or cannot be read.
+     */
+    PLLStreamReader(String xml) throws XMLStreamException {
+        reader = FACTORY.createXMLStreamReader(new StringReader(xml));
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return;
+            }
+        }
+        throw new XMLStreamException("No document element");
+    }
+
+    /**
+     * Returns the value of an attribute of the current element, or an empty string if it has none, as
+     * {@link org.w3c.dom.Element#getAttribute(String)} does.
+     *
+     * @param name The name of the attribute.
+     * @return The value of the attribute.
+     */
+    String getAttribute(String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Moves to the next element with the given name, at any depth below the document element.
+     *
+     * @param name The name of the element.
+     * @return {@code true} if the element was found, {@code false} if the end of the document was reached.
+     * @throws XMLStreamException If the document cannot be read.
+     */
+    boolean nextElement(String name) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && name.equals(reader.getLocalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the text of the current element, and moves to its end.
+     * <br/>
+     * The content of the element's CDATA sections is returned if it has any, as the PLL envelopes always wrap the
+     * content in one. Otherwise the element's text is returned, unless only CDATA sections are wanted. Text within
+     * child elements is skipped.
+     *
+     * @param cdataOnly Whether to ignore text outside of CDATA sections.
+     * @return The text, or {@code null} if the element has none.
+     * @throws XMLStreamException If the document cannot be read.
+     */
+    String readContent(boolean cdataOnly) throws XMLStreamException {
+        Text cdata = new Text();
+        Text characters = new Text();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                break;
+            case XMLStreamConstants.CDATA:
+                if (depth == 1) {
+                    cdata.append(reader.getText());
+                }
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                if (depth == 1 && !cdataOnly) {
+                    characters.append(reader.getText());
+                }
+                break;
+            case XMLStreamConstants.END_DOCUMENT:
+                throw new XMLStreamException("Unexpected end of document");
+            default:
+                break;
+            }
+        }
+        return cdata.isEmpty() ? characters.toString() : cdata.toString();
+    }
+
+    /**
+     * Releases the resources of the reader.
+     */
+    void close() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            RequestSetParser.debug.message("PLLStreamReader.close: failed to close reader", e);
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        // The JDK's parser reports CDATA sections as plain characters unless asked not to
+        if (factory.isPropertySupported(REPORT_CDATA)) {
+            factory.setProperty(REPORT_CDATA, true);
+        }
+        return factory;
+    }
+
+    /**
+     * Joins the pieces of text the content of an element is reported in, which is nearly always just one.
+     */
+    private static final class Text {
+
+        private String first;
+        private StringBuilder joined;
+
+        private void append(String text) {
+            if (first == null) {
+                first = text;
+            } else {
+                if (joined == null) {
+                    joined = new StringBuilder(first);
+                }
+                joined.append(text);
+            }
+        }
+
+        private boolean isEmpty() {
+            return first == null;
+        }
+
+        @Override
+        public String toString() {
+            return joined != null ? joined.toString() : first;
+        }
+    }
+}
@@ -28,6 +28,7 @@
 
 /*
  * Portions Copyrighted 2011 ForgeRock AS
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.services.comm.share;
@@ -79,6 +80,12 @@ public class RequestSet {
 
     static final String END_CDATA = "]]>";
 
+    /*
+     * Allowance for the markup around the content of each element, so the
+     * document is written without growing the buffer.
+     */
+    static final int ELEMENT_LENGTH = 128;
+
     private String requestSetVersion = null;
 
     private String serviceID = null;
@@ -179,7 +186,11 @@ public class RequestSet {
      * @return An XML RequestSet document in String format.
      */
     public String toXMLString() {
-        StringBuilder xml = new StringBuilder(300);
+        int length = 300;
+        for (Request req : requestSet) {
+            length += ELEMENT_LENGTH + length(req.getContent());
+        }
+        StringBuilder xml = new StringBuilder(length);
         xml.append("<?xml version=").append(QUOTE).append("1.0").append(QUOTE)
                 .append(" encoding=").append(QUOTE).append("UTF-8").append(
                         QUOTE).append(" standalone=").append(QUOTE).append(
@@ -209,6 +220,10 @@ public class RequestSet {
         return (xml.toString());
     }
 
+    static int length(String content) {
+        return content == null ? 4 : content.length();
+    }
+
     /*
      * The following methods are used by the RequestSetParser to reconstruct a
      * RequestSet object.
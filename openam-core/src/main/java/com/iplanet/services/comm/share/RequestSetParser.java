@@ -24,12 +24,14 @@
  *
  * $Id: RequestSetParser.java,v 1.3 2008/06/25 05:41:35 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.services.comm.share;
 
+import javax.xml.stream.XMLStreamException;
+
 import com.sun.identity.shared.debug.Debug;
-import com.sun.identity.shared.xml.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -41,6 +43,11 @@ class RequestSetParser {
      */
     private Document document;
 
+    /**
+     * XML document to be read without building a Document
+     */
+    private String xml;
+
     /**
      * Debug instance
      */
@@ -51,16 +58,19 @@ class RequestSetParser {
     }
 
     public RequestSetParser(String xmlString) {
-        document = XMLUtils.toDOMDocument(xmlString, debug);
+        xml = xmlString;
     }
 
     /**
      * Parses the tree from root element. Please see RequestSet.java for the
      * corresponding DTD of the RequestSet.
      * 
-     * @return a RequestSet object.
+     * @return a RequestSet object, or null if the document cannot be parsed.
      */
     public RequestSet parseXML() {
+        if (xml != null) {
+            return parseStream();
+        }
         if (document == null) {
             return null;
         }
@@ -86,6 +96,45 @@ class RequestSetParser {
         return reqSet;
     }
 
+    /**
+     * Reads the RequestSet in a single pass over the XML string, without
+     * building a DOM of it.
+     */
+    private RequestSet parseStream() {
+        if (xml.length() == 0) {
+            return null;
+        }
+        PLLStreamReader reader = null;
+        try {
+            reader = new PLLStreamReader(xml);
+            RequestSet reqSet = new RequestSet();
+            reqSet.setRequestSetVersion(reader.getAttribute("vers"));
+            reqSet.setServiceID(reader.getAttribute("svcid"));
+            reqSet.setRequestSetID(reader.getAttribute("reqid"));
+
+            while (reader.nextElement("Request")) {
+                Request req = new Request();
+                req.setDtdID(reader.getAttribute("dtdid"));
+                req.setSessionID(reader.getAttribute("sid"));
+                String content = reader.readContent(false);
+                if (content != null) {
+                    req.setContent(content);
+                }
+                reqSet.addRequest(req);
+            }
+            return reqSet;
+        } catch (XMLStreamException e) {
+            if (debug.warningEnabled()) {
+                debug.warning("Can't parse the XML document", e);
+            }
+            return null;
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
     /**
      * This method is an internal method used by parseXML method.
      */
@@ -28,6 +28,7 @@
 
 /**
  * Portions Copyrighted [2011] [ForgeRock AS]
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.iplanet.services.comm.share;
 
@@ -154,7 +155,12 @@ public class ResponseSet {
      * @return An XML ResponseSet document in String format.
      */
     public String toXMLString() {
-        StringBuilder xml = new StringBuilder(300);
+        int length = 300;
+        for (int i = 0; i < responseVector.size(); i++) {
+            Response res = (Response) responseVector.elementAt(i);
+            length += RequestSet.ELEMENT_LENGTH + RequestSet.length(res.getContent());
+        }
+        StringBuilder xml = new StringBuilder(length);
         xml.append("<?xml version=").append(QUOTE).append("1.0").append(QUOTE)
                 .append(" encoding=").append(QUOTE).append("UTF-8").append(
                         QUOTE).append(" standalone=").append(QUOTE).append(
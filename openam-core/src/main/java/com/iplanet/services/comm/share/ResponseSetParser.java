@@ -24,11 +24,13 @@
  *
  * $Id: ResponseSetParser.java,v 1.3 2008/06/25 05:41:35 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.services.comm.share;
 
-import com.sun.identity.shared.xml.XMLUtils;
+import javax.xml.stream.XMLStreamException;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -41,21 +43,29 @@ class ResponseSetParser {
      */
     Document document;
 
+    /**
+     * XML document to be read without building a Document
+     */
+    String xml;
+
     public ResponseSetParser(Document xmlDoc) {
         document = xmlDoc;
     }
 
     public ResponseSetParser(String xmlString) {
-        document = XMLUtils.toDOMDocument(xmlString, RequestSetParser.debug);
+        xml = xmlString;
     }
 
     /**
      * Parses the tree from root element. Please see ResponseSet.java for the
      * corresponding DTD of the ResponseSet.
      * 
-     * @return a ResponseSet object.
+     * @return a ResponseSet object, or null if the document cannot be parsed.
      */
     public ResponseSet parseXML() {
+        if (xml != null) {
+            return parseStream();
+        }
         if (document == null) {
             return null;
         }
@@ -82,6 +92,44 @@ class ResponseSetParser {
         return responseSet;
     }
 
+    /**
+     * Reads the ResponseSet in a single pass over the XML string, without
+     * building a DOM of it.
+     */
+    private ResponseSet parseStream() {
+        if (xml.length() == 0) {
+            return null;
+        }
+        PLLStreamReader reader = null;
+        try {
+            reader = new PLLStreamReader(xml);
+            ResponseSet responseSet = new ResponseSet();
+            responseSet.setResponseSetVersion(reader.getAttribute("vers"));
+            responseSet.setServiceID(reader.getAttribute("svcid"));
+            responseSet.setRequestSetID(reader.getAttribute("reqid"));
+
+            while (reader.nextElement("Response")) {
+                Response response = new Response();
+                response.setDtdID(reader.getAttribute("dtdid"));
+                String content = reader.readContent(false);
+                if (content != null) {
+                    response.setContent(content);
+                }
+                responseSet.addResponse(response);
+            }
+            return responseSet;
+        } catch (XMLStreamException e) {
+            if (RequestSetParser.debug.warningEnabled()) {
+                RequestSetParser.debug.warning("Can't parse the XML document", e);
+            }
+            return null;
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
     /**
      * This method is an internal method used by parseXML method.
      *
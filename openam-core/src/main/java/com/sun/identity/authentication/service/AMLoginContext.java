@@ -27,6 +27,7 @@
  * Portions Copyrighted 2011-2016 ForgeRock AS.
  * Portions Copyrighted 2014 Nomura Research Institute, Ltd
  * Portions Copyrighted 2019 Open Source Solution Technology Corporation
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.authentication.service;
 
@@ -80,6 +81,11 @@ import java.util.Hashtable;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * <code>AMLoginContext</code> class is the core layer in the authentication
@@ -129,10 +135,15 @@ public class AMLoginContext {
     private boolean internalAuthError = false;
     private boolean processDone = false;
     private int jaasCheck;
-    private Thread jaasThread = null;
+    private Future<?> jaasLogin = null;
     private AppConfigurationEntry[] entries = null;
     private Callback[] recdCallback;
     private final AuthenticationProcessEventAuditor auditor;
+    // Guards the callbacks exchanged with a pure JAAS login. A lock rather than
+    // the monitor of this object, so that a login waiting on a virtual thread
+    // does not pin its carrier thread.
+    private final Lock callbackLock = new ReentrantLock();
+    private final Condition callbackChanged = callbackLock.newCondition();
 
     private static SsoServerAuthSvcImpl authImpl;
     private static Configuration defaultConfig = null;
@@ -516,19 +527,21 @@ public class AMLoginContext {
          */
         try {
             if (isPureJAAS()) {
-                if (jaasThread != null) {
-                    jaasThread.interrupt();
-                    jaasThread = null;
+                if (jaasLogin != null) {
+                    jaasLogin.cancel(true);
+                    jaasLogin = null;
                     errorState = true;
                 } else {
-                    jaasThread = new JAASLoginThread(this);
-                    jaasThread.start();
+                    jaasLogin = JAASLoginExecutor.getInstance().submit(this::runLogin);
                 }
             } else {
                 runLogin();
             }
         } catch (IllegalThreadStateException ite) {
             errorState = true;
+        } catch (RejectedExecutionException ree) {
+            debug.warning("AMLoginContext.executeLogin: too many pure JAAS logins in progress", ree);
+            errorState = true;
         } catch (Exception e) {
             errorState = true;
         }
@@ -826,6 +839,8 @@ public class AMLoginContext {
         }
         if (isPureJAAS()) {
             authThread.removeFromHash(thread, "timeoutHash");
+            // the thread may be reused for another login
+            authThread.removeFromHash(thread, "timedOutHash");
 
             // notify possible waiting thread
             loginState.setReceivedCallback(null, this);
@@ -931,7 +946,16 @@ public class AMLoginContext {
      *
      * @return array of Required Callbacks from <code>CallbackHandler</code>.
      */
-    public synchronized Callback[] getRequiredInfoCallback() {
+    public Callback[] getRequiredInfoCallback() {
+        callbackLock.lock();
+        try {
+            return awaitRequiredInfo();
+        } finally {
+            callbackLock.unlock();
+        }
+    }
+
+    private Callback[] awaitRequiredInfo() {
         if (debug.messageEnabled()) {
             debug.message("getRequiredInfo.. " + loginStatus.getStatus());
         }
@@ -961,7 +985,7 @@ public class AMLoginContext {
                 if (!isFailed
                         && loginStatus.getStatus() == LoginStatus.AUTH_IN_PROGRESS
                         && loginState.getReceivedInfo() == null) {
-                    this.wait();
+                    callbackChanged.await();
                 }
             } catch (InterruptedException e) {
                 debug.message("getRecdinfo INTERRUPTED");
@@ -1009,7 +1033,16 @@ public class AMLoginContext {
      *
      * @return submitted credentials/callbacks.
      */
-    public synchronized Callback[] submitCallbackInfo() {
+    public Callback[] submitCallbackInfo() {
+        callbackLock.lock();
+        try {
+            return awaitSubmittedInfo();
+        } finally {
+            callbackLock.unlock();
+        }
+    }
+
+    private Callback[] awaitSubmittedInfo() {
         if (debug.messageEnabled()) {
             debug.message("submitRequiredInfo. ThreadName is.. :" + Thread.currentThread().getName());
         }
@@ -1037,7 +1070,7 @@ public class AMLoginContext {
                     return null;
                 }
                 if ((loginState.getSubmittedInfo() == null)) {
-                    wait();
+                    callbackChanged.await();
                 }
             } catch (InterruptedException e) {
                 debug.message("submitRequired info INTERRUPTED");
@@ -1051,6 +1084,22 @@ public class AMLoginContext {
         return setSubmittedInfo;
     }
 
+    /**
+     * Changes the callbacks exchanged with a pure JAAS login and wakes up
+     * the thread waiting for them.
+     *
+     * @param update changes the callbacks held by the login state.
+     */
+    void updateCallbacks(Runnable update) {
+        callbackLock.lock();
+        try {
+            update.run();
+            callbackChanged.signal();
+        } finally {
+            callbackLock.unlock();
+        }
+    }
+
     /**
      * Returns the authentication status.
      *
@@ -25,6 +25,7 @@
  * $Id: AuthThreadManager.java,v 1.4 2008/06/25 05:42:04 qcheng Exp $
  *
  * Portions Copyrighted 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 
@@ -33,78 +34,114 @@ package com.sun.identity.authentication.service;
 
 import static org.forgerock.openam.utils.Time.*;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import com.sun.identity.shared.debug.Debug;
 
 /**
- * AuthThreadManager sleeps for n milliseconds as set in 
- * iplanet-am-auth-sleep-interval wakes up and checks for each thread 
- * in the timeout Hash for timeout.
- * If thread has timed out adds thread to timedOutHash and removed from
- * timeoutHash. 
+ * AuthThreadManager interrupts threads waiting on a login page once its
+ * timeout has passed, and remembers them as timed out.
+ * <p>
+ * Waiting threads are held on a timer wheel: a ring of buckets, each
+ * covering one tick, into which a thread is placed by the time its
+ * timeout expires. The manager wakes up once a tick and only looks at
+ * the buckets whose time has come, so registering and removing a thread
+ * take constant time and timeouts fire within a tick of expiring instead
+ * of after the next full scan every iplanet-am-auth-sleep-interval.
  */
 public class AuthThreadManager extends Thread   {
 
-    long timeout = 60;
+    /** The longest tick of the wheel in milliseconds. */
+    static final long MAX_TICK = 1000;
+    private static final int WHEEL_SIZE = 512;
+
     static Debug debug = null;
-    static int i=0;
-    Hashtable timeoutHash = new Hashtable();
-    Hashtable timedOutHash = new Hashtable();
-    long lastCallbackSent;
-    long defaultSleepTime = 300000;
+    private final long tick;
+    private final Queue<Timeout>[] wheel;
+    private final ConcurrentMap<Thread, Timeout> timeouts = new ConcurrentHashMap<>();
+    private final Set<Thread> timedOut = ConcurrentHashMap.newKeySet();
+    private volatile long lastTick;
 
     /**
      * Creates <code>AuthThreadManager</code> object.
      */
     public AuthThreadManager () {
+        this(AuthD.getAuth().getDefaultSleepTime());
+    }
+
+    /**
+     * Creates <code>AuthThreadManager</code> object.
+     *
+     * @param sleepTime the configured sleep interval in milliseconds, which
+     *        bounds the tick of the wheel.
+     */
+    @SuppressWarnings("unchecked")
+    AuthThreadManager(long sleepTime) {
+        super("AuthThreadManager");
+        setDaemon(true);
         debug = Debug.getInstance("amThreadManager");
-        defaultSleepTime = AuthD.getAuth().getDefaultSleepTime();
+        tick = Math.max(1, Math.min(sleepTime, MAX_TICK));
+        wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        lastTick = currentTimeMillis() / tick;
         if (debug.messageEnabled()) {
-            debug.message("Default sleep time : " + defaultSleepTime);
+            debug.message("Timeout wheel tick : " + tick);
         }
     }
 
     /**
-     * thread sleeps for n milliseconds as set in iplanet-am-auth-sleep-interval
-     * wakes up and checks for each thread in the timeout Hash for timeout.
-     * if thread has timed out adds thread to timedOutHash and removed from
-     * timeoutHash 
+     * Wakes up once a tick and expires the threads in the buckets which
+     * have come due since it last woke up.
      */
     public void run() {
         while (true) {
             try {
-                sleep(defaultSleepTime);
-                if (debug.messageEnabled()) {
-                    debug.message("Thread Waking up");
-                    debug.message("timeoutHash :" + timeoutHash);
-                }
+                sleep(tick - currentTimeMillis() % tick);
+                expireTimeouts(currentTimeMillis());
+            } catch (InterruptedException e) {
+                debug.message("AuthThreadManager interrupted, stopping");
+                return;
+            } catch (Exception e) {
+                debug.message("Error run : " , e);
+            }
+        }
+    }
 
-                if ((timeoutHash != null) && (!timeoutHash.isEmpty())) {
-                    Enumeration timeoutElem = timeoutHash.keys();
-                    while (timeoutElem.hasMoreElements()) {
-                        Object key = timeoutElem.nextElement();
-                        Thread thread = (Thread) key;
-                        Hashtable s = (Hashtable) timeoutHash.get(key);
-                        long timeout = ((Long)s.get("PageTimeout")).longValue();
-                        long lastCallbackSent = 
-                            ((Long) s.get("LastCallbackSent")).longValue();
-
-                        if (isLoginTimeout(lastCallbackSent , timeout)) {
-                            if (debug.messageEnabled()) {
-                                debug.message("Interrupting thread" + thread);
-                            }
-                            thread.interrupt();
-                            timeoutHash.remove(key);
-                            timedOutHash.put(thread, Boolean.TRUE);
+    /**
+     * Interrupts the threads whose timeout has expired by the given time.
+     *
+     * @param now the current time in milliseconds.
+     */
+    void expireTimeouts(long now) {
+        long currentTick = now / tick;
+        // Every bucket is visited at most once, however long the wheel stalled
+        long firstTick = Math.max(lastTick + 1, currentTick - WHEEL_SIZE + 1);
+        for (long t = firstTick; t <= currentTick; t++) {
+            Iterator<Timeout> bucket = wheel[(int) (t % WHEEL_SIZE)].iterator();
+            while (bucket.hasNext()) {
+                Timeout timeout = bucket.next();
+                if (timeouts.get(timeout.thread) != timeout) {
+                    bucket.remove();
+                } else if (timeout.deadline <= now) {
+                    bucket.remove();
+                    if (timeouts.remove(timeout.thread, timeout)) {
+                        if (debug.messageEnabled()) {
+                            debug.message("Interrupting thread" + timeout.thread);
                         }
+                        timedOut.add(timeout.thread);
+                        timeout.thread.interrupt();
                     }
                 }
-            } catch (Exception e) {
-                debug.message("Error run : " , e);
             }
         }
+        lastTick = Math.max(lastTick, currentTick);
     }
 
     /**
@@ -115,13 +152,17 @@ public class AuthThreadManager extends Thread   {
      */
     public boolean isLoginTimeout(long lastCallbackSent, long timeout) {
         long now = currentTimeMillis();
-        long timeoutVal = lastCallbackSent + (timeout -3) * 1000;
-        return (timeoutVal < now);
+        return (deadline(lastCallbackSent, timeout) < now);
+    }
+
+    private static long deadline(long lastCallbackSent, long timeout) {
+        return lastCallbackSent + (timeout -3) * 1000;
     }
 
     /**
-     * Stores the thread as key and the time out value &
-     * last callback sent in a Hashtable 
+     * Places the thread on the timer wheel to be interrupted once the page
+     * timeout has passed since the last callback was sent. A thread which is
+     * already on the wheel is moved to its new deadline.
      * @param currentThread will be stored
      * @param pageTimeOut configured timeout value
      * @param lastCallbackSent time for last callback was sent
@@ -133,18 +174,10 @@ public class AuthThreadManager extends Thread   {
         if (debug.messageEnabled()) {
             debug.message("Setting hash... : "  + currentThread);
         }
-        if (timeoutHash.contains(currentThread)) {
-            return;
-        }
-        Hashtable param = new Hashtable();
-        param.put("PageTimeout" , new Long(pageTimeOut));
-        param.put("LastCallbackSent",new Long(lastCallbackSent));
-
-        timeoutHash.put(currentThread,param);    
-
-        if (debug.messageEnabled()){
-            debug.message("timeOutHash is : " + timeoutHash);
-        }
+        Timeout timeout = new Timeout(currentThread, deadline(lastCallbackSent, pageTimeOut));
+        timeouts.put(currentThread, timeout);
+        long due = Math.max(timeout.deadline / tick, lastTick + 1);
+        wheel[(int) (due % WHEEL_SIZE)].add(timeout);
     }
 
     /**
@@ -153,22 +186,13 @@ public class AuthThreadManager extends Thread   {
      * @return <code>true</code> if the is timed out
      */
     public boolean isTimedOut(Thread thread) {
-        if (debug.messageEnabled()) {
-            debug.message("Timed ut hash has : " + timedOutHash);
-        }
-        if  ((timedOutHash ==  null) || (timedOutHash.isEmpty())) {
-            return false;
-        }
-        try {
-            Boolean timedOut = (Boolean) timedOutHash.get(thread);
-            return timedOut.booleanValue();
-        } catch (Exception e ) {
-            return false;
-        }
+        return timedOut.contains(thread);
     }
     
     /**
-     * Removes thread from <code>Hashtable</code> specified by hashName
+     * Removes thread from the waiting threads when hashName is
+     * <code>timeoutHash</code>, or from the timed out threads when it is
+     * <code>timedOutHash</code>.
      * @param thread will be removed from the hash
      * @param hashName has associated thread
      */
@@ -178,27 +202,32 @@ public class AuthThreadManager extends Thread   {
                 thread + "from hash : " + hashName);
         }
         if (hashName.equals("timeoutHash")) {
-            removeHash(timeoutHash,thread);
-            if (debug.messageEnabled()){
-                debug.message("timeOutHash is : " + timeoutHash);
-            }
+            // The entry left in its bucket is discarded when the bucket comes due
+            timeouts.remove(thread);
         }
 
         if (hashName.equals("timedOutHash")) {
-            removeHash(timedOutHash,thread);
-            if (debug.messageEnabled()){
-                debug.message("timedOutHash is : " + timedOutHash);
-            }
+            timedOut.remove(thread);
         } 
     }
 
-    void removeHash(Hashtable hash,Thread thread) {
-        if ((hash == null) || hash.isEmpty()) {
-            return;
-        }
-        try {
-            hash.remove(thread);
-        } catch (Exception e) {
+    /**
+     * @return the number of threads waiting on the wheel.
+     */
+    int getWaitingCount() {
+        return timeouts.size();
+    }
+
+    /**
+     * A thread and the time it times out.
+     */
+    private static final class Timeout {
+        private final Thread thread;
+        private final long deadline;
+
+        private Timeout(Thread thread, long deadline) {
+            this.thread = thread;
+            this.deadline = deadline;
         }
     }
 }
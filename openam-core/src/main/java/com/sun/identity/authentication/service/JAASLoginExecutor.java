@@ -0,0 +1,269 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.authentication.service;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.util.thread.listener.ShutdownListener;
+
+import com.iplanet.am.util.SystemProperties;
+import com.sun.identity.common.ShutdownManager;
+import com.sun.identity.shared.Constants;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Runs logins through pure JAAS login modules, which block their thread while they wait for the user to submit
+ * each page of callbacks.
+ * <p>
+ * In {@link Mode#THREAD} mode every login starts its own {@link JAASLoginThread}, which is how pure JAAS logins
+ * have always been run. In {@link Mode#POOL} mode logins run on a pool of reused threads, with a configurable
+ * stack size, which holds no threads while idle and turns away logins beyond its size rather than starting
+ * ever more threads. In {@link Mode#VIRTUAL} mode each login runs on a virtual thread, which only holds a
+ * platform thread while it runs and not while it waits for callbacks; if the JVM has no virtual threads the pool
+ * is used instead.
+ *
+ * @see Constants#AUTH_JAAS_EXECUTION_MODE
+ */
+final class JAASLoginExecutor {
+
+    /**
+     * How logins are run.
+     */
+    enum Mode {
+        /** A new thread for every login. */
+        THREAD,
+        /** A bounded pool of reused threads. */
+        POOL,
+        /** A virtual thread for every login. */
+        VIRTUAL
+    }
+
+    private static final int DEFAULT_POOL_SIZE = 200;
+    private static final Debug DEBUG = Debug.getInstance("amAuth");
+
+    private final Mode mode;
+    private final long stackSize;
+    private final int limit;
+    private final ExecutorService executorService;
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates an executor.
+     *
+     * @param mode How logins are run.
+     * @param poolSize The maximum number of logins in progress at once in {@link Mode#POOL} mode.
+     * @param stackSize The stack size in bytes of the threads created, or 0 for the default of the JVM.
+     */
+    JAASLoginExecutor(Mode mode, int poolSize, long stackSize) {
+        this.stackSize = Math.max(0, stackSize);
+        ExecutorService virtual = null;
+        if (mode == Mode.VIRTUAL) {
+            virtual = newVirtualThreadExecutor();
+            if (virtual == null) {
+                DEBUG.warning("JAASLoginExecutor: virtual threads are not available, using a thread pool");
+                mode = Mode.POOL;
+            }
+        }
+        this.mode = mode;
+        if (mode == Mode.POOL) {
+            // Logins are admitted against the limit rather than by the pool, so that a login is never turned
+            // away while a thread which has just finished one is on its way back to the queue
+            limit = Math.max(1, poolSize);
+            final AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(limit, limit, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), runnable -> {
+                        Thread thread = new Thread(null, runnable, "JAASLogin-" + count.incrementAndGet(),
+                                this.stackSize);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executorService = pool;
+        } else {
+            limit = Integer.MAX_VALUE;
+            executorService = virtual;
+        }
+    }
+
+    /**
+     * Starts a login.
+     *
+     * @param login The login to run.
+     * @return The running login, which can be cancelled to interrupt it.
+     * @throws RejectedExecutionException If the login cannot be started because the pool is busy or shut down.
+     */
+    Future<?> submit(final Runnable login) {
+        FutureTask<Void> task = new LoginTask(login);
+        if (inProgress.incrementAndGet() > limit) {
+            inProgress.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Too many logins in progress: " + limit);
+        }
+        try {
+            if (executorService == null) {
+                new JAASLoginThread(task, stackSize).start();
+            } else {
+                executorService.execute(task);
+            }
+        } catch (RejectedExecutionException | OutOfMemoryError e) {
+            inProgress.decrementAndGet();
+            rejected.increment();
+            throw e instanceof RejectedExecutionException ? (RejectedExecutionException) e
+                    : new RejectedExecutionException(e);
+        }
+        started.increment();
+        return task;
+    }
+
+    /**
+     * @return How logins are run, which is {@link Mode#POOL} if virtual threads were asked for but are not
+     * available.
+     */
+    Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return The number of logins started and not yet finished.
+     */
+    int getInProgressCount() {
+        return inProgress.get();
+    }
+
+    /**
+     * @return The number of logins started.
+     */
+    long getStartedCount() {
+        return started.sum();
+    }
+
+    /**
+     * @return The number of logins turned away.
+     */
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Stops accepting logins and interrupts those in progress.
+     */
+    void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The executor configured by {@link Constants#AUTH_JAAS_EXECUTION_MODE},
+     * {@link Constants#AUTH_JAAS_POOL_SIZE} and {@link Constants#AUTH_JAAS_THREAD_STACK_SIZE}.
+     */
+    static JAASLoginExecutor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    static Mode parseMode(String value) {
+        if (value != null) {
+            try {
+                return Mode.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                DEBUG.warning("JAASLoginExecutor: unknown execution mode " + value + ", using "
+                        + Mode.THREAD.name().toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return Mode.THREAD;
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()}, which only exists on Java 21 and later.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A login which stops counting as in progress when it finishes or is cancelled, including when it is cancelled
+     * while still queued and so never runs. A finished login is released before its result is published, so that
+     * a caller which has waited for it sees it released.
+     */
+    private final class LoginTask extends FutureTask<Void> {
+
+        private final AtomicBoolean released;
+
+        private LoginTask(Runnable login) {
+            this(login, new AtomicBoolean());
+        }
+
+        private LoginTask(final Runnable login, final AtomicBoolean released) {
+            super(() -> {
+                try {
+                    login.run();
+                } finally {
+                    release(released);
+                }
+            }, null);
+            this.released = released;
+        }
+
+        @Override
+        protected void done() {
+            release(released);
+        }
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            inProgress.decrementAndGet();
+        }
+    }
+
+    private static final class Holder {
+        private static final JAASLoginExecutor INSTANCE = create();
+
+        private static JAASLoginExecutor create() {
+            final JAASLoginExecutor executor = new JAASLoginExecutor(
+                    parseMode(SystemProperties.get(Constants.AUTH_JAAS_EXECUTION_MODE)),
+                    SystemProperties.getAsInt(Constants.AUTH_JAAS_POOL_SIZE, DEFAULT_POOL_SIZE),
+                    SystemProperties.getAsLong(Constants.AUTH_JAAS_THREAD_STACK_SIZE, 0));
+            if (DEBUG.messageEnabled()) {
+                DEBUG.message("JAASLoginExecutor: running pure JAAS logins in " + executor.getMode() + " mode");
+            }
+            ShutdownManager.getInstance().addShutdownListener(new ShutdownListener() {
+                @Override
+                public void shutdown() {
+                    executor.shutdown();
+                }
+            });
+            return executor;
+        }
+    }
+}
@@ -24,6 +24,7 @@
  *
  * $Id: JAASLoginThread.java,v 1.2 2008/06/25 05:42:04 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 
@@ -36,7 +37,7 @@ package com.sun.identity.authentication.service;
  */
 public class JAASLoginThread  extends Thread {
 
-    private AMLoginContext amlc;
+    private Runnable login;
 
     /**
      * Creates <code>JAASLoginThread</code> object.
@@ -45,13 +46,24 @@ public class JAASLoginThread  extends Thread {
      *        defined.
      */
     JAASLoginThread(AMLoginContext amlc) {
-        this.amlc = amlc;
+        this.login = amlc::runLogin;
+    }
+
+    /**
+     * Creates <code>JAASLoginThread</code> object.
+     *
+     * @param login the login to run.
+     * @param stackSize the stack size of the thread, or 0 for the default.
+     */
+    JAASLoginThread(Runnable login, long stackSize) {
+        super(null, null, "JAASLoginThread", stackSize);
+        this.login = login;
     }
 
     /**
      * Run the thread task which is defined in <code>AMLoginContext</code>.
      */
     public void run() {
-        amlc.runLogin();
+        login.run();
     }
 }
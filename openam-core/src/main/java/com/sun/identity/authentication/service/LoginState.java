@@ -473,12 +473,11 @@ public class LoginState {
     public void setReceivedCallback(
             Callback[] callback,
             AMLoginContext amLoginContext) {
-        synchronized (amLoginContext) {
+        amLoginContext.updateCallbacks(() -> {
             submittedCallbackInfo = null;
             receivedCallbackInfo = callback;
             prevCallback = callback;
-            amLoginContext.notify();
-        }
+        });
     }
 
     /**
@@ -502,12 +501,11 @@ public class LoginState {
     public void setSubmittedCallback(
             Callback[] callback,
             AMLoginContext amLoginContext) {
-        synchronized (amLoginContext) {
+        amLoginContext.updateCallbacks(() -> {
             prevCallback = receivedCallbackInfo;
             receivedCallbackInfo = null;
             submittedCallbackInfo = callback;
-            amLoginContext.notify();
-        }
+        });
     }
 
     /**
@@ -25,6 +25,7 @@
  * $Id: EntitlementThreadPool.java,v 1.1 2009/08/19 05:40:32 veiming Exp $
  *
  * Portions Copyrighted 2013-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.entitlement;
@@ -39,8 +40,10 @@ import org.forgerock.util.thread.listener.ShutdownManager;
  */
 public class EntitlementThreadPool implements IThreadPool {
     private ThreadPool thrdPool;
+    private final int size;
 
     public EntitlementThreadPool(int size) {
+        this.size = size;
 
         thrdPool = new ThreadPool("entitlementThreadPool", size);
         ShutdownManager shutdownMan = com.sun.identity.common.ShutdownManager.getInstance();
@@ -62,4 +65,9 @@ public class EntitlementThreadPool implements IThreadPool {
             }
         }
     }
+
+    @Override
+    public int getParallelism() {
+        return size;
+    }
 }
@@ -25,6 +25,7 @@
  * $Id: Evaluator.java,v 1.2 2009/09/10 16:35:38 veiming Exp $
  *
  * Portions copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package com.sun.identity.entitlement;
 
@@ -137,6 +138,10 @@ public class Evaluator {
         boolean result = evaluator.hasEntitlement(realm,
             adminSubject, subject, applicationName, e, envParameters);
 
+        if (configWrapper.isMonitoringRunning()) {
+            addRequestEvaluation(evaluator);
+        }
+
         return result;
     }
 
@@ -222,11 +227,25 @@ public class Evaluator {
         if (configWrapper.isMonitoringRunning()) {
             policyMonitor.addEvaluation(currentTimeMillis() - startTime, realm, applicationName, resourceName,
                     subject, recursive ? PolicyMonitoringType.SUBTREE : PolicyMonitoringType.SELF);
+            addRequestEvaluation(evaluator);
         }
 
         return results;
     }
 
+    /**
+     * Records how the policies found for a request were evaluated.
+     *
+     * @param evaluator The evaluator of the request.
+     */
+    private void addRequestEvaluation(PrivilegeEvaluator evaluator) {
+        ParallelPrivilegeEvaluation evaluation = evaluator.getEvaluation();
+        if (evaluation != null) {
+            policyMonitor.addRequestEvaluation(evaluation.getDuration(), evaluation.getWorkerCount(),
+                    evaluation.getSkippedCount());
+        }
+    }
+
     /**
      * Returns application name.
      * 
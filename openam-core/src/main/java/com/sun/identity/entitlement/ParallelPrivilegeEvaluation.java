@@ -0,0 +1,241 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.entitlement;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.forgerock.openam.entitlement.PolicyConstants;
+
+import com.sun.identity.entitlement.interfaces.IThreadPool;
+
+/**
+ * Evaluates the privileges found for one request and combines their entitlements into the decision of the request.
+ * <p>
+ * Privileges are queued as they are found. Evaluation fans out to the thread pool only as far as the request needs:
+ * a worker is started whenever more than {@code tasksPerWorker} privileges are waiting, up to the parallelism of the
+ * pool, and each worker takes privileges from the queue of the request until it is empty, so a slow privilege does
+ * not hold up the others. Once every privilege has been queued the requesting thread takes what is left itself.
+ * <p>
+ * Results are combined by the requesting thread alone, as they arrive. As soon as the combiner has reached its
+ * decision, such as a deny of every action, the privileges that have not been started are skipped.
+ *
+ * @since 15.0.0
+ */
+final class ParallelPrivilegeEvaluation {
+
+    /**
+     * Evaluates a single privilege of the request.
+     */
+    interface Evaluation {
+        /**
+         * @param privilege The privilege.
+         * @return The entitlements of the privilege, which may be <code>null</code>.
+         * @throws EntitlementException If the privilege cannot be evaluated.
+         */
+        List<Entitlement> evaluate(IPrivilege privilege) throws EntitlementException;
+    }
+
+    // Queued for a privilege which gave no entitlements, so that every evaluation is accounted for
+    private static final List<Entitlement> NO_ENTITLEMENTS = Collections.emptyList();
+
+    private final IThreadPool threadPool;
+    private final int tasksPerWorker;
+    private final Evaluation evaluation;
+    private final EntitlementCombiner combiner;
+    private final long startTime = currentTimeMillis();
+    private final Queue<IPrivilege> privileges = new ConcurrentLinkedQueue<IPrivilege>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger runningWorkers = new AtomicInteger();
+    private final AtomicInteger evaluated = new AtomicInteger();
+    private final BlockingQueue<List<Entitlement>> results = new LinkedBlockingQueue<List<Entitlement>>();
+    private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+    private volatile boolean cancelled;
+    // Only used by the requesting thread
+    private int queued;
+    private int combined;
+    private int refused;
+    private int workers;
+    private boolean decided;
+    private long duration;
+
+    /**
+     * @param threadPool The thread pool the workers run on.
+     * @param tasksPerWorker The number of privileges left waiting before another worker is started.
+     * @param evaluation Evaluates each privilege.
+     * @param combiner Combines the entitlements of the privileges.
+     */
+    ParallelPrivilegeEvaluation(IThreadPool threadPool, int tasksPerWorker, Evaluation evaluation,
+            EntitlementCombiner combiner) {
+        this.threadPool = threadPool;
+        this.tasksPerWorker = Math.max(1, tasksPerWorker);
+        this.evaluation = evaluation;
+        this.combiner = combiner;
+    }
+
+    /**
+     * Queues a privilege for evaluation, and combines the results which have arrived so far.
+     *
+     * @param privilege The privilege.
+     * @return <code>false</code> if the decision is already known, or evaluation has failed, so that no more
+     * privileges need to be queued.
+     */
+    boolean add(IPrivilege privilege) {
+        combineAvailable();
+        if (cancelled) {
+            refused++;
+            return false;
+        }
+        privileges.add(privilege);
+        queued++;
+        if (waiting.incrementAndGet() > tasksPerWorker && runningWorkers.get() < threadPool.getParallelism()) {
+            runningWorkers.incrementAndGet();
+            workers++;
+            threadPool.submit(new Worker());
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates the privileges no worker has taken and waits for the rest, or until the decision is known.
+     *
+     * @throws EntitlementException If a privilege could not be evaluated.
+     */
+    void complete() throws EntitlementException {
+        // Workers which could not be started, or which have finished, leave their privileges to us
+        evaluateWaiting();
+        try {
+            while (!cancelled && combined < queued) {
+                combine(results.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            PolicyConstants.DEBUG.error("ParallelPrivilegeEvaluation.complete", e);
+        }
+        duration = currentTimeMillis() - startTime;
+        Exception e = failure.get();
+        if (e instanceof EntitlementException) {
+            throw (EntitlementException) e;
+        } else if (e != null) {
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * @return The length of time in ms from the creation of the evaluation until it completed.
+     */
+    long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return The number of privileges queued.
+     */
+    int getQueuedCount() {
+        return queued;
+    }
+
+    /**
+     * @return The number of privileges offered which had not been evaluated when the decision became known.
+     */
+    int getSkippedCount() {
+        return queued - evaluated.get() + refused;
+    }
+
+    /**
+     * @return The number of workers started for the request.
+     */
+    int getWorkerCount() {
+        return workers;
+    }
+
+    /**
+     * @return <code>true</code> if privileges were skipped because the combiner reached its decision early.
+     */
+    boolean isDecidedEarly() {
+        return decided && getSkippedCount() > 0;
+    }
+
+    private void evaluateWaiting() {
+        IPrivilege privilege;
+        while (!cancelled && (privilege = privileges.poll()) != null) {
+            waiting.decrementAndGet();
+            evaluate(privilege);
+            combineAvailable();
+        }
+    }
+
+    private void evaluate(IPrivilege privilege) {
+        List<Entitlement> entitlements = NO_ENTITLEMENTS;
+        try {
+            List<Entitlement> result = evaluation.evaluate(privilege);
+            if (result != null) {
+                entitlements = result;
+            }
+        } catch (EntitlementException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+            cancelled = true;
+        } finally {
+            evaluated.incrementAndGet();
+            results.add(entitlements);
+        }
+    }
+
+    private void combineAvailable() {
+        List<Entitlement> entitlements;
+        while (!cancelled && (entitlements = results.poll()) != null) {
+            combine(entitlements);
+        }
+    }
+
+    private void combine(List<Entitlement> entitlements) {
+        combined++;
+        if (entitlements != NO_ENTITLEMENTS) {
+            combiner.add(entitlements);
+            if (combiner.isDone()) {
+                decided = true;
+                cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Takes privileges from the queue of the request until it is empty.
+     */
+    private final class Worker implements Runnable {
+        @Override
+        public void run() {
+            try {
+                IPrivilege privilege;
+                while (!cancelled && (privilege = privileges.poll()) != null) {
+                    waiting.decrementAndGet();
+                    evaluate(privilege);
+                }
+            } finally {
+                runningWorkers.decrementAndGet();
+            }
+        }
+    }
+}
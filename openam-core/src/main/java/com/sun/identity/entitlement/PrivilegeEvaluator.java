@@ -25,6 +25,7 @@
  * $Id: PrivilegeEvaluator.java,v 1.2 2009/10/07 06:36:40 veiming Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.entitlement;
 
@@ -35,13 +36,9 @@ import static org.forgerock.openam.entitlement.utils.EntitlementUtils.getEntitle
 import java.security.Principal;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.security.auth.Subject;
 
@@ -66,23 +63,18 @@ class PrivilegeEvaluator {
     private String requestedResourceName;
     private Map<String, Set<String>> envParameters;
     private ResourceSearchIndexes indexes;
-    private List<List<Entitlement>> resultQ = new
-        LinkedList<List<Entitlement>>();
     private Application application;
     private Set<String> actionNames;
     private EntitlementCombiner entitlementCombiner;
     private boolean recursive;
-    private EntitlementException eException;
-    private final Lock lock = new ReentrantLock();
-    private final Condition hasResults = lock.newCondition();
+    private ParallelPrivilegeEvaluation evaluation;
 
     // Static variables
-    // TODO determine number of tasks per thread
     private static int evalThreadSize = Evaluator.DEFAULT_POLICY_EVAL_THREAD;
+    // Privileges left waiting for evaluation before another thread is asked to help
     private static final int TASKS_PER_THREAD = 5;
 
     private static final IThreadPool threadPool;
-    private static final boolean isMultiThreaded;
 
     static {
         EntitlementConfiguration ec = getEntitlementConfiguration(SUPER_ADMIN_SUBJECT, "/");
@@ -99,8 +91,7 @@ class PrivilegeEvaluator {
                     e);
             }
         }
-        isMultiThreaded = evalThreadSize > 1;
-        threadPool = isMultiThreaded ? new EntitlementThreadPool(evalThreadSize) : new SequentialThreadPool();
+        threadPool = evalThreadSize > 1 ? new WorkStealingThreadPool(evalThreadSize) : new SequentialThreadPool();
     }
 
     /**
@@ -272,40 +263,25 @@ class PrivilegeEvaluator {
         final PrivilegeIndexStore indexStore = PrivilegeIndexStore.getInstance(adminSubject, realm);
         final Iterator<IPrivilege> policyIterator = indexStore.search(realm, indexes, subjectIndexes, recursive);
 
-        int totalCount = 0;
-        IPrivilege policy;
-
-        // First collect policies to be evaluated locally.
-        final Set<IPrivilege> localBatch = new HashSet<IPrivilege>(2 * TASKS_PER_THREAD);
-        while (totalCount < TASKS_PER_THREAD && policyIterator.hasNext()) {
-            policy = policyIterator.next();
-
-            if (policy instanceof ReferralPrivilege) {
-                // We want to ignore referrals - deprecated.
-                continue;
-            }
-
-            if (debug.messageEnabled()) {
-                debug.message("[PolicyEval] PolicyEvaluator.evaluate");
-                debug.message("[PolicyEval] search result: privilege=" + policy.getName());
-            }
-
-            localBatch.add(policy);
-            totalCount++;
-        }
-
         // Define an evaluation context.
         final PrivilegeEvaluatorContext context =
                 new PrivilegeEvaluatorContext(realm, normalisedResourceName, applicationName);
         final Object appToken = AppTokenHandler.getAndClear();
 
-        // Submit additional policies to be executed by worker threads.
-        final Set<IPrivilege> threadBatch = new HashSet<IPrivilege>(2 * TASKS_PER_THREAD);
-        boolean tasksSubmitted = false;
+        evaluation = new ParallelPrivilegeEvaluation(threadPool, TASKS_PER_THREAD,
+                new ParallelPrivilegeEvaluation.Evaluation() {
+                    @Override
+                    public List<Entitlement> evaluate(IPrivilege policy) throws EntitlementException {
+                        PrivilegeEvaluatorContext.setCurrent(context);
+                        return policy.evaluate(adminSubject, realm, subject, applicationName,
+                                normalisedResourceName, requestedResourceName, actionNames, envParameters,
+                                recursive, appToken);
+                    }
+                }, entitlementCombiner);
 
+        // Queue the policies as they are found, until the decision is known.
         while (policyIterator.hasNext()) {
-            tasksSubmitted = true;
-            policy = policyIterator.next();
+            IPrivilege policy = policyIterator.next();
 
             if (policy instanceof ReferralPrivilege) {
                 // We want to ignore referrals - deprecated.
@@ -317,75 +293,26 @@ class PrivilegeEvaluator {
                 debug.message("[PolicyEval] search result: privilege=" + policy.getName());
             }
 
-            threadBatch.add(policy);
-            totalCount++;
-
-            if (threadBatch.size() == TASKS_PER_THREAD) {
-                final Set<IPrivilege> copiedBatch = new HashSet<IPrivilege>(threadBatch);
-                threadPool.submit(new PrivilegeTask(this, copiedBatch, isMultiThreaded, appToken, context));
-                threadBatch.clear();
-            }
-        }
-
-        if (!threadBatch.isEmpty()) {
-            // Submit any remaining policies.
-            threadPool.submit(new PrivilegeTask(this, threadBatch, isMultiThreaded, appToken, context));
-        }
-
-        // Submit the local policies.
-        final Runnable localTask = new PrivilegeTask(this, localBatch, tasksSubmitted, appToken, context);
-        localTask.run();
-
-        // Wait for submitted threads to complete evaluation.
-        if (tasksSubmitted) {
-            if (isMultiThreaded) {
-                receiveEvalResults(totalCount);
-            } else {
-                boolean isDone = false;
-                while (!resultQ.isEmpty() && !isDone) {
-                    entitlementCombiner.add(resultQ.remove(0));
-                    isDone = entitlementCombiner.isDone();
-                }
-            }
-        } else if (eException == null) {
-            boolean isDone = false;
-            while (!resultQ.isEmpty() && !isDone) {
-                entitlementCombiner.add(resultQ.remove(0));
-                isDone = entitlementCombiner.isDone();
+            if (!evaluation.add(policy)) {
+                break;
             }
         }
 
-        if (eException != null) {
-            // Throw caught exception.
-            throw eException;
-        }
+        // Evaluate the policies no other thread has taken, and wait for the rest.
+        evaluation.complete();
 
         return entitlementCombiner.getResults();
     }
 
-    private void receiveEvalResults(int totalCount) {
-        int counter = 0;
-        lock.lock();
-        boolean isDone = (eException != null);
-
-        try {
-            while (!isDone && (counter < totalCount)) {
-                if (resultQ.isEmpty()) {
-                    hasResults.await();
-                }
-                while (!resultQ.isEmpty() && !isDone) {
-                    entitlementCombiner.add(resultQ.remove(0));
-                    isDone = entitlementCombiner.isDone();
-                    counter++;
-                }
-            }
-        } catch (InterruptedException ex) {
-            PolicyConstants.DEBUG.error("PrivilegeEvaluator.evaluate", ex);
-        } finally {
-            lock.unlock();
-        }
+    /**
+     * Returns the evaluation of the policies found for the last request, for monitoring.
+     *
+     * @return the evaluation, or <code>null</code> if none has been made.
+     */
+    ParallelPrivilegeEvaluation getEvaluation() {
+        return evaluation;
     }
-    
+
     private Application getApplication()
         throws EntitlementException {
         if (application == null) {
@@ -398,63 +325,4 @@ class PrivilegeEvaluator {
         }
         return application;
     }
-
-    class PrivilegeTask implements Runnable {
-        final PrivilegeEvaluator parent;
-        private final Set<IPrivilege> privileges;
-        private final boolean isThreaded;
-        private final Object context;
-        private final PrivilegeEvaluatorContext ctx;
-
-        PrivilegeTask(PrivilegeEvaluator parent, Set<IPrivilege> privileges,
-            boolean isThreaded, Object context, PrivilegeEvaluatorContext ctx) {
-            this.parent = parent;
-            this.privileges = privileges;
-            this.isThreaded = isThreaded;
-            this.context = context;
-            this.ctx = ctx;
-        }
-
-        public void run() {
-            PrivilegeEvaluatorContext.setCurrent(ctx);
-            
-            try {
-                for (final IPrivilege eval : privileges) {
-                    List<Entitlement> entitlements = eval.evaluate(
-                                            parent.adminSubject,
-                                            parent.realm, parent.subject,
-                                            parent.applicationName, parent.normalisedResourceName,
-                                            parent.requestedResourceName,
-                                            parent.actionNames, parent.envParameters,
-                                            parent.recursive, context);
-
-                    if (entitlements != null) {
-                        if (isThreaded) {
-                            try {
-                                parent.lock.lock();
-                                parent.resultQ.add(entitlements);
-                                parent.hasResults.signal();
-                            } finally {
-                                parent.lock.unlock();
-                            }
-                        } else {
-                            parent.resultQ.add(entitlements);
-                        }
-                    }
-                }
-            } catch (EntitlementException ex) {
-                if (isThreaded) {
-                    try {
-                        parent.lock.lock();
-                        parent.eException = ex;
-                        parent.hasResults.signal();
-                    } finally {
-                        parent.lock.unlock();
-                    }
-                } else {
-                    parent.eException = ex;
-                }
-            }
-        }
-    }
 }
@@ -24,6 +24,7 @@
  *
  * $Id: SequentialThreadPool.java,v 1.1 2009/08/19 05:40:33 veiming Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.entitlement;
@@ -37,4 +38,10 @@ public class SequentialThreadPool implements IThreadPool {
     public void submit(Runnable r) {
         r.run();
     }
+
+    @Override
+    public int getParallelism() {
+        // Tasks are run by the submitting thread
+        return 0;
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.entitlement;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.forgerock.openam.entitlement.PolicyConstants;
+import org.forgerock.util.thread.listener.ShutdownListener;
+
+import com.sun.identity.entitlement.interfaces.IThreadPool;
+
+/**
+ * Thread pool for privilege evaluation backed by a work stealing {@link ForkJoinPool}.
+ * <p>
+ * Each worker thread has its own queue of tasks and takes tasks from the queues of the other threads once its own
+ * is empty, so that the tasks of a request which has many privileges to evaluate are spread over the idle threads
+ * rather than waiting behind one another in a single shared queue. Tasks are run in the order they were submitted.
+ *
+ * @since 15.0.0
+ */
+public class WorkStealingThreadPool implements IThreadPool {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a thread pool which is shut down with the server.
+     *
+     * @param size The number of threads.
+     */
+    public WorkStealingThreadPool(int size) {
+        pool = new ForkJoinPool(Math.max(1, size), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("entitlementThreadPool-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, null, true);
+        com.sun.identity.common.ShutdownManager.getInstance().addShutdownListener(new ShutdownListener() {
+            @Override
+            public void shutdown() {
+                pool.shutdownNow();
+            }
+        });
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            PolicyConstants.DEBUG.error("WorkStealingThreadPool.submit", e);
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+}
@@ -23,6 +23,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  *
  * $Id: IThreadPool.java,v 1.1 2009/08/19 05:40:34 veiming Exp $
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.entitlement.interfaces;
@@ -38,4 +39,14 @@ public interface IThreadPool {
      * @param r Runnable task.
      */
     void submit(Runnable r);
+
+    /**
+     * Returns the number of tasks the pool runs at once, beside the thread
+     * submitting them.
+     *
+     * @return the number of tasks the pool runs at once.
+     */
+    default int getParallelism() {
+        return 1;
+    }
 }
@@ -25,6 +25,7 @@
  * $Id: OpenSSOIndexStore.java,v 1.13 2010/01/25 23:48:15 veiming Exp $
  *
  * Portions copyright 2011-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package com.sun.identity.entitlement.opensso;
@@ -46,7 +47,6 @@ import com.sun.identity.entitlement.IPrivilege;
 import com.sun.identity.entitlement.Privilege;
 import com.sun.identity.entitlement.PrivilegeIndexStore;
 import com.sun.identity.entitlement.ReferralPrivilege;
-import com.sun.identity.entitlement.ResourceSaveIndexes;
 import com.sun.identity.entitlement.ResourceSearchIndexes;
 import com.sun.identity.entitlement.SequentialThreadPool;
 import com.sun.identity.entitlement.SubjectAttributesCollector;
@@ -87,8 +87,8 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
     private static final PolicyCache policyCache;
     private static final PolicyCache referralCache;
     private static final int policyCacheSize;
-    private static final Map indexCaches;
-    private static final Map referralIndexCaches;
+    private static final Map<String, PrivilegeIndex> indexCaches;
+    private static final Map<String, PrivilegeIndex> referralIndexCaches;
     private static final int indexCacheSize;
     private static final DataStore dataStore = DataStore.getInstance();
     private static IThreadPool threadPool;
@@ -114,8 +114,8 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         indexCacheSize = getInteger(ec,
             EntitlementConfiguration.INDEX_CACHE_SIZE, DEFAULT_IDX_CACHE_SIZE);
         if (indexCacheSize > 0) {
-            indexCaches = new CaseInsensitiveHashMap();
-            referralIndexCaches = new CaseInsensitiveHashMap();
+            indexCaches = new CaseInsensitiveHashMap<>();
+            referralIndexCaches = new CaseInsensitiveHashMap<>();
         } else {
             indexCaches = null;
             referralIndexCaches = null;
@@ -153,8 +153,8 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
 
     // Instance variables
     private String realmDN;
-    private IndexCache indexCache;
-    private IndexCache referralIndexCache;
+    private PrivilegeIndex indexCache;
+    private PrivilegeIndex referralIndexCache;
     private EntitlementConfiguration entitlementConfig;
 
     /**
@@ -172,17 +172,16 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         if (indexCacheSize > 0) {
 
             synchronized (indexCaches) {
-                indexCache = (IndexCache)indexCaches.get(realmDN);
+                indexCache = indexCaches.get(realmDN);
                 if (indexCache == null) {
-                    indexCache = new IndexCache(indexCacheSize);
+                    indexCache = new PrivilegeIndex(indexCacheSize);
                     indexCaches.put(realmDN, indexCache);
                 }
             }
             synchronized (referralIndexCaches) {
-                referralIndexCache = (IndexCache)referralIndexCaches.get(
-                    realmDN);
+                referralIndexCache = referralIndexCaches.get(realmDN);
                 if (referralIndexCache == null) {
-                    referralIndexCache = new IndexCache(indexCacheSize);
+                    referralIndexCache = new PrivilegeIndex(indexCacheSize);
                     referralIndexCaches.put(realmDN, referralIndexCache);
                 }
             }
@@ -273,26 +272,11 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
      */
     public void delete(Set<IPrivilege> privileges)
         throws EntitlementException {
-        Subject adminSubject = getAdminSubject();
-        String realm = getRealm();
-
         for (IPrivilege p : privileges) {
-            String dn = null;
             if (p instanceof Privilege) {
-                dn = delete(p.getName(), true);
+                delete(p.getName(), true);
             } else {
-                dn = deleteReferral(p.getName(), true);
-            }
-            if (indexCacheSize > 0) {
-                ResourceSaveIndexes sIndex = p.getResourceSaveIndexes(
-                    adminSubject, DNMapper.orgNameToRealmName(realm));
-                if (sIndex != null) {
-                    if (p instanceof Privilege) {
-                        indexCache.clear(sIndex, dn);
-                    } else {
-                        referralIndexCache.clear(sIndex, dn);
-                    }
-                }
+                deleteReferral(p.getName(), true);
             }
         }
     }
@@ -311,6 +295,9 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         if (policyCacheSize > 0) {
             policyCache.decache(dn, realmDN);
         }
+        if (indexCacheSize > 0) {
+            indexCache.remove(dn);
+        }
         return dn;
     }
 
@@ -327,6 +314,9 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         if (policyCacheSize > 0) {
             referralCache.decache(dn, realmDN);
         }
+        if (indexCacheSize > 0) {
+            referralIndexCache.remove(dn);
+        }
         return dn;
     }
 
@@ -348,7 +338,7 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         if (subjectSearchIndexes == null) {
             subjectSearchIndexes = SubjectAttributesManager.getSubjectSearchIndexes(p);
         }
-        indexCache.cache(p.getEntitlement().getResourceSaveIndexes(superAdminSubject, realmName),
+        indexCache.add(p.getEntitlement().getResourceSaveIndexes(superAdminSubject, realmName),
                 subjectSearchIndexes, dn);
         policyCache.cache(dn, p, realmDN);
     }
@@ -359,7 +349,7 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
     ) throws EntitlementException {
         String dn = DataStore.getPrivilegeDistinguishedName(
             p.getName(), realm, DataStore.REFERRAL_STORE);
-        referralIndexCache.cache(p.getResourceSaveIndexes(superAdminSubject,
+        referralIndexCache.add(p.getResourceSaveIndexes(superAdminSubject,
             DNMapper.orgNameToRealmName(realm)), null, dn);
         referralCache.cache(dn, p, realmDN);
     }
@@ -558,7 +548,7 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
     }
 
     private boolean isPolicyCacheBehind(String realm) {
-        if (!CacheTaboo.isEmpty()) {
+        if (indexCache != null && !indexCache.isComplete()) {
             return true;
         }
 
@@ -572,7 +562,7 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
     }
 
     private boolean isReferralCacheBehind(String realm) {
-        if (!CacheTaboo.isEmpty()) {
+        if (referralIndexCache != null && !referralIndexCache.isComplete()) {
             return true;
         }
 
@@ -924,6 +914,61 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         return (realmDN);
     }
 
+    /**
+     * Forgets a privilege or referral privilege whose index entry has been added, modified or deleted in the
+     * directory, possibly by another server, so that it is read again with its current indexes when it is next
+     * evaluated.
+     *
+     * @param realm Realm name.
+     * @param dn Distinguished name of the index entry.
+     */
+    public static void indexEntryChanged(String realm, String dn) {
+        if (indexCacheSize <= 0) {
+            return;
+        }
+        String orgDN = DNMapper.orgNameToDN(realm);
+        PrivilegeIndex index;
+        PolicyCache cache;
+        if (dn.toLowerCase().contains(",ou=" + DataStore.REFERRAL_STORE + ",")) {
+            synchronized (referralIndexCaches) {
+                index = referralIndexCaches.get(orgDN);
+            }
+            cache = referralCache;
+        } else {
+            synchronized (indexCaches) {
+                index = indexCaches.get(orgDN);
+            }
+            cache = policyCache;
+        }
+        String indexedDN = (index == null) ? null : index.remove(dn);
+        if (cache != null) {
+            cache.decache(indexedDN == null ? dn : indexedDN, orgDN);
+        }
+    }
+
+    /**
+     * Forgets every indexed and cached privilege, as changes to them may have been missed.
+     */
+    public static void clearIndexCaches() {
+        if (indexCacheSize <= 0) {
+            return;
+        }
+        synchronized (indexCaches) {
+            for (PrivilegeIndex index : indexCaches.values()) {
+                index.clear();
+            }
+        }
+        synchronized (referralIndexCaches) {
+            for (PrivilegeIndex index : referralIndexCaches.values()) {
+                index.clear();
+            }
+        }
+        if (policyCacheSize > 0) {
+            policyCache.clear();
+            referralCache.clear();
+        }
+    }
+
     // Monitoring
     public static int getNumCachedPolicies(String realm) {
         return policyCache.getCount(realm);
@@ -1002,8 +1047,14 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
                 (serviceComponent.trim().length() == 0) ||
                 serviceComponent.equals("/"))) {
                 // Realm has been deleted, clear the indexCaches &
-                indexCaches.remove(orgName);
-                referralIndexCaches.remove(orgName);
+                if (indexCaches != null) {
+                    synchronized (indexCaches) {
+                        indexCaches.remove(orgName);
+                    }
+                    synchronized (referralIndexCaches) {
+                        referralIndexCaches.remove(orgName);
+                    }
+                }
                 getApplicationService(SUPER_ADMIN_SUBJECT, orgName).clearCache();
             }
         }
@@ -25,6 +25,7 @@
  * $Id: PolicyCache.java,v 1.3 2009/12/12 00:03:13 veiming Exp $
  *
  * Portions copyright 2013-2016 ForgeRock, Inc.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package com.sun.identity.entitlement.opensso;
@@ -120,6 +121,19 @@ class PolicyCache {
         }
     }
 
+    /**
+     * Removes every cached privilege.
+     */
+    public void clear() {
+        rwlock.writeLock().lock();
+        try {
+            cache.clear();
+            countByRealm.clear();
+        } finally {
+            rwlock.writeLock().unlock();
+        }
+    }
+
     public Privilege getPolicy(String dn) {
         rwlock.readLock().lock();
         try {
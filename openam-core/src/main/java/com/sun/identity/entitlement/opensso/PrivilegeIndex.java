@@ -0,0 +1,322 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.entitlement.opensso;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.identity.entitlement.ResourceSaveIndexes;
+import com.sun.identity.entitlement.ResourceSearchIndexes;
+
+/**
+ * Indexes the privileges of a realm by the host, path, parent path and subject indexes they were saved with, so
+ * that the privileges matching a resource can be found without searching the directory.
+ * <p>
+ * Each index is a trie over the '/' separated segments of the lower cased index values. Lookups do not lock and
+ * every privilege sharing a value is kept, however many there are. Changes are serialized, and each privilege
+ * remembers the values it was indexed under so that it can be removed, or re-indexed when it changes, by its DN
+ * alone.
+ *
+ * @since 15.0.0
+ */
+final class PrivilegeIndex {
+
+    private final int maxSize;
+    private final Trie subjectIndex = new Trie();
+    private final Trie hostIndex = new Trie();
+    private final Trie pathIndex = new Trie();
+    private final Trie parentPathIndex = new Trie();
+    // Keyed by lower cased DN, guarded by this
+    private final Map<String, Indexed> privileges = new HashMap<>();
+    private volatile boolean complete = true;
+
+    /**
+     * @param maxSize The maximum number of privileges indexed.
+     */
+    PrivilegeIndex(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Indexes a privilege, replacing the values it was previously indexed under.
+     *
+     * @param indexes Resource save indexes of the privilege.
+     * @param subjectIndexes Subject search indexes of the privilege, or <code>null</code> if it has none.
+     * @param dn Distinguished name of the privilege.
+     */
+    synchronized void add(ResourceSaveIndexes indexes, Set<String> subjectIndexes, String dn) {
+        String key = dn.toLowerCase(Locale.ENGLISH);
+        Indexed previous = privileges.remove(key);
+        if (previous != null) {
+            unindex(previous);
+        } else if (privileges.size() >= maxSize) {
+            complete = false;
+            return;
+        }
+        Indexed indexed = new Indexed(dn, normalize(subjectIndexes), normalize(indexes.getHostIndexes()),
+                normalize(indexes.getPathIndexes()), normalize(indexes.getParentPathIndexes()));
+        subjectIndex.addAll(indexed.subjects, dn);
+        hostIndex.addAll(indexed.hosts, dn);
+        pathIndex.addAll(indexed.paths, dn);
+        parentPathIndex.addAll(indexed.parentPaths, dn);
+        privileges.put(key, indexed);
+    }
+
+    /**
+     * Removes a privilege.
+     *
+     * @param dn Distinguished name of the privilege, in any case.
+     * @return The distinguished name the privilege was indexed with, or <code>null</code> if it was not indexed.
+     */
+    synchronized String remove(String dn) {
+        Indexed indexed = privileges.remove(dn.toLowerCase(Locale.ENGLISH));
+        if (indexed == null) {
+            return null;
+        }
+        unindex(indexed);
+        return indexed.dn;
+    }
+
+    /**
+     * Removes every privilege.
+     */
+    synchronized void clear() {
+        for (Indexed indexed : privileges.values()) {
+            unindex(indexed);
+        }
+        privileges.clear();
+        complete = true;
+    }
+
+    /**
+     * @return <code>false</code> if privileges have been left out because the index was full, in which case the
+     * directory has to be searched for the privileges missing from it.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return The number of privileges indexed.
+     */
+    synchronized int size() {
+        return privileges.size();
+    }
+
+    /**
+     * Returns the DNs of the privileges that match the resource and subject indexes: those that match one of the
+     * subject indexes when there are any, one of the host indexes, and one of the path indexes, or one of the
+     * parent path indexes in sub tree mode.
+     *
+     * @param indexes Resource search indexes.
+     * @param subjectIndexes Subject search indexes.
+     * @param bSubTree <code>true</code> for sub tree search mode.
+     * @return The DNs of the matching privileges.
+     */
+    Set<String> getMatchingEntries(ResourceSearchIndexes indexes, Set<String> subjectIndexes, boolean bSubTree) {
+        List<List<Set<String>>> criteria = new ArrayList<>(3);
+        if (subjectIndexes != null && !subjectIndexes.isEmpty()) {
+            criteria.add(subjectIndex.getAll(subjectIndexes));
+        }
+        criteria.add(hostIndex.getAll(indexes.getHostIndexes()));
+        if (bSubTree) {
+            criteria.add(parentPathIndex.getAll(indexes.getParentPathIndexes()));
+        } else {
+            criteria.add(pathIndex.getAll(indexes.getPathIndexes()));
+        }
+
+        // Walk the fewest candidates and check each against the other criteria, rather than building the union of
+        // every criterion, as the values shared by many privileges such as the root path can match them all
+        List<Set<String>> smallest = null;
+        int smallestSize = Integer.MAX_VALUE;
+        for (List<Set<String>> criterion : criteria) {
+            int size = 0;
+            for (Set<String> dns : criterion) {
+                size += dns.size();
+            }
+            if (size < smallestSize) {
+                smallest = criterion;
+                smallestSize = size;
+            }
+        }
+        Set<String> results = new HashSet<>();
+        if (smallestSize == 0) {
+            return results;
+        }
+        for (Set<String> dns : smallest) {
+            for (String dn : dns) {
+                if (matchesAll(criteria, smallest, dn)) {
+                    results.add(dn);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static boolean matchesAll(List<List<Set<String>>> criteria, List<Set<String>> skip, String dn) {
+        for (List<Set<String>> criterion : criteria) {
+            if (criterion != skip && !matches(criterion, dn)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(List<Set<String>> criterion, String dn) {
+        for (Set<String> dns : criterion) {
+            if (dns.contains(dn)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unindex(Indexed indexed) {
+        subjectIndex.removeAll(indexed.subjects, indexed.dn);
+        hostIndex.removeAll(indexed.hosts, indexed.dn);
+        pathIndex.removeAll(indexed.paths, indexed.dn);
+        parentPathIndex.removeAll(indexed.parentPaths, indexed.dn);
+    }
+
+    private static Set<String> normalize(Set<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> normalized = new HashSet<>(values.size());
+        for (String value : values) {
+            normalized.add(value.toLowerCase(Locale.ENGLISH));
+        }
+        return normalized;
+    }
+
+    /**
+     * The values a privilege was indexed under.
+     */
+    private static final class Indexed {
+        private final String dn;
+        private final Set<String> subjects;
+        private final Set<String> hosts;
+        private final Set<String> paths;
+        private final Set<String> parentPaths;
+
+        private Indexed(String dn, Set<String> subjects, Set<String> hosts, Set<String> paths,
+                Set<String> parentPaths) {
+            this.dn = dn;
+            this.subjects = subjects;
+            this.hosts = hosts;
+            this.paths = paths;
+            this.parentPaths = parentPaths;
+        }
+    }
+
+    /**
+     * A trie over the '/' separated segments of index values, holding the DNs of the privileges indexed under each
+     * value at its node. Readers walk the concurrent maps of the nodes without locking, and the caller serializes
+     * changes. Nodes left without DNs or children are pruned, so removed values do not accumulate.
+     */
+    private static final class Trie {
+        private final Node root = new Node();
+
+        /**
+         * @param value A lower cased index value.
+         * @return The DNs indexed under the value, which may change while they are read.
+         */
+        Set<String> get(String value) {
+            Node node = root;
+            int start = 0;
+            while (node != null && start <= value.length()) {
+                int end = value.indexOf('/', start);
+                if (end < 0) {
+                    end = value.length();
+                }
+                node = node.children.get(value.substring(start, end));
+                start = end + 1;
+            }
+            return node == null ? Collections.<String>emptySet() : node.dns;
+        }
+
+        private List<Set<String>> getAll(Set<String> values) {
+            List<Set<String>> results = new ArrayList<>(values.size());
+            for (String value : values) {
+                Set<String> dns = get(value.toLowerCase(Locale.ENGLISH));
+                if (!dns.isEmpty()) {
+                    results.add(dns);
+                }
+            }
+            return results;
+        }
+
+        private void addAll(Set<String> values, String dn) {
+            for (String value : values) {
+                Node node = root;
+                int start = 0;
+                while (start <= value.length()) {
+                    int end = value.indexOf('/', start);
+                    if (end < 0) {
+                        end = value.length();
+                    }
+                    String segment = value.substring(start, end);
+                    Node child = node.children.get(segment);
+                    if (child == null) {
+                        child = new Node();
+                        node.children.put(segment, child);
+                    }
+                    node = child;
+                    start = end + 1;
+                }
+                node.dns.add(dn);
+            }
+        }
+
+        private void removeAll(Set<String> values, String dn) {
+            for (String value : values) {
+                remove(root, value, 0, dn);
+            }
+        }
+
+        /**
+         * @return Whether the node is now empty and can be pruned from its parent.
+         */
+        private boolean remove(Node node, String value, int start, String dn) {
+            if (start > value.length()) {
+                node.dns.remove(dn);
+            } else {
+                int end = value.indexOf('/', start);
+                if (end < 0) {
+                    end = value.length();
+                }
+                String segment = value.substring(start, end);
+                Node child = node.children.get(segment);
+                if (child != null && remove(child, value, end + 1, dn)) {
+                    node.children.remove(segment);
+                }
+            }
+            return node != root && node.dns.isEmpty() && node.children.isEmpty();
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>(4);
+        private final Set<String> dns = ConcurrentHashMap.newKeySet(2);
+    }
+}
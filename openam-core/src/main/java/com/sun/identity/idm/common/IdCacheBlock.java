@@ -25,12 +25,18 @@
  * $Id: IdCacheBlock.java,v 1.5 2008/06/25 05:43:30 qcheng Exp $
  *
  * Portions Copyrighted 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.idm.common;
 
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.iplanet.am.sdk.AMObject;
 import com.iplanet.am.sdk.common.CacheBlockBase;
 import com.sun.identity.shared.debug.Debug;
 import com.iplanet.am.util.SystemProperties;
@@ -84,6 +90,13 @@ public class IdCacheBlock extends CacheBlockBase {
     // Variable to store the fully qualified names for identities
     private Set fullyQualifiedNames;
 
+    // Refresh ahead state: when the complete attribute set was last loaded, the hits since then, whether a
+    // refresh is in progress and how many times the block has been cleared
+    private volatile long loadTime = currentTimeMillis();
+    private final AtomicInteger hitsSinceLoad = new AtomicInteger();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicInteger generation = new AtomicInteger();
+
     static {
         ENTRY_EXPIRATION_ENABLED_FLAG = SystemProperties.getAsBoolean(ENTRY_EXPIRATION_ENABLED_KEY, false);
         if (ENTRY_EXPIRATION_ENABLED_FLAG) {
@@ -124,4 +137,53 @@ public class IdCacheBlock extends CacheBlockBase {
     public IdCacheBlock(String entryDN, String orgDN, boolean validEntry) {
         super(entryDN, orgDN, validEntry);
     }
+
+    /**
+     * Records that the complete attribute set of the entry has just been loaded.
+     */
+    public void markLoaded() {
+        loadTime = currentTimeMillis();
+        hitsSinceLoad.set(0);
+    }
+
+    /**
+     * Counts a hit on the complete attribute set and decides whether the entry should be reloaded before it
+     * expires. An entry qualifies once it has been hit at least {@code minHits} times and has lived for at least
+     * {@code percent} percent of its expiry time. Only the first caller to see an entry qualify is told to
+     * refresh it.
+     *
+     * @param percent The percentage of the expiry time after which an entry may be refreshed.
+     * @param minHits The number of hits after which an entry may be refreshed.
+     * @return True if the caller should refresh the entry.
+     */
+    public boolean shouldRefreshAhead(int percent, int minHits) {
+        if (!ENTRY_EXPIRATION_ENABLED_FLAG || percent <= 0) {
+            return false;
+        }
+        int hits = hitsSinceLoad.incrementAndGet();
+        long expireTime = getObjectType() == AMObject.USER ? ENTRY_USER_EXPIRE_TIME : ENTRY_DEFAULT_EXPIRE_TIME;
+        return hits >= minHits && currentTimeMillis() - loadTime >= expireTime * percent / 100
+                && refreshing.compareAndSet(false, true);
+    }
+
+    /**
+     * Allows the entry to be refreshed again after a refresh which did not replace it.
+     */
+    public void cancelRefresh() {
+        refreshing.set(false);
+    }
+
+    /**
+     * @return A count which changes each time the block is cleared, so that a refresh can tell whether the entry
+     * was invalidated while it was being reloaded.
+     */
+    public int getGeneration() {
+        return generation.get();
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        super.clear();
+    }
 }
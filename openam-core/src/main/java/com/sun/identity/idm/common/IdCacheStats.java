@@ -24,10 +24,13 @@
  *
  * $Id: IdCacheStats.java,v 1.2 2008/08/07 17:22:06 arviranga Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.idm.common;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import com.sun.identity.shared.stats.Stats;
 import com.sun.identity.shared.stats.StatsListener;
 
@@ -56,6 +59,17 @@ public class IdCacheStats implements StatsListener {
 
     private Stats stats = null;
 
+    // Always counted, as they are cheap to update and explain the behaviour of the cache
+    private final LongAdder getRequests = new LongAdder(); // Get requests since server start
+
+    private final LongAdder getHits = new LongAdder(); // Get cache hits since server start
+
+    private final LongAdder invalidations = new LongAdder(); // Entries invalidated by notifications
+
+    private final LongAdder evictions = new LongAdder(); // Entries evicted by the per realm limit
+
+    private final LongAdder refreshes = new LongAdder(); // Entries refreshed ahead of expiry
+
 
     /**
      * Creates a new IdRepo Stats
@@ -68,6 +82,7 @@ public class IdCacheStats implements StatsListener {
     }
 
     public void updateGetHitCount(int sizeOfCache) {
+        getHits.increment();
         if (stats.isEnabled()) {
             totalGetCacheHits++;
             totalIntervalHits++;
@@ -76,6 +91,7 @@ public class IdCacheStats implements StatsListener {
     }
 
     public void incrementGetRequestCount(int sizeOfCache) {
+        getRequests.increment();
         if (stats.isEnabled()) {
             totalGetRequests++;
             intervalCount++;
@@ -99,6 +115,63 @@ public class IdCacheStats implements StatsListener {
         }
     }
 
+    /**
+     * Records entries invalidated in response to a change notification.
+     *
+     * @param count The number of entries invalidated.
+     */
+    public void addInvalidations(int count) {
+        invalidations.add(count);
+    }
+
+    /**
+     * Records an entry evicted to keep its realm within its limit.
+     */
+    public void incrementEvictionCount() {
+        evictions.increment();
+    }
+
+    /**
+     * Records an entry reloaded before it expired.
+     */
+    public void incrementRefreshCount() {
+        refreshes.increment();
+    }
+
+    /**
+     * @return The number of get requests answered from the cache since server start.
+     */
+    public long getHitCount() {
+        return getHits.sum();
+    }
+
+    /**
+     * @return The number of get requests which had to read from the data stores since server start.
+     */
+    public long getMissCount() {
+        return Math.max(0, getRequests.sum() - getHits.sum());
+    }
+
+    /**
+     * @return The number of entries invalidated in response to change notifications since server start.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return The number of entries evicted to keep their realm within its limit since server start.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of entries reloaded before they expired since server start.
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
 
     /**
      * Prints the session statistics for the given session table.
@@ -122,6 +195,14 @@ public class IdCacheStats implements StatsListener {
                 + "\nTotal number of FQDN Search hits since server start: "
                 + totalSearchHits + "\nOverall Hit ratio: "
                 + (double) totalSearchHits / (double) totalSearchRequests
+                + "\nTotal number of Get misses since server start: "
+                + getMissCount()
+                + "\nTotal number of entries invalidated since server start: "
+                + getInvalidationCount()
+                + "\nTotal number of entries evicted by realm limit since server start: "
+                + getEvictionCount()
+                + "\nTotal number of entries refreshed ahead of expiry since server start: "
+                + getRefreshCount()
                 + "\nTotal Cache Size: " + cacheSize + "\n");
 
         // Reset interval hits to 0
@@ -0,0 +1,311 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.idm.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Secondary indexes over the keys of the IdRepo cache, which are lower case universal identifiers such as
+ * {@code id=demo,ou=user,o=realm,ou=services,dc=example,dc=com}.
+ *
+ * The DN index records each key under its parent DN and links every parent DN to its own parent, so the keys
+ * at or below a DN are found by walking that part of the tree rather than scanning every key in the cache. The
+ * attribute index records which keys have cached which attributes, so that a change to some attributes only
+ * touches the entries that cached them. Entries holding a complete attribute set are indexed under every
+ * attribute.
+ *
+ * The index also counts the keys cached for each realm, where the realm is the DN two levels above the
+ * identity, and keeps them in the order they were added so that the oldest can be evicted once a realm holds
+ * more than its limit.
+ *
+ * The indexes may hold keys which are no longer cached, which only costs a redundant invalidation. They must
+ * never miss a cached key, so callers add keys after caching them and, after removing a key, add it again if
+ * it is still cached.
+ */
+final class IdCacheIndex {
+
+    private static final String ALL_ATTRIBUTES = "*";
+    private static final String AMSDK_DN = ",amsdkdn=";
+
+    private final ConcurrentMap<String, Container> containers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> attributes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Realm> realms = new ConcurrentHashMap<>();
+    private final int maxSizePerRealm;
+
+    /**
+     * @param maxSizePerRealm The maximum number of keys cached for each realm, or zero or less for no limit.
+     */
+    IdCacheIndex(int maxSizePerRealm) {
+        this.maxSizePerRealm = maxSizePerRealm;
+    }
+
+    /**
+     * Indexes a cached key by DN and realm.
+     *
+     * @param key The cache key.
+     */
+    void add(String key) {
+        String parent = parentOf(key);
+        if (parent == null) {
+            return;
+        }
+        if (container(parent).keys.add(key)) {
+            Realm realm = realm(key);
+            realm.count.incrementAndGet();
+            if (maxSizePerRealm > 0) {
+                realm.order.offer(key);
+                realm.queued.incrementAndGet();
+            }
+        }
+        for (String child = parent, ancestor = parentOf(parent); ancestor != null;
+                child = ancestor, ancestor = parentOf(ancestor)) {
+            if (!container(ancestor).children.add(child)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Records that the key has cached the given attributes.
+     *
+     * @param key The cache key.
+     * @param attrNames The attribute names, or null if the key has cached every attribute.
+     */
+    void addAttributes(String key, Set<String> attrNames) {
+        if (attrNames == null) {
+            attributeKeys(ALL_ATTRIBUTES).add(key);
+            return;
+        }
+        for (String attrName : attrNames) {
+            attributeKeys(attrName.toLowerCase()).add(key);
+        }
+    }
+
+    /**
+     * Removes a key from every index.
+     *
+     * @param key The cache key.
+     */
+    void remove(String key) {
+        String parent = parentOf(key);
+        Container container = parent == null ? null : containers.get(parent);
+        if (container != null && container.keys.remove(key)) {
+            Realm realm = realms.get(realmOf(key));
+            if (realm != null) {
+                realm.count.decrementAndGet();
+            }
+        }
+        for (Set<String> keys : attributes.values()) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * Finds the keys at or below a DN, as the suffix match over every cache key used to.
+     *
+     * @param dn The lower case DN.
+     * @return The keys, which the caller may modify.
+     */
+    Set<String> keysInSubtree(String dn) {
+        Set<String> result = new HashSet<>();
+        String parent = parentOf(dn);
+        if (parent != null) {
+            Container container = containers.get(parent);
+            if (container != null && container.keys.contains(dn)) {
+                result.add(dn);
+            }
+        }
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(dn);
+        while (!pending.isEmpty()) {
+            Container container = containers.get(pending.pop());
+            if (container != null) {
+                result.addAll(container.keys);
+                for (String child : container.children) {
+                    pending.push(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the keys at or below a DN which have cached any of the given attributes.
+     *
+     * @param dn The lower case DN.
+     * @param attrNames The attribute names.
+     * @return The keys, which the caller may modify.
+     */
+    Set<String> keysInSubtree(String dn, Set<String> attrNames) {
+        Set<String> withAttributes = new HashSet<>(attributeKeysOrEmpty(ALL_ATTRIBUTES));
+        for (String attrName : attrNames) {
+            withAttributes.addAll(attributeKeysOrEmpty(attrName.toLowerCase()));
+        }
+        Set<String> inSubtree = keysInSubtree(dn);
+        if (withAttributes.size() < inSubtree.size()) {
+            withAttributes.retainAll(inSubtree);
+            return withAttributes;
+        }
+        inSubtree.retainAll(withAttributes);
+        return inSubtree;
+    }
+
+    /**
+     * Finds the oldest keys of the realm of the given key which must be evicted to bring it within its limit.
+     *
+     * @param key A key which has just been cached.
+     * @return The keys to evict, possibly empty.
+     */
+    List<String> keysOverRealmLimit(String key) {
+        if (maxSizePerRealm <= 0) {
+            return Collections.emptyList();
+        }
+        Realm realm = realms.get(realmOf(key));
+        if (realm == null) {
+            return Collections.emptyList();
+        }
+        compact(realm);
+        List<String> evict = new ArrayList<>();
+        int excess = realm.count.get() - maxSizePerRealm;
+        for (int polled = realm.queued.get(); evict.size() < excess && polled > 0; polled--) {
+            String oldest = realm.order.poll();
+            if (oldest == null) {
+                break;
+            }
+            if (oldest.equals(key)) {
+                // Never evict the key just cached, keep it queued
+                realm.order.offer(oldest);
+                continue;
+            }
+            realm.queued.decrementAndGet();
+            if (isIndexed(oldest)) {
+                evict.add(oldest);
+            }
+        }
+        return evict;
+    }
+
+    /**
+     * @param key The cache key.
+     * @return The number of keys cached for the realm of the key.
+     */
+    int getRealmSize(String key) {
+        Realm realm = realms.get(realmOf(key));
+        return realm == null ? 0 : realm.count.get();
+    }
+
+    /**
+     * Returns the parent of a DN, treating an escaped comma as part of a value.
+     *
+     * @param dn The DN.
+     * @return The parent DN, or null if the DN has a single RDN.
+     */
+    static String parentOf(String dn) {
+        for (int i = 0; i < dn.length(); i++) {
+            char c = dn.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == ',') {
+                return dn.substring(i + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The realm of an identity is the DN above its {@code ou=<type>} container, ignoring any AM SDK DN.
+     */
+    static String realmOf(String key) {
+        int ind = key.indexOf(AMSDK_DN);
+        String dn = ind > -1 ? key.substring(0, ind) : key;
+        String type = parentOf(dn);
+        String realm = type == null ? null : parentOf(type);
+        return realm == null ? dn : realm;
+    }
+
+    private boolean isIndexed(String key) {
+        String parent = parentOf(key);
+        Container container = parent == null ? null : containers.get(parent);
+        return container != null && container.keys.contains(key);
+    }
+
+    /**
+     * Drops keys which are no longer cached from the eviction order of the realm once they outnumber the live
+     * keys, so that the order does not grow with churn.
+     */
+    private void compact(Realm realm) {
+        int queued = realm.queued.get();
+        if (queued <= 2 * realm.count.get() + 16) {
+            return;
+        }
+        for (int i = 0; i < queued; i++) {
+            String key = realm.order.poll();
+            if (key == null) {
+                break;
+            }
+            if (isIndexed(key)) {
+                realm.order.offer(key);
+            } else {
+                realm.queued.decrementAndGet();
+            }
+        }
+    }
+
+    private Container container(String dn) {
+        return containers.computeIfAbsent(dn, k -> new Container());
+    }
+
+    private Realm realm(String key) {
+        return realms.computeIfAbsent(realmOf(key), k -> new Realm());
+    }
+
+    private Set<String> attributeKeys(String attrName) {
+        return attributes.computeIfAbsent(attrName, k -> ConcurrentHashMap.<String>newKeySet());
+    }
+
+    private Set<String> attributeKeysOrEmpty(String attrName) {
+        Set<String> keys = attributes.get(attrName);
+        return keys == null ? Collections.<String>emptySet() : keys;
+    }
+
+    /**
+     * The keys directly below a DN, and the DNs directly below it which have keys somewhere beneath them.
+     */
+    private static final class Container {
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private final Set<String> children = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * The number of keys cached for a realm and the order in which they were added.
+     */
+    private static final class Realm {
+        private final AtomicInteger count = new AtomicInteger();
+        private final Queue<String> order = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+    }
+}
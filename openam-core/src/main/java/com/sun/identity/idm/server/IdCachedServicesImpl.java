@@ -26,6 +26,7 @@
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
  * Portions Copyrighted 2021 OSSTech Corporation
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.idm.server;
 
@@ -58,9 +59,16 @@ import java.util.Enumeration;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.forgerock.guava.common.cache.Cache;
 import org.forgerock.guava.common.cache.CacheBuilder;
+import org.forgerock.guava.common.cache.RemovalCause;
+import org.forgerock.guava.common.cache.RemovalNotification;
 import org.forgerock.openam.utils.CrestQuery;
 import org.forgerock.util.thread.listener.ShutdownListener;
 import org.forgerock.util.thread.listener.ShutdownManager;
@@ -76,12 +84,31 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
 
     static final int CACHE_MAX_SIZE_INT = 10000;
 
+    static final String CACHE_MAX_SIZE_PER_REALM_KEY = "com.iplanet.am.sdk.cache.maxSizePerRealm";
+
+    static final String REFRESH_AHEAD_PERCENT_KEY = "com.sun.identity.idm.cache.refreshAhead.percent";
+
+    static final String REFRESH_AHEAD_HITS_KEY = "com.sun.identity.idm.cache.refreshAhead.hits";
+
+    private static final int REFRESH_QUEUE_SIZE = 1000;
+
     private static int maxSize;
 
+    // Entries are refreshed ahead of expiry only when entry expiration is enabled
+    private static final int refreshAheadPercent = SystemProperties.getAsInt(REFRESH_AHEAD_PERCENT_KEY, 0);
+
+    private static final int refreshAheadHits = SystemProperties.getAsInt(REFRESH_AHEAD_HITS_KEY, 10);
+
     private static IdCachedServicesImpl instance;
 
     // Class Private
-    private Cache<String, IdCacheBlock> idRepoCache;
+    private volatile Cache<String, IdCacheBlock> idRepoCache;
+
+    // Finds the entries affected by a change without scanning the whole cache
+    private final IdCacheIndex index =
+            new IdCacheIndex(SystemProperties.getAsInt(CACHE_MAX_SIZE_PER_REALM_KEY, 0));
+
+    private final ExecutorService refreshExecutor;
 
     private IdCacheStats cacheStats;
 
@@ -110,6 +137,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
     private IdCachedServicesImpl() {
         super();
         initializeCache();
+        refreshExecutor = refreshAheadPercent > 0 ? createRefreshExecutor() : null;
         stats = Stats.getInstance(getClass().getName());
         cacheStats = new IdCacheStats(IdConstants.IDREPO_CACHESTAT);
         stats.addStatsListener(cacheStats);
@@ -119,12 +147,61 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
     }
 
     private void initializeCache() {
-        idRepoCache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        idRepoCache = CacheBuilder.newBuilder().maximumSize(maxSize)
+                .removalListener(this::onRemoval).build();
+    }
+
+    private static ExecutorService createRefreshExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(REFRESH_QUEUE_SIZE), runnable -> {
+                    Thread thread = new Thread(runnable, "IdRepoCacheRefresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     private void resetCache(int maxCacheSize) {
         setMaxSize(maxCacheSize);
-        clearCache();
+        // Swap in the new cache before emptying the old one, so that readers never see a cache being rebuilt
+        Cache<String, IdCacheBlock> oldCache = idRepoCache;
+        initializeCache();
+        oldCache.invalidateAll();
+    }
+
+    /**
+     * Keeps the index in step with entries evicted or invalidated. The key is indexed again if it has been
+     * cached again meanwhile, as the index must never miss a cached key.
+     */
+    private void onRemoval(RemovalNotification<String, IdCacheBlock> notification) {
+        if (notification.getCause() == RemovalCause.REPLACED) {
+            return;
+        }
+        String key = notification.getKey();
+        index.remove(key);
+        if (idRepoCache.asMap().containsKey(key)) {
+            index.add(key);
+            index.addAttributes(key, null);
+        }
+    }
+
+    /**
+     * Caches a new entry, then evicts the oldest entries of its realm if the realm is over its limit.
+     *
+     * The key is indexed before it is cached, so that an invalidation running meanwhile always finds it. It is
+     * indexed again once cached, in case the removal of an earlier entry for the same key unindexed it in between.
+     */
+    private void cacheEntry(String dn, IdCacheBlock cb, Set attrNames) {
+        index.add(dn);
+        index.addAttributes(dn, attrNames);
+        boolean added = idRepoCache.asMap().put(dn, cb) == null;
+        index.add(dn);
+        index.addAttributes(dn, attrNames);
+        if (added) {
+            for (String key : index.keysOverRealmLimit(dn)) {
+                idRepoCache.invalidate(key);
+                cacheStats.incrementEvictionCount();
+            }
+        }
     }
 
     /**
@@ -152,6 +229,9 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                            shutdownCalled = true;
                        }
                         instance.clearIdRepoPlugins();
+                        if (instance.refreshExecutor != null) {
+                            instance.refreshExecutor.shutdownNow();
+                        }
                     }
                 });
 
@@ -192,24 +272,23 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
     // Update/Dirty methods of this class.
     // *************************************************************************
     private void removeCachedAttributes(String affectDNs, Set attrNames) {
-        for (String key : idRepoCache.asMap().keySet()) {
-            key = DNUtils.normalizeDN(key);
-            int l1 = key.length();
-            int l2 = affectDNs.length();
-            if (key.regionMatches(true, (l1 - l2), affectDNs, 0, l2)) {
-                // key ends with 'affectDN' string
-                IdCacheBlock cb = idRepoCache.getIfPresent(key);
-                if (cb != null) {
-                    // key ends with 'affectDN' string
-                    if ((attrNames != null) &&
-                        !cb.hasExpiredAndUpdated() && cb.isExists()) {
-                        cb.removeAttributes(attrNames);
-                    } else {
-                        cb.clear();
-                    }
+        // Only the entries at or below 'affectDN' which have cached the attributes are affected
+        String base = affectDNs.toLowerCase();
+        Set<String> keys = attrNames == null ? index.keysInSubtree(base) : index.keysInSubtree(base, attrNames);
+        int count = 0;
+        for (String key : keys) {
+            IdCacheBlock cb = idRepoCache.getIfPresent(key);
+            if (cb != null) {
+                if ((attrNames != null) &&
+                    !cb.hasExpiredAndUpdated() && cb.isExists()) {
+                    cb.removeAttributes(attrNames);
+                } else {
+                    cb.clear();
                 }
+                count++;
             }
         }
+        cacheStats.addInvalidations(count);
     }
 
     private void clearCachedEntries(String affectDNs) {
@@ -221,9 +300,8 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
      * EventService notifies that all entries have been modified (or should be
      * marked dirty).
      */
-    public synchronized void clearCache() {
+    public void clearCache() {
         idRepoCache.invalidateAll();
-        initializeCache();
     }
 
     /**
@@ -269,6 +347,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
             idRepoCache.invalidate(cachedID);
             if (cb != null) {
                 cb.clear(); // Clear anyway & help the GC process
+                cacheStats.addInvalidations(1);
             }
             if (cosType) {
                 removeCachedAttributes(cachedID, attrNames);
@@ -281,6 +360,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
             idRepoCache.invalidate(cachedID);
             if (cb != null) {
                 cb.clear(); // Clear anyway & help the GC process
+                cacheStats.addInvalidations(1);
             }
             if (cosType) {
                 removeCachedAttributes(cachedID, attrNames);
@@ -290,6 +370,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
             cb = getFromCache(dn);
             if (cb != null) {
                 cb.clear(); // Just clear the entry. Don't remove.
+                cacheStats.addInvalidations(1);
             }
             if (cosType) {
                 removeCachedAttributes(cachedID, attrNames);
@@ -318,6 +399,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
         if (cb != null && !cb.hasExpiredAndUpdated() && cb.isExists()) {
             AMIdentity tokenId = IdUtils.getIdentity(token);
             String pDN = tokenId.getUniversalId();
+            index.addAttributes(dn, (stringAttributes != null ? stringAttributes : byteAttributes).keySet());
             cb.replaceAttributes(pDN, stringAttributes, byteAttributes);
         }
     }
@@ -390,7 +472,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
             cb = new IdCacheBlock(dn, true);
             cb.putAttributes(principalDN, attributes, missAttrNames, false,
                     !isStringValues);
-            idRepoCache.put(dn, cb);
+            cacheEntry(dn, cb, attrNames);
         } else { // Entry present in cache
             attributes = (AMHashMap) cb.getAttributes(principalDN, attrNames,
                     !isStringValues);
@@ -415,6 +497,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                 // as invalid (Attribute level Negative caching)
                 Set newMissAttrNames = dsAttributes
                         .getMissingAndEmptyKeys(missAttrNames);
+                index.addAttributes(dn, missAttrNames);
                 cb.putAttributes(principalDN, dsAttributes, newMissAttrNames,
                         false, !isStringValues);
             } else { // All attributes found in cache
@@ -468,6 +551,9 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                     + " found all attributes in Cache.");
             }
             attributes = (AMHashMap) cb.getAttributes(principalDN, false);
+            if (refreshExecutor != null && cb.shouldRefreshAhead(refreshAheadPercent, refreshAheadHits)) {
+                refreshAhead(token, type, name, amOrgName, amsdkDN, dn, principalDN, cb);
+            }
         } else {
             // Get all the attributes from data store
             if (DEBUG.messageEnabled()) {
@@ -480,9 +566,12 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                 amOrgName, amsdkDN);
             if (cb == null) {
                 cb = new IdCacheBlock(dn, true);
-                idRepoCache.put(dn, cb);
+                cacheEntry(dn, cb, null);
+            } else {
+                index.addAttributes(dn, null);
             }
             cb.putAttributes(principalDN, attributes, null, true, false);
+            cb.markLoaded();
             if (DEBUG.messageEnabled()) {
                 DEBUG.message("IdCachedServicesImpl.getAttributes(): "
                         + "attributes NOT found in cache. Fetched from DS.");
@@ -491,6 +580,40 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
         return attributes;
     }
 
+    /**
+     * Reloads a frequently read entry in the background before it expires, so that readers keep hitting the
+     * cache. The reloaded entry only replaces the cached one if that has not been invalidated meanwhile.
+     */
+    private void refreshAhead(final SSOToken token, final IdType type, final String name, final String amOrgName,
+            final String amsdkDN, final String dn, final String principalDN, final IdCacheBlock cb) {
+        final int generation = cb.getGeneration();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    AMHashMap attributes = (AMHashMap) super.getAttributes(token, type, name, amOrgName, amsdkDN);
+                    IdCacheBlock fresh = new IdCacheBlock(dn, true);
+                    fresh.putAttributes(principalDN, attributes, null, true, false);
+                    fresh.setFullyQualifiedNames(cb.getFullyQualifiedNames());
+                    if (cb.getGeneration() == generation && idRepoCache.asMap().replace(dn, cb, fresh)) {
+                        index.addAttributes(dn, null);
+                        if (cb.getGeneration() != generation) {
+                            // Invalidated while being replaced
+                            fresh.clear();
+                        }
+                        cacheStats.incrementRefreshCount();
+                    } else {
+                        cb.cancelRefresh();
+                    }
+                } catch (IdRepoException | SSOException | RuntimeException e) {
+                    cb.cancelRefresh();
+                    DEBUG.warning("IdCachedServicesImpl.refreshAhead(): Unable to refresh " + dn, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cb.cancelRefresh();
+        }
+    }
+
     public void setActiveStatus(SSOToken token, IdType type, String name,
         String amOrgName, String amsdkDN, boolean active) throws SSOException,
         IdRepoException {
@@ -27,6 +27,7 @@
  * Portions Copyrighted 2011-2015 ForgeRock AS.
  * Portions Copyrighted 2013 Cybernetica AS.
  * Portions Copyrighted 2014 Nomura Research Institute, Ltd
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.log;
@@ -625,4 +626,40 @@ public class LogConstants {
      * Key name for enable/disable log rotation.
      */
     public static final String ENABLE_ROTATION = "openam-logging-file-rotation-enabled";
+
+    /**
+     * System property enabling the asynchronous mode of the file handler, in which records are queued in a ring
+     * buffer and written in batches by a dedicated thread per log file.
+     */
+    public static final String FILE_ASYNC_ENABLED = "com.sun.identity.log.file.async.enabled";
+
+    /**
+     * System property defining the number of records the asynchronous file handler queues per log file.
+     */
+    public static final String FILE_ASYNC_BUFFER_SIZE = "com.sun.identity.log.file.async.bufferSize";
+    public static final int FILE_ASYNC_BUFFER_SIZE_DEFAULT = 8192;
+
+    /**
+     * System property defining the maximum number of records the asynchronous file handler writes at once.
+     */
+    public static final String FILE_ASYNC_BATCH_SIZE = "com.sun.identity.log.file.async.batchSize";
+    public static final int FILE_ASYNC_BATCH_SIZE_DEFAULT = 512;
+
+    /**
+     * System property defining when the asynchronous file handler forces records to disk: NONE, leaving it to
+     * the operating system, BATCH, after every batch, or INTERVAL, at most once per sync interval.
+     */
+    public static final String FILE_ASYNC_SYNC_POLICY = "com.sun.identity.log.file.async.syncPolicy";
+
+    /**
+     * System property defining the sync interval of the asynchronous file handler in milliseconds.
+     */
+    public static final String FILE_ASYNC_SYNC_INTERVAL = "com.sun.identity.log.file.async.syncInterval";
+    public static final int FILE_ASYNC_SYNC_INTERVAL_DEFAULT = 1000;
+
+    /**
+     * System property defining what the asynchronous file handler does when its buffer is full: BLOCK, making
+     * the logging thread wait for space, or DROP, discarding the record.
+     */
+    public static final String FILE_ASYNC_OVERFLOW_POLICY = "com.sun.identity.log.file.async.overflowPolicy";
 }
@@ -26,6 +26,7 @@
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
  * Portions Copyrighted 2014 Nomura Research Institute, Ltd
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.log.handlers;
@@ -41,14 +42,23 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
+import com.iplanet.am.util.SystemProperties;
 import com.iplanet.am.util.ThreadPoolException;
 import com.iplanet.log.NullLocationException;
 import com.sun.identity.common.GeneralTaskRunnable;
@@ -76,6 +86,12 @@ import java.util.Calendar;
  * etc., * to the base filename. The Locking mechanism is much more relaxed 
  * (in JDK's  FileHandler an exclusive lock is created on the file till the
  * handler is closed which makes reading impossible)
+ * <p>
+ * When {@link LogConstants#FILE_ASYNC_ENABLED} is set, records are not
+ * buffered under the handler monitor. They are queued in a lock free ring
+ * buffer and a dedicated thread writes them in batches, each with a single
+ * gathering write to the file channel, forcing them to disk according to
+ * {@link LogConstants#FILE_ASYNC_SYNC_POLICY}.
  */
 public class FileHandler extends java.util.logging.Handler {
 
@@ -108,17 +124,37 @@ public class FileHandler extends java.util.logging.Handler {
 
     private static final String DEFAULT_LOG_SUFFIX_FORMAT = "-MM.dd.yy-kk.mm";
 
+    private static final long ASYNC_IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long ASYNC_BLOCK_WAIT = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long ASYNC_FLUSH_WAIT = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Writes records in asynchronous mode, or null.
+     */
+    private GroupCommitWriter asyncWriter;
+
     private class MeteredStream extends OutputStream {
 
         OutputStream out;
         String filename = null;
+        private final FileChannel channel;
 
         MeteredStream(File fileName, boolean append) throws IOException {
             this.filename = fileName.toString();
             FileOutputStream fout = new FileOutputStream(filename, append);
+            this.channel = fout.getChannel();
             this.out = new BufferedOutputStream(fout);
         }
 
+        /**
+         * The channel of the file, used instead of the stream in
+         * asynchronous mode. It is closed with the stream.
+         * @return the file channel.
+         */
+        FileChannel getChannel() {
+            return channel;
+        }
+
         /**
          * writes a single integer to the outputstream and increments 
          * the number of bytes written by one.
@@ -384,7 +420,11 @@ public class FileHandler extends java.util.logging.Handler {
 
         recordBuffer = new LinkedList();
 
-        if (timeBufferingEnabled) {
+        if (SystemProperties.getAsBoolean(LogConstants.FILE_ASYNC_ENABLED, false)) {
+            // Records are written as soon as the writer thread is free, so time buffering is not needed
+            asyncWriter = new GroupCommitWriter();
+            asyncWriter.start();
+        } else if (timeBufferingEnabled) {
             startTimeBufferingThread();
         }
 
@@ -443,7 +483,11 @@ public class FileHandler extends java.util.logging.Handler {
      * Flush any buffered messages and Close all the files.
      */
     public void close() {
-        flush();
+        if (asyncWriter != null) {
+            asyncWriter.stop();
+        } else {
+            flush();
+        }
         if (writer != null) {
             try {
                 writer.close();
@@ -477,6 +521,10 @@ public class FileHandler extends java.util.logging.Handler {
         }
         Formatter formatter = getFormatter();
         String message = formatter.format(lrecord);
+        if (asyncWriter != null) {
+            asyncWriter.add(message);
+            return;
+        }
         synchronized (this) {        
             recordBuffer.add(message);
             if (recordBuffer.size() >= recCountLimit) {
@@ -525,6 +573,10 @@ public class FileHandler extends java.util.logging.Handler {
     }
 
     public void flush() {
+        if (asyncWriter != null) {
+            asyncWriter.awaitWritten();
+            return;
+        }
         synchronized (this) {
             if (recordBuffer.size() <= 0) {
                 return;
@@ -571,19 +623,21 @@ public class FileHandler extends java.util.logging.Handler {
                     return true;
                 }
             } else {
-                Calendar now = getCalendarInstance();
-                Calendar then = getCalendarInstance();
-                then.setTimeInMillis(lastRotation);
-
-                then.add(Calendar.MINUTE, rotationInterval);
-                if (now.after(then)) {
-                    return true;
-                }
+                return isRotationIntervalElapsed();
             }
         }
         return false;
     }
 
+    private boolean isRotationIntervalElapsed() {
+        Calendar now = getCalendarInstance();
+        Calendar then = getCalendarInstance();
+        then.setTimeInMillis(lastRotation);
+
+        then.add(Calendar.MINUTE, rotationInterval);
+        return now.after(then);
+    }
+
     private void rotate() {
        if (writer != null) {
             try {
@@ -781,6 +835,345 @@ public class FileHandler extends java.util.logging.Handler {
 
     }
 
+    /**
+     * @return the number of records queued but not yet written in
+     * asynchronous mode.
+     */
+    public int getAsyncQueueDepth() {
+        return asyncWriter == null ? 0 : asyncWriter.ring.size();
+    }
+
+    /**
+     * @return the number of records dropped in asynchronous mode, because
+     * the buffer was full or the file could not be written.
+     */
+    public long getAsyncDroppedCount() {
+        return asyncWriter == null ? 0 : asyncWriter.dropped.sum();
+    }
+
+    /**
+     * @return the number of records whose logging thread had to wait for
+     * space in the buffer in asynchronous mode.
+     */
+    public long getAsyncBlockedCount() {
+        return asyncWriter == null ? 0 : asyncWriter.blocked.sum();
+    }
+
+    /**
+     * @return the number of batches written in asynchronous mode.
+     */
+    public long getAsyncBatchCount() {
+        return asyncWriter == null ? 0 : asyncWriter.batches.sum();
+    }
+
+    /**
+     * @return the number of times records were forced to disk in
+     * asynchronous mode.
+     */
+    public long getAsyncSyncCount() {
+        return asyncWriter == null ? 0 : asyncWriter.syncs.sum();
+    }
+
+    /**
+     * When records are forced to disk in asynchronous mode.
+     */
+    enum SyncPolicy {
+        /** Leave it to the operating system. */
+        NONE,
+        /** After every batch. */
+        BATCH,
+        /** At most once per sync interval. */
+        INTERVAL
+    }
+
+    /**
+     * Writes the records of the asynchronous mode from a single thread. Each
+     * batch taken from the ring buffer is committed with one gathering write
+     * to the file channel, rotating the file between records as needed. As
+     * only this thread touches the files once it has started, no lock is
+     * taken while writing.
+     */
+    private final class GroupCommitWriter implements Runnable {
+
+        private final RecordRingBuffer<String> ring;
+        private final int batchSize;
+        private final SyncPolicy syncPolicy;
+        private final long syncInterval;
+        private final boolean dropOnOverflow;
+        private final Thread thread;
+        private final Object written = new Object();
+
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder blocked = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder syncs = new LongAdder();
+
+        private volatile boolean running = true;
+        private volatile boolean sleeping;
+        // The number of records read from the ring and written or dropped
+        private volatile long committed;
+
+        // Only used by the writer thread
+        private long position;
+        private boolean unsynced;
+        private long lastSync = currentTimeMillis();
+
+        GroupCommitWriter() {
+            ring = new RecordRingBuffer<String>(SystemProperties.getAsInt(
+                    LogConstants.FILE_ASYNC_BUFFER_SIZE,
+                    LogConstants.FILE_ASYNC_BUFFER_SIZE_DEFAULT));
+            batchSize = Math.max(1, SystemProperties.getAsInt(
+                    LogConstants.FILE_ASYNC_BATCH_SIZE,
+                    LogConstants.FILE_ASYNC_BATCH_SIZE_DEFAULT));
+            syncInterval = SystemProperties.getAsInt(
+                    LogConstants.FILE_ASYNC_SYNC_INTERVAL,
+                    LogConstants.FILE_ASYNC_SYNC_INTERVAL_DEFAULT);
+            SyncPolicy policy = SyncPolicy.NONE;
+            String strPolicy = SystemProperties.get(
+                    LogConstants.FILE_ASYNC_SYNC_POLICY);
+            if (strPolicy != null && !strPolicy.trim().isEmpty()) {
+                try {
+                    policy = SyncPolicy.valueOf(strPolicy.trim().toUpperCase());
+                } catch (IllegalArgumentException iae) {
+                    Debug.error(fileName + ":FileHandler: Invalid sync policy: "
+                            + strPolicy);
+                }
+            }
+            syncPolicy = policy;
+            dropOnOverflow = "DROP".equalsIgnoreCase(SystemProperties.get(
+                    LogConstants.FILE_ASYNC_OVERFLOW_POLICY));
+            thread = new Thread(this, "LogFileWriter-" + fileName);
+            thread.setDaemon(true);
+            if (meteredStream != null) {
+                try {
+                    position = meteredStream.getChannel().size();
+                } catch (IOException ioe) {
+                    Debug.error(fileName + ":FileHandler: Unable to read file size", ioe);
+                }
+            }
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        /**
+         * Queues a record, waiting for space or dropping it if the buffer
+         * is full according to the overflow policy.
+         */
+        void add(String message) {
+            if (!ring.offer(message)) {
+                if (dropOnOverflow || !running) {
+                    drop(1);
+                    return;
+                }
+                blocked.increment();
+                do {
+                    LockSupport.unpark(thread);
+                    LockSupport.parkNanos(ASYNC_BLOCK_WAIT);
+                    if (!running) {
+                        drop(1);
+                        return;
+                    }
+                } while (!ring.offer(message));
+            }
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Waits until every record queued before the call has been written.
+         */
+        void awaitWritten() {
+            long target = ring.getAddedCount();
+            long deadline = currentTimeMillis() + ASYNC_FLUSH_WAIT;
+            synchronized (written) {
+                while (committed < target && thread.isAlive()) {
+                    long remaining = deadline - currentTimeMillis();
+                    if (remaining <= 0) {
+                        Debug.error(fileName + ":FileHandler: Timed out flushing records");
+                        return;
+                    }
+                    LockSupport.unpark(thread);
+                    try {
+                        written.wait(Math.min(remaining, 100L));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Writes the records already queued, then stops the writer thread.
+         */
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(ASYNC_FLUSH_WAIT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (Debug.messageEnabled()) {
+                Debug.message(fileName + ":FileHandler: Writer stopped. batches="
+                        + batches.sum() + ", syncs=" + syncs.sum()
+                        + ", dropped=" + dropped.sum() + ", blocked=" + blocked.sum());
+            }
+        }
+
+        public void run() {
+            List<String> batch = new ArrayList<String>(batchSize);
+            while (true) {
+                // Read the flag before draining, so records queued before stop() are written
+                boolean stopping = !running;
+                if (ring.drainTo(batch, batchSize) > 0) {
+                    commit(batch);
+                    batch.clear();
+                    continue;
+                }
+                if (stopping && ring.size() == 0) {
+                    break;
+                }
+                sleeping = true;
+                if (ring.size() == 0 && running) {
+                    LockSupport.parkNanos(ASYNC_IDLE_WAIT);
+                }
+                sleeping = false;
+                if (Thread.interrupted()) {
+                    running = false;
+                }
+                if (unsynced && syncPolicy == SyncPolicy.INTERVAL) {
+                    sync(false);
+                }
+            }
+            if (unsynced && syncPolicy != SyncPolicy.NONE) {
+                sync(true);
+            }
+        }
+
+        private void commit(List<String> batch) {
+            if (writer == null) {
+                Debug.error(fileName + ":FileHandler: Writer is null");
+                drop(batch.size());
+            } else {
+                try {
+                    write(batch);
+                    batches.increment();
+                    if (syncPolicy != SyncPolicy.NONE) {
+                        sync(syncPolicy == SyncPolicy.BATCH);
+                    }
+                } catch (IOException ex) {
+                    Debug.error(fileName +
+                        ":FileHandler: could not write to file: ", ex);
+                }
+            }
+            committed = ring.getReadCount();
+            synchronized (written) {
+                written.notifyAll();
+            }
+        }
+
+        private void write(List<String> batch) throws IOException {
+            Charset charset = getEncoding() == null
+                    ? Charset.defaultCharset() : Charset.forName(getEncoding());
+            List<ByteBuffer> buffers = new ArrayList<ByteBuffer>(batch.size() + 1);
+            int records = 0;
+            int writtenRecords = 0;
+            try {
+                for (String message : batch) {
+                    byte[] bytes = message.getBytes(charset);
+                    if (needsRotation(bytes.length)) {
+                        writtenRecords += gather(buffers, records);
+                        records = 0;
+                        if (unsynced && syncPolicy != SyncPolicy.NONE) {
+                            sync(true);
+                        }
+                        rotate();
+                        position = meteredStream.getChannel().size();
+                    }
+                    if (!headerWritten) {
+                        byte[] header = getHeaderString().getBytes(charset);
+                        buffers.add(ByteBuffer.wrap(header));
+                        position += header.length;
+                        headerWritten = true;
+                    }
+                    buffers.add(ByteBuffer.wrap(bytes));
+                    position += bytes.length;
+                    records++;
+                }
+                gather(buffers, records);
+            } catch (IOException ex) {
+                drop(batch.size() - writtenRecords);
+                throw ex;
+            }
+        }
+
+        /**
+         * The size check of {@link FileHandler#needsRotation(String)}, using
+         * the size this thread has written rather than asking the file.
+         */
+        private boolean needsRotation(int length) {
+            if (!rotateEnabled) {
+                return false;
+            }
+            if (rotatingBySize) {
+                return length > 0 && position >= maxFileSize - length;
+            }
+            return isRotationIntervalElapsed();
+        }
+
+        /**
+         * Writes the buffers to the file in one gathering write, repeated
+         * until every byte has been written.
+         * @return the number of records written.
+         */
+        private int gather(List<ByteBuffer> buffers, int records) throws IOException {
+            if (buffers.isEmpty()) {
+                return records;
+            }
+            ByteBuffer[] array = buffers.toArray(new ByteBuffer[buffers.size()]);
+            FileChannel channel = meteredStream.getChannel();
+            ByteBuffer last = array[array.length - 1];
+            while (last.hasRemaining()) {
+                channel.write(array);
+            }
+            buffers.clear();
+            unsynced = true;
+            if (MonitoringUtil.isRunning() && fileLogHandlerForMonitoring != null) {
+                fileLogHandlerForMonitoring.incHandlerSuccessCount(records);
+            }
+            return records;
+        }
+
+        private void sync(boolean force) {
+            long now = currentTimeMillis();
+            if (!force && now - lastSync < syncInterval) {
+                return;
+            }
+            lastSync = now;
+            if (!unsynced || meteredStream == null) {
+                return;
+            }
+            try {
+                meteredStream.getChannel().force(false);
+                syncs.increment();
+                unsynced = false;
+            } catch (IOException ex) {
+                Debug.error(fileName + ":FileHandler: could not sync file: ", ex);
+            }
+        }
+
+        private void drop(int records) {
+            dropped.add(records);
+            if (MonitoringUtil.isRunning() && fileLogHandlerForMonitoring != null) {
+                fileLogHandlerForMonitoring.incHandlerDroppedCount(records);
+            }
+        }
+    }
+
     private class TimeBufferingTask extends GeneralTaskRunnable {
 
         private long runPeriod;
@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.log.handlers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer of formatted log records, written by any number of threads and read by a single writer
+ * thread.
+ *
+ * Producers claim a slot by advancing the tail with a compare and set, then publish the record by advancing the
+ * sequence number of the slot, so they never take a lock or wait for each other. The reader only consumes a
+ * slot once its record has been published, and frees it for the producer one lap later by advancing its
+ * sequence again.
+ *
+ * @param <E> The type of the records.
+ */
+final class RecordRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the reader
+    private volatile long head;
+
+    /**
+     * @param capacity The minimum number of records held, rounded up to a power of two.
+     */
+    RecordRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Adds a record, unless the buffer is full.
+     *
+     * @param record The record.
+     * @return False if the buffer is full.
+     */
+    boolean offer(E record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, record);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published records to the list. Must only be called by the reader thread.
+     *
+     * @param batch The list to add to.
+     * @param max The maximum number of records to move.
+     * @return The number of records moved.
+     */
+    int drainTo(List<E> batch, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            batch.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * @return The number of records added so far, which includes records not yet published.
+     */
+    long getAddedCount() {
+        return tail.get();
+    }
+
+    /**
+     * @return The number of records read so far.
+     */
+    long getReadCount() {
+        return head;
+    }
+
+    /**
+     * @return The approximate number of records waiting to be read.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return The number of records the buffer holds.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -25,13 +25,13 @@
  * $Id: ResourceResultCache.java,v 1.21 2010/01/21 22:18:01 dillidorai Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.policy.client;
 
 import static org.forgerock.openam.utils.Time.*;
 
-import com.iplanet.am.util.Cache;
 import com.iplanet.am.util.SystemProperties;
 import com.iplanet.dpro.session.Session;
 import com.iplanet.dpro.session.SessionException;
@@ -60,6 +60,7 @@ import com.sun.identity.policy.PolicyUtils;
 import com.sun.identity.policy.ResBundleUtils;
 import com.sun.identity.policy.ResourceMatch;
 import com.sun.identity.policy.ResourceResult;
+import com.sun.identity.policy.client.ResourceResultStore.CachedResults;
 import com.sun.identity.policy.interfaces.ResourceName;
 import com.sun.identity.policy.remote.AdvicesHandleableByAMRequest;
 import com.sun.identity.policy.remote.AdvicesHandleableByAMResponse;
@@ -97,6 +98,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton class that implements client side policy decision cache.
@@ -113,11 +115,14 @@ class ResourceResultCache implements SSOTokenListener {
             = Collections.synchronizedSet(new HashSet(10));
 
     //serviceName -> resourceName -> sessionId -> scope -> result
-    private Map resultCache = new HashMap(10); 
+    private final ResourceResultStore resultCache;
 
     private PolicyNotificationHandler notificationHandler;
-    private Set tokenRegistry = 
-        Collections.synchronizedSet(new HashSet(10000));
+    private final Set<String> tokenRegistry =
+        Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(10000));
+    // tokenIDs of sessions which do not support listeners, bounded by the session cap
+    private final Set<String> unsupportedTokens =
+        Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     private int        cacheTtl;
     private Set        advicesHandleableByAM; 
 
@@ -168,6 +173,11 @@ class ResourceResultCache implements SSOTokenListener {
         this.policyProperties = policyProperties;
         notificationHandler = new PolicyNotificationHandler(this);
         cacheTtl = policyProperties.getCacheTtl();
+        // changed to fix 4295 Policy cache causes frequent full
+        // gc or out of memory issues
+        resultCache = new ResourceResultStore(
+                policyProperties.getResultsCacheResourceCap(),
+                policyProperties.getResultsCacheSessionCap());
 
         if (policyProperties.notificationEnabled()){
             //register notification handler with PLLClient
@@ -436,130 +446,81 @@ class ResourceResultCache implements SSOTokenListener {
                     + ":entering ");
         }
 
-        Map resourceTokenIDsMap = null;
-        // resultCache -> serviceName -> resourceName -> sessionId -> scope -> result
-        synchronized(resultCache) {
-            // resourceName -> sessionId -> scope -> result
-            resourceTokenIDsMap = (Map)resultCache.get(serviceName);
-            if (resourceTokenIDsMap == null) {
-                // changed to fix 4295 Policy cache causes frequent 
-                // full gc or out of memory issues
-                resourceTokenIDsMap 
-                        = new Cache(policyProperties.getResultsCacheResourceCap());
-                resultCache.put(serviceName, resourceTokenIDsMap);
-            }
-        }
-
-        Map tokenIDScopesMap = null;
-        // resourceTokenIDsMap -> resourceName -> sessionId -> scope -> result
-        synchronized(resourceTokenIDsMap) {
-            // sessionId -> scope -> result
-            tokenIDScopesMap = (Map)resourceTokenIDsMap.get(resourceName);
-            if (tokenIDScopesMap == null) {
-                // changed to fix 4295 Policy cache causes frequent full 
-                // gc or out of memory issues
-                tokenIDScopesMap  
-                        = new Cache(policyProperties.getResultsCacheSessionCap());
-                resourceTokenIDsMap.put(resourceName, tokenIDScopesMap);
-            }
-        }
-
-        Map scopeResultsMap= null;
         String tokenID =  token.getTokenID().toString();
-        // tokenIDScopesMap -> sessionId -> scope -> result
-        synchronized(tokenIDScopesMap) {
-            scopeResultsMap = (Map)tokenIDScopesMap.get(tokenID);
-            if (scopeResultsMap == null) {
-                scopeResultsMap = new HashMap();
-                tokenIDScopesMap.put(tokenID, scopeResultsMap);
-                if (!tokenRegistry.contains(tokenID)) {
-                    try {
-                        token.addSSOTokenListener(this);
-                        tokenRegistry.add(tokenID);
-                    } catch (SSOTokenListenersUnsupportedException ex) {
-                        // Catching exception to avoid adding tokenID to tokenRegistry
-                        // scopeResultsMap will be populated and returned to the caller but not cached
-                        debug.message("ResourceResultCache.getResourceResults(): could not add sso listener: {}", ex.getMessage());
-                    }
-                }
+        if (!tokenRegistry.contains(tokenID) && !unsupportedTokens.contains(tokenID)) {
+            try {
+                token.addSSOTokenListener(this);
+                tokenRegistry.add(tokenID);
+            } catch (SSOTokenListenersUnsupportedException ex) {
+                // Catching exception to avoid adding tokenID to tokenRegistry
+                debug.message("ResourceResultCache.getResourceResults(): could not add sso listener: {}", ex.getMessage());
+                rememberUnsupportedToken(tokenID);
             }
         }
 
-        Object[] results = null;
+        // resultCache -> serviceName -> resourceName -> sessionId -> scope -> result
+        CachedResults results = resultCache.get(serviceName, resourceName,
+                tokenID, scope);
         boolean fetchResultsFromServer = false;
-        // scopeResultsMap -> scope -> result
-        synchronized(scopeResultsMap) {
-            results = (Object[])scopeResultsMap.get(scope);
-            if ( results == null) {
-
-                //array elements:resourceResults, env, ttl, actionNames
-                results = new Object[4];
-                scopeResultsMap.put(scope, results);
+        if ( !useCache ) {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since useCache is false");
             }
-
-            if ( !useCache ) {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since useCache is false");
-                }
-                fetchResultsFromServer = true;
-            } else if (results[0] == null) {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server "
-                            + " since results not in cache");
-                }
-                fetchResultsFromServer = true;
-            } else if ((env == null) && (results[1] != null)) {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since env does not match");
-                }
-                fetchResultsFromServer = true;
-            } else if ((env != null) && !env.equals(results[1])) { 
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since env does not Match");
-                }
-                fetchResultsFromServer = true;
-            } else if (((Long) results[2]).longValue()
-                    < currentTimeMillis()) {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since results ttl has "
-                            + " expired");
-                }
-                fetchResultsFromServer = true;
-            } else if ((actionNames == null) && (results[3] != null)) {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since action names do not "
-                            + " match");
-                }
-                fetchResultsFromServer = true;
-            } else if ((actionNames != null) &&  (results[3] == null)) {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since action names do not "
-                            + " Match");
-                }
-                fetchResultsFromServer = true;
-            } else if ((results[3] !=null) &&!((Set)results[3]).containsAll(
-                    actionNames))  {
-                if (debug.messageEnabled()) {
-                    debug.message("ResourceResultCache.getResourceResults():"
-                            + "would contact server since cached action names "
-                            + " do not cover request action names");
-                }
-                fetchResultsFromServer = true;
-            } else if (resourceResultsHasAdvices((Set)(results[0]))
-                    && PolicyProperties.SELF.equals(cacheMode)) { 
-                //get from server if there were advices in the cached decision
-                //we do this only if cacheMode is self
-                fetchResultsFromServer = true;
-
+            fetchResultsFromServer = true;
+        } else if (results == null) {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server "
+                        + " since results not in cache");
             }
-
+            fetchResultsFromServer = true;
+        } else if ((env == null) && (results.getEnv() != null)) {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since env does not match");
+            }
+            fetchResultsFromServer = true;
+        } else if ((env != null) && !env.equals(results.getEnv())) { 
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since env does not Match");
+            }
+            fetchResultsFromServer = true;
+        } else if (results.isExpired(currentTimeMillis())) {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since results ttl has "
+                        + " expired");
+            }
+            fetchResultsFromServer = true;
+        } else if ((actionNames == null) && (results.getActionNames() != null)) {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since action names do not "
+                        + " match");
+            }
+            fetchResultsFromServer = true;
+        } else if ((actionNames != null) &&  (results.getActionNames() == null)) {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since action names do not "
+                        + " Match");
+            }
+            fetchResultsFromServer = true;
+        } else if ((results.getActionNames() != null)
+                && !results.getActionNames().containsAll(actionNames))  {
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache.getResourceResults():"
+                        + "would contact server since cached action names "
+                        + " do not cover request action names");
+            }
+            fetchResultsFromServer = true;
+        } else if (resourceResultsHasAdvices(results.getResourceResults())
+                && PolicyProperties.SELF.equals(cacheMode)) { 
+            //get from server if there were advices in the cached decision
+            //we do this only if cacheMode is self
+            fetchResultsFromServer = true;
         }
 
         // changed to fix 4205 Policy client code has bottleneck when processing notificati 
@@ -575,22 +536,20 @@ class ResourceResultCache implements SSOTokenListener {
                         serviceName, token, resourceName, scope, 
                         actionNames, env);
             }
-            results[0] = resourceResults;
 
             if (env != null) {
                 env = PolicyUtils.cloneMap(env);
             }
-            results[1] = env;
-
-            results[2] 
-                    = new Long(currentTimeMillis() + cacheTtl);
 
             if (actionNames != null) {
                 Set actionNames1 = actionNames;
                 actionNames = new HashSet();
                 actionNames.addAll(actionNames1);
             }
-            results[3] = actionNames;
+            results = new CachedResults(resourceResults, env, actionNames,
+                    getExpiryTime(resourceResults));
+            resultCache.put(serviceName, resourceName, tokenID, scope,
+                    results);
         } else {
             if (debug.messageEnabled()) {
                 debug.message("ResourceResultCache.getResourceResults():"
@@ -600,7 +559,7 @@ class ResourceResultCache implements SSOTokenListener {
         }
 
 
-        resourceResults = (Set)(results[0]);
+        resourceResults = results.getResourceResults();
         if (debug.messageEnabled()) {
             debug.message("ResourceResultCache.getResourceResults("
                     + serviceName + ","
@@ -612,6 +571,27 @@ class ResourceResultCache implements SSOTokenListener {
         return resourceResults;
     }
 
+    /**
+     * Returns the time until which resource results can be used from the
+     * cache: after the cache ttl, or when the first of their policy
+     * decisions expires if that is sooner
+     * @param resourceResults resource results fetched from the server
+     * @return expiry time in milliseconds
+     */
+    private long getExpiryTime(Set resourceResults) {
+        long expiryTime = currentTimeMillis() + cacheTtl;
+        if (resourceResults != null) {
+            for (Object resourceResult : resourceResults) {
+                PolicyDecision pd 
+                        = ((ResourceResult)resourceResult).getPolicyDecision();
+                if ((pd != null) && (pd.getTimeToLive() < expiryTime)) {
+                    expiryTime = pd.getTimeToLive();
+                }
+            }
+        }
+        return expiryTime;
+    }
+
     private Set getRESTResultsFromServer(SSOToken appToken, String serviceName,
             SSOToken token, String resourceName, String scope, 
             Set actionNames, Map env) 
@@ -1220,6 +1200,19 @@ class ResourceResultCache implements SSOTokenListener {
         return policyServiceURL;
     }
 
+    /**
+     * Remembers a session which does not support listeners, so that adding a listener is not
+     * attempted again on every request for it. No change notification will arrive to forget
+     * the session, so the set is cleared once it reaches the results cache session cap.
+     * @param tokenID session token ID
+     */
+    private void rememberUnsupportedToken(String tokenID) {
+        if (unsupportedTokens.size() >= policyProperties.getResultsCacheSessionCap()) {
+            unsupportedTokens.clear();
+        }
+        unsupportedTokens.add(tokenID);
+    }
+
     /**
      * Processes session token change ntofication
      * @param tokenEvent session token change notification event
@@ -1232,42 +1225,20 @@ class ResourceResultCache implements SSOTokenListener {
         }
 
         try {
-            synchronized(resultCache) {
-                Set services = (Set)resultCache.keySet();
-                Iterator serviceIter = services.iterator();
-                while (serviceIter.hasNext()) {
-                    String serviceName = (String)serviceIter.next();
-                    Map resourceTokenIDsMap = (Map)resultCache.get(serviceName);
-                    synchronized(resourceTokenIDsMap) {
-                        Set resources = (Set)resourceTokenIDsMap.keySet();
-                        Iterator resourceIter = resources.iterator();
-                        while (resourceIter.hasNext()) {
-                            String resource = (String)resourceIter.next();
-                            Map tokenIDScopesMap 
-                                    = (Map)resourceTokenIDsMap.get(resource);
-                            if (tokenIDScopesMap != null) {
-                                tokenIDScopesMap.remove(tokenID);
-                            }
-                            
-                            boolean tokenPresent = tokenRegistry.remove(tokenID);
-                            if ( (tokenPresent == false) &&
-                                (debug.messageEnabled()) ) {
-                                debug.message("ResourceResultCache. tokenID= "
-                                    + SECRET_MASK
-                                    + " not found in Token Registry.");
-                            }
+            resultCache.removeSession(tokenID);
+            boolean tokenPresent = tokenRegistry.remove(tokenID);
+            if ( (tokenPresent == false) &&
+                (debug.messageEnabled()) ) {
+                debug.message("ResourceResultCache. tokenID= "
+                    + SECRET_MASK
+                    + " not found in Token Registry.");
+            }
 
-                            if (debug.messageEnabled()) {
-                                debug.message("ResourceResultCache."
-                                    + "ssoTokenChanged():"
-                                    + "removing cache results for "
-                                    + "tokenID=" + SECRET_MASK //mask tokenID
-                                    + ":serviceName=" + serviceName 
-                                    + ":resource=" + resource);
-                            }
-                        }
-                    }
-                }
+            if (debug.messageEnabled()) {
+                debug.message("ResourceResultCache."
+                    + "ssoTokenChanged():"
+                    + "removed cache results for "
+                    + "tokenID=" + SECRET_MASK); //mask tokenID
             }
         } catch (Throwable t) {
             if (debug.warningEnabled()) {
@@ -1289,10 +1260,10 @@ class ResourceResultCache implements SSOTokenListener {
             return;
         }  
 
-        Map resourceTokenIDsMap 
-                = (Map)(resourceResultCache.resultCache).get(serviceName);
-        if ((resourceTokenIDsMap == null)
-                || resourceTokenIDsMap.isEmpty()) {
+        // Removing the names while iterating doesn't block the lookups
+        Set<String> cachedResourceNames 
+                = resourceResultCache.resultCache.getResourceNames(serviceName);
+        if (cachedResourceNames.isEmpty()) {
             return;
         } 
 
@@ -1307,18 +1278,30 @@ class ResourceResultCache implements SSOTokenListener {
                         + "clearCacheForResourceNames():"
                         + "affectedResourceName=" + affectedRN);
             }
-            synchronized (resourceTokenIDsMap) {
-                Set cachedResourceNames = resourceTokenIDsMap.keySet();
-                Iterator crIter = cachedResourceNames.iterator();
-                while (crIter.hasNext()) {
-                    String cachedRN = (String)crIter.next();
+            Iterator<String> crIter = cachedResourceNames.iterator();
+            while (crIter.hasNext()) {
+                String cachedRN = crIter.next();
+                if (debug.messageEnabled()) {
+                    debug.message("ResourceResultCache."
+                            + "clearCacheForResourceNames():"
+                            + "affectedResourceName=" + affectedRN
+                            + ":cachedResourceName=" + cachedRN);
+                }
+                if (affectedRN.equals(cachedRN)) {
+                    crIter.remove();
                     if (debug.messageEnabled()) {
                         debug.message("ResourceResultCache."
                                 + "clearCacheForResourceNames():"
-                                + "affectedResourceName=" + affectedRN
-                                + ":cachedResourceName=" + cachedRN);
+                                + "cleared cached results for "
+                                + "resourceName=" + cachedRN
+                                + ":affectedResourceName=" + affectedRN
+                                + ":match=SAME RESOURCE NAME");
                     }
-                    if (affectedRN.equals(cachedRN)) {
+                } else {
+                    ResourceMatch rm 
+                            = resourceComparator.compare( cachedRN, 
+                            affectedRN, true); //wildcard compare
+                    if (rm.equals(ResourceMatch.EXACT_MATCH)) {
                         crIter.remove();
                         if (debug.messageEnabled()) {
                             debug.message("ResourceResultCache."
@@ -1326,43 +1309,28 @@ class ResourceResultCache implements SSOTokenListener {
                                     + "cleared cached results for "
                                     + "resourceName=" + cachedRN
                                     + ":affectedResourceName=" + affectedRN
-                                    + ":match=SAME RESOURCE NAME");
+                                    + ":match=EXACT_MATCH");
                         }
-                    } else {
-                        ResourceMatch rm 
-                                = resourceComparator.compare( cachedRN, 
-                                affectedRN, true); //wildcard compare
-                        if (rm.equals(ResourceMatch.EXACT_MATCH)) {
-                            crIter.remove();
-                            if (debug.messageEnabled()) {
-                                debug.message("ResourceResultCache."
-                                        + "clearCacheForResourceNames():"
-                                        + "cleared cached results for "
-                                        + "resourceName=" + cachedRN
-                                        + ":affectedResourceName=" + affectedRN
-                                        + ":match=EXACT_MATCH");
-                            }
-                        } else if (rm.equals(ResourceMatch.WILDCARD_MATCH)) {
-                            crIter.remove();
-                            if (debug.messageEnabled()) {
-                                debug.message("ResourceResultCache."
-                                        + "clearCacheForResourceNames():"
-                                        + "cleared cached results for "
-                                        + "resourceName=" + cachedRN
-                                        + ":affectedResourceName=" + affectedRN
-                                        + ":match=WILD_CARD_MATCH");
-                            }
-                        } else if (rm.equals(
-                                ResourceMatch.SUB_RESOURCE_MATCH)) {
-                            crIter.remove();
-                            if (debug.messageEnabled()) {
-                                debug.message("ResourceResultCache."
-                                        + "clearCacheForResourceNames():"
-                                        + "cleared cached results for "
-                                        + "resourceName=" + cachedRN
-                                        + ":affectedResourceName=" + affectedRN
-                                        + ":match=SUB_RESOURCE_MACTH");
-                            }
+                    } else if (rm.equals(ResourceMatch.WILDCARD_MATCH)) {
+                        crIter.remove();
+                        if (debug.messageEnabled()) {
+                            debug.message("ResourceResultCache."
+                                    + "clearCacheForResourceNames():"
+                                    + "cleared cached results for "
+                                    + "resourceName=" + cachedRN
+                                    + ":affectedResourceName=" + affectedRN
+                                    + ":match=WILD_CARD_MATCH");
+                        }
+                    } else if (rm.equals(
+                            ResourceMatch.SUB_RESOURCE_MATCH)) {
+                        crIter.remove();
+                        if (debug.messageEnabled()) {
+                            debug.message("ResourceResultCache."
+                                    + "clearCacheForResourceNames():"
+                                    + "cleared cached results for "
+                                    + "resourceName=" + cachedRN
+                                    + ":affectedResourceName=" + affectedRN
+                                    + ":match=SUB_RESOURCE_MACTH");
                         }
                     }
                 }
@@ -1567,9 +1535,7 @@ class ResourceResultCache implements SSOTokenListener {
                     + "clearCachedDecisionsForService():"
                     + "serviceName=" + serviceName);
         } 
-        synchronized(resultCache) {
-            resultCache.remove(serviceName);
-        }
+        resultCache.removeService(serviceName);
     }
 
     /**
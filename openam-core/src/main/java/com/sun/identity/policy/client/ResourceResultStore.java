@@ -0,0 +1,358 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.policy.client;
+
+import static org.forgerock.openam.utils.Time.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrent store of the resource results cached by the {@link ResourceResultCache}.
+ * <p/>
+ * Results are kept per service, resource name, session and scope. Each level is a {@link ConcurrentHashMap}, and the
+ * results are held in immutable {@link CachedResults} which are replaced as a whole once fetched again, so lookups
+ * never wait for an update or an invalidation. Each entry carries its own expiry time.
+ * <p/>
+ * Memory is bounded by the number of resource names kept per service and of sessions kept per resource name, as it
+ * was with the LRU caches this store replaces. When a level grows past its cap, the thread adding to it removes the
+ * expired entries, then the least recently used ones until a tenth of the cap is free again, so the cost of
+ * eviction is shared by many additions. Only one thread evicts from a level at a time; the others carry on.
+ *
+ * @since 15.0.0
+ */
+final class ResourceResultStore {
+
+    private final ConcurrentMap<String, BoundedMap<ResourceEntry>> services = new ConcurrentHashMap<>();
+    private final int resourceCap;
+    private final int sessionCap;
+
+    /**
+     * Creates a store.
+     *
+     * @param resourceCap maximum number of resource names kept per service
+     * @param sessionCap maximum number of sessions kept per resource name
+     */
+    ResourceResultStore(int resourceCap, int sessionCap) {
+        this.resourceCap = Math.max(1, resourceCap);
+        this.sessionCap = Math.max(1, sessionCap);
+    }
+
+    /**
+     * Returns the results cached for a session, whether they have expired or not.
+     *
+     * @param serviceName service name
+     * @param resourceName resource name
+     * @param tokenID session token ID
+     * @param scope scope of the results
+     * @return the results, or <code>null</code> if none are cached
+     */
+    CachedResults get(String serviceName, String resourceName, String tokenID, String scope) {
+        BoundedMap<ResourceEntry> resources = services.get(serviceName);
+        if (resources == null) {
+            return null;
+        }
+        long now = currentTimeMillis();
+        ResourceEntry resource = resources.get(resourceName, now);
+        if (resource == null) {
+            return null;
+        }
+        SessionEntry session = resource.sessions.get(tokenID, now);
+        return session == null ? null : session.scopes.get(scope);
+    }
+
+    /**
+     * Caches results for a session, replacing those cached before.
+     *
+     * @param serviceName service name
+     * @param resourceName resource name
+     * @param tokenID session token ID
+     * @param scope scope of the results
+     * @param results results to cache
+     */
+    void put(String serviceName, String resourceName, String tokenID, String scope, CachedResults results) {
+        BoundedMap<ResourceEntry> resources = services.get(serviceName);
+        if (resources == null) {
+            BoundedMap<ResourceEntry> created = new BoundedMap<>(resourceCap);
+            resources = services.putIfAbsent(serviceName, created);
+            if (resources == null) {
+                resources = created;
+            }
+        }
+        long now = currentTimeMillis();
+        // New entries are added with their results, so that they are never seen empty and evicted as unused
+        ResourceEntry resource = resources.get(resourceName, now);
+        if (resource == null) {
+            ResourceEntry created = new ResourceEntry(sessionCap, tokenID, new SessionEntry(scope, results), now);
+            resource = resources.putIfAbsent(resourceName, created, now);
+            if (resource == created) {
+                return;
+            }
+        }
+        SessionEntry session = resource.sessions.get(tokenID, now);
+        if (session == null) {
+            SessionEntry created = new SessionEntry(scope, results);
+            session = resource.sessions.putIfAbsent(tokenID, created, now);
+            if (session == created) {
+                return;
+            }
+        }
+        session.scopes.put(scope, results);
+    }
+
+    /**
+     * Removes the results cached for a session, for every service and resource name.
+     *
+     * @param tokenID session token ID
+     */
+    void removeSession(String tokenID) {
+        for (BoundedMap<ResourceEntry> resources : services.values()) {
+            for (ResourceEntry resource : resources.map.values()) {
+                resource.sessions.map.remove(tokenID);
+            }
+        }
+    }
+
+    /**
+     * Returns the resource names results are cached for. Removing a name through the returned set removes its
+     * results, and iterating over it neither blocks nor is affected by concurrent updates.
+     *
+     * @param serviceName service name
+     * @return the resource names
+     */
+    Set<String> getResourceNames(String serviceName) {
+        BoundedMap<ResourceEntry> resources = services.get(serviceName);
+        return resources == null ? Collections.<String>emptySet() : resources.map.keySet();
+    }
+
+    /**
+     * Removes the results cached for a service.
+     *
+     * @param serviceName service name
+     */
+    void removeService(String serviceName) {
+        services.remove(serviceName);
+    }
+
+    /**
+     * Returns the number of sessions results are cached for, for a resource name.
+     *
+     * @param serviceName service name
+     * @param resourceName resource name
+     * @return the number of sessions
+     */
+    int getSessionCount(String serviceName, String resourceName) {
+        BoundedMap<ResourceEntry> resources = services.get(serviceName);
+        ResourceEntry resource = resources == null ? null : resources.map.get(resourceName);
+        return resource == null ? 0 : resource.sessions.map.size();
+    }
+
+    /**
+     * Resource results fetched from the policy service, with what they were fetched for.
+     */
+    static final class CachedResults {
+
+        private final Set resourceResults;
+        private final Map env;
+        private final Set actionNames;
+        private final long expiryTime;
+
+        /**
+         * Creates cached results. The environment and action names are kept as given, and must not be changed
+         * afterwards.
+         *
+         * @param resourceResults the resource results
+         * @param env environment the results were fetched with
+         * @param actionNames action names the results were fetched for
+         * @param expiryTime time in milliseconds after which the results must be fetched again
+         */
+        CachedResults(Set resourceResults, Map env, Set actionNames, long expiryTime) {
+            this.resourceResults = resourceResults;
+            this.env = env;
+            this.actionNames = actionNames;
+            this.expiryTime = expiryTime;
+        }
+
+        Set getResourceResults() {
+            return resourceResults;
+        }
+
+        Map getEnv() {
+            return env;
+        }
+
+        Set getActionNames() {
+            return actionNames;
+        }
+
+        long getExpiryTime() {
+            return expiryTime;
+        }
+
+        boolean isExpired(long now) {
+            return expiryTime < now;
+        }
+    }
+
+    /**
+     * Entry of a level of the store, which records when it was last used.
+     */
+    private abstract static class Entry {
+
+        volatile long lastAccessTime;
+
+        void touch(long now) {
+            // Only written once per millisecond, so that readers of popular entries don't keep invalidating the
+            // cache line for each other
+            if (lastAccessTime != now) {
+                lastAccessTime = now;
+            }
+        }
+
+        /**
+         * Whether the entry no longer holds any results which can be used.
+         */
+        abstract boolean isExpired(long now);
+    }
+
+    private static final class ResourceEntry extends Entry {
+
+        private final BoundedMap<SessionEntry> sessions;
+
+        private ResourceEntry(int sessionCap, String tokenID, SessionEntry session, long now) {
+            sessions = new BoundedMap<>(sessionCap);
+            sessions.putIfAbsent(tokenID, session, now);
+        }
+
+        @Override
+        boolean isExpired(long now) {
+            return sessions.map.isEmpty();
+        }
+    }
+
+    private static final class SessionEntry extends Entry {
+
+        private final ConcurrentMap<String, CachedResults> scopes = new ConcurrentHashMap<>(2);
+
+        private SessionEntry(String scope, CachedResults results) {
+            scopes.put(scope, results);
+        }
+
+        @Override
+        boolean isExpired(long now) {
+            for (CachedResults results : scopes.values()) {
+                if (!results.isExpired(now)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Map of a level of the store, which evicts its entries once it has more than its cap.
+     */
+    private static final class BoundedMap<V extends Entry> {
+
+        private final ConcurrentMap<String, V> map = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private final int cap;
+        private final int evictedSize;
+
+        private BoundedMap(int cap) {
+            this.cap = cap;
+            this.evictedSize = cap - Math.max(1, cap / 10);
+        }
+
+        private V get(String key, long now) {
+            V value = map.get(key);
+            if (value != null) {
+                value.touch(now);
+            }
+            return value;
+        }
+
+        private V putIfAbsent(String key, V value, long now) {
+            value.touch(now);
+            V existing = map.putIfAbsent(key, value);
+            if (existing != null) {
+                existing.touch(now);
+                return existing;
+            }
+            if (map.size() > cap) {
+                evict(now);
+            }
+            return value;
+        }
+
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                for (Iterator<V> values = map.values().iterator(); values.hasNext();) {
+                    if (values.next().isExpired(now)) {
+                        values.remove();
+                    }
+                }
+                int excess = map.size() - evictedSize;
+                if (excess <= 0) {
+                    return;
+                }
+                // The access times are copied, so that they don't change while being sorted
+                List<Candidate<V>> candidates = new ArrayList<>(map.size());
+                for (Map.Entry<String, V> entry : map.entrySet()) {
+                    candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+                }
+                Collections.sort(candidates, LEAST_RECENTLY_USED);
+                for (int i = 0; i < excess && i < candidates.size(); i++) {
+                    Candidate<V> candidate = candidates.get(i);
+                    map.remove(candidate.key, candidate.value);
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private static final Comparator<Candidate<?>> LEAST_RECENTLY_USED = new Comparator<Candidate<?>>() {
+        @Override
+        public int compare(Candidate<?> first, Candidate<?> second) {
+            return Long.compare(first.lastAccessTime, second.lastAccessTime);
+        }
+    };
+
+    private static final class Candidate<V extends Entry> {
+
+        private final String key;
+        private final V value;
+        private final long lastAccessTime;
+
+        private Candidate(String key, V value) {
+            this.key = key;
+            this.value = value;
+            this.lastAccessTime = value.lastAccessTime;
+        }
+    }
+}
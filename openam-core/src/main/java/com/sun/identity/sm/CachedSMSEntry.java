@@ -25,6 +25,7 @@
  * $Id: CachedSMSEntry.java,v 1.16 2009/10/08 20:33:54 hengming Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.sm;
@@ -38,14 +39,12 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 
 import com.iplanet.sso.SSOException;
 import com.iplanet.sso.SSOToken;
 import com.sun.identity.shared.Constants;
 import java.util.Collections;
-import java.util.HashMap;
 
 import org.forgerock.opendj.ldap.DN;
 
@@ -59,9 +58,16 @@ public class CachedSMSEntry {
     // Notification method that will be called for ServiceSchemaManagerImpls
     protected static final String UPDATE_METHOD = "update";
 
-    // Cache of CachedSMSEntries (static)
-    protected static Map smsEntries = Collections.synchronizedMap(
-        new HashMap(1000));
+    // Cache of CachedSMSEntries (static), keyed by normalized DN. Entries
+    // still used by ServiceSchemaManagerImpls and ServiceConfigImpls are
+    // never evicted, as they rely on this entry to be notified of changes.
+    protected static final SMSEntryRegistry<CachedSMSEntry> smsEntries =
+        new SMSEntryRegistry<>(
+            SystemProperties.getAsInt(Constants.SMS_CACHE_MAX_ENTRIES, 0),
+            CachedSMSEntry::isValid,
+            e -> e.serviceObjects.isEmpty(),
+            CachedSMSEntry::update,
+            e -> e.clear(false));
 
     // Instance variables
     
@@ -69,7 +75,7 @@ public class CachedSMSEntry {
     // that must be updated where entry changes
     protected Set serviceObjects = Collections.synchronizedSet(
         new HashSet());
-    protected String notificationID;
+    protected volatile String notificationID;
 
     protected Set principals = Collections.synchronizedSet(
         new HashSet(10)); // Principals who have read access
@@ -83,14 +89,15 @@ public class CachedSMSEntry {
     protected SMSEntry smsEntry;
 
     // Flag that determines if this object can be used
-    private boolean valid;
+    private volatile boolean valid;
     
     // Flag to determine if the cached entry is dirty and 
-    // must be refreshed along with the last update time & TTL
-    private boolean dirty;
+    // must be refreshed along with the last update time & TTL.
+    // Volatile so that readers can check it without taking dirtyLock.
+    private volatile boolean dirty;
     private Object dirtyLock = new Object();
     static boolean ttlEnabled;
-    static long lastUpdate;
+    static volatile long lastUpdate;
     static long ttl = 1800000;  // 30 minutes
     
     
@@ -150,6 +157,21 @@ public class CachedSMSEntry {
             dirty = true;
         }
     }
+
+    /**
+     * Reads the attributes from the datastore if the entry is dirty. When
+     * several threads find the entry dirty at once, only the first reads
+     * the attributes and the others use the result.
+     */
+    void refreshIfDirty() {
+        if (isDirty()) {
+            synchronized (dirtyLock) {
+                if (dirty) {
+                    refresh();
+                }
+            }
+        }
+    }
     
     /**
      * Reads the attributes from the datastore and send notifications to
@@ -233,9 +255,9 @@ public class CachedSMSEntry {
         synchronized(dirtyLock) {
             dirty = true;
         }
-        // Remove from cache
+        // Remove from cache, unless already replaced by a new instance
         if (removeFromCache) {
-            smsEntries.remove(dnRFCStr);
+            smsEntries.remove(dnRFCStr, this);
         }
     }
     
@@ -332,9 +354,7 @@ public class CachedSMSEntry {
     }
 
     public SMSEntry getClonedSMSEntry() {
-        if (isDirty()) {
-            refresh();
-        }
+        refreshIfDirty();
         try {
             return ((SMSEntry) smsEntry.clone());
         } catch (CloneNotSupportedException c) {
@@ -344,9 +364,7 @@ public class CachedSMSEntry {
     }
 
     boolean isNewEntry() {
-        if (isDirty()) {
-            refresh();
-        }
+        refreshIfDirty();
         return (smsEntry.isNewEntry());
     }
 
@@ -376,20 +394,18 @@ public class CachedSMSEntry {
         if (SMSEntry.debug.messageEnabled()) {
             SMSEntry.debug.message("CachedSMSEntry::getInstance: " + dn);
         }
-        String cacheEntry = DN.valueOf(dn).toString().toLowerCase();
-        CachedSMSEntry answer = (CachedSMSEntry) smsEntries.get(cacheEntry);
+        DN entryDN = DN.valueOf(dn);
+        CachedSMSEntry answer = smsEntries.get(
+            SMSEntryRegistry.keyOf(entryDN));
         if ((answer == null) || !answer.isValid()) {
-            // Construct the SMS entry. Should be outside the synchronized
-            // block since SMSEntry call delegation which in turn calls
-            // policy, idrepo, special repo and SMS again
+            // Construct the SMS entry. Must be outside any lock since
+            // SMSEntry call delegation which in turn calls policy, idrepo,
+            // special repo and SMS again
             CachedSMSEntry tmp = new CachedSMSEntry(new SMSEntry(t, dn));
-            synchronized (smsEntries) {
-                if (((answer = (CachedSMSEntry) smsEntries.get(cacheEntry))
-                    == null) || !answer.isValid()) {
-                    // Add it to cache
-                    answer = tmp;
-                    smsEntries.put(cacheEntry, answer);
-                }
+            answer = smsEntries.register(entryDN, tmp);
+            if (answer != tmp) {
+                // Another thread cached the entry first, release this one
+                tmp.clear(false);
             }
         }
         
@@ -431,20 +447,46 @@ public class CachedSMSEntry {
         }
     }
 
-    // Clears the cache
+    // Clears the cache, marking every entry as no longer valid
     static void clearCache() {
-        synchronized (smsEntries) {
-            for (Iterator items = smsEntries.values().iterator();
-                items.hasNext();) {
-                CachedSMSEntry cEntry = (CachedSMSEntry) items.next();
-                // this entry is no long valid
-                cEntry.clear(false);
-            }
-            // Remove all entries from cache
-            smsEntries.clear();
+        if (SMSEntry.debug.messageEnabled()) {
+            SMSEntry.debug.message("CachedSMSEntry::clearCache "
+                + getCacheStatistics());
+        }
+        smsEntries.clear();
+    }
+
+    /**
+     * Marks the cached entry for the DN, and optionally all cached entries
+     * below it, as dirty. The entries are read again from the datastore the
+     * next time they are used.
+     * @param dn the DN of the changed entry
+     * @param subtree true to include the entries below the DN
+     */
+    static void invalidate(DN dn, boolean subtree) {
+        int count = smsEntries.invalidate(dn, subtree);
+        if (SMSEntry.debug.messageEnabled()) {
+            SMSEntry.debug.message("CachedSMSEntry::invalidate " + count
+                + " entries for dn: " + dn + " subtree: " + subtree);
         }
     }
 
+    /**
+     * Marks all cached entries as dirty.
+     */
+    static void invalidateAll() {
+        smsEntries.invalidateAll();
+    }
+
+    /**
+     * Returns the statistics of the cache, for debugging.
+     * @return the size of the cache and its hit, miss, eviction and
+     *     invalidation counts
+     */
+    static String getCacheStatistics() {
+        return smsEntries.toString();
+    }
+
     // ----------------------------------------------
     // protected instance methods for ServiceSchemaManager
     // ----------------------------------------------
@@ -25,6 +25,7 @@
  * $Id: CachedSubEntries.java,v 1.10 2008/07/11 01:46:21 arviranga Exp $
  *
  * Portions Copyrighted 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.sm;
 
@@ -182,9 +183,7 @@ public class CachedSubEntries {
     }
 
     protected SMSEntry getSMSEntry() {
-        if (cachedEntry.isDirty()) {
-            cachedEntry.refresh();
-        }
+        cachedEntry.refreshIfDirty();
         return (cachedEntry.getSMSEntry());
     }
 
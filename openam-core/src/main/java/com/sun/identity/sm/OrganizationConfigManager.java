@@ -25,6 +25,7 @@
  * $Id: OrganizationConfigManager.java,v 1.31 2010/01/20 17:01:36 veiming Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.sm;
 
@@ -604,9 +605,7 @@ public class OrganizationConfigManager {
             try {
                 CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
                         subOrgDN);
-                if (cEntry.isDirty()) {
-                    cEntry.refresh();
-                }
+                cEntry.refreshIfDirty();
                 SMSEntry entry = cEntry.getClonedSMSEntry();
                 if (!recursive) {
                     // Check if there are sub organization entries
@@ -694,11 +693,12 @@ public class OrganizationConfigManager {
             try {
                 CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
                         orgDN);
-                if (cEntry.isDirty() || (coexistMode) ||
-                    (realmEnabled && isCopyOrgEnabled())) {
+                if (coexistMode || (realmEnabled && isCopyOrgEnabled())) {
                     // Since AMSDK org notifications will not be
                     // obtained, the entry must be read again
                     cEntry.refresh();
+                } else {
+                    cEntry.refreshIfDirty();
                 }
                 SMSEntry entry = cEntry.getSMSEntry();
                 Map map = SMSUtils.getAttrsFromEntry(entry);
@@ -808,9 +808,7 @@ public class OrganizationConfigManager {
             try {
                 CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
                         orgDN);
-                if (cEntry.isDirty()) {
-                    cEntry.refresh();
-                }
+                cEntry.refreshIfDirty();
                 SMSEntry e = cEntry.getClonedSMSEntry();
                 ServiceSchemaManager ssm = new ServiceSchemaManager(
                         serviceName, token);
@@ -877,9 +875,7 @@ public class OrganizationConfigManager {
             try {
                 CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
                         orgDN);
-                if (cEntry.isDirty()) {
-                    cEntry.refresh();
-                }
+                cEntry.refreshIfDirty();
                 SMSEntry e = cEntry.getClonedSMSEntry();
                 if ((attributes != null) && (!attributes.isEmpty())) {
                     // Validate the attributes
@@ -1015,9 +1011,7 @@ public class OrganizationConfigManager {
             try {
                 CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
                         orgDN);
-                if (cEntry.isDirty()) {
-                    cEntry.refresh();
-                }
+                cEntry.refreshIfDirty();
                 SMSEntry e = cEntry.getClonedSMSEntry();
                 SMSUtils.removeAttribute(e, serviceName.toLowerCase() + "-"
                         + attrName);
@@ -1066,9 +1060,7 @@ public class OrganizationConfigManager {
             try {
                 CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
                         orgDN);
-                if (cEntry.isDirty()) {
-                    cEntry.refresh();
-                }
+                cEntry.refreshIfDirty();
                 SMSEntry e = cEntry.getClonedSMSEntry();
                 ServiceSchemaManager ssm = new ServiceSchemaManager(
                         serviceName, token);
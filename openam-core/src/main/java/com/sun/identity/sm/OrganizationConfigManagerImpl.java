@@ -25,6 +25,7 @@
  * $Id: OrganizationConfigManagerImpl.java,v 1.12 2009/07/25 05:11:55 qcheng Exp $
  *
  * Portions Copyrighted 2011-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.sm;
 
@@ -363,11 +364,12 @@ class OrganizationConfigManagerImpl implements SMSObjectListener {
     }
     
     boolean isValid() throws SMSException {
-        if ((smsEntry.isValid() && smsEntry.isDirty()) ||
-            ServiceManager.isCoexistenceMode()) {
+        if (ServiceManager.isCoexistenceMode()) {
             // If in co-exist mode, SMS will not get updates for org
             // hence have to update the SMSEntry
             smsEntry.refresh();
+        } else if (smsEntry.isValid()) {
+            smsEntry.refreshIfDirty();
         }
         // Check if the organization still exists
         if (smsEntry.isNewEntry()) {
@@ -0,0 +1,283 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.sm;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.SearchScope;
+
+/**
+ * Concurrent registry of cached SMS objects keyed by DN, as used by {@link CachedSMSEntry}.
+ *
+ * Lookups read a concurrent map and set a flag on the entry found, so they never take a lock shared with
+ * other readers. Entries are invalidated by DN, either alone or with every entry below it, which marks them
+ * to be read again from the data store the next time they are used rather than reading them straight away.
+ *
+ * The registry may be bounded. When it holds more entries than its limit, entries are evicted in second chance
+ * (clock) order. Entries which are still in use, according to the predicate given, are skipped, as are entries
+ * read since they were last considered. Each registered object is queued once; objects which have since been
+ * removed or replaced are dropped when they reach the head of the queue, which is trimmed once it holds twice
+ * the limit so that it stays bounded.
+ *
+ * @param <V> The type of the cached objects.
+ */
+final class SMSEntryRegistry<V> {
+
+    private final ConcurrentMap<String, Node<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Node<V>> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final Predicate<V> isLive;
+    private final Predicate<V> isEvictable;
+    private final Consumer<V> invalidate;
+    private final Consumer<V> discard;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxSize The maximum number of entries, or zero or less for no limit.
+     * @param isLive Whether a cached object may still be returned. Dead objects are replaced when a new object
+     *               is registered for the same DN.
+     * @param isEvictable Whether a cached object may be evicted to keep the registry within its limit.
+     * @param invalidate Marks a cached object to be read again before it is next used.
+     * @param discard Releases a cached object which has been removed by eviction or {@link #clear()}.
+     */
+    SMSEntryRegistry(int maxSize, Predicate<V> isLive, Predicate<V> isEvictable, Consumer<V> invalidate,
+            Consumer<V> discard) {
+        this.maxSize = maxSize;
+        this.isLive = isLive;
+        this.isEvictable = isEvictable;
+        this.invalidate = invalidate;
+        this.discard = discard;
+    }
+
+    /**
+     * Normalizes a DN to the key under which it is registered.
+     *
+     * @param dn A DN.
+     * @return The key.
+     */
+    static String keyOf(DN dn) {
+        return dn.toString().toLowerCase();
+    }
+
+    /**
+     * @param key The normalized DN.
+     * @return The cached object, which may no longer be live, or null.
+     */
+    V get(String key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        node.referenced = true;
+        return node.value;
+    }
+
+    /**
+     * Registers an object unless a live object is already registered for the DN.
+     *
+     * @param dn The DN of the object.
+     * @param candidate The object to register.
+     * @return The registered object. If this is not the candidate, the caller should release the candidate.
+     */
+    V register(DN dn, V candidate) {
+        String key = keyOf(dn);
+        Node<V> result = entries.compute(key, (k, current) ->
+                current == null || !isLive.test(current.value) ? new Node<>(key, dn, candidate) : current);
+        if (result.value == candidate && maxSize > 0) {
+            enqueue(result);
+            evictWhileFull(result);
+        }
+        return result.value;
+    }
+
+    /**
+     * Removes the object registered for the key, if it is the given object.
+     *
+     * @param key The normalized DN.
+     * @param value The object to remove.
+     */
+    void remove(String key, V value) {
+        entries.computeIfPresent(key, (k, node) -> node.value == value ? null : node);
+    }
+
+    /**
+     * Marks the object registered for the DN, and optionally every object registered below it, to be read
+     * again before it is next used.
+     *
+     * @param base The DN.
+     * @param subtree True to include the objects registered below the DN.
+     * @return The number of objects invalidated.
+     */
+    int invalidate(DN base, boolean subtree) {
+        int count = 0;
+        if (!subtree) {
+            Node<V> node = entries.get(keyOf(base));
+            if (node != null) {
+                invalidate.accept(node.value);
+                count++;
+            }
+        } else {
+            for (Node<V> node : entries.values()) {
+                if (node.dn.isInScopeOf(base, SearchScope.WHOLE_SUBTREE)) {
+                    invalidate.accept(node.value);
+                    count++;
+                }
+            }
+        }
+        invalidations.add(count);
+        return count;
+    }
+
+    /**
+     * Marks every registered object to be read again before it is next used.
+     */
+    void invalidateAll() {
+        for (Node<V> node : entries.values()) {
+            invalidate.accept(node.value);
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Removes and releases every registered object.
+     */
+    void clear() {
+        for (String key : entries.keySet()) {
+            Node<V> node = entries.remove(key);
+            if (node != null) {
+                discard.accept(node.value);
+            }
+        }
+        while (evictionOrder.poll() != null) {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return The number of registered objects.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of objects queued for eviction, including objects no longer registered which have not
+     * yet been dropped from the queue.
+     */
+    int getQueueLength() {
+        return queued.get();
+    }
+
+    /**
+     * @return The number of lookups which found a registered object.
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups which did not find a registered object.
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of objects evicted to keep the registry within its limit.
+     */
+    long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of objects marked to be read again.
+     */
+    long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", invalidations=" + getInvalidationCount();
+    }
+
+    private void enqueue(Node<V> node) {
+        evictionOrder.offer(node);
+        queued.incrementAndGet();
+    }
+
+    /**
+     * Evict entries in clock order until the registry is within its limit, and drop queued nodes which are no
+     * longer registered until the queue is within twice the limit. Each queued node is considered at most twice
+     * per call, so that a registry full of objects in use does not spin.
+     *
+     * @param registered The node just registered, which is never evicted as it is about to be returned.
+     */
+    private void evictWhileFull(Node<V> registered) {
+        int remaining = 2 * queued.get();
+        while ((entries.size() > maxSize || queued.get() > 2 * maxSize) && remaining-- > 0) {
+            Node<V> node = evictionOrder.poll();
+            if (node == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.get(node.key) != node) {
+                continue;
+            }
+            if (entries.size() <= maxSize) {
+                enqueue(node);
+            } else if (node.referenced || node == registered || !isEvictable.test(node.value)) {
+                node.referenced = false;
+                enqueue(node);
+            } else if (entries.remove(node.key, node)) {
+                discard.accept(node.value);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * A registered object with its DN and eviction state.
+     */
+    private static final class Node<V> {
+        private final String key;
+        private final DN dn;
+        private final V value;
+        private volatile boolean referenced;
+
+        private Node(String key, DN dn, V value) {
+            this.key = key;
+            this.dn = dn;
+            this.value = value;
+        }
+    }
+}
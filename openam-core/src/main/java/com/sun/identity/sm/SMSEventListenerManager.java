@@ -25,6 +25,7 @@
  * $Id: SMSEventListenerManager.java,v 1.12 2009/01/28 05:35:03 ww203982 Exp $
  *
  * Portions Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 OSSTech Corporation
  */
 
 package com.sun.identity.sm;
@@ -108,6 +109,13 @@ class SMSEventListenerManager implements SMSObjectListener {
         DN sdn = DN.valueOf(odn);
         String dn = sdn.toString().toLowerCase();
 
+        // Mark the cached entries as dirty, including the entries below a
+        // deleted node. They are read again when next used, which covers
+        // cached entries no longer registered for notifications.
+        if (!isLocal) {
+            CachedSMSEntry.invalidate(sdn, event == SMSObjectListener.DELETE);
+        }
+
         // If event is delete, need to send notifications for sub-entries
         // Even if backend datastore notification is enabled, they woould
         // arrive much later causing write-through cache issues.
@@ -162,6 +170,7 @@ class SMSEventListenerManager implements SMSObjectListener {
         if (debug.messageEnabled()) {
             debug.message("SMSEventListenerManager::allObjectsChanged called");
         }
+        CachedSMSEntry.invalidateAll();
         // Collect all the DNs from "nodeChanges" and send notifications
         Set<String> dns = new HashSet<>();
         synchronized (nodeChanges) {
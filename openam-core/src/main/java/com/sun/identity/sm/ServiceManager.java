@@ -25,6 +25,7 @@
  * $Id: ServiceManager.java,v 1.27 2009/10/28 04:24:26 hengming Exp $
  *
  * Portions Copyrighted 2012-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.sm;
@@ -747,9 +748,7 @@ public class ServiceManager {
                     + version + SMSEntry.COMMA + dn;
             CachedSMSEntry configsmse = CachedSMSEntry.getInstance(token,
                     configdn);
-            if (configsmse.isDirty()) {
-                configsmse.refresh();
-            }
+            configsmse.refreshIfDirty();
             SMSEntry confige = configsmse.getClonedSMSEntry();
             if (!confige.isNewEntry()) {
                 confige.delete(token);
@@ -758,9 +757,7 @@ public class ServiceManager {
             // If there are no other service version nodes for that service,
             // delete that node(schema).
             CachedSMSEntry smse = CachedSMSEntry.getInstance(token, dn);
-            if (smse.isDirty()) {
-                smse.refresh();
-            }
+            smse.refreshIfDirty();
             SMSEntry e = smse.getSMSEntry();
             Iterator versions = 
                 e.subEntries(token, "*", 0, false, false).iterator();
@@ -798,9 +795,7 @@ public class ServiceManager {
             String version = (String) versions.next();
             CachedSMSEntry ce = CachedSMSEntry.getInstance(token,
                     getServiceNameDN(serviceName, version));
-            if (ce.isDirty()) {
-                ce.refresh();
-            }
+            ce.refreshIfDirty();
             SMSEntry e = ce.getClonedSMSEntry();
             String[] values = { SMSSchema.getDummyXML(serviceName, version) };
             e.setAttribute(SMSEntry.ATTR_SCHEMA, values);
@@ -1283,9 +1278,7 @@ public class ServiceManager {
         try {
             CachedSMSEntry entry = CachedSMSEntry.getInstance(token,
                 REALM_ENTRY);
-            if (entry.isDirty()) {
-                entry.refresh();
-            }
+            entry.refreshIfDirty();
             if (!entry.isNewEntry()) {
                 ditUpgradedCache = true;
                 ServiceConfigManagerImpl ssm = ServiceConfigManagerImpl
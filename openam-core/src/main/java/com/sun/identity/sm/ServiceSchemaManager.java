@@ -25,6 +25,7 @@
  * $Id: ServiceSchemaManager.java,v 1.12 2009/07/25 05:11:55 qcheng Exp $
  *
  * Portions Copyrighted 2012-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.sm;
 
@@ -702,9 +703,7 @@ public class ServiceSchemaManager {
     public String getLastModifiedTime() throws SMSException, SSOException {
         validateServiceSchemaManagerImpl();
         CachedSMSEntry ce = ssm.getCachedSMSEntry();
-        if (ce.isDirty()) {
-            ce.refresh();
-        }
+        ce.refreshIfDirty();
         SMSEntry e = ce.getSMSEntry();
         String vals[] = e.getAttributeValues(SMSEntry.ATTR_MODIFY_TIMESTAMP,
             true);
@@ -931,9 +930,7 @@ public class ServiceSchemaManager {
         CachedSMSEntry cEntry = CachedSMSEntry.getInstance(token,
             ServiceManager.getServiceNameDN(smsSchema.getServiceName(),
             smsSchema.getServiceVersion()));
-        if (cEntry.isDirty()) {
-            cEntry.refresh();
-        }
+        cEntry.refreshIfDirty();
         smsEntry = cEntry.getSMSEntry();
         String[] schema = new String[1];
         if ((smsEntry.getAttributeValues(SMSEntry.ATTR_SCHEMA) == null)
@@ -25,6 +25,7 @@
  * $Id: ServiceSchemaManagerImpl.java,v 1.8 2008/08/28 18:36:30 arviranga Exp $
  *
  * Portions Copyrighted 2012-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.sm;
 
@@ -129,9 +130,7 @@ public class ServiceSchemaManagerImpl implements SMSObjectListener {
     public boolean isValid() throws SMSException {
         // if cache is not valid, don't bother checking the rest
     	if (smsEntry.isValid()) {
-    	    if (smsEntry.isDirty()) {
-                smsEntry.refresh();
-            }
+    	    smsEntry.refreshIfDirty();
             // Check if entry exists i.e service name with version exists
             if (smsEntry.isNewEntry()) {
                 String[] msgs = { serviceName };
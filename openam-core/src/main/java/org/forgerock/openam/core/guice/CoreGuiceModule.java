@@ -13,6 +13,7 @@
  *
  * Copyright 2013-2016 ForgeRock AS.
  * Portions Copyrighted 2015 Nomura Research Institute, Ltd.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.core.guice;
@@ -114,6 +115,7 @@ import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.CTSMonitoringStoreImpl;
 import org.forgerock.openam.cts.monitoring.impl.queue.MonitoredResultHandlerFactory;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
 import org.forgerock.openam.entitlement.monitoring.PolicyMonitor;
 import org.forgerock.openam.entitlement.monitoring.PolicyMonitorImpl;
 import org.forgerock.openam.entitlement.service.EntitlementConfigurationFactory;
@@ -125,6 +127,7 @@ import org.forgerock.openam.session.SessionPollerPool;
 import org.forgerock.openam.session.SessionServiceURLService;
 import org.forgerock.openam.session.SessionURL;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
 import org.forgerock.openam.sm.SMSConfigurationFactory;
 import org.forgerock.openam.sm.ServerGroupConfiguration;
 import org.forgerock.openam.sm.config.ConsoleConfigHandler;
@@ -232,6 +235,13 @@ public class CoreGuiceModule extends AbstractModule {
         // Policy Monitoring
         bind(PolicyMonitor.class).to(PolicyMonitorImpl.class);
 
+        // Monitoring stores written out by the OpenMetrics endpoint
+        Multibinder<MetricsSource> metricsSources = Multibinder.newSetBinder(binder(), MetricsSource.class);
+        metricsSources.addBinding().to(CTSMonitoringStoreImpl.class);
+        metricsSources.addBinding().to(TaskQueueMonitor.class);
+        metricsSources.addBinding().to(SessionMonitoringStore.class);
+        metricsSources.addBinding().to(PolicyMonitorImpl.class);
+
         // SAML2 token repository dependencies
         bind(new TypeLiteral<TokenAdapter<SAMLToken>>(){}).to(SAMLAdapter.class);
 
@@ -380,6 +390,19 @@ public class CoreGuiceModule extends AbstractModule {
         }
     }
 
+    /**
+     * The CTS Reaper Pool provides the threads on which the partitioned CTS Reaper reaps
+     * partitions in parallel, one thread for each partition reaped at the same time.
+     *
+     * @param esf Factory for generating an appropriate ExecutorService.
+     * @param config Required to resolve how many threads are required.
+     * @return A configured ExecutorService for the CTS Reaper.
+     */
+    @Provides @Inject @Named(CoreTokenConstants.CTS_REAPER_POOL) @Singleton
+    ExecutorService getCTSReaperExecutorService(ExecutorServiceFactory esf, CoreTokenConfig config) {
+        return esf.createFixedThreadPool(config.getReaperParallelism(), CoreTokenConstants.CTS_REAPER_POOL);
+    }
+
     @Provides @Inject @Named(CoreTokenConstants.CTS_SCHEDULED_SERVICE)
     ScheduledExecutorService getCTSScheduledService(ExecutorServiceFactory esf) {
         return esf.createScheduledService(1);
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts;
 
@@ -38,12 +39,26 @@ public class CoreTokenConfig {
     private final int runPeriod;
     private final int cleanupPageSize;
 
+    // Partitioned CTS Reaper
+    private final int reaperPartitions;
+    private final int reaperPartitionSpan;
+    private final int reaperParallelism;
+    private final int reaperMaxInFlight;
+    private final int reaperTargetLatency;
+    private final int reaperMaxQueueDepth;
+    private final boolean reaperCoordinated;
+
+    private final int updateCacheSize;
+
     private final int sleepInterval;
 
     // Token Blob strategy flags
     private final boolean tokensEncrypted;
     private final boolean tokensCompressed;
     private final boolean attributeNamesCompressed;
+    private final String compressionCodec;
+
+    private final boolean sessionsBinary;
 
     /**
      * Create a new default instance of the CoreTokenConfig which will establish the various configuration
@@ -74,8 +89,42 @@ public class CoreTokenConfig {
         // Control Attribute Name Compression.
         attributeNamesCompressed = SystemProperties.getAsBoolean(Constants.SESSION_REPOSITORY_ATTRIBUTE_NAME_COMPRESSION);
 
+        // Select the Token Compression codec.
+        compressionCodec = SystemProperties.get(Constants.SESSION_REPOSITORY_COMPRESSION_CODEC);
+
+        // Control the binary Session format.
+        sessionsBinary = SystemProperties.getAsBoolean(Constants.SESSION_REPOSITORY_BINARY_FORMAT);
+
         // Controls the size of pages requested for CTS Reaper
         cleanupPageSize = 1000;
+
+        // Controls the partitioned CTS Reaper, which is used when more than one partition is configured.
+        reaperPartitions = Math.max(1, getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_PARTITIONS, 1));
+        reaperPartitionSpan = Math.max(1,
+                getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_PARTITION_SPAN, cleanupPeriod));
+        reaperParallelism = Math.max(1, getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_PARALLELISM, 2));
+        reaperMaxInFlight = getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_MAX_IN_FLIGHT, 8);
+        reaperTargetLatency = getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_TARGET_LATENCY, 1000);
+        reaperMaxQueueDepth = getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_MAX_QUEUE_DEPTH, 5000);
+        String coordinated = SystemPropertiesManager.get(CoreTokenConstants.CTS_REAPER_COORDINATED);
+        reaperCoordinated = coordinated == null || Boolean.parseBoolean(coordinated);
+
+        // Controls how many token entries are remembered to update tokens without reading them first.
+        updateCacheSize = Math.max(0, getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_UPDATE_CACHE_SIZE, 5000));
+    }
+
+    /**
+     * The number of connections the CTS Reaper may use: one for each partition it reaps at the same time when the
+     * partitioned reaper is enabled, otherwise one. Static so that it can be used when building the connection
+     * configuration, which is created before the Core Token Service.
+     *
+     * @return A value greater than zero.
+     */
+    public static int getReaperMaxConnections() {
+        if (getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_PARTITIONS, 1) <= 1) {
+            return 1;
+        }
+        return Math.max(1, getSystemManagerPropertyAsInt(CoreTokenConstants.CTS_REAPER_PARALLELISM, 2));
     }
 
     /**
@@ -179,10 +228,82 @@ public class CoreTokenConfig {
         return attributeNamesCompressed;
     }
 
+    /**
+     * @return The name of the codec used to compress Tokens, or null if the default should be used.
+     */
+    public String getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * @return True if Sessions should be stored in the binary format rather than as JSON. False by default.
+     */
+    public boolean isSessionBinaryFormat() {
+        return sessionsBinary;
+    }
+
     /**
      * @return The LDAP Query Page size in Tokens that will be deleted by the CTS Reaper.
      */
     public int getCleanupPageSize() {
         return cleanupPageSize;
     }
+
+    /**
+     * @return The number of expiry time partitions the CTS Reaper divides expired tokens into. One, the default,
+     * selects the single query CTS Reaper.
+     */
+    public int getReaperPartitions() {
+        return reaperPartitions;
+    }
+
+    /**
+     * @return The width in milliseconds of each CTS Reaper partition. Defaults to the cleanup period.
+     */
+    public int getReaperPartitionSpan() {
+        return reaperPartitionSpan;
+    }
+
+    /**
+     * @return The number of partitions the CTS Reaper reaps at the same time.
+     */
+    public int getReaperParallelism() {
+        return reaperParallelism;
+    }
+
+    /**
+     * @return The maximum number of pages of deletes the partitioned CTS Reaper will have outstanding at once.
+     */
+    public int getReaperMaxInFlight() {
+        return reaperMaxInFlight;
+    }
+
+    /**
+     * @return The time in milliseconds within which a page of deletes is expected to complete.
+     */
+    public int getReaperTargetLatency() {
+        return reaperTargetLatency;
+    }
+
+    /**
+     * @return The asynchronous CTS queue depth above which the partitioned CTS Reaper pauses.
+     */
+    public int getReaperMaxQueueDepth() {
+        return reaperMaxQueueDepth;
+    }
+
+    /**
+     * @return True if each partition should be claimed in the CTS so that only one server in the cluster reaps it.
+     */
+    public boolean isReaperCoordinated() {
+        return reaperCoordinated;
+    }
+
+    /**
+     * @return The number of token entries remembered to update tokens without reading them first. Zero disables
+     * updates without reads.
+     */
+    public int getUpdateCacheSize() {
+        return updateCacheSize;
+    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.adapters;
 
@@ -21,6 +22,7 @@ import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.api.tokens.TokenIdFactory;
+import org.forgerock.openam.cts.utils.BinarySessionSerialisation;
 import org.forgerock.openam.cts.utils.JSONSerialisation;
 import org.forgerock.openam.cts.utils.blob.TokenBlobUtils;
 import org.forgerock.openam.cts.utils.blob.strategies.AttributeCompressionStrategy;
@@ -36,6 +38,9 @@ import java.util.regex.Pattern;
 /**
  * SessionAdapter is responsible for providing conversions to and from InternalSession
  * and managing the details around data conversion for this class.
+ *
+ * Sessions are stored as JSON, or in the binary format of {@link BinarySessionSerialisation}
+ * when it is enabled. Either format is read, whichever is enabled.
  */
 public class SessionAdapter implements TokenAdapter<InternalSession> {
 
@@ -43,6 +48,7 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
     private final TokenIdFactory tokenIdFactory;
     private final CoreTokenConfig config;
     private final JSONSerialisation serialisation;
+    private final BinarySessionSerialisation binarySerialisation;
     private final TokenBlobUtils blobUtils;
 
     /**
@@ -56,14 +62,17 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
      * @param tokenIdFactory Non null.
      * @param config Non null.
      * @param serialisation Non null.
+     * @param binarySerialisation Non null.
      * @param blobUtils A collection of Binary Object utilities.
      */
     @Inject
     public SessionAdapter(TokenIdFactory tokenIdFactory, CoreTokenConfig config,
-                          JSONSerialisation serialisation, TokenBlobUtils blobUtils) {
+                          JSONSerialisation serialisation, BinarySessionSerialisation binarySerialisation,
+                          TokenBlobUtils blobUtils) {
         this.tokenIdFactory = tokenIdFactory;
         this.config = config;
         this.serialisation = serialisation;
+        this.binarySerialisation = binarySerialisation;
         this.blobUtils = blobUtils;
     }
 
@@ -96,12 +105,18 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
         token.setAttribute(SessionTokenField.SESSION_ID.getField(), session.getID().toString());
 
         // Binary data
-        String jsonBlob = serialisation.serialise(session);
-        blobUtils.setBlobFromString(token, jsonBlob);
-
-        String latestAccessTime = filterLatestAccessTime(token);
-        if (latestAccessTime != null) {
-            token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(), latestAccessTime);
+        if (config.isSessionBinaryFormat()) {
+            token.setBlob(binarySerialisation.serialise(session));
+            token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(),
+                    Long.toString(binarySerialisation.getLatestAccessTime(session)));
+        } else {
+            String jsonBlob = serialisation.serialise(session);
+            blobUtils.setBlobFromString(token, jsonBlob);
+
+            String latestAccessTime = filterLatestAccessTime(token);
+            if (latestAccessTime != null) {
+                token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(), latestAccessTime);
+            }
         }
 
         // Session handle
@@ -113,12 +128,30 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
     /**
      * Convert from a Token to an Internal Session.
      *
-     * Simply deserialise the InternalSession from the JSON blob.
+     * Simply deserialise the InternalSession from the binary or JSON blob.
      *
      * @param token Token to be converted back to its original format.
      * @return Non null InternalSession.
      */
     public InternalSession fromToken(Token token) {
+        InternalSession session;
+        if (BinarySessionSerialisation.isBinary(token.getBlob())) {
+            String latestAccessTime = token.getValue(SessionTokenField.LATEST_ACCESS_TIME.getField());
+            session = binarySerialisation.deserialise(token.getBlob(),
+                    latestAccessTime == null ? 0 : Long.parseLong(latestAccessTime));
+        } else {
+            session = fromJSON(token);
+        }
+        if (session.getSessionHandle() == null) {
+            //Originally the sessionHandle was stored in the serialize token, so if after the deserialization the
+            //sessionHandle field is not set, then we should attempt to retrieve the value directly from the token.
+            session.setSessionHandle(token.<String>getValue(SessionTokenField.SESSION_HANDLE.getField()));
+        }
+
+        return session;
+    }
+
+    private InternalSession fromJSON(Token token) {
         String jsonBlob = blobUtils.getBlobAsString(token);
         int index = findIndexOfValidField(jsonBlob);
 
@@ -137,14 +170,7 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
             jsonBlob = jsonBlob.substring(0, index) + addition + jsonBlob.substring(index, jsonBlob.length());
         }
 
-        InternalSession session = serialisation.deserialise(jsonBlob, InternalSession.class);
-        if (session.getSessionHandle() == null) {
-            //Originally the sessionHandle was stored in the serialize token, so if after the deserialization the
-            //sessionHandle field is not set, then we should attempt to retrieve the value directly from the token.
-            session.setSessionHandle(token.<String>getValue(SessionTokenField.SESSION_HANDLE.getField()));
-        }
-
-        return session;
+        return serialisation.deserialise(jsonBlob, InternalSession.class);
     }
 
     /**
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.api;
 
@@ -84,6 +85,10 @@ public class CoreTokenConstants {
      * The name of the general purpose worker pool for the CTS.
      */
     public static final String CTS_WORKER_POOL = "CTSWorkerPool";
+    /**
+     * The name of the worker pool used by the partitioned CTS Reaper.
+     */
+    public static final String CTS_REAPER_POOL = "CTSReaperPool";
     public static final String CTS_SMS_CONFIGURATION = "CTSServerConfiguration";
 
     /**
@@ -136,6 +141,54 @@ public class CoreTokenConstants {
      */
     public static final String CTS_ASYNC_QUEUE_SIZE = "org.forgerock.services.cts.async.queue.size";
 
+    /**
+     * The maximum number of tasks a work stealing task processor will draw from the queues in one pass.
+     */
+    public static final String CTS_ASYNC_BATCH_SIZE = "org.forgerock.services.cts.async.batch.size";
+
+    /**
+     * The number of expiry time partitions the CTS Reaper divides expired tokens into. A value greater than one
+     * enables the partitioned reaper, which reaps the partitions in parallel.
+     */
+    public static final String CTS_REAPER_PARTITIONS = "org.forgerock.services.cts.reaper.partitions";
+
+    /**
+     * The width in milliseconds of each CTS Reaper expiry time partition.
+     */
+    public static final String CTS_REAPER_PARTITION_SPAN = "org.forgerock.services.cts.reaper.partition.span";
+
+    /**
+     * The number of partitions the CTS Reaper will reap at the same time.
+     */
+    public static final String CTS_REAPER_PARALLELISM = "org.forgerock.services.cts.reaper.parallelism";
+
+    /**
+     * The maximum number of pages of deletes the partitioned CTS Reaper will have outstanding at once.
+     */
+    public static final String CTS_REAPER_MAX_IN_FLIGHT = "org.forgerock.services.cts.reaper.max.inflight";
+
+    /**
+     * The time in milliseconds within which the partitioned CTS Reaper expects a page of deletes to complete. Above
+     * this the reaper reduces the number of pages it has outstanding.
+     */
+    public static final String CTS_REAPER_TARGET_LATENCY = "org.forgerock.services.cts.reaper.target.latency";
+
+    /**
+     * The number of tasks waiting on the asynchronous CTS queues above which the partitioned CTS Reaper pauses.
+     */
+    public static final String CTS_REAPER_MAX_QUEUE_DEPTH = "org.forgerock.services.cts.reaper.max.queue.depth";
+
+    /**
+     * Whether the partitioned CTS Reaper claims each partition in the CTS so that only one server reaps it.
+     */
+    public static final String CTS_REAPER_COORDINATED = "org.forgerock.services.cts.reaper.coordinated";
+
+    /**
+     * The number of token entries remembered so that they can be updated without being read first. Zero disables
+     * updates without reads.
+     */
+    public static final String CTS_UPDATE_CACHE_SIZE = "org.forgerock.services.cts.update.cache.size";
+
     /**
      * Where to broadcast session logout/destroy to.
      */
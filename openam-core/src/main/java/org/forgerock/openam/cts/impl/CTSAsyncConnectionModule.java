@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.impl;
@@ -26,6 +27,7 @@ import org.forgerock.openam.cts.monitoring.CTSConnectionMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.connections.MonitoredCTSConnectionFactory;
 import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
 import org.forgerock.openam.sm.datalayer.api.QueueConfiguration;
+import org.forgerock.openam.sm.datalayer.api.TaskExecutor;
 import org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutor;
 import org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutorThreadFactory;
 import org.forgerock.openam.sm.datalayer.providers.DataLayerConnectionFactoryCache;
@@ -38,7 +40,16 @@ import com.google.inject.name.Names;
 public class CTSAsyncConnectionModule extends CTSConnectionModule {
 
     public CTSAsyncConnectionModule() {
-        super(SeriesTaskExecutor.class, true);
+        this(SeriesTaskExecutor.class);
+    }
+
+    /**
+     * Allows subclasses to configure an alternative asynchronous {@link TaskExecutor}.
+     *
+     * @param executorType The type of executor to bind.
+     */
+    protected CTSAsyncConnectionModule(Class<? extends TaskExecutor> executorType) {
+        super(executorType, true);
     }
 
     @Override
@@ -0,0 +1,35 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.cts.impl;
+
+import org.forgerock.openam.sm.datalayer.impl.WorkStealingTaskExecutor;
+
+/**
+ * Configures the asynchronous CTS connection type to use the {@link WorkStealingTaskExecutor}
+ * instead of the {@link org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutor}.
+ * <p>
+ * Enabled by setting the system property
+ * {@code org.forgerock.openam.sm.datalayer.module.CTS_ASYNC} to the name of this class.
+ *
+ * @see org.forgerock.openam.sm.datalayer.api.ConnectionType
+ */
+public class CTSWorkStealingConnectionModule extends CTSAsyncConnectionModule {
+
+    public CTSWorkStealingConnectionModule() {
+        super(WorkStealingTaskExecutor.class);
+    }
+}
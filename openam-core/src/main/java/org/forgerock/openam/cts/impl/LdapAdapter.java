@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.impl;
@@ -24,6 +25,7 @@ import javax.inject.Inject;
 import org.forgerock.openam.audit.context.AuditRequestContext;
 import org.forgerock.openam.cts.api.filter.TokenFilter;
 import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.impl.PersistedEntryCache.PersistedEntry;
 import org.forgerock.openam.cts.utils.LdapTokenAttributeConversion;
 import org.forgerock.openam.ldap.LDAPRequests;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
@@ -33,13 +35,22 @@ import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 import org.forgerock.openam.sm.datalayer.impl.ldap.LdapQueryFactory;
 import org.forgerock.openam.sm.datalayer.impl.ldap.LdapQueryFilterVisitor;
+import org.forgerock.opendj.ldap.Attribute;
 import org.forgerock.opendj.ldap.Connection;
 import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.DecodeOptions;
 import org.forgerock.opendj.ldap.Entries;
 import org.forgerock.opendj.ldap.Entry;
+import org.forgerock.opendj.ldap.Filter;
 import org.forgerock.opendj.ldap.LdapException;
 import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.controls.AssertionRequestControl;
+import org.forgerock.opendj.ldap.controls.PostReadRequestControl;
+import org.forgerock.opendj.ldap.controls.PostReadResponseControl;
+import org.forgerock.opendj.ldap.requests.AddRequest;
 import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.Requests;
 import org.forgerock.opendj.ldap.responses.Result;
 import org.forgerock.opendj.ldap.responses.SearchResultEntry;
 
@@ -50,22 +61,33 @@ import org.forgerock.opendj.ldap.responses.SearchResultEntry;
  *
  * It also helps us work around a number of final classes in the SDK which were
  * hindering unit testing.
+ *
+ * The entries created, read and updated are remembered with the ETag the directory
+ * server gives them, so that a Token can later be updated without being read first:
+ * the modification is computed from the remembered entry and only applied if the
+ * ETag still matches.
  */
 public class LdapAdapter implements TokenStorageAdapter<Connection> {
+    private static final String ETAG = "etag";
+    private static final String ALL_USER_ATTRIBUTES = "*";
+
     private final LdapTokenAttributeConversion conversion;
     private final LdapQueryFilterVisitor queryConverter;
     private final LdapQueryFactory queryFactory;
+    private final PersistedEntryCache persistedEntries;
 
     /**
      * Create an instance of this adapter.
      * @param conversion Non null, required for Token conversion.
+     * @param persistedEntries Non null, remembers the entries persisted.
      */
     @Inject
     public LdapAdapter(LdapTokenAttributeConversion conversion, LdapQueryFilterVisitor queryConverter,
-            LdapQueryFactory queryFactory) {
+            LdapQueryFactory queryFactory, PersistedEntryCache persistedEntries) {
         this.conversion = conversion;
         this.queryConverter = queryConverter;
         this.queryFactory = queryFactory;
+        this.persistedEntries = persistedEntries;
     }
 
     /**
@@ -79,7 +101,12 @@ public class LdapAdapter implements TokenStorageAdapter<Connection> {
     public void create(Connection connection, Token token) throws LdapOperationFailedException {
         Entry entry = conversion.getEntry(token);
         try {
-            processResult(connection.add(LDAPRequests.newAddRequest(entry)));
+            AddRequest request = Requests.newAddRequest(entry)
+                    .addControl(TransactionIdControl.newControl(AuditRequestContext.createSubTransactionIdValue()))
+                    .addControl(PostReadRequestControl.newControl(false, ETAG));
+            Result result = connection.add(request);
+            processResult(result);
+            persistedEntries.put(LdapTokenAttributeConversion.stripObjectClass(entry), getETag(result));
         } catch (LdapException e) {
             throw new LdapOperationFailedException(e.getResult());
         }
@@ -95,12 +122,26 @@ public class LdapAdapter implements TokenStorageAdapter<Connection> {
     public Token read(Connection connection,  String tokenId) throws DataLayerException {
         DN dn = conversion.generateTokenDN(tokenId);
         try {
-            SearchResultEntry resultEntry = connection.searchSingleEntry(LDAPRequests.newSingleEntrySearchRequest(dn));
-            return conversion.tokenFromEntry(resultEntry);
+            SearchResultEntry resultEntry = connection.searchSingleEntry(
+                    LDAPRequests.newSingleEntrySearchRequest(dn, ALL_USER_ATTRIBUTES, ETAG));
+            String eTag = null;
+            if (resultEntry != null) {
+                Attribute eTagAttribute = resultEntry.getAttribute(ETAG);
+                if (eTagAttribute != null) {
+                    eTag = eTagAttribute.firstValueAsString();
+                    resultEntry.removeAttribute(eTagAttribute.getAttributeDescription());
+                }
+            }
+            Token token = conversion.tokenFromEntry(resultEntry);
+            if (token != null && eTag != null) {
+                persistedEntries.put(LdapTokenAttributeConversion.stripObjectClass(conversion.getEntry(token)), eTag);
+            }
+            return token;
         } catch (LdapException e) {
             Result result = e.getResult();
             // Check for NO_SUCH_OBJECT
             if (result != null && ResultCode.NO_SUCH_OBJECT.equals(result.getResultCode())) {
+                persistedEntries.remove(dn);
                 return null;
             }
             throw new LdapOperationFailedException(result);
@@ -133,14 +174,68 @@ public class LdapAdapter implements TokenStorageAdapter<Connection> {
             return false;
         }
 
+        request.addControl(PostReadRequestControl.newControl(false, ETAG));
         try {
-            processResult(connection.modify(request));
+            Result result = connection.modify(request);
+            processResult(result);
+            persistedEntries.put(currentEntry, getETag(result));
         } catch (LdapException e) {
+            persistedEntries.remove(currentEntry.getName());
             throw new LdapOperationFailedException(e.getResult());
         }
         return true;
     }
 
+    /**
+     * Update the Token from the entry last created, read or updated for it, without reading it.
+     *
+     * The modification is asserted on the ETag of that entry, so it is only applied if the
+     * entry has not been changed since, by this server or another.
+     *
+     * @param connection The non null connection to perform this call against.
+     * @param updated The non null Token to update with.
+     * @return True if the token was updated, or false if the entry is not known, has changed,
+     * no longer exists or there were no changes detected, in which case the caller should read
+     * the Token and update it with {@link #update(Connection, Token, Token)}.
+     * @throws LdapOperationFailedException If the operation failed for another reason.
+     */
+    public boolean updateIfUnchanged(Connection connection, Token updated) throws LdapOperationFailedException {
+        Entry currentEntry = conversion.getEntry(updated);
+        LdapTokenAttributeConversion.stripObjectClass(currentEntry);
+
+        PersistedEntry previous = persistedEntries.get(currentEntry.getName());
+        if (previous == null) {
+            return false;
+        }
+
+        ModifyRequest request = Entries.diffEntries(previous.getEntry(), currentEntry,
+            Entries.diffOptions().replaceSingleValuedAttributes());
+
+        // Whether the entry has changed can only be told by modifying it
+        if (request.getModifications().isEmpty()) {
+            return false;
+        }
+
+        request.addControl(TransactionIdControl.newControl(AuditRequestContext.createSubTransactionIdValue()))
+                .addControl(AssertionRequestControl.newControl(true, Filter.equality(ETAG, previous.getETag())))
+                .addControl(PostReadRequestControl.newControl(false, ETAG));
+
+        try {
+            Result result = connection.modify(request);
+            processResult(result);
+            persistedEntries.put(currentEntry, getETag(result));
+        } catch (LdapException e) {
+            persistedEntries.remove(currentEntry.getName());
+            Result result = e.getResult();
+            if (result != null && (ResultCode.ASSERTION_FAILED.equals(result.getResultCode())
+                    || ResultCode.NO_SUCH_OBJECT.equals(result.getResultCode()))) {
+                return false;
+            }
+            throw new LdapOperationFailedException(result);
+        }
+        return true;
+    }
+
     /**
      * Performs a delete against the Token ID provided.
      *
@@ -150,7 +245,9 @@ public class LdapAdapter implements TokenStorageAdapter<Connection> {
      * @throws org.forgerock.openam.sm.datalayer.api.LdapOperationFailedException If the operation failed, this exception will capture the reason.
      */
     public void delete(Connection connection, String tokenId) throws LdapOperationFailedException {
-        String dn = String.valueOf(conversion.generateTokenDN(tokenId));
+        DN tokenDN = conversion.generateTokenDN(tokenId);
+        persistedEntries.remove(tokenDN);
+        String dn = String.valueOf(tokenDN);
         try {
             processResult(connection.delete(LDAPRequests.newDeleteRequest(dn)));
         } catch (LdapException e) {
@@ -186,6 +283,24 @@ public class LdapAdapter implements TokenStorageAdapter<Connection> {
         }
     }
 
+    /**
+     * Returns the ETag the directory server returned in the post-read control of the result.
+     * @param result Non null.
+     * @return The ETag, or null if the directory server did not return it.
+     */
+    private String getETag(Result result) {
+        try {
+            PostReadResponseControl control = result.getControl(PostReadResponseControl.DECODER, new DecodeOptions());
+            if (control == null) {
+                return null;
+            }
+            Attribute attribute = control.getEntry().getAttribute(ETAG);
+            return attribute == null ? null : attribute.firstValueAsString();
+        } catch (DecodeException e) {
+            return null;
+        }
+    }
+
     /**
      * Verify if the result was successful.
      * @param result Non null.
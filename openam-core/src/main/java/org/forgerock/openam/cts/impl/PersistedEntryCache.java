@@ -0,0 +1,185 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.Entry;
+
+/**
+ * Remembers the entry last written or read for each token, with the ETag the directory server gave it, so that the
+ * {@link LdapAdapter} can update a token from the remembered entry instead of reading it again.
+ * <p>
+ * The number of entries remembered is bounded. So that the many CTS worker threads reading and updating tokens do
+ * not all contend for one lock, the entries are split by DN across a fixed number of stripes, each holding its share
+ * of the bound and forgetting its own least recently used entry first. The entries must not be changed once
+ * remembered.
+ *
+ * @since 15.0.0
+ */
+public class PersistedEntryCache {
+
+    /**
+     * The maximum number of stripes the entries are split across.
+     */
+    static final int STRIPES = 16;
+
+    private final int maxSize;
+    private final Stripe[] stripes;
+
+    /**
+     * Creates a cache sized from the Core Token Service configuration.
+     *
+     * @param config Non null configuration.
+     */
+    @Inject
+    public PersistedEntryCache(CoreTokenConfig config) {
+        this(config.getUpdateCacheSize());
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize The number of entries to remember. Zero remembers none.
+     */
+    PersistedEntryCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        int count = Math.max(1, Math.min(STRIPES, this.maxSize));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(this.maxSize / count + (i < this.maxSize % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * @param dn Non null DN of the token entry.
+     * @return The entry last persisted, or null if it isn't known.
+     */
+    public PersistedEntry get(DN dn) {
+        if (maxSize == 0) {
+            return null;
+        }
+        Stripe stripe = stripeFor(dn);
+        synchronized (stripe) {
+            return stripe.get(dn);
+        }
+    }
+
+    /**
+     * Remembers the entry persisted for a token, or forgets it if the directory server gave it no ETag.
+     *
+     * @param entry Non null entry, without its object classes.
+     * @param eTag The ETag of the entry, possibly null.
+     */
+    public void put(Entry entry, String eTag) {
+        if (maxSize == 0) {
+            return;
+        }
+        if (eTag == null) {
+            remove(entry.getName());
+            return;
+        }
+        PersistedEntry persisted = new PersistedEntry(entry, eTag);
+        Stripe stripe = stripeFor(entry.getName());
+        synchronized (stripe) {
+            stripe.put(entry.getName(), persisted);
+        }
+    }
+
+    /**
+     * Forgets the entry of a token.
+     *
+     * @param dn Non null DN of the token entry.
+     */
+    public void remove(DN dn) {
+        if (maxSize == 0) {
+            return;
+        }
+        Stripe stripe = stripeFor(dn);
+        synchronized (stripe) {
+            stripe.remove(dn);
+        }
+    }
+
+    /**
+     * @return The number of entries remembered.
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(DN dn) {
+        int hash = dn.hashCode();
+        return stripes[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    /**
+     * A share of the entries, in access order. Guarded by itself.
+     */
+    private static final class Stripe extends LinkedHashMap<DN, PersistedEntry> {
+
+        private final int maxSize;
+
+        private Stripe(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DN, PersistedEntry> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    /**
+     * A token entry, and the ETag the directory server gave it.
+     */
+    public static final class PersistedEntry {
+
+        private final Entry entry;
+        private final String eTag;
+
+        private PersistedEntry(Entry entry, String eTag) {
+            this.entry = entry;
+            this.eTag = eTag;
+        }
+
+        /**
+         * @return The entry, without its object classes.
+         */
+        public Entry getEntry() {
+            return entry;
+        }
+
+        /**
+         * @return The ETag of the entry.
+         */
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
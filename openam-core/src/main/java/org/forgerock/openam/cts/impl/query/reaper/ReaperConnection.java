@@ -13,10 +13,12 @@
  *
  * Copyright 2014-2015 ForgeRock AS.
  * Portions copyright 2019 Open Source Solution Technology Corporation
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.impl.query.reaper;
 
 import java.io.Closeable;
+import java.util.Calendar;
 import java.util.Collection;
 
 import javax.inject.Inject;
@@ -88,6 +90,11 @@ public class ReaperConnection<C extends Closeable> implements ReaperQuery {
         }
     }
 
+    @Override
+    public void setExpiryRange(Calendar from, Calendar to) {
+        impl.setExpiryRange(from, to);
+    }
+
     /**
      * If this is the first call, then initialise the connection.
      *
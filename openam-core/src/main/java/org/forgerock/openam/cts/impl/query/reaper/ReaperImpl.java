@@ -13,6 +13,7 @@
  *
  * Copyright 2014-2016 ForgeRock AS.
  * Portions copyright 2019 Open Source Solution Technology Corporation
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.impl.query.reaper;
 
@@ -42,20 +43,42 @@ import org.forgerock.util.query.QueryFilter;
 public class ReaperImpl<C, F> implements ReaperQuery {
 
     private Iterator<Collection<String>> results;
-    private final QueryBuilder<C, F> query;
+    private final QueryFactory<C, F> queryFactory;
+    private final int pageSize;
+    private QueryBuilder<C, F> query;
     private C connection;
 
     @Inject
     public ReaperImpl(@DataLayer(ConnectionType.CTS_REAPER) QueryFactory queryFactory, CoreTokenConfig config) {
-        QueryFactory<C, F> queryFactoryProvided = queryFactory;
+        this.queryFactory = queryFactory;
         Reject.ifTrue(config.getCleanupPageSize() <= 0);
-        int pageSize = config.getCleanupPageSize();
+        pageSize = config.getCleanupPageSize();
 
         Calendar calendar = getCalendarInstance();
 
-        QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, calendar);
-        query = queryFactoryProvided.createInstance()
-                .withFilter(filter.accept(queryFactoryProvided.createFilterConverter(), null))
+        query = createQuery(QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, calendar));
+    }
+
+    /**
+     * Restricts the query to Tokens which expired within the given range.
+     *
+     * @param from Inclusive lower bound of the expiry date, or null for no lower bound.
+     * @param to Non null exclusive upper bound of the expiry date.
+     */
+    @Override
+    public void setExpiryRange(Calendar from, Calendar to) {
+        Reject.ifNull(to);
+        Reject.ifTrue(results != null, "Query has already started");
+        QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, to);
+        if (from != null) {
+            filter = QueryFilter.and(QueryFilter.greaterThanOrEqualTo(CoreTokenField.EXPIRY_DATE, from), filter);
+        }
+        query = createQuery(filter);
+    }
+
+    private QueryBuilder<C, F> createQuery(QueryFilter<CoreTokenField> filter) {
+        return queryFactory.createInstance()
+                .withFilter(filter.accept(queryFactory.createFilterConverter(), null))
                 .pageResultsBy(pageSize)
                 .returnTheseAttributes(CoreTokenField.TOKEN_ID);
     }
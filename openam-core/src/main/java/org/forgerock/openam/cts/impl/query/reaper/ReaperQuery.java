@@ -13,6 +13,7 @@
  *
  * Copyright 2014 ForgeRock AS.
  * Portions copyright 2019 Open Source Solution Technology Corporation
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.impl.query.reaper;
 
@@ -20,6 +21,7 @@ import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.cts.reaper.CTSReaper;
 
 import java.io.Closeable;
+import java.util.Calendar;
 import java.util.Collection;
 
 /**
@@ -38,4 +40,13 @@ public interface ReaperQuery extends Closeable {
      * @throws CoreTokenException If there was any unexpected error during processing.
      */
     Collection<String> nextPage() throws CoreTokenException;
+
+    /**
+     * Restricts the query to Tokens which expired within the given range, rather than all expired Tokens.
+     * Must be called before the first call to {@link #nextPage()}.
+     *
+     * @param from Inclusive lower bound of the expiry date, or null for no lower bound.
+     * @param to Non null exclusive upper bound of the expiry date.
+     */
+    void setExpiryRange(Calendar from, Calendar to);
 }
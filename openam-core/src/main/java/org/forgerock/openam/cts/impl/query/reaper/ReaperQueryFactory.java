@@ -12,9 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.impl.query.reaper;
 
+import java.util.Calendar;
+
 import org.forgerock.guice.core.InjectorHolder;
 
 /**
@@ -28,4 +31,17 @@ public class ReaperQueryFactory {
     public ReaperQuery getQuery() {
         return InjectorHolder.getInstance(ReaperQuery.class);
     }
+
+    /**
+     * Creates a query restricted to Tokens which expired within the given range.
+     *
+     * @param from Inclusive lower bound of the expiry date, or null for no lower bound.
+     * @param to Non null exclusive upper bound of the expiry date.
+     * @return Non null.
+     */
+    public ReaperQuery getQuery(Calendar from, Calendar to) {
+        ReaperQuery query = getQuery();
+        query.setExpiryRange(from, to);
+        return query;
+    }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.impl.queue.config;
 
@@ -41,6 +42,7 @@ import org.forgerock.openam.sm.exceptions.InvalidConfigurationException;
 public class CTSQueueConfiguration implements QueueConfiguration {
     public static final int DEFAULT_TIMEOUT = 120;
     public static final int DEFAULT_QUEUE_SIZE = 5000;
+    public static final int DEFAULT_BATCH_SIZE = 16;
 
     private final ConnectionConfigFactory dataLayerConfig;
     private final Debug debug;
@@ -84,6 +86,23 @@ public class CTSQueueConfiguration implements QueueConfiguration {
         return queueSize;
     }
 
+    /**
+     * The maximum number of tasks that a task processor may draw from the queues and process
+     * on its connection in a single pass.
+     *
+     * @see org.forgerock.openam.sm.datalayer.impl.WorkStealingTaskExecutor
+     *
+     * @return A positive integer for the batch size. Default is {@link #DEFAULT_BATCH_SIZE}.
+     */
+    public int getBatchSize() {
+        int batchSize = SystemProperties.getAsInt(CoreTokenConstants.CTS_ASYNC_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            debug("Batch size {0} was invalid, using default {1}", batchSize, DEFAULT_BATCH_SIZE);
+            return DEFAULT_BATCH_SIZE;
+        }
+        return batchSize;
+    }
+
     @Override
     public int getProcessors() throws DataLayerException {
         try {
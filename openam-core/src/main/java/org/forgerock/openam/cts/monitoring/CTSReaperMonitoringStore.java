@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.monitoring;
@@ -41,4 +42,36 @@ public interface CTSReaperMonitoringStore {
      * @return The rate of session deletion by the CTS Reaper.
      */
     double getRateOfDeletedSessions();
+
+    /**
+     * Records how far behind the current time the partitioned CTS Reaper is.
+     *
+     * @param lag The time in milliseconds since the oldest expired token not yet reaped expired.
+     */
+    void setReaperLag(long lag);
+
+    /**
+     * Records that the CTS Reaper slowed down to protect the CTS.
+     */
+    void addReaperThrottle();
+
+    /**
+     * @return The number of tokens deleted per second by the most recent reaper run.
+     */
+    double getReaperThroughput();
+
+    /**
+     * @return The lag in milliseconds last recorded by the partitioned CTS Reaper.
+     */
+    long getReaperLag();
+
+    /**
+     * @return The number of times the CTS Reaper has slowed down since server start up.
+     */
+    long getReaperThrottleCount();
+
+    /**
+     * @return The total number of tokens deleted by the CTS Reaper since server start up.
+     */
+    long getReaperDeletedTokens();
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.monitoring.impl;
@@ -27,10 +28,13 @@ import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.connections.ConnectionStore;
 import org.forgerock.openam.cts.monitoring.impl.operations.TokenOperationsStore;
 import org.forgerock.openam.cts.monitoring.impl.reaper.ReaperMonitor;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.Locale;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -43,7 +47,7 @@ import java.util.concurrent.RejectedExecutionException;
  */
 @Singleton
 public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTSReaperMonitoringStore,
-        CTSConnectionMonitoringStore {
+        CTSConnectionMonitoringStore, MetricsSource {
 
     /**
      * Constant for binding an Executor for the CTS monitoring store to store CTS runtime data.
@@ -206,6 +210,36 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
         return reaperMonitor.getRateOfDeletion();
     }
 
+    @Override
+    public void setReaperLag(long lag) {
+        reaperMonitor.setLag(lag);
+    }
+
+    @Override
+    public void addReaperThrottle() {
+        reaperMonitor.throttled();
+    }
+
+    @Override
+    public double getReaperThroughput() {
+        return reaperMonitor.getThroughput();
+    }
+
+    @Override
+    public long getReaperLag() {
+        return reaperMonitor.getLag();
+    }
+
+    @Override
+    public long getReaperThrottleCount() {
+        return reaperMonitor.getThrottleCount();
+    }
+
+    @Override
+    public long getReaperDeletedTokens() {
+        return reaperMonitor.getDeletedTokens();
+    }
+
     @Override
     public void addConnection(boolean success) {
         connectionStore.addConnection(success);
@@ -230,4 +264,43 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
     public double getConnectionsCumulativeCount(boolean success) {
         return connectionStore.getConnectionsCumulativeCount(success);
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Writes the cumulative counts of the operations, connections and reaper runs. Operations on each type of token
+     * are only written once there have been some.
+     */
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        for (CTSOperation operation : CTSOperation.values()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            writer.counter("openam_cts_operations", "CTS operations since server start up.",
+                    tokenOperationsStore.getOperationsCumulativeCount(operation), "operation", name);
+            writer.counter("openam_cts_operation_failures", "Failed CTS operations since server start up.",
+                    tokenOperationsStore.getOperationFailuresCumulativeCount(operation), "operation", name);
+            for (TokenType type : TokenType.values()) {
+                long count = tokenOperationsStore.getOperationsCumulativeCount(type, operation);
+                if (count > 0) {
+                    writer.counter("openam_cts_token_operations",
+                            "CTS operations on each type of token since server start up.", count,
+                            "operation", name, "token_type", type.name().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        writer.counter("openam_cts_connections", "CTS connection attempts since server start up.",
+                (long) connectionStore.getConnectionsCumulativeCount(true), "outcome", "success");
+        writer.counter("openam_cts_connections", "CTS connection attempts since server start up.",
+                (long) connectionStore.getConnectionsCumulativeCount(false), "outcome", "failure");
+        writer.summary("openam_cts_reaper_run_duration_seconds", "Duration of CTS Reaper runs.",
+                reaperMonitor.getRunTimes(), OpenMetricsWriter.MILLISECONDS);
+        writer.counter("openam_cts_reaper_deleted_tokens", "Tokens deleted by the CTS Reaper since server start up.",
+                reaperMonitor.getDeletedTokens());
+        writer.counter("openam_cts_reaper_throttles",
+                "Times the CTS Reaper has slowed down to protect the CTS since server start up.",
+                reaperMonitor.getThrottleCount());
+        writer.gauge("openam_cts_reaper_lag_seconds",
+                "How far behind the current time the oldest expired token not yet reaped is.",
+                reaperMonitor.getLag() * OpenMetricsWriter.MILLISECONDS);
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.monitoring.impl.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+
+/**
+ * Collects statistics about the asynchronous CTS task queues: how many tasks are currently
+ * waiting to be processed, how large the batches drawn by the task processors are, and how
+ * many tasks an idle processor has taken from the lanes of another processor.
+ * <p>
+ * All counters are updated without locking so that they can be called from the hot path of
+ * whichever asynchronous executor the CTS is configured with. The
+ * {@link org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutor} processes tasks one at a time,
+ * so reports every task as a batch of one. The statistics are served by the OpenMetrics endpoint.
+ */
+@Singleton
+public class TaskQueueMonitor implements MetricsSource {
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedTasks = new AtomicLong();
+    private final AtomicLong maximumBatchSize = new AtomicLong();
+    private final AtomicLong stolenTasks = new AtomicLong();
+
+    /**
+     * Records that a task has been placed on a queue.
+     */
+    public void taskQueued() {
+        queueDepth.incrementAndGet();
+    }
+
+    /**
+     * Records that a batch of tasks has been drawn from the queues for processing.
+     *
+     * @param size The number of tasks in the batch.
+     */
+    public void batchProcessed(int size) {
+        queueDepth.addAndGet(-size);
+        batchCount.incrementAndGet();
+        batchedTasks.addAndGet(size);
+        long max;
+        do {
+            max = maximumBatchSize.get();
+        } while (size > max && !maximumBatchSize.compareAndSet(max, size));
+    }
+
+    /**
+     * Records that a task processor took tasks from a lane assigned to another processor.
+     *
+     * @param count The number of tasks taken.
+     */
+    public void tasksStolen(int count) {
+        stolenTasks.addAndGet(count);
+    }
+
+    /**
+     * @return The number of tasks currently waiting to be processed.
+     */
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return The number of batches processed since server start up.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return The average number of tasks per batch since server start up, or zero if no batches
+     * have been processed.
+     */
+    public double getAverageBatchSize() {
+        long batches = batchCount.get();
+        if (batches == 0) {
+            return 0D;
+        }
+        return (double) batchedTasks.get() / batches;
+    }
+
+    /**
+     * @return The largest batch processed since server start up.
+     */
+    public long getMaximumBatchSize() {
+        return maximumBatchSize.get();
+    }
+
+    /**
+     * @return The number of tasks an idle processor took from another processor since server start up.
+     */
+    public long getStolenTaskCount() {
+        return stolenTasks.get();
+    }
+
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        writer.gauge("openam_cts_queue_depth", "CTS tasks waiting to be processed.", getQueueDepth());
+        writer.counter("openam_cts_queue_batches", "Batches of CTS tasks processed since server start up.",
+                getBatchCount());
+        writer.counter("openam_cts_queue_batched_tasks", "CTS tasks processed in batches since server start up.",
+                batchedTasks.get());
+        writer.gauge("openam_cts_queue_batch_size_max", "Largest batch of CTS tasks processed since server start up.",
+                getMaximumBatchSize());
+        writer.counter("openam_cts_queue_stolen_tasks",
+                "CTS tasks taken by an idle task processor from another processor since server start up.",
+                getStolenTaskCount());
+    }
+}
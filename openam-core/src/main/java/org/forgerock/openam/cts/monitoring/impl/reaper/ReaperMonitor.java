@@ -12,93 +12,107 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.monitoring.impl.reaper;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.openam.shared.monitoring.LatencyHistogram;
 
 /**
  * This class maintains a store of information about each CTS Reaper run since server start up.
+ * <p>
+ * Besides the number of tokens deleted by each run, it records the throughput of the most recent run, how far the
+ * partitioned CTS Reaper is behind the current time, how often it has had to slow down to protect the CTS, and the
+ * distribution of the run times.
+ * All values may be updated by several reaper threads at once.
  *
  * @since 12.0.0
  */
 public class ReaperMonitor {
 
-    private final List<ReaperRun> reaperRuns = new ArrayList<ReaperRun>();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong deletedTokens = new AtomicLong();
+    private final AtomicLong throttleCount = new AtomicLong();
+    private volatile double throughput;
+    private volatile long lag;
+    private final LatencyHistogram runTimes = new LatencyHistogram();
 
     /**
-     * {@inheritDoc}
+     * Records a completed CTS Reaper run.
+     *
+     * @param startTime The start time of the reaper run.
+     * @param runTime The duration of the reaper run in milliseconds.
+     * @param numberOfDeletedSessions The total number of deleted sessions.
      */
     public void add(final long startTime, final long runTime, final long numberOfDeletedSessions) {
-        reaperRuns.add(new ReaperRun(startTime, runTime, numberOfDeletedSessions));
+        runs.incrementAndGet();
+        runTimes.record(runTime);
+        deletedTokens.addAndGet(numberOfDeletedSessions);
+        throughput = runTime > 0 ? numberOfDeletedSessions * 1000D / runTime : numberOfDeletedSessions;
     }
 
     /**
-     * {@inheritDoc}
+     * @return The average number of tokens deleted per reaper run.
      */
     public double getRateOfDeletion() {
-
-        if (reaperRuns.isEmpty()) {
+        long runCount = runs.get();
+        if (runCount == 0) {
             return 0D;
         }
+        return (double) deletedTokens.get() / runCount;
+    }
 
-        double numDeletedSessions = 0D;
-        for (ReaperRun reaperRun : reaperRuns) {
-            numDeletedSessions += reaperRun.getNumberOfDeletedSessions();
-        }
-        return numDeletedSessions / reaperRuns.size();
+    /**
+     * @return The distribution of the durations in milliseconds of the reaper runs.
+     */
+    public LatencyHistogram getRunTimes() {
+        return runTimes;
     }
 
     /**
-     * Models a run by the CTS Reaper and holds information about when the run started and stopped and the number of
-     * sessions the run deleted.
+     * @return The number of tokens deleted per second by the most recent reaper run.
      */
-    private static class ReaperRun {
+    public double getThroughput() {
+        return throughput;
+    }
 
-        private final long startTime;
-        private final long runTime;
-        private final long numberOfDeletedSessions;
+    /**
+     * @return The total number of tokens deleted since server start up.
+     */
+    public long getDeletedTokens() {
+        return deletedTokens.get();
+    }
 
-        /**
-         * Creates a new Reaper Run instance.
-         *
-         * @param startTime The start time of the reaper run.
-         * @param runTime The end time of the reaper run.
-         * @param numberOfDeletedSessions The total number of deleted sessions.
-         */
-        public ReaperRun(final long startTime, final long runTime, final long numberOfDeletedSessions) {
-            this.startTime = startTime;
-            this.runTime = runTime;
-            this.numberOfDeletedSessions = numberOfDeletedSessions;
-        }
+    /**
+     * Records how far behind the current time the oldest expired token not yet reaped is.
+     *
+     * @param lag The lag in milliseconds.
+     */
+    public void setLag(long lag) {
+        this.lag = lag;
+    }
 
-        /**
-         * Gets the start time of the reaper run.
-         *
-         * @return The start time of the run.
-         */
-        private long getStartTime() {
-            return startTime;
-        }
+    /**
+     * @return The lag in milliseconds, as last recorded by the partitioned CTS Reaper.
+     */
+    public long getLag() {
+        return lag;
+    }
 
-        /**
-         * Gets the end time of the reaper run.
-         *
-         * @return The end time of the run.
-         */
-        private long getRunTime() {
-            return runTime;
-        }
+    /**
+     * Records that the reaper slowed down because the CTS was slow to respond or its queues were full.
+     */
+    public void throttled() {
+        throttleCount.incrementAndGet();
+    }
 
-        /**
-         * Gets the total number of deleted sessions.
-         *
-         * @return Number of deleted sessions by the run.
-         */
-        private long getNumberOfDeletedSessions() {
-            return numberOfDeletedSessions;
-        }
+    /**
+     * @return The number of times the reaper has slowed down since server start up.
+     */
+    public long getThrottleCount() {
+        return throttleCount.get();
     }
 }
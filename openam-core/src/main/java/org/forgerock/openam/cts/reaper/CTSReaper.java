@@ -13,12 +13,14 @@
  *
  * Copyright 2014 ForgeRock AS.
  * Portions copyright 2019 Open Source Solution Technology Corporation
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.reaper;
 
 import com.google.inject.name.Named;
 import com.sun.identity.shared.debug.Debug;
 import org.apache.commons.lang.time.StopWatch;
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.cts.api.CoreTokenConstants;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.cts.impl.query.reaper.ReaperQuery;
@@ -52,6 +54,9 @@ import java.util.concurrent.CountDownLatch;
  * This class is not responsible for scheduling and is expected to be scheduled according
  * to system configuration.
  *
+ * Where a large backlog of expired Tokens is expected, a {@link PartitionedCTSReaper} can be enabled
+ * which reaps partitions of expiry time in parallel and throttles itself.
+ *
  * Thread Policy: This runnable will respond to Thread interrupts and will exit cleanly
  * when interrupted.
  */
@@ -60,23 +65,41 @@ public class CTSReaper implements Runnable {
     private final TokenDeletion tokenDeletion;
     private final ReaperQueryFactory queryFactory;
     private final CTSReaperMonitoringStore monitoringStore;
+    private final PartitionedCTSReaper partitionedReaper;
+    private final CoreTokenConfig config;
     private final Debug debug;
 
+    /**
+     * Create an instance which always reaps with a single query, but do not schedule the instance for execution.
+     *
+     * @param tokenDeletion Required for deleting tokens.
+     * @param monitoringStore Required for monitoring reaper runs.
+     * @param debug Required for debugging.
+     */
+    public CTSReaper(final ReaperQueryFactory queryFactory, final TokenDeletion tokenDeletion,
+                     final CTSReaperMonitoringStore monitoringStore, final Debug debug) {
+        this(queryFactory, tokenDeletion, monitoringStore, null, null, debug);
+    }
 
     /**
      * Create an instance, but do not schedule the instance for execution.
      *
      * @param tokenDeletion Required for deleting tokens.
      * @param monitoringStore Required for monitoring reaper runs.
+     * @param partitionedReaper Used instead of a single query when more than one partition is configured.
+     * @param config Required for the partitioning configuration.
      * @param debug Required for debugging.
      */
     @Inject
     public CTSReaper(final ReaperQueryFactory queryFactory, final TokenDeletion tokenDeletion,
-                     final CTSReaperMonitoringStore monitoringStore,
+                     final CTSReaperMonitoringStore monitoringStore, final PartitionedCTSReaper partitionedReaper,
+                     final CoreTokenConfig config,
                      @Named(CoreTokenConstants.CTS_REAPER_DEBUG) final Debug debug) {
         this.queryFactory = queryFactory;
         this.tokenDeletion = tokenDeletion;
         this.monitoringStore = monitoringStore;
+        this.partitionedReaper = partitionedReaper;
+        this.config = config;
         this.debug = debug;
     }
 
@@ -84,8 +107,14 @@ public class CTSReaper implements Runnable {
      * Performs the query against the directory by selecting the Token IDs for all Tokens
      * that have expired. These Token IDs are then scheduled for deletion. The task will
      * not complete until all of the delete operations have returned.
+     *
+     * When more than one partition is configured the {@link PartitionedCTSReaper} is used instead.
      */
     public void run() {
+        if (partitionedReaper != null && config.getReaperPartitions() > 1) {
+            partitionedReaper.run();
+            return;
+        }
 
         debug("Reaper starting");
 
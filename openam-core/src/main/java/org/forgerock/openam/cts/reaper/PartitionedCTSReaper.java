@@ -0,0 +1,252 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.reaper;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.forgerock.openam.cts.CTSPersistentStore;
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.impl.query.reaper.ReaperQuery;
+import org.forgerock.openam.cts.impl.query.reaper.ReaperQueryFactory;
+import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.openam.utils.Time;
+
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Deletes expired Tokens by dividing them into partitions of expiry time which are reaped in parallel.
+ *
+ * After an outage the CTS can hold many millions of expired Tokens. A single paged query cannot delete them faster
+ * than one connection allows, and the deletes it issues compete with live traffic. This reaper splits the expired
+ * Tokens into {@link ReaperPartition}s and reaps several at once, oldest first, while a {@link ReaperThrottle}
+ * limits the number of outstanding deletes according to the measured CTS latency and task queue depth.
+ *
+ * When coordination is enabled a server claims each partition before reaping it by creating a lease Token
+ * in the CTS with an ID derived from the partition. Creating a Token which already exists fails, so only one
+ * server in the cluster reaps each partition. Leases expire after one partition span and are then reaped like
+ * any other Token, so a partition left unfinished by a failed server is picked up by a later run.
+ *
+ * Thread Policy: This runnable will respond to Thread interrupts and will exit cleanly when interrupted.
+ */
+public class PartitionedCTSReaper implements Runnable {
+
+    private final ReaperQueryFactory queryFactory;
+    private final TokenDeletion tokenDeletion;
+    private final ReaperThrottle throttle;
+    private final Provider<CTSPersistentStore> store;
+    private final CTSReaperMonitoringStore monitoringStore;
+    private final CoreTokenConfig config;
+    private final ExecutorService executorService;
+    private final Debug debug;
+
+    /**
+     * Create an instance, but do not schedule the instance for execution.
+     *
+     * @param queryFactory Required for querying expired tokens.
+     * @param tokenDeletion Required for deleting tokens.
+     * @param throttle Required to limit the rate of deletion.
+     * @param store Required for claiming partitions. A provider, as the CTS itself depends on the reaper.
+     * @param monitoringStore Required for monitoring reaper runs.
+     * @param config Required for the partitioning configuration.
+     * @param executorService Required for reaping partitions in parallel.
+     * @param debug Required for debugging.
+     */
+    @Inject
+    public PartitionedCTSReaper(ReaperQueryFactory queryFactory, TokenDeletion tokenDeletion,
+            ReaperThrottle throttle, Provider<CTSPersistentStore> store, CTSReaperMonitoringStore monitoringStore,
+            CoreTokenConfig config, @Named(CoreTokenConstants.CTS_REAPER_POOL) ExecutorService executorService,
+            @Named(CoreTokenConstants.CTS_REAPER_DEBUG) Debug debug) {
+        this.queryFactory = queryFactory;
+        this.tokenDeletion = tokenDeletion;
+        this.throttle = throttle;
+        this.store = store;
+        this.monitoringStore = monitoringStore;
+        this.config = config;
+        this.executorService = executorService;
+        this.debug = debug;
+    }
+
+    /**
+     * Reaps every partition of expired Tokens not claimed by another server. The task will not complete until
+     * all of the delete operations have returned.
+     */
+    @Override
+    public void run() {
+        debug("Partitioned reaper starting");
+
+        long start = currentTimeMillis();
+        long span = config.getReaperPartitionSpan();
+        List<ReaperPartition> partitions = ReaperPartition.partition(start, config.getReaperPartitions(), span);
+        long boundary = partitions.get(partitions.size() - 1).getTo();
+
+        Queue<ReaperPartition> queue = new ConcurrentLinkedQueue<>(partitions);
+        ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        for (ReaperPartition partition : partitions) {
+            pending.add(partition.getTo());
+        }
+        AtomicLong total = new AtomicLong();
+        updateLag(pending, boundary);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(config.getReaperParallelism(), partitions.size()); i++) {
+            workers.add(executorService.submit(new Worker(queue, pending, boundary, span, total)));
+        }
+
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            throttle.drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            debug("Interrupted, returning");
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+            return;
+        } catch (ExecutionException e) {
+            debug.error("CTS Reaper failed", e.getCause());
+        }
+
+        monitoringStore.addReaperRun(start, currentTimeMillis() - start, total.get());
+        debug("Partitioned reaper complete, {0} tokens deleted", Long.toString(total.get()));
+    }
+
+    /**
+     * The lag is the time since the end of the oldest partition not yet reaped, or since the last partition
+     * boundary once every partition has been reaped.
+     */
+    private void updateLag(ConcurrentSkipListSet<Long> pending, long boundary) {
+        Long oldest = pending.isEmpty() ? null : pending.first();
+        monitoringStore.setReaperLag(currentTimeMillis() - (oldest == null ? boundary : oldest));
+    }
+
+    /**
+     * Claims the partition for this server. A create that fails because the lease already exists means another
+     * server holds the claim; any other failure is propagated so that the partition is left pending.
+     *
+     * @return True if this server should reap the partition.
+     * @throws CoreTokenException If the lease could not be created or read.
+     */
+    private boolean claim(ReaperPartition partition, long span) throws CoreTokenException {
+        if (!config.isReaperCoordinated()) {
+            return true;
+        }
+        Token lease = new Token(partition.getLeaseId(), TokenType.GENERIC);
+        Calendar expiry = Time.getCalendarInstance();
+        expiry.setTimeInMillis(currentTimeMillis() + span);
+        lease.setExpiryTimestamp(expiry);
+        try {
+            store.get().create(lease);
+            return true;
+        } catch (CoreTokenException e) {
+            if (store.get().read(lease.getTokenId()) == null) {
+                throw e;
+            }
+            debug("Partition {0} claimed by another server", partition.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Reaps the partition, returning early if interrupted.
+     */
+    private void reap(ReaperPartition partition, AtomicLong total) throws CoreTokenException, IOException,
+            InterruptedException {
+        try (ReaperQuery reaperQuery = queryFactory.getQuery(partition.getFromCalendar(),
+                partition.getToCalendar())) {
+            for (Collection<String> ids = reaperQuery.nextPage(); ids != null; ids = reaperQuery.nextPage()) {
+                throttle.acquire();
+                long pageStart = currentTimeMillis();
+                throttle.submitted(tokenDeletion.deleteBatch(ids), pageStart);
+                debug("Queried {0} tokens in partition {1}",
+                        Long.toString(total.addAndGet(ids.size())), partition.toString());
+            }
+        }
+    }
+
+    private void debug(String msg, String... args) {
+        if (debug.messageEnabled()) {
+            debug.message(MessageFormat.format(
+                    CoreTokenConstants.DEBUG_HEADER + "Reaper: " + msg,
+                    args));
+        }
+    }
+
+    /**
+     * Takes partitions from the shared queue, oldest first, until none remain.
+     */
+    private final class Worker implements Runnable {
+        private final Queue<ReaperPartition> queue;
+        private final ConcurrentSkipListSet<Long> pending;
+        private final long boundary;
+        private final long span;
+        private final AtomicLong total;
+
+        private Worker(Queue<ReaperPartition> queue, ConcurrentSkipListSet<Long> pending, long boundary, long span,
+                AtomicLong total) {
+            this.queue = queue;
+            this.pending = pending;
+            this.boundary = boundary;
+            this.span = span;
+            this.total = total;
+        }
+
+        @Override
+        public void run() {
+            for (ReaperPartition partition = queue.poll(); partition != null; partition = queue.poll()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                try {
+                    if (claim(partition, span)) {
+                        reap(partition, total);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (CoreTokenException | IOException e) {
+                    debug.error("CTS Reaper failed to reap partition " + partition, e);
+                    continue;
+                }
+                pending.remove(partition.getTo());
+                updateLag(pending, boundary);
+            }
+        }
+    }
+}
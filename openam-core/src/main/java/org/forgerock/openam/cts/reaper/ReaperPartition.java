@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.reaper;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.forgerock.openam.utils.Time;
+
+/**
+ * A range of token expiry times reaped as one unit by the partitioned CTS Reaper.
+ *
+ * Partitions are aligned to multiples of the partition span so that every server in a cluster, configured alike,
+ * divides the expired tokens into the same partitions and derives the same lease ID for each.
+ */
+final class ReaperPartition {
+
+    private final Long from;
+    private final long to;
+
+    private ReaperPartition(Long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Divides the tokens which had expired by the last partition boundary before {@code now} into partitions.
+     * All partitions but the oldest span {@code span} milliseconds. The oldest has no lower bound, so that it
+     * covers any backlog older than the others.
+     *
+     * @param now The current time.
+     * @param count The number of partitions. Must be positive.
+     * @param span The width of each partition in milliseconds. Must be positive.
+     * @return The partitions, oldest first.
+     */
+    static List<ReaperPartition> partition(long now, int count, long span) {
+        long boundary = now - now % span;
+        List<ReaperPartition> partitions = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            long to = boundary - i * span;
+            partitions.add(new ReaperPartition(i == count - 1 ? null : to - span, to));
+        }
+        return partitions;
+    }
+
+    /**
+     * @return The inclusive lower bound of the expiry time in milliseconds, or null for the oldest partition.
+     */
+    Long getFrom() {
+        return from;
+    }
+
+    /**
+     * @return The exclusive upper bound of the expiry time in milliseconds.
+     */
+    long getTo() {
+        return to;
+    }
+
+    /**
+     * @return The inclusive lower bound of the expiry time, or null for the oldest partition.
+     */
+    Calendar getFromCalendar() {
+        return from == null ? null : toCalendar(from);
+    }
+
+    /**
+     * @return The exclusive upper bound of the expiry time.
+     */
+    Calendar getToCalendar() {
+        return toCalendar(to);
+    }
+
+    /**
+     * @return The ID of the CTS token a server creates to claim this partition.
+     */
+    String getLeaseId() {
+        return from == null ? "reaper-backlog-" + to : "reaper-" + from + "-" + to;
+    }
+
+    private static Calendar toCalendar(long millis) {
+        Calendar calendar = Time.getCalendarInstance();
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    @Override
+    public String toString() {
+        return getLeaseId();
+    }
+}
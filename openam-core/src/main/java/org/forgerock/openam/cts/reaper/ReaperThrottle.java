@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.reaper;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import javax.inject.Inject;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
+import org.forgerock.util.annotations.VisibleForTesting;
+
+/**
+ * Limits the number of pages of deletes the partitioned CTS Reaper has outstanding, so that reaping a large
+ * backlog of expired tokens does not starve live CTS traffic.
+ *
+ * The limit is adjusted as pages complete: a page which took longer than the target latency halves the limit,
+ * any other page raises it by one, up to the configured maximum. In addition no page is issued while the
+ * asynchronous CTS task queues hold more than the configured number of tasks.
+ *
+ * Page latency is measured when the completion of a page is noticed, which happens at most
+ * {@link #POLL_INTERVAL} milliseconds after the last delete of the page returned.
+ *
+ * Thread Safety: All methods are synchronized. Waiting releases the lock so other reaper threads may proceed.
+ */
+public class ReaperThrottle {
+
+    /**
+     * The interval in milliseconds at which waiting threads check for completed pages.
+     */
+    static final long POLL_INTERVAL = 10L;
+
+    private final int maxInFlight;
+    private final long targetLatency;
+    private final long maxQueueDepth;
+    private final TaskQueueMonitor queueMonitor;
+    private final CTSReaperMonitoringStore monitoringStore;
+
+    // Guarded by this
+    private final List<Page> inFlight = new ArrayList<>();
+    private int limit;
+
+    /**
+     * Create a throttle using the CTS Reaper configuration.
+     *
+     * @param config Required for the throttle limits.
+     * @param queueMonitor Required to find the depth of the asynchronous CTS task queues.
+     * @param monitoringStore Required for recording throttling.
+     */
+    @Inject
+    public ReaperThrottle(CoreTokenConfig config, TaskQueueMonitor queueMonitor,
+            CTSReaperMonitoringStore monitoringStore) {
+        this(config.getReaperMaxInFlight(), config.getReaperTargetLatency(), config.getReaperMaxQueueDepth(),
+                queueMonitor, monitoringStore);
+    }
+
+    @VisibleForTesting
+    ReaperThrottle(int maxInFlight, long targetLatency, long maxQueueDepth, TaskQueueMonitor queueMonitor,
+            CTSReaperMonitoringStore monitoringStore) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.targetLatency = targetLatency;
+        this.maxQueueDepth = maxQueueDepth;
+        this.queueMonitor = queueMonitor;
+        this.monitoringStore = monitoringStore;
+        this.limit = this.maxInFlight;
+    }
+
+    /**
+     * Blocks until another page of deletes may be issued.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        boolean throttled = false;
+        while (true) {
+            harvest();
+            if (inFlight.size() < limit && queueMonitor.getQueueDepth() <= maxQueueDepth) {
+                return;
+            }
+            if (!throttled) {
+                throttled = true;
+                monitoringStore.addReaperThrottle();
+            }
+            wait(POLL_INTERVAL);
+        }
+    }
+
+    /**
+     * Records a page of deletes which has been issued.
+     *
+     * @param latch The latch returned by {@link TokenDeletion#deleteBatch(java.util.Collection)}.
+     * @param startTime The time at which the page was issued.
+     */
+    public synchronized void submitted(CountDownLatch latch, long startTime) {
+        inFlight.add(new Page(latch, startTime));
+    }
+
+    /**
+     * Blocks until every page of deletes issued has completed.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public synchronized void drain() throws InterruptedException {
+        harvest();
+        while (!inFlight.isEmpty()) {
+            wait(POLL_INTERVAL);
+            harvest();
+        }
+    }
+
+    /**
+     * @return The number of pages of deletes which may currently be outstanding.
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Removes completed pages, adjusting the limit according to how long each took.
+     */
+    private void harvest() {
+        long now = currentTimeMillis();
+        Iterator<Page> pages = inFlight.iterator();
+        while (pages.hasNext()) {
+            Page page = pages.next();
+            if (page.latch.getCount() != 0) {
+                continue;
+            }
+            pages.remove();
+            if (now - page.startTime > targetLatency) {
+                limit = Math.max(1, limit / 2);
+            } else if (limit < maxInFlight) {
+                limit++;
+            }
+        }
+    }
+
+    /**
+     * A page of deletes which has been issued.
+     */
+    private static final class Page {
+        private final CountDownLatch latch;
+        private final long startTime;
+
+        private Page(CountDownLatch latch, long startTime) {
+            this.latch = latch;
+            this.startTime = startTime;
+        }
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+
+/**
+ * Responsible for serialising and deserialising an {@link InternalSession} to and from a compact binary format,
+ * without going through JSON text.
+ * <p>
+ * The session is written straight into a per-thread buffer, and only the exactly sized result is allocated. The
+ * format is:
+ * <pre>
+ *     magic (1 byte, 0) | version (1 byte, 1)
+ *     sessionType (int) | sessionState (int) | maxSessionTime (long) | maxIdleTime (long)
+ *     maxCachingTime (long) | creationTime (long) | timedOutAt (long) | flags (1 byte)
+ *     sessionID | clientID | clientDomain | cookieStr
+ *     sessionProperties (count, then name and value of each)
+ *     restrictedTokensBySid and sessionEventURLs (JSON, only present if either is not empty)
+ * </pre>
+ * Numbers are big-endian, and strings are written as their UTF-8 length plus one, as a variable length integer,
+ * followed by their UTF-8 bytes, zero standing for null. The fixed width fields come first, at fixed offsets, so
+ * that they can be read without decoding the rest of the session.
+ * <p>
+ * The token restrictions and session event URLs are rarely used and polymorphic, so they are left to the same
+ * {@link ObjectMapper} as {@link JSONSerialisation}, and only parsed when present.
+ * <p>
+ * The latest access time is not written, as the {@link org.forgerock.openam.cts.adapters.SessionAdapter} stores
+ * it in its own Token attribute. Nor is the session handle, for the same reason.
+ * <p>
+ * A JSON serialised session starts with <code>{</code>, which is how {@link #isBinary(byte[])} tells the two
+ * formats apart.
+ *
+ * @since 15.0.0
+ */
+public class BinarySessionSerialisation {
+
+    private static final byte MAGIC = 0;
+
+    private static final byte VERSION = 1;
+
+    private static final int FIXED_LENGTH = 2 + 4 + 4 + 8 * 5 + 1;
+
+    private static final int WILL_EXPIRE = 1;
+    private static final int IS_STORED = 1 << 1;
+    private static final int RESCHEDULE_POSSIBLE = 1 << 2;
+    private static final int COOKIE_MODE_SET = 1 << 3;
+    private static final int COOKIE_MODE = 1 << 4;
+
+    private static final int COMING_FROM_AUTH = 1;
+
+    private static final String RESTRICTED_TOKENS_BY_SID = "restrictedTokensBySid";
+    private static final String SESSION_EVENT_URLS = "sessionEventURLs";
+
+    /**
+     * Buffers larger than this are not retained, to avoid pinning memory after an unusually large session.
+     */
+    private static final int MAX_RETAINED_SIZE = 256 * 1024;
+
+    private static final int MIN_SIZE = 2048;
+
+    private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>();
+
+    private static final Field SESSION_ID = field(InternalSession.class, "sessionID");
+    private static final Field SESSION_TYPE = field(InternalSession.class, "sessionType");
+    private static final Field CLIENT_ID = field(InternalSession.class, "clientID");
+    private static final Field CLIENT_DOMAIN = field(InternalSession.class, "clientDomain");
+    private static final Field MAX_SESSION_TIME = field(InternalSession.class, "maxSessionTime");
+    private static final Field MAX_IDLE_TIME = field(InternalSession.class, "maxIdleTime");
+    private static final Field MAX_CACHING_TIME = field(InternalSession.class, "maxCachingTime");
+    private static final Field SESSION_STATE = field(InternalSession.class, "sessionState");
+    private static final Field SESSION_PROPERTIES = field(InternalSession.class, "sessionProperties");
+    private static final Field WILL_EXPIRE_FLAG = field(InternalSession.class, "willExpireFlag");
+    private static final Field CREATION_TIME = field(InternalSession.class, "creationTime");
+    private static final Field LATEST_ACCESS_TIME = field(InternalSession.class, "latestAccessTime");
+    private static final Field IS_IS_STORED = field(InternalSession.class, "isISStored");
+    private static final Field SESSION_COOKIE_MODE = field(InternalSession.class, "cookieMode");
+    private static final Field COOKIE_STR = field(InternalSession.class, "cookieStr");
+    private static final Field TIMED_OUT_AT = field(InternalSession.class, "timedOutAt");
+    private static final Field RESCHEDULE = field(InternalSession.class, "reschedulePossible");
+    private static final Field RESTRICTED_TOKENS = field(InternalSession.class, RESTRICTED_TOKENS_BY_SID);
+    private static final Field EVENT_URLS = field(InternalSession.class, SESSION_EVENT_URLS);
+
+    private static final Field ENCRYPTED_STRING = field(SessionID.class, "encryptedString");
+    private static final Field COMING_FROM_AUTH_FLAG = field(SessionID.class, "comingFromAuth");
+    private static final Field SERVER_PROTOCOL = field(SessionID.class, "sessionServerProtocol");
+    private static final Field SERVER = field(SessionID.class, "sessionServer");
+    private static final Field SERVER_PORT = field(SessionID.class, "sessionServerPort");
+    private static final Field SERVER_URI = field(SessionID.class, "sessionServerURI");
+    private static final Field SESSION_DOMAIN = field(SessionID.class, "sessionDomain");
+    private static final Field SERVER_ID = field(SessionID.class, "sessionServerID");
+    private static final Field SESSION_ID_COOKIE_MODE = field(SessionID.class, "cookieMode");
+
+    private final ObjectMapper mapper;
+
+    /**
+     * New default instance of the BinarySessionSerialisation.
+     *
+     * @param mapper The mapper used to serialise the token restrictions and session event URLs.
+     */
+    @Inject
+    public BinarySessionSerialisation(@Named(CoreTokenConstants.OBJECT_MAPPER) ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param blob Possibly null serialised session.
+     * @return True if the session was serialised by this class, false if it was serialised to JSON.
+     */
+    public static boolean isBinary(byte[] blob) {
+        return blob != null && blob.length > 0 && blob[0] == MAGIC;
+    }
+
+    /**
+     * Serialise a session, except for its latest access time and session handle.
+     *
+     * @param session Non null session to serialise.
+     * @return Non null serialised session.
+     */
+    public byte[] serialise(InternalSession session) {
+        try {
+            Output out = new Output();
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(SESSION_TYPE.getInt(session));
+            out.writeInt(SESSION_STATE.getInt(session));
+            out.writeLong(MAX_SESSION_TIME.getLong(session));
+            out.writeLong(MAX_IDLE_TIME.getLong(session));
+            out.writeLong(MAX_CACHING_TIME.getLong(session));
+            out.writeLong(CREATION_TIME.getLong(session));
+            out.writeLong(TIMED_OUT_AT.getLong(session));
+
+            int flags = 0;
+            if (WILL_EXPIRE_FLAG.getBoolean(session)) {
+                flags |= WILL_EXPIRE;
+            }
+            if (IS_IS_STORED.getBoolean(session)) {
+                flags |= IS_STORED;
+            }
+            if (RESCHEDULE.getBoolean(session)) {
+                flags |= RESCHEDULE_POSSIBLE;
+            }
+            flags |= cookieModeFlags((Boolean) SESSION_COOKIE_MODE.get(session));
+            out.writeByte(flags);
+
+            writeSessionID(out, (SessionID) SESSION_ID.get(session));
+            out.writeString((String) CLIENT_ID.get(session));
+            out.writeString((String) CLIENT_DOMAIN.get(session));
+            out.writeString((String) COOKIE_STR.get(session));
+            writeProperties(out, (Properties) SESSION_PROPERTIES.get(session));
+            writeExtensions(out, session);
+            return out.toByteArray();
+        } catch (IllegalAccessException | IOException e) {
+            throw new IllegalStateException("Failed to serialise InternalSession", e);
+        }
+    }
+
+    /**
+     * Deserialise a session.
+     *
+     * @param blob Non null session serialised by {@link #serialise(InternalSession)}.
+     * @param latestAccessTime The latest access time of the session, in seconds.
+     * @return Non null session.
+     */
+    public InternalSession deserialise(byte[] blob, long latestAccessTime) {
+        if (!isBinary(blob) || blob.length < FIXED_LENGTH) {
+            throw new IllegalStateException("Failed to deserialise InternalSession: not a binary session");
+        }
+        if (blob[1] != VERSION) {
+            throw new IllegalStateException("Failed to deserialise InternalSession: unknown version " + blob[1]);
+        }
+        try {
+            InternalSession session = new InternalSession();
+            Input in = new Input(blob, 2);
+            SESSION_TYPE.setInt(session, in.readInt());
+            SESSION_STATE.setInt(session, in.readInt());
+            MAX_SESSION_TIME.setLong(session, in.readLong());
+            MAX_IDLE_TIME.setLong(session, in.readLong());
+            MAX_CACHING_TIME.setLong(session, in.readLong());
+            CREATION_TIME.setLong(session, in.readLong());
+            TIMED_OUT_AT.setLong(session, in.readLong());
+            LATEST_ACCESS_TIME.setLong(session, latestAccessTime);
+
+            int flags = in.readByte();
+            WILL_EXPIRE_FLAG.setBoolean(session, (flags & WILL_EXPIRE) != 0);
+            IS_IS_STORED.setBoolean(session, (flags & IS_STORED) != 0);
+            RESCHEDULE.setBoolean(session, (flags & RESCHEDULE_POSSIBLE) != 0);
+            SESSION_COOKIE_MODE.set(session, cookieMode(flags));
+
+            SESSION_ID.set(session, readSessionID(in));
+            CLIENT_ID.set(session, in.readString());
+            CLIENT_DOMAIN.set(session, in.readString());
+            COOKIE_STR.set(session, in.readString());
+            SESSION_PROPERTIES.set(session, readProperties(in));
+            readExtensions(in, session);
+            return session;
+        } catch (IllegalAccessException | IOException | RuntimeException e) {
+            throw new IllegalStateException("Failed to deserialise InternalSession", e);
+        }
+    }
+
+    /**
+     * @param session Non null session.
+     * @return The latest access time of the session, in seconds, which {@link #serialise(InternalSession)} leaves
+     * out.
+     */
+    public long getLatestAccessTime(InternalSession session) {
+        try {
+            return LATEST_ACCESS_TIME.getLong(session);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to read the latest access time of InternalSession", e);
+        }
+    }
+
+    private static void writeSessionID(Output out, SessionID sessionID) throws IllegalAccessException {
+        if (sessionID == null) {
+            out.writeString(null);
+            return;
+        }
+        out.writeString((String) ENCRYPTED_STRING.get(sessionID));
+        int flags = COMING_FROM_AUTH_FLAG.getBoolean(sessionID) ? COMING_FROM_AUTH : 0;
+        out.writeByte(flags | cookieModeFlags((Boolean) SESSION_ID_COOKIE_MODE.get(sessionID)));
+        out.writeString((String) SERVER_PROTOCOL.get(sessionID));
+        out.writeString((String) SERVER.get(sessionID));
+        out.writeString((String) SERVER_PORT.get(sessionID));
+        out.writeString((String) SERVER_URI.get(sessionID));
+        out.writeString((String) SESSION_DOMAIN.get(sessionID));
+        out.writeString((String) SERVER_ID.get(sessionID));
+    }
+
+    private static SessionID readSessionID(Input in) throws IllegalAccessException, IOException {
+        String encryptedString = in.readString();
+        if (encryptedString == null) {
+            return null;
+        }
+        SessionID sessionID = new SessionID(encryptedString);
+        int flags = in.readByte();
+        COMING_FROM_AUTH_FLAG.setBoolean(sessionID, (flags & COMING_FROM_AUTH) != 0);
+        SESSION_ID_COOKIE_MODE.set(sessionID, cookieMode(flags));
+        SERVER_PROTOCOL.set(sessionID, in.readString());
+        SERVER.set(sessionID, in.readString());
+        SERVER_PORT.set(sessionID, in.readString());
+        SERVER_URI.set(sessionID, in.readString());
+        SESSION_DOMAIN.set(sessionID, in.readString());
+        SERVER_ID.set(sessionID, in.readString());
+        return sessionID;
+    }
+
+    private static void writeProperties(Output out, Properties properties) {
+        if (properties == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        List<Map.Entry<Object, Object>> entries;
+        synchronized (properties) {
+            entries = new ArrayList<>(properties.entrySet());
+        }
+        out.writeVarInt(entries.size() + 1);
+        for (Map.Entry<Object, Object> entry : entries) {
+            out.writeString(String.valueOf(entry.getKey()));
+            out.writeString(String.valueOf(entry.getValue()));
+        }
+    }
+
+    private static Properties readProperties(Input in) throws IOException {
+        int count = in.readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        Properties properties = new Properties();
+        for (int i = 0; i < count; i++) {
+            properties.put(in.readString(), in.readString());
+        }
+        return properties;
+    }
+
+    private void writeExtensions(Output out, InternalSession session) throws IllegalAccessException, IOException {
+        Map<?, ?> restrictedTokens = (Map<?, ?>) RESTRICTED_TOKENS.get(session);
+        Map<?, ?> eventURLs = (Map<?, ?>) EVENT_URLS.get(session);
+        if (restrictedTokens.isEmpty() && eventURLs.isEmpty()) {
+            out.writeVarInt(0);
+            return;
+        }
+        Map<String, Object> extensions = new LinkedHashMap<>(2);
+        extensions.put(RESTRICTED_TOKENS_BY_SID, restrictedTokens);
+        extensions.put(SESSION_EVENT_URLS, eventURLs);
+        out.writeBytes(mapper.writeValueAsBytes(extensions));
+    }
+
+    private void readExtensions(Input in, InternalSession session) throws IOException {
+        int length = in.readVarInt() - 1;
+        if (length < 0) {
+            return;
+        }
+        in.skip(length);
+        mapper.readerForUpdating(session).readValue(in.buffer, in.position - length, length);
+    }
+
+    private static int cookieModeFlags(Boolean cookieMode) {
+        if (cookieMode == null) {
+            return 0;
+        }
+        return cookieMode ? COOKIE_MODE_SET | COOKIE_MODE : COOKIE_MODE_SET;
+    }
+
+    private static Boolean cookieMode(int flags) {
+        if ((flags & COOKIE_MODE_SET) == 0) {
+            return null;
+        }
+        return (flags & COOKIE_MODE) != 0;
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Missing field " + type.getSimpleName() + "." + name, e);
+        }
+    }
+
+    /**
+     * Writes into the per-thread buffer, growing it as required.
+     */
+    private static final class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        private Output() {
+            buffer = BUFFER.get();
+            if (buffer == null) {
+                buffer = new byte[MIN_SIZE];
+                BUFFER.set(buffer);
+            }
+        }
+
+        private void ensure(int length) {
+            if (position + length > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, position + length)];
+                System.arraycopy(buffer, 0, grown, 0, position);
+                buffer = grown;
+                if (grown.length <= MAX_RETAINED_SIZE) {
+                    BUFFER.set(grown);
+                }
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            ensure(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        private void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+            }
+            // ASCII, which most session values are, is its own UTF-8 encoding
+            writeVarInt(length + 1);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        }
+
+        private byte[] toByteArray() {
+            byte[] result = new byte[position];
+            System.arraycopy(buffer, 0, result, 0, position);
+            return result;
+        }
+    }
+
+    /**
+     * Reads from a serialised session.
+     */
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private void skip(int length) throws IOException {
+            if (length > buffer.length - position) {
+                throw new IOException("Truncated InternalSession");
+            }
+            position += length;
+        }
+
+        private int readByte() throws IOException {
+            skip(1);
+            return buffer[position - 1] & 0xFF;
+        }
+
+        private int readInt() throws IOException {
+            skip(4);
+            int offset = position - 4;
+            return (buffer[offset] & 0xFF) << 24 | (buffer[offset + 1] & 0xFF) << 16
+                    | (buffer[offset + 2] & 0xFF) << 8 | buffer[offset + 3] & 0xFF;
+        }
+
+        private long readLong() throws IOException {
+            return (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed InternalSession");
+        }
+
+        private String readString() throws IOException {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            skip(length);
+            return new String(buffer, position - length, length, StandardCharsets.UTF_8);
+        }
+    }
+}
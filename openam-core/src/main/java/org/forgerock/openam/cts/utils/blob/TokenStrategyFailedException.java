@@ -1,5 +1,6 @@
 /**
  * Copyright 2013 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  *
  * The contents of this file are subject to the terms of the Common Development and
  * Distribution License (the License). You may not use this file except in compliance with the
@@ -21,6 +22,10 @@ package org.forgerock.openam.cts.utils.blob;
  * @author robert.wapshott@forgerock.com
  */
 public class TokenStrategyFailedException extends Exception {
+    public TokenStrategyFailedException(String error) {
+        super(error);
+    }
+
     public TokenStrategyFailedException(Throwable e) {
         super(e);
     }
@@ -12,25 +12,75 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.utils.blob.strategies;
 
-import org.apache.commons.io.IOUtils;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.CoreTokenConstants;
 import org.forgerock.openam.cts.utils.blob.BlobStrategy;
 import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.BlobCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.FastBlobCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.GzipBlobCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.SessionBlobCodec;
+import org.forgerock.openam.utils.StringUtils;
 import org.forgerock.util.Reject;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import com.sun.identity.shared.debug.Debug;
 
 /**
- * Responsible for compressing the binary object of Tokens using a GZip compression.
+ * Responsible for compressing the binary object of Tokens.
+ * <p>
+ * Tokens are compressed with the configured {@link BlobCodec}, GZIP by default. Every codec marks
+ * the data it writes, so Tokens are decompressed with whichever codec wrote them. This allows the
+ * configured codec to be changed while Tokens written with the previous codec are still live.
+ *
+ * @see org.forgerock.openam.cts.CoreTokenConfig#getCompressionCodec()
  */
 public class CompressionStrategy implements BlobStrategy {
 
+    private static final GzipBlobCodec GZIP = new GzipBlobCodec();
+    private static final List<BlobCodec> CODECS = Collections.unmodifiableList(Arrays.<BlobCodec>asList(
+            GZIP, new FastBlobCodec(), new SessionBlobCodec()));
+
+    private final BlobCodec codec;
+
+    /**
+     * Creates a strategy which compresses with GZIP.
+     */
+    public CompressionStrategy() {
+        this(GZIP);
+    }
+
+    /**
+     * Creates a strategy which compresses with the configured codec.
+     *
+     * @param config Required to select the codec.
+     * @param debug Required to report an unknown codec.
+     */
+    @Inject
+    public CompressionStrategy(CoreTokenConfig config, @Named(CoreTokenConstants.CTS_DEBUG) Debug debug) {
+        this(selectCodec(config.getCompressionCodec(), debug));
+    }
+
+    /**
+     * Creates a strategy which compresses with the given codec.
+     *
+     * @param codec Non null codec to compress with.
+     */
+    public CompressionStrategy(BlobCodec codec) {
+        Reject.ifNull(codec);
+        this.codec = codec;
+    }
+
     /**
      * Compress the Tokens binary object.
      *
@@ -41,20 +91,11 @@ public class CompressionStrategy implements BlobStrategy {
     @Override
     public byte[] perform(byte[] blob) throws TokenStrategyFailedException {
         Reject.ifNull(blob);
-        final ByteArrayOutputStream bout = new ByteArrayOutputStream(blob.length);
-        try {
-            final GZIPOutputStream out = new GZIPOutputStream(bout);
-            out.write(blob);
-            out.flush();
-            out.close();
-        } catch (IOException e) {
-            throw new TokenStrategyFailedException(e);
-        }
-        return bout.toByteArray();
+        return codec.compress(blob);
     }
 
     /**
-     * Decompress the Tokens binary object.
+     * Decompress the Tokens binary object with the codec that compressed it.
      *
      * @param blob Non null Token to modify.
      *
@@ -63,15 +104,37 @@ public class CompressionStrategy implements BlobStrategy {
     @Override
     public byte[] reverse(byte[] blob) throws TokenStrategyFailedException {
         Reject.ifNull(blob);
-        final int lengthGuess = blob.length * 2;
-        final ByteArrayOutputStream bout = new ByteArrayOutputStream(lengthGuess);
-        try {
-            GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(blob));
-            IOUtils.copy(inputStream, bout);
-            inputStream.close();
-        } catch (IOException e) {
-            throw new TokenStrategyFailedException(e);
+        for (BlobCodec candidate : CODECS) {
+            if (candidate.isCompressedBy(blob)) {
+                return candidate.decompress(blob);
+            }
+        }
+        // Not recognised, GZIP will report a suitable error.
+        return GZIP.decompress(blob);
+    }
+
+    /**
+     * @return The names of the codecs which may be configured.
+     */
+    public static List<String> getCodecNames() {
+        String[] names = new String[CODECS.size()];
+        for (int ii = 0; ii < names.length; ii++) {
+            names[ii] = CODECS.get(ii).getName();
+        }
+        return Arrays.asList(names);
+    }
+
+    private static BlobCodec selectCodec(String name, Debug debug) {
+        if (StringUtils.isBlank(name)) {
+            return GZIP;
+        }
+        for (BlobCodec candidate : CODECS) {
+            if (candidate.getName().equalsIgnoreCase(name.trim())) {
+                return candidate;
+            }
         }
-        return bout.toByteArray();
+        debug.error("Unknown CTS compression codec " + name + ", using " + GZIP.getName()
+                + ". Valid codecs are " + getCodecNames());
+        return GZIP;
     }
 }
@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.codec;
+
+/**
+ * Per-thread scratch buffers for the compression codecs.
+ * <p>
+ * Compressing or decompressing a Token happens on the request thread, so rather than allocating
+ * working buffers for each Token they are kept per thread and grown when required. Only the final,
+ * exactly sized result array is allocated per call.
+ */
+final class BlobBuffers {
+
+    /**
+     * Buffers larger than this are not retained, to avoid pinning memory after an unusually large Token.
+     */
+    static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final int MIN_SIZE = 4096;
+
+    private static final ThreadLocal<byte[]> INPUT = new ThreadLocal<byte[]>();
+    private static final ThreadLocal<byte[]> OUTPUT = new ThreadLocal<byte[]>();
+    private static final ThreadLocal<int[]> TABLE = new ThreadLocal<int[]>();
+
+    private BlobBuffers() {
+    }
+
+    /**
+     * @param size The minimum size required.
+     * @return A buffer for assembling codec input of at least the requested size. Contents are undefined.
+     */
+    static byte[] input(int size) {
+        return get(INPUT, size);
+    }
+
+    /**
+     * @param size The minimum size required.
+     * @return A buffer for codec output of at least the requested size. Contents are undefined.
+     */
+    static byte[] output(int size) {
+        return get(OUTPUT, size);
+    }
+
+    /**
+     * @param size The exact size required.
+     * @return An int array of the requested size. Contents are undefined.
+     */
+    static int[] table(int size) {
+        int[] table = TABLE.get();
+        if (table == null || table.length != size) {
+            table = new int[size];
+            TABLE.set(table);
+        }
+        return table;
+    }
+
+    private static byte[] get(ThreadLocal<byte[]> local, int size) {
+        byte[] buffer = local.get();
+        if (buffer == null || buffer.length < size) {
+            buffer = new byte[Math.max(size, MIN_SIZE)];
+            if (buffer.length <= MAX_RETAINED_SIZE) {
+                local.set(buffer);
+            }
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.codec;
+
+import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+
+/**
+ * A compression algorithm for Token binary objects.
+ * <p>
+ * Each codec marks the data it produces so that it can recognise it again. This allows
+ * Tokens written with different codecs to be read side by side when the configured codec
+ * is changed.
+ */
+public interface BlobCodec {
+
+    /**
+     * @return The name used to select this codec in configuration.
+     */
+    String getName();
+
+    /**
+     * Compress the binary object.
+     *
+     * @param blob Non null data to compress.
+     * @return Non null compressed data, including any marker needed to recognise it.
+     * @throws TokenStrategyFailedException If the data could not be compressed.
+     */
+    byte[] compress(byte[] blob) throws TokenStrategyFailedException;
+
+    /**
+     * Decompress binary data previously produced by {@link #compress(byte[])}.
+     *
+     * @param blob Non null compressed data.
+     * @return Non null decompressed data.
+     * @throws TokenStrategyFailedException If the data was not valid for this codec.
+     */
+    byte[] decompress(byte[] blob) throws TokenStrategyFailedException;
+
+    /**
+     * @param blob Non null data to examine.
+     * @return True if the data carries the marker written by this codec.
+     */
+    boolean isCompressedBy(byte[] blob);
+}
@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.codec;
+
+import java.util.Arrays;
+
+import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+import org.forgerock.util.Reject;
+
+/**
+ * Compresses Token binary objects with the {@link FastLZ} block compressor, which is considerably
+ * cheaper in CPU than GZIP at the cost of a lower compression ratio.
+ * <p>
+ * Blobs are prefixed with a six byte header: a marker byte which cannot start a GZIP stream or a JSON
+ * document, the codec identifier, and the uncompressed length as a big endian integer. Subclasses may
+ * provide a dictionary of content that is expected to appear in the Tokens, in which case they must
+ * use their own identifier.
+ */
+public class FastBlobCodec implements BlobCodec {
+
+    /**
+     * Configuration name of this codec.
+     */
+    public static final String NAME = "fast";
+
+    static final byte MARKER = (byte) 0xCE;
+    static final int HEADER_LENGTH = 6;
+    /**
+     * Each byte of compressed input produces at most 255 bytes of output, so a header claiming more than this many
+     * bytes per input byte is corrupt.
+     */
+    static final int MAX_EXPANSION = 256;
+    private static final byte ID = 1;
+
+    private final String name;
+    private final byte id;
+    private final byte[] dictionary;
+
+    /**
+     * Creates a codec without a dictionary.
+     */
+    public FastBlobCodec() {
+        this(NAME, ID, new byte[0]);
+    }
+
+    /**
+     * @param name Non null configuration name of the codec.
+     * @param id The identifier written to the header, unique amongst codecs.
+     * @param dictionary Non null dictionary, at most 64KB. Must never change once Tokens have been written with it.
+     */
+    protected FastBlobCodec(String name, byte id, byte[] dictionary) {
+        Reject.ifNull(name, dictionary);
+        this.name = name;
+        this.id = id;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte[] compress(byte[] blob) throws TokenStrategyFailedException {
+        Reject.ifNull(blob);
+        byte[] window = blob;
+        int start = 0;
+        if (dictionary.length > 0) {
+            window = BlobBuffers.input(dictionary.length + blob.length);
+            System.arraycopy(dictionary, 0, window, 0, dictionary.length);
+            System.arraycopy(blob, 0, window, dictionary.length, blob.length);
+            start = dictionary.length;
+        }
+
+        byte[] out = BlobBuffers.output(HEADER_LENGTH + FastLZ.maxCompressedLength(blob.length));
+        out[0] = MARKER;
+        out[1] = id;
+        out[2] = (byte) (blob.length >>> 24);
+        out[3] = (byte) (blob.length >>> 16);
+        out[4] = (byte) (blob.length >>> 8);
+        out[5] = (byte) blob.length;
+        int end = FastLZ.compress(window, start, start + blob.length, out, HEADER_LENGTH);
+        return Arrays.copyOf(out, end);
+    }
+
+    @Override
+    public byte[] decompress(byte[] blob) throws TokenStrategyFailedException {
+        Reject.ifNull(blob);
+        if (!isCompressedBy(blob)) {
+            throw new TokenStrategyFailedException("Not compressed with the " + name + " codec");
+        }
+        int length = ((blob[2] & 0xFF) << 24) | ((blob[3] & 0xFF) << 16) | ((blob[4] & 0xFF) << 8) | (blob[5] & 0xFF);
+        if (length < 0 || length > (long) (blob.length - HEADER_LENGTH) * MAX_EXPANSION) {
+            throw new TokenStrategyFailedException("Invalid uncompressed length " + length);
+        }
+
+        try {
+            if (dictionary.length == 0) {
+                byte[] out = new byte[length];
+                FastLZ.decompress(blob, HEADER_LENGTH, blob.length, out, 0, length);
+                return out;
+            }
+            byte[] window = BlobBuffers.input(dictionary.length + length);
+            System.arraycopy(dictionary, 0, window, 0, dictionary.length);
+            FastLZ.decompress(blob, HEADER_LENGTH, blob.length, window, dictionary.length, dictionary.length + length);
+            return Arrays.copyOfRange(window, dictionary.length, dictionary.length + length);
+        } catch (IllegalArgumentException e) {
+            throw new TokenStrategyFailedException(e);
+        }
+    }
+
+    @Override
+    public boolean isCompressedBy(byte[] blob) {
+        return blob.length >= HEADER_LENGTH && blob[0] == MARKER && blob[1] == id;
+    }
+}
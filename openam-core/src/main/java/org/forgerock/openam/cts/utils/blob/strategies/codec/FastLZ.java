@@ -0,0 +1,234 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.codec;
+
+import java.util.Arrays;
+
+/**
+ * A byte oriented LZ77 block compressor following the LZ4 block layout.
+ * <p>
+ * Each sequence is a token byte holding a four bit literal length and a four bit match length,
+ * optional length extension bytes, the literals, and a two byte little endian offset back into
+ * the data already produced. The final sequence holds literals only. Matches are found with a
+ * single probe hash table, trading compression ratio for speed.
+ * <p>
+ * The bytes preceding the start of the input may be used as a dictionary: matches are allowed to
+ * refer back into them, and the decompressor must be given the same bytes in front of its output.
+ */
+final class FastLZ {
+
+    static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_LOG = 12;
+    private static final int RUN_MASK = 15;
+    private static final int ML_MASK = 15;
+    private static final int SKIP_TRIGGER = 6;
+
+    private FastLZ() {
+    }
+
+    /**
+     * @param length The length of the input.
+     * @return The largest possible compressed size for an input of the given length.
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compress {@code src[start, end)} into {@code dest}. Bytes {@code src[0, start)} are used as the dictionary.
+     *
+     * @param src Source bytes, including any dictionary.
+     * @param start Offset of the first byte to compress.
+     * @param end Offset after the last byte to compress.
+     * @param dest Destination, with at least {@link #maxCompressedLength(int)} bytes available.
+     * @param destOffset Offset in dest to start writing at.
+     * @return The offset in dest after the last byte written.
+     */
+    static int compress(byte[] src, int start, int end, byte[] dest, int destOffset) {
+        int[] table = BlobBuffers.table(1 << HASH_LOG);
+        Arrays.fill(table, -1);
+        for (int p = Math.max(0, start - MAX_OFFSET); p + MIN_MATCH <= start; p++) {
+            table[hash(readInt(src, p))] = p;
+        }
+
+        int matchLimit = end - LAST_LITERALS;
+        int mfLimit = end - MF_LIMIT;
+        int anchor = start;
+        int p = start;
+        int dp = destOffset;
+
+        while (p < mfLimit) {
+            int sequence = readInt(src, p);
+            int h = hash(sequence);
+            int ref = table[h];
+            table[h] = p;
+            if (ref < 0 || p - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                // Step faster through data which is not compressing
+                p += 1 + ((p - anchor) >>> SKIP_TRIGGER);
+                continue;
+            }
+
+            while (p > anchor && ref > 0 && src[p - 1] == src[ref - 1]) {
+                p--;
+                ref--;
+            }
+            int length = MIN_MATCH;
+            while (p + length < matchLimit && src[ref + length] == src[p + length]) {
+                length++;
+            }
+
+            dp = writeSequence(src, anchor, p - anchor, p - ref, length, dest, dp);
+            p += length;
+            anchor = p;
+        }
+
+        int literals = end - anchor;
+        int token = dp++;
+        dp = writeLiteralLength(literals, dest, token, dp);
+        System.arraycopy(src, anchor, dest, dp, literals);
+        return dp + literals;
+    }
+
+    /**
+     * Decompress {@code src[offset, end)} into {@code dest[destOffset, destEnd)}. Bytes
+     * {@code dest[0, destOffset)} must contain the dictionary used during compression, if any.
+     *
+     * @param src Compressed bytes.
+     * @param offset Offset of the first compressed byte.
+     * @param end Offset after the last compressed byte.
+     * @param dest Destination for the decompressed bytes.
+     * @param destOffset Offset in dest to start writing at.
+     * @param destEnd Offset in dest at which the decompressed data must end.
+     * @throws IllegalArgumentException If the compressed data was corrupt.
+     */
+    static void decompress(byte[] src, int offset, int end, byte[] dest, int destOffset, int destEnd) {
+        int sp = offset;
+        int dp = destOffset;
+        while (true) {
+            if (sp >= end) {
+                throw corrupt();
+            }
+            int token = src[sp++] & 0xFF;
+
+            int literals = token >>> 4;
+            if (literals == RUN_MASK) {
+                int b;
+                do {
+                    if (sp >= end) {
+                        throw corrupt();
+                    }
+                    b = src[sp++] & 0xFF;
+                    literals += b;
+                } while (b == 255 && literals > 0);
+            }
+            if (literals < 0 || literals > end - sp || literals > destEnd - dp) {
+                throw corrupt();
+            }
+            System.arraycopy(src, sp, dest, dp, literals);
+            sp += literals;
+            dp += literals;
+            if (sp == end) {
+                break;
+            }
+
+            if (end - sp < 2) {
+                throw corrupt();
+            }
+            int distance = (src[sp] & 0xFF) | ((src[sp + 1] & 0xFF) << 8);
+            sp += 2;
+            int ref = dp - distance;
+            if (distance == 0 || ref < 0) {
+                throw corrupt();
+            }
+
+            int length = token & ML_MASK;
+            if (length == ML_MASK) {
+                int b;
+                do {
+                    if (sp >= end) {
+                        throw corrupt();
+                    }
+                    b = src[sp++] & 0xFF;
+                    length += b;
+                } while (b == 255 && length > 0);
+            }
+            length += MIN_MATCH;
+            if (length < 0 || length > destEnd - dp) {
+                throw corrupt();
+            }
+            // Byte by byte as the match may overlap the bytes being written
+            for (int ii = 0; ii < length; ii++) {
+                dest[dp++] = dest[ref++];
+            }
+        }
+        if (dp != destEnd) {
+            throw corrupt();
+        }
+    }
+
+    private static int writeSequence(byte[] src, int anchor, int literals, int distance, int length,
+            byte[] dest, int dp) {
+        int token = dp++;
+        dp = writeLiteralLength(literals, dest, token, dp);
+        System.arraycopy(src, anchor, dest, dp, literals);
+        dp += literals;
+
+        dest[dp++] = (byte) distance;
+        dest[dp++] = (byte) (distance >>> 8);
+
+        int matchLength = length - MIN_MATCH;
+        if (matchLength >= ML_MASK) {
+            dest[token] |= ML_MASK;
+            dp = writeLength(matchLength - ML_MASK, dest, dp);
+        } else {
+            dest[token] |= matchLength;
+        }
+        return dp;
+    }
+
+    private static int writeLiteralLength(int literals, byte[] dest, int token, int dp) {
+        if (literals >= RUN_MASK) {
+            dest[token] = (byte) (RUN_MASK << 4);
+            return writeLength(literals - RUN_MASK, dest, dp);
+        }
+        dest[token] = (byte) (literals << 4);
+        return dp;
+    }
+
+    private static int writeLength(int length, byte[] dest, int dp) {
+        while (length >= 255) {
+            dest[dp++] = (byte) 255;
+            length -= 255;
+        }
+        dest[dp++] = (byte) length;
+        return dp;
+    }
+
+    private static int readInt(byte[] src, int p) {
+        return ((src[p] & 0xFF) << 24) | ((src[p + 1] & 0xFF) << 16) | ((src[p + 2] & 0xFF) << 8) | (src[p + 3] & 0xFF);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static IllegalArgumentException corrupt() {
+        return new IllegalArgumentException("Compressed data is corrupt");
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+import org.forgerock.util.Reject;
+
+/**
+ * Compresses Token binary objects in the GZIP format.
+ * <p>
+ * This is the original CTS compression format and remains the default. Blobs are written
+ * without any additional header so that servers which only understand GZIP can still read
+ * them. The {@link Deflater} and {@link Inflater} are reused per thread rather than being
+ * created for each Token.
+ */
+public class GzipBlobCodec implements BlobCodec {
+
+    /**
+     * Configuration name of this codec.
+     */
+    public static final String NAME = "gzip";
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int HEADER_LENGTH = 10;
+    private static final int TRAILER_LENGTH = 8;
+    private static final int MAX_DEFLATE_RATIO = 1032;
+    private static final byte[] HEADER = {
+            (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+    };
+
+    private static final ThreadLocal<Inflater> INFLATERS = new ThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater(true);
+        }
+    };
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] blob) throws TokenStrategyFailedException {
+        Reject.ifNull(blob);
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        deflater.setInput(blob);
+        deflater.finish();
+
+        byte[] out = BlobBuffers.output(HEADER_LENGTH + blob.length + blob.length / 1000 + 64);
+        System.arraycopy(HEADER, 0, out, 0, HEADER_LENGTH);
+        int position = HEADER_LENGTH;
+        while (!deflater.finished()) {
+            if (position == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            position += deflater.deflate(out, position, out.length - position);
+        }
+
+        if (out.length < position + TRAILER_LENGTH) {
+            out = Arrays.copyOf(out, position + TRAILER_LENGTH);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(blob, 0, blob.length);
+        writeIntLE(out, position, (int) crc.getValue());
+        writeIntLE(out, position + 4, blob.length);
+        return Arrays.copyOf(out, position + TRAILER_LENGTH);
+    }
+
+    @Override
+    public byte[] decompress(byte[] blob) throws TokenStrategyFailedException {
+        Reject.ifNull(blob);
+        if (blob.length < HEADER_LENGTH + TRAILER_LENGTH || blob[3] != 0) {
+            // Optional header fields present, or the data is not GZIP at all.
+            return decompressStream(blob);
+        }
+        if (!isCompressedBy(blob) || blob[2] != Deflater.DEFLATED) {
+            throw new TokenStrategyFailedException("Not in GZIP format");
+        }
+
+        int expectedLength = readIntLE(blob, blob.length - 4);
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setInput(blob, HEADER_LENGTH, blob.length - HEADER_LENGTH);
+
+        // The trailer length is only a hint until the CRC has been checked
+        boolean plausible = expectedLength >= 0 && expectedLength <= (long) blob.length * MAX_DEFLATE_RATIO;
+        byte[] out = BlobBuffers.output(plausible ? expectedLength : blob.length * 2);
+        int position = 0;
+        try {
+            while (!inflater.finished()) {
+                if (position == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                int count = inflater.inflate(out, position, out.length - position);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new TokenStrategyFailedException("Unexpected end of GZIP data");
+                }
+                position += count;
+            }
+        } catch (DataFormatException e) {
+            throw new TokenStrategyFailedException(e);
+        }
+
+        if (inflater.getRemaining() != TRAILER_LENGTH) {
+            // Concatenated GZIP members are not produced by the CTS but are valid GZIP.
+            return decompressStream(blob);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out, 0, position);
+        if (readIntLE(blob, blob.length - TRAILER_LENGTH) != (int) crc.getValue() || expectedLength != position) {
+            throw new TokenStrategyFailedException("Corrupt GZIP trailer");
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    @Override
+    public boolean isCompressedBy(byte[] blob) {
+        return blob.length >= 2 && blob[0] == HEADER[0] && blob[1] == HEADER[1];
+    }
+
+    /**
+     * Fallback for GZIP data with optional header fields.
+     */
+    private byte[] decompressStream(byte[] blob) throws TokenStrategyFailedException {
+        byte[] out = BlobBuffers.output(blob.length * 2);
+        int position = 0;
+        try {
+            GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(blob));
+            try {
+                int count;
+                while (true) {
+                    if (position == out.length) {
+                        out = Arrays.copyOf(out, out.length * 2);
+                    }
+                    count = inputStream.read(out, position, out.length - position);
+                    if (count < 0) {
+                        break;
+                    }
+                    position += count;
+                }
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new TokenStrategyFailedException(e);
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    private static void writeIntLE(byte[] out, int position, int value) {
+        out[position] = (byte) value;
+        out[position + 1] = (byte) (value >>> 8);
+        out[position + 2] = (byte) (value >>> 16);
+        out[position + 3] = (byte) (value >>> 24);
+    }
+
+    private static int readIntLE(byte[] in, int position) {
+        return (in[position] & 0xFF) | ((in[position + 1] & 0xFF) << 8)
+                | ((in[position + 2] & 0xFF) << 16) | ((in[position + 3] & 0xFF) << 24);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link FastBlobCodec} primed with a dictionary of the JSON that the
+ * {@link org.forgerock.openam.cts.adapters.SessionAdapter} produces for an
+ * {@link com.iplanet.dpro.session.service.InternalSession}.
+ * <p>
+ * Session Tokens are small and dominated by attribute names and well known property values, which
+ * leaves little for a general purpose compressor to work with on its own. With the dictionary these
+ * can be encoded as back references from the first occurrence.
+ * <p>
+ * Tokens written with a dictionary can only be read with exactly the same dictionary, so the
+ * contents of {@link #DICTIONARY_V1} must never be changed. A revised dictionary must be added as a
+ * new codec with a new identifier.
+ */
+public class SessionBlobCodec extends FastBlobCodec {
+
+    /**
+     * Configuration name of this codec.
+     */
+    public static final String NAME = "fast-session";
+
+    private static final byte ID = 2;
+
+    /**
+     * Version 1 of the Session dictionary. The most common content is towards the end.
+     */
+    static final String DICTIONARY_V1 =
+            "\"restrictedTokensByRestriction\":{},\"restrictedTokensBySid\":{},\"sessionEventURLs\":{},"
+            + "\"reschedulePossible\":false,\"cookieMode\":null,\"cookieStr\":null,\"isISStored\":true,"
+            + "\"extensionPart\":null,\"isParsed\":false,\"tail\":null,\"comingFromAuth\":false,"
+            + "\"sessionServerProtocol\":\"https\",\"sessionServerPort\":\"443\",\"sessionServerURI\":\"/openam\","
+            + "\"AuthType\":\"DataStore\",\"Service\":\"ldapService\",\"UserProfile\":\"Required\","
+            + "\"clientType\":\"genericHTML\",\"CharSet\":\"UTF-8\",\"Locale\":\"en_US\",\"cookieSupport\":\"true\","
+            + "\"successURL\":\"/openam/console\",\"FullLoginURL\":\"/openam/UI/Login\","
+            + "\"loginURL\":\"/openam/UI/Login\",\"AuthLevel\":\"0\",\"amlbcookie\":\"01\",\"AMCtxId\":\"\","
+            + "\"authInstant\":\"\",\"HostName\":\"\",\"Host\":\"\",\"UserId\":\"\",\"UserToken\":\"\","
+            + "\"Principals\":\"\",\"Principal\":\"uid=\",\"sun.am.UniversalIdentifier\":\"id=\","
+            + "\"Organization\":\"dc=openam,dc=forgerock,dc=org\",\"SessionHandle\":\"shandle:\","
+            + "\"am.protected.\",\"sessionID\":{\"comingFromAuth\":false,\"cookieMode\":null,"
+            + "\"encryptedString\":\"AQIC5wM2LY4S\",\"extensionPart\":\"AAJTSQACMD\",\"extensions\":"
+            + "{\"SI\":\"01\",\"S1\":\"01\",\"SK\":\"\"},\"isParsed\":true,\"sessionDomain\":\"\","
+            + "\"sessionServer\":\"\",\"sessionServerID\":\"01\",\"sessionServerPort\":\"8080\","
+            + "\"sessionServerProtocol\":\"http\",\"sessionServerURI\":\"/openam\",\"tail\":\"\"},"
+            + "\"sessionHandle\":\"shandle:AQIC5wM2LY4S\",\"sessionProperties\":{},"
+            + "\"sessionState\":1,\"sessionType\":0,\"timedOutAt\":0,\"version\":0,\"willExpireFlag\":true,"
+            + "\"maxCachingTime\":3,\"maxIdleTime\":30,\"maxSessionTime\":120,\"latestAccessTime\":,"
+            + "\"creationTime\":,\"uuid\":\"id=,ou=user,dc=openam,dc=forgerock,dc=org\","
+            + "{\"clientDomain\":\"dc=openam,dc=forgerock,dc=org\",\"clientID\":\"id=,ou=user,";
+
+    public SessionBlobCodec() {
+        super(NAME, ID, DICTIONARY_V1.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package org.forgerock.openam.entitlement.monitoring;
 
@@ -40,7 +41,7 @@ public class EvaluationTimingStore extends AbstractPolicyTimingStore {
      * @param subject The subject against which the evaluation took place
      */
     public void addTiming(long duration, String realm, String applicationName, String resourceName, Subject subject) {
-        durationStore.add(new PolicyTimingEntry(duration, realm, applicationName, resourceName, subject));
+        add(new PolicyTimingEntry(duration, realm, applicationName, resourceName, subject));
     }
 
 }
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package org.forgerock.openam.entitlement.monitoring;
 
@@ -41,7 +42,7 @@ public class InternalEvaluationTimingStore extends AbstractPolicyTimingStore {
     public void addTiming(String policyName, long duration, String realm, String applicationName,
                           String resourceName, Subject subject) {
 
-        durationStore.add(new PolicyTimingEntry(policyName, duration, realm, applicationName, resourceName, subject));
+        add(new PolicyTimingEntry(policyName, duration, realm, applicationName, resourceName, subject));
 
     }
 
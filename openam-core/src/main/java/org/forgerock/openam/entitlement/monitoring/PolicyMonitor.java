@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.entitlement.monitoring;
@@ -53,6 +54,15 @@ public interface PolicyMonitor {
     void addEvaluation(String policyName, long duration, String realm,
                        String applicationName, String resourceName, Subject subject);
 
+    /**
+     * Adds the evaluation of all the policies found for a request, as carried out by the policy evaluation engine.
+     *
+     * @param duration Total length of time in ms the policies took to evaluate
+     * @param workers The number of threads which helped the requesting thread evaluate the policies
+     * @param skipped The number of policies left unevaluated because the decision was already known
+     */
+    void addRequestEvaluation(long duration, int workers, int skipped);
+
     /**
      * Returns information on the slowest performing evaluation.
      *
@@ -108,4 +118,32 @@ public interface PolicyMonitor {
      */
     String getSlowestInternalEvaluation();
 
-}
\ No newline at end of file
+    /**
+     * Average length of time the policies found for a request take to evaluate.
+     *
+     * @return The average length of time it takes to evaluate the policies of a request in ms
+     */
+    long getAverageRequestEvaluationTime();
+
+    /**
+     * Total number of requests whose policies were evaluated by more than one thread.
+     *
+     * @return The number of requests evaluated in parallel
+     */
+    long getParallelRequestEvaluationCount();
+
+    /**
+     * Total number of requests whose evaluation stopped early because the decision was already known.
+     *
+     * @return The number of requests decided early
+     */
+    long getDecidedEarlyRequestEvaluationCount();
+
+    /**
+     * Total number of policies left unevaluated because the decision of their request was already known.
+     *
+     * @return The number of policies skipped
+     */
+    long getSkippedPolicyEvaluationCount();
+
+}
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package org.forgerock.openam.entitlement.monitoring;
 
@@ -23,6 +24,8 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.security.auth.Subject;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
 
 /**
  * Singleton through which all access to the policy monitoring stores is achieved.
@@ -31,10 +34,11 @@ import javax.security.auth.Subject;
  * to the policy's statistics are done in a separate thread.
  *
  * It has one set of stores for each of the two modes that policy can be queried by - Self and Subtree,
- * it also contains a store for the internal (individual privilege) evaluation timings.
+ * it also contains a store for the internal (individual privilege) evaluation timings, and one for the evaluation
+ * of all the privileges of each request.
  */
 @Singleton
-public class PolicyMonitorImpl implements PolicyMonitor {
+public class PolicyMonitorImpl implements PolicyMonitor, MetricsSource {
 
     //debug
     private final Debug debug;
@@ -50,6 +54,9 @@ public class PolicyMonitorImpl implements PolicyMonitor {
     //internal monitoring store
     private final InternalEvaluationTimingStore internalEvaluationTimingStore;
 
+    //request evaluation store
+    private final RequestEvaluationStore requestEvaluationStore;
+
     //for pushing off our monitoring writes to another thread
     private final ExecutorService executorService;
     public static final String EXECUTOR_BINDING_NAME = "POLICY_MONITORING_EXECUTOR";
@@ -64,6 +71,7 @@ public class PolicyMonitorImpl implements PolicyMonitor {
      * @param subtreeEvaluationMonitoringStore Store for the SUBTREE mode evaluation monitoring
      * @param subtreeEvaluationTimingStore Store for the SELF mode timing monitoring
      * @param internalEvaluationTimingStore Store for the internal privilege evaluation monitoring
+     * @param requestEvaluationStore Store for the evaluation of the privileges of each request
      */
     @Inject
     public PolicyMonitorImpl(@Named(POLICY_MONITOR_DEBUG) Debug debug,
@@ -72,7 +80,8 @@ public class PolicyMonitorImpl implements PolicyMonitor {
                              final EvaluationTimingStore selfEvaluationTimingStore,
                              final EvaluationMonitoringStore subtreeEvaluationMonitoringStore,
                              final EvaluationTimingStore subtreeEvaluationTimingStore,
-                             final InternalEvaluationTimingStore internalEvaluationTimingStore) {
+                             final InternalEvaluationTimingStore internalEvaluationTimingStore,
+                             final RequestEvaluationStore requestEvaluationStore) {
         this.debug = debug;
         this.executorService = executorService;
         this.selfEvaluationMonitoringStore = selfEvaluationMonitoringStore;
@@ -80,6 +89,7 @@ public class PolicyMonitorImpl implements PolicyMonitor {
         this.subtreeEvaluationMonitoringStore = subtreeEvaluationMonitoringStore;
         this.subtreeEvaluationTimingStore = subtreeEvaluationTimingStore;
         this.internalEvaluationTimingStore = internalEvaluationTimingStore;
+        this.requestEvaluationStore = requestEvaluationStore;
     }
 
     /**
@@ -136,6 +146,14 @@ public class PolicyMonitorImpl implements PolicyMonitor {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addRequestEvaluation(long duration, int workers, int skipped) {
+        requestEvaluationStore.addEvaluation(duration, workers, skipped);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -216,6 +234,68 @@ public class PolicyMonitorImpl implements PolicyMonitor {
         return internalEvaluationTimingStore.getSlowestEvaluation();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAverageRequestEvaluationTime() {
+        return requestEvaluationStore.getDurationAverage();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getParallelRequestEvaluationCount() {
+        return requestEvaluationStore.getParallelCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDecidedEarlyRequestEvaluationCount() {
+        return requestEvaluationStore.getDecidedEarlyCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSkippedPolicyEvaluationCount() {
+        return requestEvaluationStore.getSkippedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        writer.counter("openam_policy_evaluations", "Policy evaluations since server start up.",
+                selfEvaluationMonitoringStore.getEvaluationCumulativeCount(), "mode", "self");
+        writer.counter("openam_policy_evaluations", "Policy evaluations since server start up.",
+                subtreeEvaluationMonitoringStore.getEvaluationCumulativeCount(), "mode", "subtree");
+        writer.summary("openam_policy_evaluation_duration_seconds", "Duration of policy evaluations.",
+                selfEvaluationTimingStore.getHistogram(), OpenMetricsWriter.MILLISECONDS, "mode", "self");
+        writer.summary("openam_policy_evaluation_duration_seconds", "Duration of policy evaluations.",
+                subtreeEvaluationTimingStore.getHistogram(), OpenMetricsWriter.MILLISECONDS, "mode", "subtree");
+        writer.summary("openam_policy_internal_evaluation_duration_seconds",
+                "Duration of the evaluations of single policies.",
+                internalEvaluationTimingStore.getHistogram(), OpenMetricsWriter.MILLISECONDS);
+        writer.summary("openam_policy_request_evaluation_duration_seconds",
+                "Duration of the evaluations of all the policies found for a request.",
+                requestEvaluationStore.getDurationHistogram(), OpenMetricsWriter.MILLISECONDS);
+        writer.counter("openam_policy_request_evaluations_parallel",
+                "Requests whose policies were evaluated by more than one thread since server start up.",
+                requestEvaluationStore.getParallelCount());
+        writer.counter("openam_policy_request_evaluations_decided_early",
+                "Requests whose evaluation stopped once the decision was known since server start up.",
+                requestEvaluationStore.getDecidedEarlyCount());
+        writer.counter("openam_policy_evaluations_skipped",
+                "Policies left unevaluated because the decision was already known since server start up.",
+                requestEvaluationStore.getSkippedCount());
+    }
+
     /**
      * Exposed for ease-of-testing.
      *
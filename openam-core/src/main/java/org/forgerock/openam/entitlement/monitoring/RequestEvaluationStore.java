@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.entitlement.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.openam.shared.monitoring.LatencyHistogram;
+
+/**
+ * Store for the timings of evaluating the policies found for each request, and for how that evaluation was spread
+ * over threads and cut short.
+ * <p>
+ * Recording only adds to counters, so it neither blocks nor needs to be handed off to another thread.
+ *
+ * @since 15.0.0
+ */
+class RequestEvaluationStore {
+
+    private final LatencyHistogram durations = new LatencyHistogram();
+    private final LongAdder parallelRequests = new LongAdder();
+    private final LongAdder decidedEarlyRequests = new LongAdder();
+    private final LongAdder skippedPolicies = new LongAdder();
+
+    /**
+     * Records the evaluation of the policies found for a request.
+     *
+     * @param duration Length of time (in ms) the evaluation took
+     * @param workers The number of threads which helped the requesting thread
+     * @param skipped The number of policies left unevaluated once the decision was known
+     */
+    public void addEvaluation(long duration, int workers, int skipped) {
+        durations.record(duration);
+        if (workers > 0) {
+            parallelRequests.increment();
+        }
+        if (skipped > 0) {
+            decidedEarlyRequests.increment();
+            skippedPolicies.add(skipped);
+        }
+    }
+
+    /**
+     * @return The average length of time in ms the policies of a request take to evaluate.
+     */
+    public long getDurationAverage() {
+        return durations.getMean();
+    }
+
+    /**
+     * @return The distribution of the lengths of time in ms the policies of a request take to evaluate.
+     */
+    public LatencyHistogram getDurationHistogram() {
+        return durations;
+    }
+
+    /**
+     * @return The number of requests whose policies were evaluated by more than one thread.
+     */
+    public long getParallelCount() {
+        return parallelRequests.sum();
+    }
+
+    /**
+     * @return The number of requests whose evaluation stopped once the decision was known.
+     */
+    public long getDecidedEarlyCount() {
+        return decidedEarlyRequests.sum();
+    }
+
+    /**
+     * @return The number of policies left unevaluated because the decision was already known.
+     */
+    public long getSkippedCount() {
+        return skippedPolicies.sum();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.monitoring;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Set;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.iplanet.am.util.SystemProperties;
+import com.sun.identity.shared.Constants;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Serves the values of the CTS, session, policy and RADIUS monitoring stores in the OpenMetrics text format, for
+ * Prometheus and compatible collectors to scrape.
+ * <p>
+ * The endpoint responds with 404 unless it is enabled with {@link Constants#OPENMETRICS_ENABLED}, and with 403 to
+ * callers whose address is not listed in {@link Constants#OPENMETRICS_ALLOWED_ADDRESSES}, which defaults to the
+ * loopback addresses. The metrics contain counts and durations only, no user, realm or resource names.
+ *
+ * @since 15.0.0
+ */
+public class OpenMetricsServlet extends HttpServlet {
+
+    private static final Key<Set<MetricsSource>> SOURCES = Key.get(new TypeLiteral<Set<MetricsSource>>() { });
+    private static final String DEFAULT_ALLOWED_ADDRESSES = "127.0.0.1,::1";
+    private static final Debug DEBUG = Debug.getInstance("amMonitoring");
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!SystemProperties.getAsBoolean(Constants.OPENMETRICS_ENABLED, false)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!isAllowed(request.getRemoteAddr())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        for (MetricsSource source : InjectorHolder.getInstance(SOURCES)) {
+            source.writeMetrics(writer);
+        }
+
+        response.setContentType(OpenMetricsWriter.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        writer.write(response.getWriter());
+    }
+
+    private static boolean isAllowed(String remoteAddress) {
+        InetAddress caller = toAddress(remoteAddress);
+        if (caller == null) {
+            return false;
+        }
+        String allowed = SystemProperties.get(Constants.OPENMETRICS_ALLOWED_ADDRESSES, DEFAULT_ALLOWED_ADDRESSES);
+        for (String address : allowed.split(",")) {
+            if (caller.equals(toAddress(address.trim()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static InetAddress toAddress(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address);
+        } catch (UnknownHostException e) {
+            DEBUG.warning("OpenMetricsServlet: ignoring invalid address " + address);
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 /*
  * Copyright 2013-2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  *
  * The contents of this file are subject to the terms of the Common Development and
  * Distribution License (the License). You may not use this file except in compliance with the
@@ -256,5 +257,45 @@ public class CtsMonitoringImpl<E extends Enum<E>, F extends Enum<F>> extends Cts
         return (long) reaperMonitoringStore.getRateOfDeletedSessions();
     }
 
+    /**
+     * Gets the number of tokens deleted per second by the most recent CTS Reaper run.
+     *
+     * @return The throughput of the CTS Reaper.
+     */
+    @Override
+    public Long getReaperThroughput() {
+        return (long) reaperMonitoringStore.getReaperThroughput();
+    }
+
+    /**
+     * Gets how far behind the current time the partitioned CTS Reaper is, in milliseconds.
+     *
+     * @return The lag of the CTS Reaper.
+     */
+    @Override
+    public Long getReaperLag() {
+        return reaperMonitoringStore.getReaperLag();
+    }
+
+    /**
+     * Gets the number of times the CTS Reaper has slowed down to protect the CTS.
+     *
+     * @return The number of times the CTS Reaper has been throttled.
+     */
+    @Override
+    public Long getReaperThrottleCount() {
+        return reaperMonitoringStore.getReaperThrottleCount();
+    }
+
+    /**
+     * Gets the total number of tokens deleted by the CTS Reaper.
+     *
+     * @return The number of tokens deleted since server start up.
+     */
+    @Override
+    public Long getReaperDeletedTokens() {
+        return reaperMonitoringStore.getReaperDeletedTokens();
+    }
+
 }
 
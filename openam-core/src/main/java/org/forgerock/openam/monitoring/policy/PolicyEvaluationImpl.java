@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package org.forgerock.openam.monitoring.policy;
 
@@ -47,4 +48,32 @@ public class PolicyEvaluationImpl extends PolicyEvaluation {
     public String getSlowestPolicyEvaluationTime() throws SnmpStatusException {
         return policyMonitor.getSlowestInternalEvaluation();
     }
+
+    /**
+     * Getter for the "RequestEvaluationTimeAverage" variable.
+     */
+    public Long getRequestEvaluationTimeAverage() throws SnmpStatusException {
+        return policyMonitor.getAverageRequestEvaluationTime();
+    }
+
+    /**
+     * Getter for the "RequestEvaluationsParallel" variable.
+     */
+    public Long getRequestEvaluationsParallel() throws SnmpStatusException {
+        return policyMonitor.getParallelRequestEvaluationCount();
+    }
+
+    /**
+     * Getter for the "RequestEvaluationsDecidedEarly" variable.
+     */
+    public Long getRequestEvaluationsDecidedEarly() throws SnmpStatusException {
+        return policyMonitor.getDecidedEarlyRequestEvaluationCount();
+    }
+
+    /**
+     * Getter for the "PolicyEvaluationsSkipped" variable.
+     */
+    public Long getPolicyEvaluationsSkipped() throws SnmpStatusException {
+        return policyMonitor.getSkippedPolicyEvaluationCount();
+    }
 }
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2015 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package org.forgerock.openam.monitoring.session;
 
@@ -21,6 +22,7 @@ import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.openam.cts.monitoring.impl.persistence.CtsPersistenceOperationsMonitor;
+import org.forgerock.openam.session.stateless.cache.StatelessJWTCache;
 
 /**
  * The class is used for representing "FORGEROCK-OPENAM-SESSION-MIB".
@@ -138,7 +140,8 @@ public class FORGEROCK_OPENAM_SESSION_MIBImpl extends FORGEROCK_OPENAM_SESSION_M
      */
     protected StatelessSessions createStatelessSessionsMBean(String groupName, String groupOid,
                                                              ObjectName groupObjname, MBeanServer server) {
-        statelessSessions = new StatelessSessionsImpl(this, InjectorHolder.getInstance(SessionMonitoringStore.class));
+        statelessSessions = new StatelessSessionsImpl(this, InjectorHolder.getInstance(SessionMonitoringStore.class),
+                InjectorHolder.getInstance(StatelessJWTCache.class));
 
         return statelessSessions;
     }
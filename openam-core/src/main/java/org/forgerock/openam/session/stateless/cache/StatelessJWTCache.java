@@ -12,17 +12,24 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.session.stateless.cache;
 
-import java.util.Collections;
-import java.util.Map;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.forgerock.openam.session.stateless.StatelessConfig;
-import org.forgerock.openam.utils.collections.LeastRecentlyUsed;
 import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
 
@@ -41,16 +48,34 @@ import com.iplanet.services.naming.ServiceListeners;
  *
  * Assumption: There is only one representation of a JWT to the SessionInfo it contains.
  *
- * Thread Safety: This class uses a synchronized data structure and so is thread safe.
+ * Entries are held until the expiry time of the session contained in the JWT, after which they
+ * are treated as absent and discarded. The number of entries is bounded by
+ * {@link StatelessConfig#getJWTCacheSize()}; when the cache is full the least recently used
+ * entries are evicted using a second chance (clock) approximation of LRU, so that lookups never
+ * need to reorder a shared list. Entries discarded on expiry or invalidation are left in the clock
+ * queue and dropped when they reach its head; the queue is trimmed whenever it grows to twice the
+ * size of the cache, so that it stays bounded even if the cache never fills.
+ *
+ * Thread Safety: This class is lock free. Lookups only read a concurrent map and set a flag on
+ * the entry found, so request threads validating stateless sessions do not contend with each other.
  */
 @Singleton
 public class StatelessJWTCache {
-    private final Map<String, SessionInfo> sessionInfoCache;
+    private final ConcurrentMap<String, Entry> sessionInfoCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> jwtsBySessionId = new ConcurrentHashMap<>();
+    private final Queue<Entry> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
 
     @Inject
     public StatelessJWTCache(StatelessConfig config, ServiceListeners listeners) {
-        sessionInfoCache = Collections.synchronizedMap(
-                new LeastRecentlyUsed<String, SessionInfo>(config.getJWTCacheSize()));
+        maxSize = config.getJWTCacheSize();
 
         // Responds to configuration changes, preventing possibly invalid keys from remaining in the cache
         final ServiceListeners.Action action = new ServiceListeners.Action() {
@@ -70,7 +95,20 @@ public class StatelessJWTCache {
      */
     public void cache(SessionInfo info, String jwtToken) {
         Reject.ifNull(info, jwtToken, "Arguments cannot be null.");
-        sessionInfoCache.put(jwtToken, info);
+        if (maxSize <= 0) {
+            return;
+        }
+
+        Entry entry = new Entry(jwtToken, info);
+        Entry previous = sessionInfoCache.put(jwtToken, entry);
+        index(entry.sessionId, jwtToken);
+        if (previous == null) {
+            size.incrementAndGet();
+        } else if (!previous.sessionId.equals(entry.sessionId)) {
+            unindex(previous.sessionId, jwtToken);
+        }
+        enqueue(entry);
+        evictWhileFull();
     }
 
     /**
@@ -78,7 +116,14 @@ public class StatelessJWTCache {
      * @return Possibly null. Cached SessionInfo that corresponds to the given JWT token.
      */
     public SessionInfo getSessionInfo(String jwt) {
-        return sessionInfoCache.get(jwt);
+        Entry entry = lookup(jwt);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.referenced = true;
+        return entry.info;
     }
 
     /**
@@ -86,7 +131,20 @@ public class StatelessJWTCache {
      * @return True if there is a JWT representation for this SessionInfo.
      */
     public boolean contains(SessionInfo info) {
-        return sessionInfoCache.containsValue(info);
+        if (info == null) {
+            return false;
+        }
+        Set<String> jwts = jwtsBySessionId.get(keyOf(info.getSessionID()));
+        if (jwts == null) {
+            return false;
+        }
+        for (String jwt : jwts) {
+            Entry entry = lookup(jwt);
+            if (entry != null && info.equals(entry.info)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -94,7 +152,54 @@ public class StatelessJWTCache {
      * @return True if this JWT has been stored in the cache previously.
      */
     public boolean contains(String jwtToken) {
-        return sessionInfoCache.containsKey(jwtToken);
+        return lookup(jwtToken) != null;
+    }
+
+    /**
+     * @return The number of JWTs currently held in the cache, including any which have expired but
+     * have not yet been discarded.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return The number of lookups which found a cached SessionInfo since server start up.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups which did not find a cached SessionInfo since server start up.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of entries evicted to keep the cache within its configured size since
+     * server start up.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of entries discarded because the session they contain had expired since
+     * server start up.
+     */
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * @return The number of entries in the clock queue, including entries which have been discarded
+     * but have not yet reached the head of the queue.
+     */
+    @VisibleForTesting
+    int getEvictionQueueLength() {
+        return queued.get();
     }
 
     /**
@@ -105,6 +210,138 @@ public class StatelessJWTCache {
      */
     @VisibleForTesting
     void clear() {
-        sessionInfoCache.clear();
+        for (String jwt : sessionInfoCache.keySet()) {
+            Entry entry = sessionInfoCache.get(jwt);
+            if (entry != null) {
+                discard(jwt, entry);
+            }
+        }
+        while (evictionOrder.poll() != null) {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Find the live entry for a JWT, discarding it if the session it contains has expired.
+     */
+    private Entry lookup(String jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        Entry entry = sessionInfoCache.get(jwt);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.hasExpired(currentTimeMillis())) {
+            if (discard(jwt, entry)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private void enqueue(Entry entry) {
+        evictionOrder.offer(entry);
+        queued.incrementAndGet();
+    }
+
+    /**
+     * Evict entries in clock order until the cache is within its bounds. Entries which have been
+     * read since they were last considered are given a second chance and moved to the back.
+     *
+     * Each current entry is queued exactly once, so once the queue is twice the size of the cache
+     * at least half of it has been discarded or replaced; those are dropped, and current entries are
+     * moved to the back untouched, until the queue is back within bounds.
+     */
+    private void evictWhileFull() {
+        long now = currentTimeMillis();
+        while (size.get() > maxSize || queued.get() > 2 * maxSize) {
+            Entry entry = evictionOrder.poll();
+            if (entry == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (sessionInfoCache.get(entry.jwt) != entry) {
+                continue;
+            }
+            if (entry.hasExpired(now)) {
+                if (discard(entry.jwt, entry)) {
+                    expirations.increment();
+                }
+            } else if (size.get() <= maxSize) {
+                enqueue(entry);
+            } else if (entry.referenced) {
+                entry.referenced = false;
+                enqueue(entry);
+            } else if (discard(entry.jwt, entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove the given mapping if it is still current.
+     *
+     * @return True if this call removed the mapping.
+     */
+    private boolean discard(String jwt, Entry entry) {
+        if (sessionInfoCache.remove(jwt, entry)) {
+            size.decrementAndGet();
+            unindex(entry.sessionId, jwt);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Index and unindex both update the set of JWTs for a session inside a compute call, so that a
+     * set is never modified after it has been removed from the index.
+     */
+    private void index(String sessionId, String jwt) {
+        jwtsBySessionId.compute(sessionId, (k, jwts) -> {
+            Set<String> result = jwts == null ? ConcurrentHashMap.<String>newKeySet() : jwts;
+            result.add(jwt);
+            return result;
+        });
+    }
+
+    private void unindex(String sessionId, String jwt) {
+        jwtsBySessionId.computeIfPresent(sessionId, (k, jwts) -> {
+            Entry current = sessionInfoCache.get(jwt);
+            if (current == null || !current.sessionId.equals(sessionId)) {
+                jwts.remove(jwt);
+            }
+            return jwts.isEmpty() ? null : jwts;
+        });
+    }
+
+    private static String keyOf(String sessionId) {
+        return sessionId == null ? "" : sessionId;
+    }
+
+    /**
+     * A cached SessionInfo, with the state needed to expire and evict it.
+     */
+    private static final class Entry {
+        private final String jwt;
+        private final SessionInfo info;
+        private final String sessionId;
+        private final long expiryTime;
+        private volatile boolean referenced;
+
+        private Entry(String jwt, SessionInfo info) {
+            this.jwt = jwt;
+            this.info = info;
+            this.sessionId = keyOf(info.getSessionID());
+            this.expiryTime = info.getExpiryTime();
+        }
+
+        /**
+         * A SessionInfo without an expiry time is kept until evicted.
+         */
+        private boolean hasExpired(long now) {
+            return expiryTime > 0 && now >= expiryTime;
+        }
     }
-}
\ No newline at end of file
+}
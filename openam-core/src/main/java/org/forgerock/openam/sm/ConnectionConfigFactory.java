@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.sm;
 
@@ -20,6 +21,7 @@ import javax.inject.Named;
 
 import java.util.Set;
 
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.ldap.LDAPURL;
 import org.forgerock.openam.sm.datalayer.api.ConnectionType;
 import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
@@ -108,7 +110,7 @@ public class ConnectionConfigFactory {
         return new DelegatingConnectionConfig(configuration) {
             @Override
             public int getMaxConnections() {
-                return 1;
+                return CoreTokenConfig.getReaperMaxConnections();
             }
         };
     }
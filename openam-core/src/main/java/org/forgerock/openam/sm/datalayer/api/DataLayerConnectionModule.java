@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.sm.datalayer.api;
@@ -26,6 +27,7 @@ import com.google.inject.PrivateModule;
 import com.google.inject.Provider;
 import com.google.inject.name.Names;
 import org.forgerock.openam.cts.impl.LdapAdapter;
+import org.forgerock.openam.cts.impl.PersistedEntryCache;
 import org.forgerock.openam.sm.ConnectionConfigFactory;
 import org.forgerock.openam.sm.datalayer.api.query.QueryFactory;
 import org.forgerock.openam.sm.datalayer.impl.PooledTaskExecutor;
@@ -108,6 +110,7 @@ public abstract class DataLayerConnectionModule extends PrivateModule {
     protected void configureTaskExecutor(PrivateBinder binder) {
         if (executorType != null) {
             binder.bind(TokenStorageAdapter.class).to(LdapAdapter.class);
+            binder.bind(PersistedEntryCache.class).in(Singleton.class);
             binder.bind(TaskExecutor.class).to(executorType);
             binder.bind(TaskFactory.class).in(Singleton.class);
         }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.sm.datalayer.api;
@@ -57,6 +58,19 @@ public interface TokenStorageAdapter<T> {
      */
     boolean update(T connection, Token previous, Token updated) throws DataLayerException;
 
+    /**
+     * Update the Token without reading it first, if the database allows it to be done safely.
+     *
+     * When false is returned nothing has been changed, and the caller should read the Token
+     * and update it with {@link #update(Object, Token, Token)}, or create it if it doesn't exist.
+     *
+     * @param connection The non null connection to perform this call against.
+     * @param updated The non null Token to update with.
+     * @return True if the token was updated, or false if it could not be updated without reading it.
+     * @throws DataLayerException If the operation failed for a known reason.
+     */
+    boolean updateIfUnchanged(T connection, Token updated) throws DataLayerException;
+
     /**
      * Performs a delete against the Token ID provided.
      *
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.sm.datalayer.impl;
@@ -29,6 +30,7 @@ import javax.inject.Named;
 import org.forgerock.openam.cts.api.CoreTokenConstants;
 import org.forgerock.openam.cts.impl.queue.QueueSelector;
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
 import org.forgerock.openam.audit.context.AbstractAuditRequestContextPropagatingDecorator;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
 import org.forgerock.openam.audit.context.AuditRequestContext;
@@ -67,6 +69,8 @@ import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
  * this situation persists for an extended duration, then the CTS queues will
  * throttle the caller until the CTS has had time to catch up.
  *
+ * The number of tasks waiting on the queues is reported to the {@link TaskQueueMonitor}.
+ *
  * @see org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration#getQueueTimeout()
  */
 public class SeriesTaskExecutor implements TaskExecutor {
@@ -79,6 +83,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
     private final ThreadMonitor monitor;
     private final CTSQueueConfiguration configuration;
     private final ExecutorService poolService;
+    private final TaskQueueMonitor queueMonitor;
 
     /**
      * Create a default instance of the SeriesTaskExecutor.
@@ -87,6 +92,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
      * @param processorFactory Required to create worker thread instances.
      * @param monitor Required to ensure threads are restarted.
      * @param configuration Required to determine runtime configuration options.
+     * @param queueMonitor Required to report the depth of the queues.
      * @param debug Required for debugging.
      */
     @Inject
@@ -95,12 +101,14 @@ public class SeriesTaskExecutor implements TaskExecutor {
             SeriesTaskExecutorThreadFactory processorFactory,
             ThreadMonitor monitor,
             CTSQueueConfiguration configuration,
+            TaskQueueMonitor queueMonitor,
             @Named(DataLayerConstants.DATA_LAYER_DEBUG) Debug debug) {
         this.debug = debug;
         this.monitor = monitor;
         this.configuration = configuration;
         this.processorFactory = processorFactory;
         this.poolService = poolService;
+        this.queueMonitor = queueMonitor;
     }
 
     @Override
@@ -178,6 +186,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
             if (!queue.offer(wrap(task), configuration.getQueueTimeout(), TimeUnit.SECONDS)) {
                 throw new QueueTimeoutException(task);
             }
+            queueMonitor.taskQueued();
         } catch (InterruptedException e) {
             throw new QueueTimeoutException(task, e);
         }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.sm.datalayer.impl;
 
@@ -22,6 +23,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.Task;
 
@@ -45,6 +47,7 @@ import com.sun.identity.shared.debug.Debug;
  */
 public class SeriesTaskExecutorThread implements Runnable {
     private final SimpleTaskExecutor taskExecutor;
+    private final TaskQueueMonitor queueMonitor;
     private BlockingQueue<Task> queue;
     private final Debug debug;
 
@@ -52,11 +55,15 @@ public class SeriesTaskExecutorThread implements Runnable {
      * Generate a default instance of the Task Processor.
      *
      * @param debug Required for debugging.
+     * @param taskExecutor Required to execute the tasks drawn from the queue.
+     * @param queueMonitor Required to report each task drawn from the queue.
      */
     @Inject
-    public SeriesTaskExecutorThread(@Named(CoreTokenConstants.CTS_DEBUG) Debug debug, SimpleTaskExecutor taskExecutor) {
+    public SeriesTaskExecutorThread(@Named(CoreTokenConstants.CTS_DEBUG) Debug debug, SimpleTaskExecutor taskExecutor,
+            TaskQueueMonitor queueMonitor) {
         this.debug = debug;
         this.taskExecutor = taskExecutor;
+        this.queueMonitor = queueMonitor;
     }
 
     /**
@@ -89,6 +96,7 @@ public class SeriesTaskExecutorThread implements Runnable {
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 Task task = queue.take();
+                queueMonitor.batchProcessed(1);
                 debug("process Task {0}", task);
                 taskExecutor.execute(null, task);
             } catch (InterruptedException e) {
@@ -0,0 +1,350 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.sm.datalayer.impl;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.impl.queue.QueueSelector;
+import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
+import org.forgerock.openam.shared.concurrency.ThreadMonitor;
+import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.QueueTimeoutException;
+import org.forgerock.openam.sm.datalayer.api.Task;
+import org.forgerock.openam.sm.datalayer.api.TaskExecutor;
+
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * A {@link TaskExecutor} which, like the {@link SeriesTaskExecutor}, guarantees that tasks on a single
+ * {@link org.forgerock.openam.cts.api.tokens.Token} are processed in order, but which does not tie each
+ * Token ID to a single processor thread.
+ * <p>
+ * Tasks are placed on one of a large number of <em>lanes</em>, selected by {@link QueueSelector} against
+ * the Token ID. A lane is only ever owned by one processor at a time, which provides the ordering
+ * guarantee. When a lane has work waiting it is placed on the ready deque of its home processor. A
+ * processor takes lanes from the head of its own ready deque and, when that is empty, steals lanes from
+ * the tail of the other processors' ready deques. A burst of traffic on one part of the key space is
+ * therefore shared between all processors rather than filling a single queue.
+ * <p>
+ * Each time a processor wakes up it draws up to {@link CTSQueueConfiguration#getBatchSize()} tasks, from
+ * as many ready lanes as are available without blocking, and processes them back to back on its own
+ * connection. This avoids a wake up and connection validity check per task when the CTS is busy.
+ * <p>
+ * The total number of queued tasks is bounded by the number of processors multiplied by
+ * {@link CTSQueueConfiguration#getQueueSize()}. When this is exhausted the caller blocks for up to
+ * {@link CTSQueueConfiguration#getQueueTimeout()} seconds, preserving the throttling behaviour of the
+ * {@link SeriesTaskExecutor}.
+ * <p>
+ * Queue depth, batch size and work stealing statistics are reported to the {@link TaskQueueMonitor}.
+ *
+ * @see org.forgerock.openam.cts.impl.CTSWorkStealingConnectionModule
+ */
+public class WorkStealingTaskExecutor implements TaskExecutor {
+
+    /**
+     * The number of lanes allocated per processor. Must be a power of two.
+     */
+    static final int LANES_PER_PROCESSOR = 16;
+
+    private final Debug debug;
+    private final ExecutorService poolService;
+    private final Provider<SimpleTaskExecutor> executorProvider;
+    private final ThreadMonitor monitor;
+    private final CTSQueueConfiguration configuration;
+    private final TaskQueueMonitor queueMonitor;
+
+    private Lane[] lanes;
+    private ConcurrentLinkedDeque<Lane>[] readyLanes;
+    private Semaphore readyPermits;
+    private Semaphore capacity;
+    private int processors;
+    private int batchSize;
+    private boolean initialised = false;
+
+    /**
+     * Create a default instance of the WorkStealingTaskExecutor.
+     *
+     * @param poolService Required to scheduled worker threads.
+     * @param executorProvider Required to create the executor each worker thread processes tasks with.
+     * @param monitor Required to ensure threads are restarted.
+     * @param configuration Required to determine runtime configuration options.
+     * @param queueMonitor Required to report queue statistics.
+     * @param debug Required for debugging.
+     */
+    @Inject
+    public WorkStealingTaskExecutor(
+            ExecutorService poolService,
+            Provider<SimpleTaskExecutor> executorProvider,
+            ThreadMonitor monitor,
+            CTSQueueConfiguration configuration,
+            TaskQueueMonitor queueMonitor,
+            @Named(DataLayerConstants.DATA_LAYER_DEBUG) Debug debug) {
+        this.poolService = poolService;
+        this.executorProvider = executorProvider;
+        this.monitor = monitor;
+        this.configuration = configuration;
+        this.queueMonitor = queueMonitor;
+        this.debug = debug;
+    }
+
+    @Override
+    public void execute(String tokenId, Task task) throws DataLayerException {
+        Lane lane = getLane(tokenId);
+        acquireCapacity(task);
+        debug("Queuing Task {0} on lane {1}", task, lane.index);
+        queueMonitor.taskQueued();
+        lane.tasks.offer(wrap(task));
+        schedule(lane);
+    }
+
+    /**
+     * Create the lanes and a processor thread for each configured connection.
+     * Ensure each thread is monitored by {@link ThreadMonitor}.
+     *
+     * Synchronized to ensure that only one set of threads are initialised.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void start() throws DataLayerException {
+        if (initialised) {
+            return;
+        }
+
+        processors = configuration.getProcessors();
+        batchSize = configuration.getBatchSize();
+
+        lanes = new Lane[processors * LANES_PER_PROCESSOR];
+        for (int ii = 0; ii < lanes.length; ii++) {
+            lanes[ii] = new Lane(ii, ii % processors);
+        }
+
+        readyLanes = new ConcurrentLinkedDeque[processors];
+        for (int ii = 0; ii < processors; ii++) {
+            readyLanes[ii] = new ConcurrentLinkedDeque<Lane>();
+        }
+        readyPermits = new Semaphore(0);
+        capacity = new Semaphore(processors * configuration.getQueueSize());
+
+        for (int ii = 0; ii < processors; ii++) {
+            monitor.watchThread(poolService, new Processor(ii));
+        }
+        debug("Created {0} Task Processors over {1} lanes, batch size {2}", processors, lanes.length, batchSize);
+
+        initialised = true;
+    }
+
+    /**
+     * Select the lane for the given Token ID. Queries have no ordering requirements and are
+     * assigned a random lane.
+     *
+     * @param tokenId Possibly null Token ID.
+     * @return Non null lane.
+     */
+    private Lane getLane(String tokenId) {
+        if (tokenId == null) {
+            return lanes[ThreadLocalRandom.current().nextInt(lanes.length)];
+        }
+        return lanes[QueueSelector.select(tokenId, lanes.length)];
+    }
+
+    /**
+     * Reserve space for the task, blocking for up to the configured timeout.
+     *
+     * @param task The task being queued.
+     * @throws QueueTimeoutException If the timeout expired before space became available.
+     */
+    private void acquireCapacity(Task task) throws QueueTimeoutException {
+        try {
+            if (!capacity.tryAcquire(configuration.getQueueTimeout(), TimeUnit.SECONDS)) {
+                throw new QueueTimeoutException(task);
+            }
+        } catch (InterruptedException e) {
+            throw new QueueTimeoutException(task, e);
+        }
+    }
+
+    /**
+     * Place the lane on its home processor's ready deque, unless it is already there or is
+     * currently owned by a processor.
+     */
+    private void schedule(Lane lane) {
+        if (lane.scheduled.compareAndSet(false, true)) {
+            readyLanes[lane.home].offerLast(lane);
+            readyPermits.release();
+        }
+    }
+
+    /**
+     * Return ownership of a lane after its tasks have been processed, rescheduling it if more
+     * tasks arrived in the meantime.
+     */
+    private void release(Lane lane) {
+        lane.scheduled.set(false);
+        if (!lane.tasks.isEmpty()) {
+            schedule(lane);
+        }
+    }
+
+    /**
+     * Take a ready lane, preferring the processor's own deque and otherwise stealing from the
+     * others. The caller must hold a ready permit, which guarantees that a lane is available.
+     */
+    private Lane claim(int home) {
+        while (true) {
+            Lane lane = readyLanes[home].pollFirst();
+            if (lane != null) {
+                return lane;
+            }
+            for (int ii = 1; ii < processors; ii++) {
+                lane = readyLanes[(home + ii) % processors].pollLast();
+                if (lane != null) {
+                    return lane;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Add the lane's tasks to the batch, recording them as stolen if the lane belongs to another processor.
+     */
+    private void drain(int home, Lane lane, List<Task> batch) {
+        int drained = 0;
+        Task task;
+        while (batch.size() < batchSize && (task = lane.tasks.poll()) != null) {
+            batch.add(task);
+            drained++;
+        }
+        if (lane.home != home && drained > 0) {
+            queueMonitor.tasksStolen(drained);
+        }
+    }
+
+    private void debug(String format, Object... args) {
+        if (debug.messageEnabled()) {
+            debug.message(MessageFormat.format(
+                    CoreTokenConstants.DEBUG_ASYNC_HEADER + format, args));
+        }
+    }
+
+    private void error(String message, Throwable t) {
+        debug.error(CoreTokenConstants.DEBUG_ASYNC_HEADER + "Task Processor Error: " + message, t);
+    }
+
+    Task wrap(Task task) {
+        return new SeriesTaskExecutor.AuditRequestContextPropagatingTask(task);
+    }
+
+    /**
+     * An ordered sequence of tasks for the Token IDs which hash to it.
+     */
+    private static final class Lane {
+        private final int index;
+        private final int home;
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<Task>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private Lane(int index, int home) {
+            this.index = index;
+            this.home = home;
+        }
+    }
+
+    /**
+     * Draws batches of tasks from the ready lanes and processes them on a dedicated connection.
+     *
+     * Thread Policy: This runnable will respond to Thread interrupts and will
+     * exit cleanly in the event of an interrupt.
+     */
+    private final class Processor implements Runnable {
+        private final int home;
+
+        private Processor(int home) {
+            this.home = home;
+        }
+
+        @Override
+        public void run() {
+            SimpleTaskExecutor taskExecutor = executorProvider.get();
+            try {
+                taskExecutor.start();
+            } catch (DataLayerException e) {
+                throw new IllegalStateException("Cannot start task executor", e);
+            }
+
+            List<Lane> claimed = new ArrayList<Lane>();
+            List<Task> batch = new ArrayList<Task>(batchSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    readyPermits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                try {
+                    Lane lane = claim(home);
+                    claimed.add(lane);
+                    drain(home, lane, batch);
+                    while (batch.size() < batchSize && readyPermits.tryAcquire()) {
+                        lane = claim(home);
+                        claimed.add(lane);
+                        drain(home, lane, batch);
+                    }
+
+                    capacity.release(batch.size());
+                    queueMonitor.batchProcessed(batch.size());
+                    debug("Processor {0} processing batch of {1} Tasks from {2} lanes",
+                            home, batch.size(), claimed.size());
+
+                    for (Task task : batch) {
+                        try {
+                            taskExecutor.execute(null, task);
+                        } catch (RuntimeException e) {
+                            error("unexpected error processing " + task, e);
+                        }
+                    }
+                } finally {
+                    for (Lane lane : claimed) {
+                        release(lane);
+                    }
+                    claimed.clear();
+                    batch.clear();
+                }
+            }
+
+            debug("Processor {0} thread shutdown.", home);
+        }
+    }
+}
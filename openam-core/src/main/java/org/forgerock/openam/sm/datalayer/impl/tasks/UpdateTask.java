@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
@@ -41,8 +42,9 @@ public class UpdateTask extends AbstractTask {
     }
 
     /**
-     * Performs a read of the store to determine the state of the Token.
+     * Updates the Token without reading it if the adapter can do so safely.
      *
+     * Otherwise performs a read of the store to determine the state of the Token.
      * If the Token exists, then an update is performed, otherwise a create is
      * performed.
      *
@@ -52,11 +54,13 @@ public class UpdateTask extends AbstractTask {
      */
     @Override
     public void performTask(Object connection, TokenStorageAdapter adapter) throws DataLayerException {
-        Token previous = adapter.read(connection, token.getTokenId());
-        if (previous == null) {
-            adapter.create(connection, token);
-        } else {
-            adapter.update(connection, previous, token);
+        if (!adapter.updateIfUnchanged(connection, token)) {
+            Token previous = adapter.read(connection, token.getTokenId());
+            if (previous == null) {
+                adapter.create(connection, token);
+            } else {
+                adapter.update(connection, previous, token);
+            }
         }
         handler.processResults(token);
     }
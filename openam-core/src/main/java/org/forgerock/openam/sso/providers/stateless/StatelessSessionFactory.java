@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2015-2016 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 
 package org.forgerock.openam.sso.providers.stateless;
@@ -128,8 +129,9 @@ public class StatelessSessionFactory {
      */
     public SessionInfo getSessionInfo(SessionID sessionID) throws SessionException {
         String jwt = getJWTFromSessionID(sessionID, true);
-        if (cache.contains(jwt)) {
-            return cache.getSessionInfo(jwt);
+        SessionInfo cached = cache.getSessionInfo(jwt);
+        if (cached != null) {
+            return cached;
         }
 
         SessionInfo sessionInfo;
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package com.iplanet.dpro.session.service;
 
@@ -19,8 +20,15 @@ import com.iplanet.dpro.session.SessionID;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
@@ -136,4 +144,174 @@ public class InternalSessionCacheTest {
         assertThat(cache.getByRestrictedID(oldRestriction)).isNull();
         assertThat(cache.getByRestrictedID(newRestriction)).isEqualTo(session);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotRemoveHandleNowReferencingAnotherSession() {
+        // Given
+        String handle = "badger";
+        given(session.getSessionHandle()).willReturn(handle);
+        cache.put(session);
+
+        InternalSession other = mock(InternalSession.class);
+        given(other.getID()).willReturn(mock(SessionID.class));
+        given(other.getSessionHandle()).willReturn(handle);
+        cache.put(other);
+
+        // When
+        cache.remove(session);
+
+        // Then
+        assertThat(cache.getByHandle(handle)).isEqualTo(other);
+    }
+
+    @Test
+    public void shouldTrackApproximateSizeOfSessions() {
+        // Given
+        given(session.getPropertyNames()).willReturn(Collections.enumeration(Arrays.asList("UserId")));
+        given(session.getProperty("UserId")).willReturn("demo");
+
+        // When
+        cache.put(session);
+        long size = cache.getApproximateSize();
+        cache.remove(session);
+
+        // Then
+        assertThat(size).isGreaterThan(InternalSessionCache.SESSION_OVERHEAD);
+        assertThat(cache.getApproximateSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldProvideAllSessions() {
+        cache.put(session);
+        assertThat(cache.getAllSessions()).containsOnly(session);
+    }
+
+    @Test
+    public void shouldKeepIndexesConsistentUnderConcurrentUpdates() throws Exception {
+        // Given
+        final int threads = 8;
+        final int sessionsPerThread = 50;
+        final List<List<InternalSession>> sessions = new ArrayList<List<InternalSession>>();
+        for (int t = 0; t < threads; t++) {
+            List<InternalSession> owned = new ArrayList<InternalSession>();
+            for (int i = 0; i < sessionsPerThread; i++) {
+                InternalSession s = mock(InternalSession.class);
+                given(s.getID()).willReturn(mock(SessionID.class));
+                given(s.getSessionHandle()).willReturn("handle-" + t + "-" + i);
+                owned.add(s);
+            }
+            sessions.add(owned);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        for (final List<InternalSession> owned : sessions) {
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int round = 0; round < 20; round++) {
+                        for (InternalSession s : owned) {
+                            cache.put(s);
+                        }
+                        for (InternalSession s : owned) {
+                            cache.remove(s);
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(cache.isEmpty()).isTrue();
+        assertThat(cache.getApproximateSize()).isEqualTo(0);
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < sessionsPerThread; i++) {
+                assertThat(cache.getByHandle("handle-" + t + "-" + i)).isNull();
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepIndexesOfSessionPutConcurrentlyWithItsRemoval() throws Exception {
+        // Given
+        final int threads = 8;
+        String handle = "badger";
+        SessionID restrictedID = mock(SessionID.class);
+        given(session.getSessionHandle()).willReturn(handle);
+        given(session.getRestrictedTokens()).willReturn(new HashSet<SessionID>(Arrays.asList(restrictedID)));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int round = 0; round < 2000; round++) {
+                        cache.put(session);
+                        cache.remove(sessionId);
+                        cache.put(session);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(cache.getBySessionID(sessionId)).isEqualTo(session);
+        assertThat(cache.getByHandle(handle)).isEqualTo(session);
+        assertThat(cache.getByRestrictedID(restrictedID)).isEqualTo(session);
+    }
+
+    /**
+     * Measures put/lookup/remove throughput as the number of request threads grows. Disabled by default as
+     * it is a benchmark rather than a test; enable it to compare changes to the cache.
+     */
+    @Test(enabled = false)
+    public void measureThroughputAcrossThreads() throws Exception {
+        final int operations = 200000;
+        for (final int threads : new int[] {1, 2, 4, 8, 16}) {
+            final InternalSessionCache subject = new InternalSessionCache(mock(SessionServiceConfig.class));
+            final InternalSession[] sessions = new InternalSession[1024];
+            for (int i = 0; i < sessions.length; i++) {
+                sessions[i] = mock(InternalSession.class);
+                given(sessions[i].getID()).willReturn(new SessionID("id-" + i));
+                given(sessions[i].getSessionHandle()).willReturn("handle-" + i);
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < operations / threads; i++) {
+                            InternalSession s = sessions[(i * 31 + offset) & (sessions.length - 1)];
+                            subject.put(s);
+                            subject.getByHandle(s.getSessionHandle());
+                            subject.remove(s);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+            System.out.println(threads + " threads: " + (operations * 1000000000L / elapsed) + " ops/sec");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.iplanet.dpro.session.service;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.iplanet.services.comm.server.SendNotificationException;
+import com.iplanet.services.comm.share.Notification;
+import com.iplanet.services.comm.share.NotificationSet;
+import com.sun.identity.shared.debug.Debug;
+
+public class SessionNotificationDispatcherTest {
+
+    private static final long WINDOW = 100;
+    private static final long BACKOFF = 500;
+
+    private URL agent;
+    private URL otherAgent;
+    private Queue<Scheduled> scheduled;
+    private List<NotificationSet> sent;
+    private int failures;
+    private SessionNotificationDispatcher dispatcher;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        agent = new URL("http://agent.example.com:8080/notify");
+        otherAgent = new URL("http://other.example.com:8080/notify");
+        scheduled = new LinkedList<>();
+        sent = new ArrayList<>();
+        failures = 0;
+
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        given(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                scheduled.add(new Scheduled((Runnable) invocation.getArguments()[0], (Long) invocation.getArguments()[1]));
+                return null;
+            }
+        });
+        SessionNotificationDispatcher.Transport transport = new SessionNotificationDispatcher.Transport() {
+            @Override
+            public void send(URL url, NotificationSet set) throws SendNotificationException {
+                if (failures > 0) {
+                    failures--;
+                    throw new SendNotificationException("Connection refused");
+                }
+                sent.add(set);
+            }
+        };
+        dispatcher = new SessionNotificationDispatcher(mock(Debug.class), "session", transport, scheduler, WINDOW,
+                3, 5, 2, BACKOFF);
+    }
+
+    @Test
+    public void shouldCoalesceNotificationsWithinWindow() {
+        dispatcher.dispatch(agent, notification("1"));
+        dispatcher.dispatch(agent, notification("2"));
+
+        assertThat(scheduled).hasSize(1);
+        assertThat(scheduled.peek().delay).isEqualTo(WINDOW);
+        runScheduled();
+
+        assertThat(sent).hasSize(1);
+        assertThat(contents(sent.get(0))).containsExactly("1", "2");
+        assertThat(dispatcher.getSentCount(agent.toString())).isEqualTo(2);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSendFullBatchWithoutWaiting() {
+        dispatcher.dispatch(agent, notification("1"));
+        dispatcher.dispatch(agent, notification("2"));
+        dispatcher.dispatch(agent, notification("3"));
+        dispatcher.dispatch(agent, notification("4"));
+
+        Scheduled timer = scheduled.poll();
+        Scheduled immediate = scheduled.poll();
+        assertThat(immediate.delay).isEqualTo(0L);
+        immediate.task.run();
+
+        assertThat(sent).hasSize(1);
+        assertThat(contents(sent.get(0))).containsExactly("1", "2", "3");
+        timer.task.run();
+        runScheduled();
+        assertThat(sent).hasSize(2);
+        assertThat(contents(sent.get(1))).containsExactly("4");
+    }
+
+    @Test
+    public void shouldKeepSeparateQueuesPerDestination() {
+        dispatcher.dispatch(agent, notification("1"));
+        dispatcher.dispatch(otherAgent, notification("2"));
+
+        runScheduled();
+
+        assertThat(sent).hasSize(2);
+        assertThat(dispatcher.getDestinations()).containsOnly(agent.toString(), otherAgent.toString());
+        assertThat(dispatcher.getSentCount(otherAgent.toString())).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRetryWithBackoff() {
+        failures = 2;
+        dispatcher.dispatch(agent, notification("1"));
+
+        scheduled.poll().task.run();
+        Scheduled retry = scheduled.poll();
+        assertThat(retry.delay).isEqualTo(BACKOFF);
+        retry.task.run();
+        retry = scheduled.poll();
+        assertThat(retry.delay).isEqualTo(2 * BACKOFF);
+        retry.task.run();
+
+        assertThat(sent).hasSize(1);
+        assertThat(dispatcher.getRetryCount(agent.toString())).isEqualTo(2);
+        assertThat(dispatcher.getDroppedCount(agent.toString())).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropBatchWhenRetriesExhausted() {
+        failures = 3;
+        dispatcher.dispatch(agent, notification("1"));
+
+        runScheduled();
+
+        assertThat(sent).isEmpty();
+        assertThat(dispatcher.getDroppedCount(agent.toString())).isEqualTo(1);
+        assertThat(dispatcher.getLag(agent.toString())).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropWhenQueueFull() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(dispatcher.dispatch(agent, notification(Integer.toString(i)))).isTrue();
+        }
+
+        assertThat(dispatcher.dispatch(agent, notification("5"))).isFalse();
+        assertThat(dispatcher.getDroppedCount(agent.toString())).isEqualTo(1);
+        assertThat(dispatcher.getQueueSize(agent.toString())).isEqualTo(5);
+    }
+
+    private void runScheduled() {
+        for (Scheduled next = scheduled.poll(); next != null; next = scheduled.poll()) {
+            next.task.run();
+        }
+    }
+
+    private static Notification notification(String content) {
+        return new Notification(content);
+    }
+
+    private static List<String> contents(NotificationSet set) {
+        List<String> contents = new ArrayList<>();
+        for (Notification notification : set.getNotifications()) {
+            contents.add(notification.getContent());
+        }
+        return contents;
+    }
+
+    private static final class Scheduled {
+        private final Runnable task;
+        private final long delay;
+
+        private Scheduled(Runnable task, long delay) {
+            this.task = task;
+            this.delay = delay;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.iplanet.services.comm.share;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.sun.identity.shared.xml.XMLUtils;
+
+public class PLLStreamReaderTest {
+
+    private static final String SESSION_REQUEST = "<SessionRequest vers=\"1.0\" reqid=\"3\">\n"
+            + "<GetSession><SessionID>AQIC5wM2LY4Sfcx&amp;x=1</SessionID></GetSession>\n"
+            + "</SessionRequest>";
+
+    @Test
+    public void shouldReadRequestSetWrittenByRequestSet() {
+        RequestSet requestSet = new RequestSet("session");
+        Request first = new Request(SESSION_REQUEST);
+        first.setDtdID("http://www.sun.com/dtd/SessionRequest.dtd");
+        first.setSessionID("AQIC5wM2LY4Sfcx");
+        requestSet.addRequest(first);
+        requestSet.addRequest(new Request("<Other/>"));
+
+        RequestSet parsed = RequestSet.parseXML(requestSet.toXMLString());
+
+        assertThat(parsed.getRequestSetVersion()).isEqualTo("1.0");
+        assertThat(parsed.getServiceID()).isEqualTo("session");
+        assertThat(parsed.getRequestSetID()).isEqualTo(requestSet.getRequestSetID());
+        assertThat(parsed.getRequests()).hasSize(2);
+        assertThat(parsed.getRequests().get(0).getDtdID()).isEqualTo("http://www.sun.com/dtd/SessionRequest.dtd");
+        assertThat(parsed.getRequests().get(0).getSessionID()).isEqualTo("AQIC5wM2LY4Sfcx");
+        assertThat(parsed.getRequests().get(0).getContent()).isEqualTo(SESSION_REQUEST);
+        assertThat(parsed.getRequests().get(1).getDtdID()).isEmpty();
+        assertThat(parsed.getRequests().get(1).getContent()).isEqualTo("<Other/>");
+    }
+
+    @Test
+    public void shouldReadRequestSetAsDocumentParserDoes() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<RequestSet vers=\"1.0\" svcid=\"policy\" reqid=\"7\">\n"
+                + "<Request dtdid=\"d\"><![CDATA[" + SESSION_REQUEST + "]]></Request>\n"
+                + "<Request sid=\"s\">plain &amp; escaped</Request>\n"
+                + "<Request></Request>\n"
+                + "</RequestSet>";
+
+        RequestSet streamed = new RequestSetParser(xml).parseXML();
+        RequestSet parsed = new RequestSetParser(XMLUtils.toDOMDocument(xml, null)).parseXML();
+
+        assertThat(streamed.toXMLString()).isEqualTo(parsed.toXMLString());
+        assertThat(streamed.getRequests().get(1).getContent()).isEqualTo("plain & escaped");
+        assertThat(streamed.getRequests().get(2).getContent()).isEmpty();
+    }
+
+    @Test
+    public void shouldReadResponseSetWrittenByResponseSet() {
+        ResponseSet responseSet = new ResponseSet("session");
+        responseSet.setRequestSetID("12");
+        Response response = new Response("<SessionResponse vers=\"1.0\" reqid=\"3\"/>");
+        response.setDtdID("http://www.sun.com/dtd/SessionResponse.dtd");
+        responseSet.addResponse(response);
+        String xml = responseSet.toXMLString();
+
+        ResponseSet streamed = ResponseSet.parseXML(xml);
+        ResponseSet parsed = new ResponseSetParser(XMLUtils.toDOMDocument(xml, null)).parseXML();
+
+        assertThat(streamed.toXMLString()).isEqualTo(xml);
+        assertThat(parsed.toXMLString()).isEqualTo(xml);
+    }
+
+    @Test
+    public void shouldOnlyReadCDataOfNotifications() {
+        String xml = "<NotificationSet vers=\"1.0\" svcid=\"session\" notid=\"4\">\n"
+                + "<Notification>\n<![CDATA[<SessionNotification/>]]>\n</Notification>\n"
+                + "<Notification>no cdata</Notification>\n"
+                + "</NotificationSet>";
+
+        NotificationSet streamed = NotificationSet.parseXML(xml);
+        NotificationSet parsed = new NotificationSetParser(XMLUtils.toDOMDocument(xml, null)).parseXML();
+
+        assertThat(streamed.getServiceID()).isEqualTo("session");
+        assertThat(streamed.getNotifications()).hasSize(2);
+        assertThat(streamed.getNotifications().get(0).getContent()).isEqualTo("<SessionNotification/>");
+        assertThat(streamed.getNotifications().get(1).getContent()).isEmpty();
+        assertThat(streamed.toXMLString()).isEqualTo(parsed.toXMLString());
+    }
+
+    @Test
+    public void shouldNotReadMalformedOrEmptyDocuments() {
+        assertThat(RequestSet.parseXML("<RequestSet vers=\"1.0\"><Request>")).isNull();
+        assertThat(RequestSet.parseXML("")).isNull();
+        assertThat(ResponseSet.parseXML(null)).isNull();
+        assertThat(NotificationSet.parseXML("not xml")).isNull();
+    }
+
+    @Test
+    public void shouldNotExpandEntitiesDeclaredByDocument() {
+        String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE RequestSet [<!ENTITY big \"expanded\">]>\n"
+                + "<RequestSet vers=\"1.0\" svcid=\"session\" reqid=\"1\"><Request>&big;</Request></RequestSet>";
+
+        RequestSet parsed = RequestSet.parseXML(xml);
+
+        assertThat(parsed == null || !parsed.getRequests().get(0).getContent().contains("expanded")).isTrue();
+    }
+
+    @Test(enabled = false)
+    public void benchmarkParsing() {
+        RequestSet requestSet = new RequestSet("session");
+        for (int i = 0; i < 10; i++) {
+            requestSet.addRequest(new Request(SESSION_REQUEST));
+        }
+        String xml = requestSet.toXMLString();
+        int iterations = 100000;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                new RequestSetParser(XMLUtils.toDOMDocument(xml, null)).parseXML();
+            }
+            long document = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                new RequestSetParser(xml).parseXML();
+            }
+            long streamed = System.nanoTime() - start;
+            System.out.println("document: " + document / iterations + "ns, streamed: " + streamed / iterations
+                    + "ns per RequestSet");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.authentication.service;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AuthThreadManagerTest {
+
+    private AuthThreadManager manager;
+    private Thread thread;
+    private long now;
+
+    @BeforeMethod
+    public void setup() {
+        manager = new AuthThreadManager(1000);
+        thread = new Thread();
+        now = currentTimeMillis();
+    }
+
+    @Test
+    public void shouldTimeOutThreadOncePageTimeoutHasPassed() {
+        manager.setHash(thread, 10, now);
+
+        manager.expireTimeouts(now + 6000);
+        assertFalse(manager.isTimedOut(thread));
+
+        manager.expireTimeouts(now + 8000);
+        assertTrue(manager.isTimedOut(thread));
+        assertTrue(thread.isInterrupted());
+        assertEquals(manager.getWaitingCount(), 0);
+    }
+
+    @Test
+    public void shouldNotTimeOutRemovedThread() {
+        manager.setHash(thread, 10, now);
+
+        manager.removeFromHash(thread, "timeoutHash");
+        manager.expireTimeouts(now + 8000);
+
+        assertFalse(manager.isTimedOut(thread));
+        assertFalse(thread.isInterrupted());
+    }
+
+    @Test
+    public void shouldMoveThreadToItsNewDeadline() {
+        manager.setHash(thread, 10, now);
+        manager.setHash(thread, 10, now + 5000);
+
+        manager.expireTimeouts(now + 8000);
+        assertFalse(manager.isTimedOut(thread));
+
+        manager.expireTimeouts(now + 13000);
+        assertTrue(manager.isTimedOut(thread));
+    }
+
+    @Test
+    public void shouldTimeOutThreadWhoseDeadlineIsMoreThanOneLapAway() {
+        manager.setHash(thread, 600, now);
+
+        manager.expireTimeouts(now + 520000);
+        assertFalse(manager.isTimedOut(thread));
+
+        manager.expireTimeouts(now + 600000);
+        assertTrue(manager.isTimedOut(thread));
+    }
+
+    @Test
+    public void shouldForgetTimedOutThreadOnceRemoved() {
+        manager.setHash(thread, 10, now);
+        manager.expireTimeouts(now + 8000);
+
+        manager.removeFromHash(thread, "timedOutHash");
+
+        assertFalse(manager.isTimedOut(thread));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.authentication.service;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.sun.identity.authentication.service.JAASLoginExecutor.Mode;
+
+public class JAASLoginExecutorTest {
+
+    @Test
+    public void shouldParseModeIgnoringCase() {
+        assertEquals(JAASLoginExecutor.parseMode("Pool"), Mode.POOL);
+        assertEquals(JAASLoginExecutor.parseMode(" virtual "), Mode.VIRTUAL);
+        assertEquals(JAASLoginExecutor.parseMode("unknown"), Mode.THREAD);
+        assertEquals(JAASLoginExecutor.parseMode(null), Mode.THREAD);
+    }
+
+    @Test
+    public void shouldRunLoginOnNewThread() throws Exception {
+        JAASLoginExecutor executor = new JAASLoginExecutor(Mode.THREAD, 1, 0);
+        final Thread caller = Thread.currentThread();
+        final Thread[] runner = new Thread[1];
+
+        executor.submit(() -> runner[0] = Thread.currentThread()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(runner[0] instanceof JAASLoginThread);
+        assertTrue(runner[0] != caller);
+        assertEquals(executor.getStartedCount(), 1);
+    }
+
+    @Test
+    public void shouldReusePoolThreads() throws Exception {
+        JAASLoginExecutor executor = new JAASLoginExecutor(Mode.POOL, 2, 0);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        try {
+            for (int i = 0; i < 10; i++) {
+                executor.submit(() -> threads.add(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+            }
+            assertTrue(threads.size() <= 2);
+            assertEquals(executor.getInProgressCount(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRejectLoginsBeyondPoolSize() throws Exception {
+        JAASLoginExecutor executor = new JAASLoginExecutor(Mode.POOL, 2, 0);
+        CountDownLatch submitted = new CountDownLatch(1);
+        try {
+            executor.submit(() -> await(submitted));
+            executor.submit(() -> await(submitted));
+            try {
+                executor.submit(() -> { });
+                fail("Expected the pool to be full");
+            } catch (RejectedExecutionException e) {
+                // expected
+            }
+            assertEquals(executor.getInProgressCount(), 2);
+            assertEquals(executor.getRejectedCount(), 1);
+        } finally {
+            submitted.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldInterruptCancelledLogin() throws Exception {
+        JAASLoginExecutor executor = new JAASLoginExecutor(Mode.POOL, 1, 0);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            Future<?> login = executor.submit(() -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+            started.await(5, TimeUnit.SECONDS);
+
+            login.cancel(true);
+
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReleaseLoginCancelledBeforeItStarts() throws Exception {
+        JAASLoginExecutor executor = new JAASLoginExecutor(Mode.POOL, 1, 0);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Keep the only pool thread busy with a login which no longer counts against the limit
+            Future<?> busy = executor.submit(() -> {
+                started.countDown();
+                await(release);
+            });
+            started.await(5, TimeUnit.SECONDS);
+            busy.cancel(false);
+            Future<?> queued = executor.submit(() -> { });
+            assertEquals(executor.getInProgressCount(), 1);
+
+            queued.cancel(true);
+
+            assertEquals(executor.getInProgressCount(), 0);
+            release.countDown();
+            executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            assertEquals(executor.getInProgressCount(), 0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldFallBackToPoolWithoutVirtualThreads() {
+        JAASLoginExecutor executor = new JAASLoginExecutor(Mode.VIRTUAL, 1, 0);
+        try {
+            boolean virtualThreads;
+            try {
+                Thread.class.getMethod("ofVirtual");
+                virtualThreads = true;
+            } catch (NoSuchMethodException e) {
+                virtualThreads = false;
+            }
+            assertEquals(executor.getMode(), virtualThreads ? Mode.VIRTUAL : Mode.POOL);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Load test comparing the threads and heap held by logins waiting for the user to submit callbacks in each
+     * mode. Each simulated login blocks until released, as a pure JAAS login does between pages.
+     */
+    @Test(enabled = false)
+    public void loadTest() throws Exception {
+        int logins = 5000;
+        for (Mode mode : Mode.values()) {
+            JAASLoginExecutor executor = new JAASLoginExecutor(mode, logins, 256 * 1024);
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            int threadsBefore = threadBean.getThreadCount();
+            long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+            final CountDownLatch waiting = new CountDownLatch(logins);
+            final CountDownLatch submitted = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < logins; i++) {
+                futures.add(executor.submit(() -> {
+                    waiting.countDown();
+                    await(submitted);
+                }));
+            }
+            waiting.await();
+            long startTime = System.nanoTime() - start;
+            int threads = threadBean.getThreadCount() - threadsBefore;
+            long heap = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+
+            submitted.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            // Let the threads of this mode exit before measuring the next one
+            for (int i = 0; i < 100 && threadBean.getThreadCount() > threadsBefore; i++) {
+                Thread.sleep(100);
+            }
+            System.out.println(executor.getMode() + ": " + logins + " waiting logins started in "
+                    + startTime / 1000000 + "ms, holding " + threads + " threads and about "
+                    + heap / (1024 * 1024) + "MB of heap");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
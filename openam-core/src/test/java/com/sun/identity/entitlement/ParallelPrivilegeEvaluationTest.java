@@ -0,0 +1,210 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.entitlement;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.entitlement.interfaces.IThreadPool;
+import com.sun.identity.entitlement.interfaces.ResourceName;
+
+public class ParallelPrivilegeEvaluationTest {
+
+    private static final String RESOURCE = "http://www.example.com:80/index.html";
+
+    private ExecutorService executorService;
+    private IThreadPool threadPool;
+    private EntitlementCombiner combiner;
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        executorService = Executors.newFixedThreadPool(4);
+        threadPool = new IThreadPool() {
+            @Override
+            public void submit(Runnable r) {
+                executorService.execute(r);
+            }
+
+            @Override
+            public int getParallelism() {
+                return 4;
+            }
+        };
+        setUpCombiner();
+        threads.clear();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldEvaluateOnRequestingThreadWithSequentialPool() throws Exception {
+        ParallelPrivilegeEvaluation evaluation = new ParallelPrivilegeEvaluation(new SequentialThreadPool(), 1,
+                allow(), combiner);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(evaluation.add(mock(IPrivilege.class))).isTrue();
+        }
+        evaluation.complete();
+
+        assertThat(combiner.getResults().get(0).getActionValue("GET")).isTrue();
+        assertThat(threads).containsOnly(Thread.currentThread());
+        assertThat(evaluation.getWorkerCount()).isEqualTo(0);
+        assertThat(evaluation.getSkippedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldOnlyStartWorkersForBacklog() throws Exception {
+        ParallelPrivilegeEvaluation evaluation = new ParallelPrivilegeEvaluation(threadPool, 5, allow(), combiner);
+
+        for (int i = 0; i < 5; i++) {
+            evaluation.add(mock(IPrivilege.class));
+        }
+        evaluation.complete();
+
+        assertThat(evaluation.getWorkerCount()).isEqualTo(0);
+        assertThat(threads).containsOnly(Thread.currentThread());
+    }
+
+    @Test
+    public void shouldSpreadLargeRequestsOverThePool() throws Exception {
+        ParallelPrivilegeEvaluation evaluation = new ParallelPrivilegeEvaluation(threadPool, 1, slowAllow(),
+                combiner);
+
+        for (int i = 0; i < 40; i++) {
+            evaluation.add(mock(IPrivilege.class));
+        }
+        evaluation.complete();
+
+        assertThat(combiner.getResults().get(0).getActionValue("GET")).isTrue();
+        assertThat(evaluation.getQueuedCount()).isEqualTo(40);
+        assertThat(evaluation.getWorkerCount()).isGreaterThan(0);
+        assertThat(evaluation.getWorkerCount()).isLessThanOrEqualTo(40);
+        assertThat(threads.size()).isGreaterThan(1);
+        assertThat(evaluation.getSkippedCount()).isEqualTo(0);
+        assertThat(evaluation.isDecidedEarly()).isFalse();
+    }
+
+    @Test
+    public void shouldSkipRemainingPrivilegesOnceDenied() throws Exception {
+        ParallelPrivilegeEvaluation evaluation = new ParallelPrivilegeEvaluation(new SequentialThreadPool(), 5,
+                deny(), combiner);
+
+        for (int i = 0; i < 10; i++) {
+            evaluation.add(mock(IPrivilege.class));
+        }
+        evaluation.complete();
+
+        assertThat(combiner.getResults().get(0).getActionValue("GET")).isFalse();
+        assertThat(evaluation.isDecidedEarly()).isTrue();
+        assertThat(evaluation.getSkippedCount()).isEqualTo(9);
+        assertThat(evaluation.add(mock(IPrivilege.class))).isFalse();
+    }
+
+    @Test(expectedExceptions = EntitlementException.class)
+    public void shouldRethrowFailureOfWorker() throws Exception {
+        ParallelPrivilegeEvaluation evaluation = new ParallelPrivilegeEvaluation(threadPool, 1,
+                new ParallelPrivilegeEvaluation.Evaluation() {
+                    @Override
+                    public List<Entitlement> evaluate(IPrivilege privilege) throws EntitlementException {
+                        throw new EntitlementException(EntitlementException.UNSUPPORTED_OPERATION);
+                    }
+                }, combiner);
+
+        for (int i = 0; i < 10; i++) {
+            evaluation.add(mock(IPrivilege.class));
+        }
+        evaluation.complete();
+    }
+
+    @Test(enabled = false)
+    public void benchmarkEvaluation() throws Exception {
+        IPrivilege privilege = mock(IPrivilege.class);
+        for (int policies : new int[] {1, 5, 20, 100, 500}) {
+            int requests = 100;
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                setUpCombiner();
+                ParallelPrivilegeEvaluation evaluation = new ParallelPrivilegeEvaluation(threadPool, 5,
+                        slowAllow(), combiner);
+                for (int j = 0; j < policies; j++) {
+                    evaluation.add(privilege);
+                }
+                evaluation.complete();
+            }
+            System.out.println(policies + " policies: " + (System.nanoTime() - start) / requests / 1000
+                    + "us per request");
+        }
+    }
+
+    private void setUpCombiner() throws EntitlementException {
+        Application application = mock(Application.class);
+        given(application.getName()).willReturn("iPlanetAMWebAgentService");
+        given(application.getResourceComparator()).willReturn(mock(ResourceName.class));
+        combiner = new DenyOverride();
+        combiner.init(RESOURCE, RESOURCE, singleton("GET"), false, application);
+    }
+
+    private ParallelPrivilegeEvaluation.Evaluation allow() {
+        return result(true, 0);
+    }
+
+    private ParallelPrivilegeEvaluation.Evaluation slowAllow() {
+        return result(true, 1);
+    }
+
+    private ParallelPrivilegeEvaluation.Evaluation deny() {
+        return result(false, 0);
+    }
+
+    /**
+     * Evaluates every privilege to the same decision, taking the given time as a privilege which has to look up
+     * the subject or the environment would.
+     */
+    private ParallelPrivilegeEvaluation.Evaluation result(final boolean allow, final long millis) {
+        return new ParallelPrivilegeEvaluation.Evaluation() {
+            @Override
+            public List<Entitlement> evaluate(IPrivilege privilege) throws EntitlementException {
+                threads.add(Thread.currentThread());
+                if (millis > 0) {
+                    try {
+                        Thread.sleep(millis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return singletonList(new Entitlement(RESOURCE, singletonMap("GET", allow)));
+            }
+        };
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.entitlement.opensso;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.entitlement.ResourceSaveIndexes;
+import com.sun.identity.entitlement.ResourceSearchIndexes;
+
+public class PrivilegeIndexTest {
+
+    private static final String POLICY1 = "ou=policy1,ou=default,ou=default,ou=OrganizationConfig,ou=1.0,"
+            + "ou=sunEntitlementIndexes,ou=services,dc=openam,dc=forgerock,dc=org";
+    private static final String POLICY2 = "ou=policy2,ou=default,ou=default,ou=OrganizationConfig,ou=1.0,"
+            + "ou=sunEntitlementIndexes,ou=services,dc=openam,dc=forgerock,dc=org";
+
+    private PrivilegeIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new PrivilegeIndex(100);
+    }
+
+    @Test
+    public void shouldMatchByHostAndPath() {
+        index.add(saveIndexes("www.example.com", "/app/index.html"), null, POLICY1);
+        index.add(saveIndexes("www.example.com", "/other"), null, POLICY2);
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/app/index.html"), null, false))
+                .containsOnly(POLICY1);
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.org", "/app/index.html"), null, false))
+                .isEmpty();
+    }
+
+    @Test
+    public void shouldMatchByParentPathInSubTreeMode() {
+        index.add(saveIndexes("www.example.com", "/app/index.html"), null, POLICY1);
+        index.add(saveIndexes("www.example.com", "/other"), null, POLICY2);
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/app"), null, true))
+                .containsOnly(POLICY1);
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/"), null, true))
+                .containsOnly(POLICY1, POLICY2);
+    }
+
+    @Test
+    public void shouldMatchBySubject() {
+        index.add(saveIndexes("www.example.com", "/app"), Collections.singleton("Demo"), POLICY1);
+        index.add(saveIndexes("www.example.com", "/app"), Collections.singleton("other"), POLICY2);
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/app"),
+                Collections.singleton("demo"), false)).containsOnly(POLICY1);
+    }
+
+    @Test
+    public void shouldIgnoreCase() {
+        index.add(saveIndexes("WWW.Example.com", "/App"), null, POLICY1);
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.COM", "/app"), null, false))
+                .containsOnly(POLICY1);
+    }
+
+    @Test
+    public void shouldKeepEveryPrivilegeSharingAnIndex() {
+        for (int i = 0; i < 50; i++) {
+            index.add(saveIndexes("www.example.com", "/app" + i), null, "ou=policy" + i);
+        }
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/"), null, true)).hasSize(50);
+        assertThat(index.isComplete()).isTrue();
+    }
+
+    @Test
+    public void shouldRemovePrivilegeByDN() {
+        index.add(saveIndexes("www.example.com", "/app"), null, POLICY1);
+
+        assertThat(index.remove(POLICY1.toUpperCase())).isEqualTo(POLICY1);
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/app"), null, false)).isEmpty();
+        assertThat(index.size()).isEqualTo(0);
+        assertThat(index.remove(POLICY1)).isNull();
+    }
+
+    @Test
+    public void shouldReplaceIndexesOfChangedPrivilege() {
+        index.add(saveIndexes("www.example.com", "/app"), null, POLICY1);
+        index.add(saveIndexes("www.example.com", "/moved"), null, POLICY1);
+
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/app"), null, false)).isEmpty();
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/moved"), null, false))
+                .containsOnly(POLICY1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBeIncompleteWhenFull() {
+        index = new PrivilegeIndex(1);
+        index.add(saveIndexes("www.example.com", "/app"), null, POLICY1);
+        index.add(saveIndexes("www.example.com", "/app"), null, POLICY2);
+
+        assertThat(index.isComplete()).isFalse();
+        assertThat(index.getMatchingEntries(searchIndexes("www.example.com", "/app"), null, false))
+                .containsOnly(POLICY1);
+
+        index.clear();
+        assertThat(index.isComplete()).isTrue();
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    @Test(enabled = false)
+    public void benchmarkLookups() {
+        int policies = 100000;
+        index = new PrivilegeIndex(policies);
+        long start = System.nanoTime();
+        for (int i = 0; i < policies; i++) {
+            index.add(saveIndexes("app" + (i % 100) + ".example.com", "/app/" + (i % 1000) + "/page" + i),
+                    Collections.singleton("group" + (i % 50)), "ou=policy" + i);
+        }
+        System.out.println("Indexed " + policies + " policies in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+
+        int lookups = 1000000;
+        int matches = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            matches += index.getMatchingEntries(searchIndexes("app" + (i % 100) + ".example.com",
+                    "/app/" + (i % 1000)), Collections.singleton("group" + (i % 50)), true).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(lookups + " sub tree lookups: " + (elapsed / lookups) + "ns per lookup, "
+                + matches + " matches");
+    }
+
+    /**
+     * Indexes as a URL resource saves them: the host, the path, and the path and its parents.
+     */
+    private static ResourceSaveIndexes saveIndexes(String host, String path) {
+        return new ResourceSaveIndexes(Collections.singleton("://" + host), Collections.singleton(path),
+                parentPaths(path));
+    }
+
+    /**
+     * Indexes as a URL resource searches with them: the host, its parent domains and any host, and the path,
+     * which is matched against the path of privileges or, in sub tree mode, against their parent paths.
+     */
+    private static ResourceSearchIndexes searchIndexes(String host, String path) {
+        return new ResourceSearchIndexes(hostIndexes(host), Collections.singleton(path),
+                Collections.singleton(path));
+    }
+
+    private static Set<String> hostIndexes(String host) {
+        Set<String> indexes = new HashSet<>(Arrays.asList("://" + host, "://"));
+        for (int dot = host.indexOf('.'); dot >= 0; dot = host.indexOf('.', dot + 1)) {
+            indexes.add("://" + host.substring(dot));
+        }
+        return indexes;
+    }
+
+    private static Set<String> parentPaths(String path) {
+        Set<String> indexes = new HashSet<>();
+        indexes.add("/");
+        for (int slash = path.indexOf('/', 1); slash > 0; slash = path.indexOf('/', slash + 1)) {
+            indexes.add(path.substring(0, slash));
+        }
+        indexes.add(path);
+        return indexes;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.idm.server;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link IdCacheIndex}.
+ */
+public class IdCacheIndexTest {
+
+    private static final String ROOT = "ou=services,dc=example,dc=com";
+    private static final String REALM = "o=sub,ou=services,dc=example,dc=com";
+    private static final String DEMO = "id=demo,ou=user,o=sub,ou=services,dc=example,dc=com";
+    private static final String ADMIN = "id=admin,ou=user,o=sub,ou=services,dc=example,dc=com";
+    private static final String STAFF = "id=staff,ou=group,o=sub,ou=services,dc=example,dc=com";
+    private static final String OTHER = "id=demo,ou=user,o=other,ou=services,dc=example,dc=com";
+
+    @Test
+    public void shouldFindKeysInSubtree() {
+        IdCacheIndex index = indexOf(0, DEMO, ADMIN, STAFF, OTHER);
+
+        Assert.assertEquals(index.keysInSubtree(REALM), set(DEMO, ADMIN, STAFF));
+        Assert.assertEquals(index.keysInSubtree("ou=user," + REALM), set(DEMO, ADMIN));
+        Assert.assertEquals(index.keysInSubtree(ROOT), set(DEMO, ADMIN, STAFF, OTHER));
+        Assert.assertEquals(index.keysInSubtree(DEMO), set(DEMO));
+        Assert.assertTrue(index.keysInSubtree("o=missing," + ROOT).isEmpty());
+    }
+
+    @Test
+    public void shouldOnlyMatchWholeRdns() {
+        IdCacheIndex index = indexOf(0, DEMO, "id=demo,ou=user,o=notsub,ou=services,dc=example,dc=com");
+
+        Assert.assertEquals(index.keysInSubtree(REALM), set(DEMO));
+    }
+
+    @Test
+    public void shouldFindKeysWhichCachedAttributes() {
+        IdCacheIndex index = indexOf(0, DEMO, ADMIN, STAFF, OTHER);
+        index.addAttributes(DEMO, singleton("mail"));
+        index.addAttributes(ADMIN, singleton("cn"));
+        index.addAttributes(STAFF, null);
+        index.addAttributes(OTHER, singleton("mail"));
+
+        Assert.assertEquals(index.keysInSubtree(REALM, singleton("MAIL")), set(DEMO, STAFF));
+        Assert.assertEquals(index.keysInSubtree(REALM, set("cn", "sn")), set(ADMIN, STAFF));
+        Assert.assertEquals(index.keysInSubtree(REALM, singleton("sn")), set(STAFF));
+    }
+
+    @Test
+    public void shouldForgetRemovedKeys() {
+        IdCacheIndex index = indexOf(0, DEMO, ADMIN);
+        index.addAttributes(DEMO, singleton("mail"));
+
+        index.remove(DEMO);
+
+        Assert.assertEquals(index.keysInSubtree(REALM), set(ADMIN));
+        Assert.assertTrue(index.keysInSubtree(REALM, singleton("mail")).isEmpty());
+        Assert.assertEquals(index.getRealmSize(ADMIN), 1);
+    }
+
+    @Test
+    public void shouldEvictOldestKeysOverRealmLimit() {
+        IdCacheIndex index = indexOf(2, DEMO, ADMIN, OTHER);
+        Assert.assertTrue(index.keysOverRealmLimit(ADMIN).isEmpty());
+
+        index.add(STAFF);
+
+        Assert.assertEquals(index.keysOverRealmLimit(STAFF), singletonList(DEMO));
+        index.remove(DEMO);
+        Assert.assertEquals(index.getRealmSize(STAFF), 2);
+        Assert.assertEquals(index.getRealmSize(OTHER), 1);
+    }
+
+    @Test
+    public void shouldNotEvictKeyJustAdded() {
+        IdCacheIndex index = new IdCacheIndex(1);
+        index.add(DEMO);
+        index.remove(DEMO);
+        index.add(ADMIN);
+        index.add(DEMO);
+
+        Assert.assertEquals(index.keysOverRealmLimit(DEMO), singletonList(ADMIN));
+    }
+
+    @Test
+    public void shouldSkipEscapedCommasInParent() {
+        Assert.assertEquals(IdCacheIndex.parentOf("id=smith\\, john,ou=user," + REALM), "ou=user," + REALM);
+        Assert.assertEquals(IdCacheIndex.parentOf("id=demo, ou=user"), "ou=user");
+        Assert.assertNull(IdCacheIndex.parentOf("dc=com"));
+    }
+
+    @Test
+    public void shouldIgnoreAmsdkDnInRealm() {
+        Assert.assertEquals(IdCacheIndex.realmOf(DEMO + ",amsdkdn=uid=demo,ou=people,dc=example,dc=com"), REALM);
+        Assert.assertEquals(IdCacheIndex.realmOf(DEMO), REALM);
+    }
+
+    /**
+     * Compares finding the keys of a realm through the index with the suffix match over every key it replaces.
+     */
+    @Test(enabled = false)
+    public void benchmarkSubtreeLookup() {
+        int realms = 1000;
+        int users = 1000;
+        List<String> keys = new ArrayList<>();
+        IdCacheIndex index = new IdCacheIndex(0);
+        for (int r = 0; r < realms; r++) {
+            for (int u = 0; u < users; u++) {
+                String key = "id=user" + u + ",ou=user,o=realm" + r + "," + ROOT;
+                keys.add(key);
+                index.add(key);
+            }
+        }
+        String base = "o=realm" + (realms / 2) + "," + ROOT;
+
+        long start = System.nanoTime();
+        int scanned = 0;
+        for (int i = 0; i < 10; i++) {
+            for (String key : keys) {
+                if (key.regionMatches(true, key.length() - base.length(), base, 0, base.length())) {
+                    scanned++;
+                }
+            }
+        }
+        long scanTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int indexed = 0;
+        for (int i = 0; i < 10; i++) {
+            indexed += index.keysInSubtree(base).size();
+        }
+        long indexTime = System.nanoTime() - start;
+
+        Assert.assertEquals(indexed, scanned);
+        System.out.println("Scan: " + scanTime / 10000 + "us, index: " + indexTime / 10000 + "us per invalidation");
+    }
+
+    private static IdCacheIndex indexOf(int maxSizePerRealm, String... keys) {
+        IdCacheIndex index = new IdCacheIndex(maxSizePerRealm);
+        for (String key : keys) {
+            index.add(key);
+        }
+        return index;
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(asList(values));
+    }
+
+    private static List<String> singletonList(String value) {
+        return asList(value);
+    }
+}
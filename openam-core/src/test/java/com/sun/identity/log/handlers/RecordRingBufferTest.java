@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.log.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.Test;
+
+public class RecordRingBufferTest {
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new RecordRingBuffer<String>(1).capacity()).isEqualTo(2);
+        assertThat(new RecordRingBuffer<String>(1000).capacity()).isEqualTo(1024);
+        assertThat(new RecordRingBuffer<String>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    public void shouldDrainInOrderUpToMax() {
+        RecordRingBuffer<String> ring = new RecordRingBuffer<>(4);
+        ring.offer("a");
+        ring.offer("b");
+        ring.offer("c");
+
+        List<String> batch = new ArrayList<>();
+        assertThat(ring.drainTo(batch, 2)).isEqualTo(2);
+        assertThat(batch).containsExactly("a", "b");
+        assertThat(ring.size()).isEqualTo(1);
+        assertThat(ring.drainTo(batch, 10)).isEqualTo(1);
+        assertThat(batch).containsExactly("a", "b", "c");
+        assertThat(ring.drainTo(batch, 10)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectWhenFullAndAcceptOnceDrained() {
+        RecordRingBuffer<String> ring = new RecordRingBuffer<>(2);
+        assertThat(ring.offer("a")).isTrue();
+        assertThat(ring.offer("b")).isTrue();
+        assertThat(ring.offer("c")).isFalse();
+
+        ring.drainTo(new ArrayList<String>(), 1);
+
+        assertThat(ring.offer("c")).isTrue();
+        List<String> batch = new ArrayList<>();
+        ring.drainTo(batch, 10);
+        assertThat(batch).containsExactly("b", "c");
+        assertThat(ring.getAddedCount()).isEqualTo(3);
+        assertThat(ring.getReadCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldDeliverEveryRecordFromConcurrentProducers() throws Exception {
+        final RecordRingBuffer<String> ring = new RecordRingBuffer<>(64);
+        final int producers = 4;
+        final int records = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < records; i++) {
+                        while (!ring.offer(producer + ":" + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        Set<String> seen = new HashSet<>();
+        int[] next = new int[producers];
+        List<String> batch = new ArrayList<>();
+        while (seen.size() < producers * records) {
+            batch.clear();
+            ring.drainTo(batch, 16);
+            for (String record : batch) {
+                List<String> parts = Arrays.asList(record.split(":"));
+                int producer = Integer.parseInt(parts.get(0));
+                // Records of each producer arrive in the order it added them
+                assertThat(Integer.parseInt(parts.get(1))).isEqualTo(next[producer]++);
+                assertThat(seen.add(record)).isTrue();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(ring.size()).isZero();
+    }
+}
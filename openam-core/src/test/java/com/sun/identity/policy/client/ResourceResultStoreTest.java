@@ -0,0 +1,326 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.policy.client;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.iplanet.am.util.Cache;
+import com.sun.identity.policy.client.ResourceResultStore.CachedResults;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ResourceResultStoreTest {
+
+    private static final String SERVICE = "iPlanetAMWebAgentService";
+    private static final String RESOURCE = "http://www.example.com:80/index.html";
+    private static final String SCOPE = PolicyProperties.SELF;
+
+    @Test
+    public void shouldReplaceCachedResults() {
+        ResourceResultStore store = new ResourceResultStore(20, 10);
+        CachedResults first = results(60000);
+        CachedResults second = results(60000);
+
+        store.put(SERVICE, RESOURCE, "token", SCOPE, first);
+        assertThat(store.get(SERVICE, RESOURCE, "token", SCOPE)).isSameAs(first);
+        store.put(SERVICE, RESOURCE, "token", SCOPE, second);
+
+        assertThat(store.get(SERVICE, RESOURCE, "token", SCOPE)).isSameAs(second);
+        assertThat(store.get(SERVICE, RESOURCE, "token", PolicyProperties.SUBTREE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE, "other", SCOPE)).isNull();
+        assertThat(store.get("otherService", RESOURCE, "token", SCOPE)).isNull();
+    }
+
+    @Test
+    public void shouldExpireEachEntryOnItsOwn() {
+        CachedResults expired = results(-1);
+        CachedResults current = results(60000);
+        long now = System.currentTimeMillis();
+
+        assertThat(expired.isExpired(now)).isTrue();
+        assertThat(current.isExpired(now)).isFalse();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSessionsOverCap() throws Exception {
+        ResourceResultStore store = new ResourceResultStore(20, 10);
+        for (int i = 0; i < 10; i++) {
+            store.put(SERVICE, RESOURCE, "token" + i, SCOPE, results(60000));
+            Thread.sleep(2);
+        }
+        store.get(SERVICE, RESOURCE, "token0", SCOPE);
+        Thread.sleep(2);
+
+        store.put(SERVICE, RESOURCE, "token10", SCOPE, results(60000));
+
+        assertThat(store.getSessionCount(SERVICE, RESOURCE)).isEqualTo(9);
+        assertThat(store.get(SERVICE, RESOURCE, "token0", SCOPE)).isNotNull();
+        assertThat(store.get(SERVICE, RESOURCE, "token1", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE, "token2", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE, "token10", SCOPE)).isNotNull();
+    }
+
+    @Test
+    public void shouldEvictExpiredSessionsFirst() throws Exception {
+        ResourceResultStore store = new ResourceResultStore(20, 10);
+        for (int i = 0; i < 10; i++) {
+            store.put(SERVICE, RESOURCE, "token" + i, SCOPE, results(i == 5 ? -1 : 60000));
+            Thread.sleep(2);
+        }
+
+        store.put(SERVICE, RESOURCE, "token10", SCOPE, results(60000));
+
+        assertThat(store.getSessionCount(SERVICE, RESOURCE)).isEqualTo(9);
+        assertThat(store.get(SERVICE, RESOURCE, "token5", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE, "token0", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE, "token1", SCOPE)).isNotNull();
+    }
+
+    @Test
+    public void shouldBoundResourceNamesPerService() {
+        ResourceResultStore store = new ResourceResultStore(20, 10);
+        for (int i = 0; i < 100; i++) {
+            store.put(SERVICE, RESOURCE + i, "token", SCOPE, results(60000));
+        }
+
+        assertThat(store.getResourceNames(SERVICE).size()).isLessThanOrEqualTo(20);
+        assertThat(store.get(SERVICE, RESOURCE + 99, "token", SCOPE)).isNotNull();
+    }
+
+    @Test
+    public void shouldRemoveSessionForEveryResource() {
+        ResourceResultStore store = new ResourceResultStore(20, 10);
+        store.put(SERVICE, RESOURCE, "token", SCOPE, results(60000));
+        store.put(SERVICE, RESOURCE + "2", "token", SCOPE, results(60000));
+        store.put("otherService", RESOURCE, "token", SCOPE, results(60000));
+        store.put(SERVICE, RESOURCE, "other", SCOPE, results(60000));
+
+        store.removeSession("token");
+
+        assertThat(store.get(SERVICE, RESOURCE, "token", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE + "2", "token", SCOPE)).isNull();
+        assertThat(store.get("otherService", RESOURCE, "token", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE, "other", SCOPE)).isNotNull();
+    }
+
+    @Test
+    public void shouldRemoveResourceNamesAndServices() {
+        ResourceResultStore store = new ResourceResultStore(20, 10);
+        store.put(SERVICE, RESOURCE, "token", SCOPE, results(60000));
+        store.put(SERVICE, RESOURCE + "2", "token", SCOPE, results(60000));
+        store.put("otherService", RESOURCE, "token", SCOPE, results(60000));
+
+        for (Iterator<String> names = store.getResourceNames(SERVICE).iterator(); names.hasNext();) {
+            if (names.next().equals(RESOURCE)) {
+                names.remove();
+            }
+        }
+
+        assertThat(store.get(SERVICE, RESOURCE, "token", SCOPE)).isNull();
+        assertThat(store.get(SERVICE, RESOURCE + "2", "token", SCOPE)).isNotNull();
+
+        store.removeService(SERVICE);
+
+        assertThat(store.getResourceNames(SERVICE)).isEmpty();
+        assertThat(store.get("otherService", RESOURCE, "token", SCOPE)).isNotNull();
+    }
+
+    @Test
+    public void shouldStayBoundedUnderConcurrentUpdates() throws Exception {
+        final ResourceResultStore store = new ResourceResultStore(20, 100);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < 20000; i++) {
+                            String resource = RESOURCE + random.nextInt(30);
+                            String token = "token" + random.nextInt(500);
+                            if (store.get(SERVICE, resource, token, SCOPE) == null) {
+                                store.put(SERVICE, resource, token, SCOPE, results(60000));
+                            }
+                            if (i % 1000 == 0) {
+                                store.removeSession(token);
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(store.getResourceNames(SERVICE).size()).isLessThanOrEqualTo(20 + threads);
+        for (String resource : store.getResourceNames(SERVICE)) {
+            assertThat(store.getSessionCount(SERVICE, resource)).isLessThanOrEqualTo(100 + threads);
+        }
+    }
+
+    /**
+     * Compares lookups in the store with lookups in nested synchronized LRU caches, as the
+     * {@link ResourceResultCache} used to do them, while sessions are invalidated.
+     */
+    @Test(enabled = false)
+    public void benchmarkConcurrentLookups() throws Exception {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final int lookups = 1000000;
+        for (int run = 0; run < 3; run++) {
+            final ResourceResultStore store = new ResourceResultStore(20, 10000);
+            final Map<String, Map<String, Map<String, Map<String, CachedResults>>>> synchronizedCache =
+                    new HashMap<>();
+
+            long storeTime = runConcurrently(threads, lookups, new Lookup() {
+                @Override
+                public void lookup(String resource, String token) {
+                    if (store.get(SERVICE, resource, token, SCOPE) == null) {
+                        store.put(SERVICE, resource, token, SCOPE, results(60000));
+                    }
+                }
+
+                @Override
+                public void invalidate(String token) {
+                    store.removeSession(token);
+                }
+            });
+            long synchronizedTime = runConcurrently(threads, lookups, new Lookup() {
+                @Override
+                public void lookup(String resource, String token) {
+                    Map<String, Map<String, Map<String, CachedResults>>> resources;
+                    synchronized (synchronizedCache) {
+                        resources = synchronizedCache.get(SERVICE);
+                        if (resources == null) {
+                            resources = new Cache(20);
+                            synchronizedCache.put(SERVICE, resources);
+                        }
+                    }
+                    Map<String, Map<String, CachedResults>> tokens;
+                    synchronized (resources) {
+                        tokens = resources.get(resource);
+                        if (tokens == null) {
+                            tokens = new Cache(10000);
+                            resources.put(resource, tokens);
+                        }
+                    }
+                    Map<String, CachedResults> scopes;
+                    synchronized (tokens) {
+                        scopes = tokens.get(token);
+                        if (scopes == null) {
+                            scopes = new HashMap<>();
+                            tokens.put(token, scopes);
+                        }
+                    }
+                    synchronized (scopes) {
+                        if (scopes.get(SCOPE) == null) {
+                            scopes.put(SCOPE, results(60000));
+                        }
+                    }
+                }
+
+                @Override
+                public void invalidate(String token) {
+                    synchronized (synchronizedCache) {
+                        for (Map<String, Map<String, Map<String, CachedResults>>> resources
+                                : synchronizedCache.values()) {
+                            synchronized (resources) {
+                                for (Map<String, Map<String, CachedResults>> tokens : resources.values()) {
+                                    tokens.remove(token);
+                                }
+                            }
+                        }
+                    }
+                }
+            });
+            System.out.println(threads + " threads, store: " + storeTime / lookups + "ns, synchronized caches: "
+                    + synchronizedTime / lookups + "ns per lookup");
+        }
+    }
+
+    private long runConcurrently(int threads, final int lookups, final Lookup lookup) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicBoolean done = new AtomicBoolean();
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    while (!done.get()) {
+                        lookup.invalidate("token" + ThreadLocalRandom.current().nextInt(5000));
+                        Thread.sleep(1);
+                    }
+                    return null;
+                }
+            });
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < lookups / threads; i++) {
+                            lookup.lookup(RESOURCE + random.nextInt(10), "token" + random.nextInt(5000));
+                        }
+                        return null;
+                    }
+                });
+            }
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long time = System.nanoTime() - startTime;
+            done.set(true);
+            return time;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static CachedResults results(long ttl) {
+        return new CachedResults(Collections.emptySet(), null, null, System.currentTimeMillis() + ttl);
+    }
+
+    private interface Lookup {
+
+        void lookup(String resource, String token);
+
+        void invalidate(String token);
+    }
+}
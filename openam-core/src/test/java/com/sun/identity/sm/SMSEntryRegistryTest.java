@@ -0,0 +1,282 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.sm;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.forgerock.opendj.ldap.DN;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SMSEntryRegistryTest {
+
+    private static final DN REALM = DN.valueOf("o=realm,ou=services,dc=example,dc=com");
+    private static final DN SERVICE = DN.valueOf("ou=default,ou=service,o=realm,ou=services,dc=example,dc=com");
+    private static final DN OTHER = DN.valueOf("o=other,ou=services,dc=example,dc=com");
+
+    private SMSEntryRegistry<Entry> registry;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = newRegistry(0);
+    }
+
+    @Test
+    public void shouldReturnRegisteredEntry() {
+        // Given
+        Entry entry = new Entry();
+
+        // When
+        Entry result = registry.register(SERVICE, entry);
+
+        // Then
+        assertThat(result).isSameAs(entry);
+        assertThat(registry.get(SMSEntryRegistry.keyOf(SERVICE))).isSameAs(entry);
+        assertThat(registry.get(SMSEntryRegistry.keyOf(REALM))).isNull();
+        assertThat(registry.getHitCount()).isEqualTo(1);
+        assertThat(registry.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepLiveEntryWhenAnotherIsRegistered() {
+        // Given
+        Entry first = new Entry();
+        registry.register(SERVICE, first);
+
+        // When
+        Entry result = registry.register(SERVICE, new Entry());
+
+        // Then
+        assertThat(result).isSameAs(first);
+    }
+
+    @Test
+    public void shouldReplaceInvalidEntry() {
+        // Given
+        Entry first = new Entry();
+        registry.register(SERVICE, first);
+        first.valid = false;
+        Entry second = new Entry();
+
+        // When
+        Entry result = registry.register(SERVICE, second);
+
+        // Then
+        assertThat(result).isSameAs(second);
+    }
+
+    @Test
+    public void shouldOnlyRemoveGivenEntry() {
+        // Given
+        Entry first = new Entry();
+        registry.register(SERVICE, first);
+        first.valid = false;
+        Entry second = registry.register(SERVICE, new Entry());
+
+        // When
+        registry.remove(SMSEntryRegistry.keyOf(SERVICE), first);
+
+        // Then
+        assertThat(registry.get(SMSEntryRegistry.keyOf(SERVICE))).isSameAs(second);
+    }
+
+    @Test
+    public void shouldInvalidateSubtree() {
+        // Given
+        Entry realm = registry.register(REALM, new Entry());
+        Entry service = registry.register(SERVICE, new Entry());
+        Entry other = registry.register(OTHER, new Entry());
+
+        // When
+        int count = registry.invalidate(REALM, true);
+
+        // Then
+        assertThat(count).isEqualTo(2);
+        assertThat(realm.dirty).isTrue();
+        assertThat(service.dirty).isTrue();
+        assertThat(other.dirty).isFalse();
+    }
+
+    @Test
+    public void shouldInvalidateSingleEntry() {
+        // Given
+        Entry realm = registry.register(REALM, new Entry());
+        Entry service = registry.register(SERVICE, new Entry());
+
+        // When
+        registry.invalidate(DN.valueOf("O=Realm,ou=services,dc=example,dc=com"), false);
+
+        // Then
+        assertThat(realm.dirty).isTrue();
+        assertThat(service.dirty).isFalse();
+    }
+
+    @Test
+    public void shouldDiscardAllEntriesWhenCleared() {
+        // Given
+        Entry realm = registry.register(REALM, new Entry());
+        Entry service = registry.register(SERVICE, new Entry());
+
+        // When
+        registry.clear();
+
+        // Then
+        assertThat(registry.size()).isEqualTo(0);
+        assertThat(realm.discarded).isTrue();
+        assertThat(service.discarded).isTrue();
+    }
+
+    @Test
+    public void shouldEvictUnusedEntriesWhenFull() {
+        // Given
+        registry = newRegistry(2);
+        Entry realm = registry.register(REALM, new Entry());
+        Entry service = registry.register(SERVICE, new Entry());
+        registry.get(SMSEntryRegistry.keyOf(REALM));
+
+        // When
+        registry.register(OTHER, new Entry());
+
+        // Then
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(service.discarded).isTrue();
+        assertThat(realm.discarded).isFalse();
+        assertThat(registry.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotEvictEntriesInUse() {
+        // Given
+        registry = newRegistry(1);
+        Entry realm = new Entry();
+        realm.inUse = true;
+        registry.register(REALM, realm);
+
+        // When
+        registry.register(SERVICE, new Entry());
+
+        // Then
+        assertThat(realm.discarded).isFalse();
+        assertThat(registry.get(SMSEntryRegistry.keyOf(REALM))).isSameAs(realm);
+    }
+
+    @Test
+    public void shouldQueueEachRegisteredEntryOnce() {
+        // Given
+        registry = newRegistry(2);
+        registry.register(REALM, new Entry());
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            Entry service = registry.register(SERVICE, new Entry());
+            if (i % 2 == 0) {
+                service.valid = false;
+            } else {
+                registry.remove(SMSEntryRegistry.keyOf(SERVICE), service);
+            }
+        }
+
+        // Then
+        assertThat(registry.getQueueLength()).isLessThanOrEqualTo(4);
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.getEvictionCount()).isEqualTo(0);
+    }
+
+    /**
+     * Compares parallel lookups, which is what each {@code ServiceConfigManager} and {@code ServiceSchemaManager}
+     * lookup reduces to once the entries are cached, against the synchronized map the registry replaced.
+     */
+    @Test(enabled = false)
+    public void benchmarkParallelLookups() throws Exception {
+        final int entries = 1000;
+        final List<String> keys = new ArrayList<>();
+        final Map<String, Entry> synchronizedMap = Collections.synchronizedMap(new HashMap<String, Entry>());
+        for (int i = 0; i < entries; i++) {
+            DN dn = DN.valueOf("ou=service" + i + ",ou=services,dc=example,dc=com");
+            Entry entry = registry.register(dn, new Entry());
+            keys.add(SMSEntryRegistry.keyOf(dn));
+            synchronizedMap.put(SMSEntryRegistry.keyOf(dn), entry);
+        }
+        final int threads = Runtime.getRuntime().availableProcessors() * 2;
+        final int lookups = 2000000;
+        for (int round = 0; round < 3; round++) {
+            long map = time(threads, new Lookup() {
+                @Override
+                public Object get(String key) {
+                    return synchronizedMap.get(key);
+                }
+            }, keys, lookups);
+            long concurrent = time(threads, new Lookup() {
+                @Override
+                public Object get(String key) {
+                    return registry.get(key);
+                }
+            }, keys, lookups);
+            System.out.println("Synchronized map: " + map + "ms, registry: " + concurrent + "ms");
+        }
+    }
+
+    private long time(int threads, final Lookup lookup, final List<String> keys, final int lookups)
+            throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < lookups; i++) {
+                            lookup.get(keys.get((i + offset) % keys.size()));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        long begin = System.currentTimeMillis();
+        start.countDown();
+        done.await();
+        return System.currentTimeMillis() - begin;
+    }
+
+    private interface Lookup {
+        Object get(String key);
+    }
+
+    private static SMSEntryRegistry<Entry> newRegistry(int maxSize) {
+        return new SMSEntryRegistry<>(maxSize, e -> e.valid, e -> !e.inUse, e -> e.dirty = true,
+                e -> e.discarded = true);
+    }
+
+    private static final class Entry {
+        private volatile boolean valid = true;
+        private volatile boolean inUse;
+        private volatile boolean dirty;
+        private volatile boolean discarded;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.adapters;
 
@@ -27,6 +28,7 @@ import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.api.tokens.TokenIdFactory;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.utils.BinarySessionSerialisation;
 import org.forgerock.openam.cts.utils.JSONSerialisation;
 import org.forgerock.openam.cts.utils.blob.TokenBlobUtils;
 import org.forgerock.openam.utils.TimeUtils;
@@ -48,6 +50,7 @@ public class SessionAdapterTest {
     private TokenIdFactory tokenIdFactory;
     private CoreTokenConfig coreTokenConfig;
     private JSONSerialisation jsonSerialisation;
+    private BinarySessionSerialisation binarySerialisation;
     private TokenBlobUtils blobUtils;
 
     @BeforeMethod
@@ -55,8 +58,10 @@ public class SessionAdapterTest {
         tokenIdFactory = mock(TokenIdFactory.class);
         coreTokenConfig = mock(CoreTokenConfig.class);
         jsonSerialisation = mock(JSONSerialisation.class);
+        binarySerialisation = mock(BinarySessionSerialisation.class);
         blobUtils = new TokenBlobUtils();
-        adapter = new SessionAdapter(tokenIdFactory, coreTokenConfig, jsonSerialisation, blobUtils);
+        adapter = new SessionAdapter(tokenIdFactory, coreTokenConfig, jsonSerialisation, binarySerialisation,
+                blobUtils);
     }
 
     @Test
@@ -93,7 +98,7 @@ public class SessionAdapterTest {
         adapter = new SessionAdapter(
                 tokenIdFactory,
                 coreTokenConfig ,
-                jsonSerialisation, blobUtils);
+                jsonSerialisation, binarySerialisation, blobUtils);
 
         Token token = new Token(sessionId, TokenType.SESSION);
         token.setUserId(userId);
@@ -129,7 +134,7 @@ public class SessionAdapterTest {
                 .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
         JSONSerialisation serialisation = new JSONSerialisation(mapper);
-        adapter = new SessionAdapter(tokenIdFactory, coreTokenConfig, serialisation, blobUtils);
+        adapter = new SessionAdapter(tokenIdFactory, coreTokenConfig, serialisation, binarySerialisation, blobUtils);
 
         // When
         InternalSession session = adapter.fromToken(token);
@@ -221,6 +226,46 @@ public class SessionAdapterTest {
         assertThat(token.<String>getValue(SessionTokenField.SESSION_HANDLE.getField())).isEqualTo(sessionHandle);
     }
 
+    @Test
+    public void shouldStoreSessionInBinaryFormatWhenEnabled() {
+        // Given
+        byte[] blob = {0, 1, 2};
+        InternalSession mockSession = mock(InternalSession.class);
+        SessionID mockSessionID = mock(SessionID.class);
+        given(mockSessionID.toString()).willReturn("badger");
+        given(mockSession.getID()).willReturn(mockSessionID);
+        given(tokenIdFactory.toSessionTokenId(eq(mockSession))).willReturn("badger");
+        given(coreTokenConfig.isSessionBinaryFormat()).willReturn(true);
+        given(binarySerialisation.serialise(mockSession)).willReturn(blob);
+        given(binarySerialisation.getLatestAccessTime(mockSession)).willReturn(12345L);
+
+        // When
+        Token token = adapter.toToken(mockSession);
+
+        // Then
+        assertThat(token.getBlob()).isEqualTo(blob);
+        assertThat(token.<String>getValue(SessionTokenField.LATEST_ACCESS_TIME.getField())).isEqualTo("12345");
+        verify(jsonSerialisation, never()).serialise(any());
+    }
+
+    @Test
+    public void shouldReadBinarySessionWhenNotEnabled() {
+        // Given
+        byte[] blob = {0, 1, 2};
+        InternalSession mockSession = mock(InternalSession.class);
+        Token token = new Token("badger", TokenType.SESSION);
+        token.setBlob(blob);
+        token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(), "12345");
+        given(binarySerialisation.deserialise(blob, 12345L)).willReturn(mockSession);
+
+        // When
+        InternalSession result = adapter.fromToken(token);
+
+        // Then
+        assertThat(result).isSameAs(mockSession);
+        verify(jsonSerialisation, never()).deserialise(anyString(), any(Class.class));
+    }
+
     @Test
     public void shouldFilterLatestAccessTime() throws CoreTokenException {
         // Given
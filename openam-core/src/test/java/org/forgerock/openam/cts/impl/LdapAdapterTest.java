@@ -14,6 +14,7 @@
  * Copyright 2013-2016 ForgeRock AS.
  *
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.impl;
@@ -42,10 +43,15 @@ import org.forgerock.openam.tokens.CoreTokenField;
 import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.opendj.ldap.Connection;
 import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.DecodeOptions;
 import org.forgerock.opendj.ldap.Entry;
 import org.forgerock.opendj.ldap.Filter;
 import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.LinkedHashMapEntry;
 import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.controls.AssertionRequestControl;
+import org.forgerock.opendj.ldap.controls.PostReadResponseControl;
+import org.forgerock.opendj.ldap.requests.AddRequest;
 import org.forgerock.opendj.ldap.requests.DeleteRequest;
 import org.forgerock.opendj.ldap.requests.ModifyRequest;
 import org.forgerock.opendj.ldap.requests.SearchRequest;
@@ -73,7 +79,7 @@ public class LdapAdapterTest {
         mockQueryFactory = mock(LdapQueryFactory.class);
         mockQueryVisitor = mock(LdapQueryFilterVisitor.class);
 
-        adapter = new LdapAdapter(mockConversion, mockQueryVisitor, mockQueryFactory);
+        adapter = new LdapAdapter(mockConversion, mockQueryVisitor, mockQueryFactory, new PersistedEntryCache(100));
     }
 
     @Test
@@ -82,7 +88,7 @@ public class LdapAdapterTest {
         Token token = new Token("badger", TokenType.SESSION);
 
         Result successResult = mockSuccessfulResult();
-        given(mockConnection.add(nullable(Entry.class))).willReturn(successResult);
+        given(mockConnection.add(nullable(AddRequest.class))).willReturn(successResult);
 
         given(mockConversion.getEntry(nullable(Token.class))).willReturn(mock(Entry.class));
 
@@ -90,7 +96,7 @@ public class LdapAdapterTest {
         adapter.create(mockConnection, token);
 
         // Then
-        verify(mockConnection).add(any(Entry.class));
+        verify(mockConnection).add(any(AddRequest.class));
     }
 
     @Test
@@ -195,7 +201,7 @@ public class LdapAdapterTest {
         when(config.getTokenStoreRootSuffix()).thenReturn(DN.valueOf("ou=unit-test"));
         LDAPDataConversion dataConversion = new LDAPDataConversion();
         LdapTokenAttributeConversion conversion = new LdapTokenAttributeConversion(dataConversion, config);
-        adapter = new LdapAdapter(conversion, mockQueryVisitor, mockQueryFactory);
+        adapter = new LdapAdapter(conversion, mockQueryVisitor, mockQueryFactory, new PersistedEntryCache(100));
 
         // When
         adapter.update(mockConnection, first, second);
@@ -218,7 +224,7 @@ public class LdapAdapterTest {
         when(config.getTokenStoreRootSuffix()).thenReturn(DN.valueOf("ou=unit-test"));
         LDAPDataConversion dataConversion = new LDAPDataConversion();
         LdapTokenAttributeConversion conversion = new LdapTokenAttributeConversion(dataConversion, config);
-        LdapAdapter adapter = new LdapAdapter(conversion, null, null);
+        LdapAdapter adapter = new LdapAdapter(conversion, null, null, new PersistedEntryCache(100));
 
         // When
         adapter.update(mockConnection, first, second);
@@ -227,6 +233,92 @@ public class LdapAdapterTest {
         verify(mockConnection).modify(any(ModifyRequest.class));
     }
 
+    @Test
+    public void shouldUpdateCreatedTokenWithoutReadingIt() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.OAUTH);
+        adapter = new LdapAdapter(unitTestConversion(), null, null, new PersistedEntryCache(100));
+
+        Result addResult = mockResultWithETag("1");
+        given(mockConnection.add(any(AddRequest.class))).willReturn(addResult);
+        Result modifyResult = mockResultWithETag("2");
+        given(mockConnection.modify(any(ModifyRequest.class))).willReturn(modifyResult);
+        adapter.create(mockConnection, token);
+
+        Token updated = new Token(token);
+        updated.setUserId("weasel");
+
+        // When
+        boolean result = adapter.updateIfUnchanged(mockConnection, updated);
+
+        // Then
+        assertThat(result).isTrue();
+        verify(mockConnection, never()).searchSingleEntry(any(SearchRequest.class));
+        ArgumentCaptor<ModifyRequest> captor = ArgumentCaptor.forClass(ModifyRequest.class);
+        verify(mockConnection).modify(captor.capture());
+        assertThat(captor.getValue().containsControl(AssertionRequestControl.OID)).isTrue();
+    }
+
+    @Test
+    public void shouldNotUpdateWithoutReadingUnknownToken() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.OAUTH);
+        adapter = new LdapAdapter(unitTestConversion(), null, null, new PersistedEntryCache(100));
+
+        // When
+        boolean result = adapter.updateIfUnchanged(mockConnection, token);
+
+        // Then
+        assertThat(result).isFalse();
+        verify(mockConnection, never()).modify(any(ModifyRequest.class));
+    }
+
+    @Test
+    public void shouldNotUpdateWithoutReadingTokenChangedSinceCreated() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.OAUTH);
+        adapter = new LdapAdapter(unitTestConversion(), null, null, new PersistedEntryCache(100));
+
+        Result addResult = mockResultWithETag("1");
+        given(mockConnection.add(any(AddRequest.class))).willReturn(addResult);
+        given(mockConnection.modify(any(ModifyRequest.class)))
+                .willThrow(LdapException.newLdapException(ResultCode.ASSERTION_FAILED));
+        adapter.create(mockConnection, token);
+
+        Token updated = new Token(token);
+        updated.setUserId("weasel");
+
+        // When
+        boolean first = adapter.updateIfUnchanged(mockConnection, updated);
+        boolean second = adapter.updateIfUnchanged(mockConnection, updated);
+
+        // Then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        verify(mockConnection, times(1)).modify(any(ModifyRequest.class));
+    }
+
+    @Test
+    public void shouldNotUpdateWithoutReadingWhenETagNotReturned() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.OAUTH);
+        adapter = new LdapAdapter(unitTestConversion(), null, null, new PersistedEntryCache(100));
+
+        Result addResult = mockSuccessfulResult();
+        given(mockConnection.add(any(AddRequest.class))).willReturn(addResult);
+        adapter.create(mockConnection, token);
+
+        Token updated = new Token(token);
+        updated.setUserId("weasel");
+
+        // When
+        boolean result = adapter.updateIfUnchanged(mockConnection, updated);
+
+        // Then
+        assertThat(result).isFalse();
+        verify(mockConnection, never()).modify(any(ModifyRequest.class));
+    }
+
     @Test
     public void shouldQuery() throws Exception {
         // Given
@@ -294,6 +386,20 @@ public class LdapAdapterTest {
         assertThat(result).containsOnly(partialToken);
     }
 
+    private static LdapTokenAttributeConversion unitTestConversion() {
+        LdapDataLayerConfiguration config = mock(LdapDataLayerConfiguration.class);
+        when(config.getTokenStoreRootSuffix()).thenReturn(DN.valueOf("ou=unit-test"));
+        return new LdapTokenAttributeConversion(new LDAPDataConversion(), config);
+    }
+
+    private static Result mockResultWithETag(String eTag) throws Exception {
+        Result result = mockSuccessfulResult();
+        Entry entry = new LinkedHashMapEntry(DN.valueOf("ou=unit-test")).addAttribute("etag", eTag);
+        given(result.getControl(eq(PostReadResponseControl.DECODER), any(DecodeOptions.class)))
+                .willReturn(PostReadResponseControl.newControl(entry));
+        return result;
+    }
+
     private static Result mockSuccessfulResult() {
         Result result = mock(Result.class);
         ResultCode resultCode = ResultCode.SUCCESS;
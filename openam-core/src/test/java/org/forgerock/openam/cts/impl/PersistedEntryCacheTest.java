@@ -0,0 +1,101 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.impl;
+
+import static org.fest.assertions.Assertions.*;
+
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.Entry;
+import org.forgerock.opendj.ldap.LinkedHashMapEntry;
+import org.testng.annotations.Test;
+
+public class PersistedEntryCacheTest {
+
+    @Test
+    public void shouldRememberEntryWithETag() {
+        // Given
+        PersistedEntryCache cache = new PersistedEntryCache(10);
+        Entry entry = entry("badger");
+
+        // When
+        cache.put(entry, "1");
+
+        // Then
+        assertThat(cache.get(entry.getName()).getEntry()).isSameAs(entry);
+        assertThat(cache.get(entry.getName()).getETag()).isEqualTo("1");
+    }
+
+    @Test
+    public void shouldForgetEntryWithoutETag() {
+        // Given
+        PersistedEntryCache cache = new PersistedEntryCache(10);
+        cache.put(entry("badger"), "1");
+
+        // When
+        cache.put(entry("badger"), null);
+
+        // Then
+        assertThat(cache.get(DN.valueOf("cn=badger"))).isNull();
+    }
+
+    @Test
+    public void shouldNotRememberMoreThanMaximumSize() {
+        // Given
+        PersistedEntryCache cache = new PersistedEntryCache(PersistedEntryCache.STRIPES * 2);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.put(entry("token" + i), "1");
+        }
+
+        // Then
+        assertThat(cache.size()).isLessThanOrEqualTo(PersistedEntryCache.STRIPES * 2);
+        assertThat(cache.get(DN.valueOf("cn=token999"))).isNotNull();
+    }
+
+    @Test
+    public void shouldKeepRecentlyUsedEntry() {
+        // Given
+        PersistedEntryCache cache = new PersistedEntryCache(PersistedEntryCache.STRIPES * 2);
+        DN used = DN.valueOf("cn=badger");
+        cache.put(entry("badger"), "1");
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.get(used);
+            cache.put(entry("token" + i), "1");
+        }
+
+        // Then
+        assertThat(cache.get(used)).isNotNull();
+    }
+
+    @Test
+    public void shouldRememberNothingWhenSizeIsZero() {
+        // Given
+        PersistedEntryCache cache = new PersistedEntryCache(0);
+
+        // When
+        cache.put(entry("badger"), "1");
+
+        // Then
+        assertThat(cache.get(DN.valueOf("cn=badger"))).isNull();
+    }
+
+    private static Entry entry(String name) {
+        return new LinkedHashMapEntry(DN.valueOf("cn=" + name));
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.impl.query.reaper;
 
@@ -37,7 +38,9 @@ import org.forgerock.openam.sm.datalayer.api.query.QueryFactory;
 import org.forgerock.openam.tokens.CoreTokenField;
 import org.forgerock.opendj.ldap.Connection;
 import org.forgerock.opendj.ldap.Filter;
+import org.forgerock.util.query.QueryFilter;
 import org.forgerock.util.query.QueryFilterVisitor;
+import org.mockito.ArgumentMatchers;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -122,4 +125,35 @@ public class ReaperImplTest {
     public void shouldNotStartUnlessConnectionIsProvided() throws CoreTokenException {
         impl.nextPage();
     }
+
+    @Test
+    public void shouldRestrictQueryToExpiryRange() {
+        // Given
+        Calendar from = Calendar.getInstance();
+        Calendar to = Calendar.getInstance();
+        to.add(Calendar.MINUTE, 5);
+
+        given(mockQueryFilterConverter.visitAndFilter((Void) isNull(),
+                ArgumentMatchers.<QueryFilter<CoreTokenField>>anyList())).willReturn(Filter.alwaysTrue());
+
+        // When
+        impl.setExpiryRange(from, to);
+
+        // Then
+        verify(mockQueryFilterConverter).visitAndFilter((Void) isNull(),
+                ArgumentMatchers.<QueryFilter<CoreTokenField>>anyList());
+        verify(mockBuilder, times(2)).withFilter(any(Filter.class));
+    }
+
+    @Test (expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotChangeExpiryRangeOnceQueryHasStarted() throws CoreTokenException {
+        // Given
+        impl.setConnection(mockConnection);
+        Iterator<Collection<String>> mockIterator = mock(Iterator.class);
+        given(mockBuilder.executeRawResults(mockConnection, String.class)).willReturn(mockIterator);
+        impl.nextPage();
+
+        // When
+        impl.setExpiryRange(null, Calendar.getInstance());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.cts.monitoring.impl.queue;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+import org.testng.annotations.Test;
+
+public class TaskQueueMonitorTest {
+
+    @Test
+    public void shouldWriteQueueStatisticsAsMetrics() {
+        // Given
+        TaskQueueMonitor monitor = new TaskQueueMonitor();
+        for (int i = 0; i < 5; i++) {
+            monitor.taskQueued();
+        }
+        monitor.batchProcessed(3);
+        monitor.tasksStolen(2);
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+
+        // When
+        monitor.writeMetrics(writer);
+
+        // Then
+        assertThat(writer.toString())
+                .contains("openam_cts_queue_depth 2.0")
+                .contains("openam_cts_queue_batches_total 1")
+                .contains("openam_cts_queue_batched_tasks_total 3")
+                .contains("openam_cts_queue_batch_size_max 3.0")
+                .contains("openam_cts_queue_stolen_tasks_total 2");
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.cts.monitoring.impl.reaper;
@@ -73,4 +74,33 @@ public class ReaperMonitorTest {
         //Then
         assertEquals(result, 12.5D);
     }
+
+    @Test
+    public void shouldReportThroughputOfLatestRun() {
+
+        //Given
+        reaperMonitor.add(1000, 2000, 100);
+
+        //When
+        reaperMonitor.add(1000, 500, 100);
+
+        //Then
+        assertEquals(reaperMonitor.getThroughput(), 200D);
+        assertEquals(reaperMonitor.getDeletedTokens(), 200L);
+    }
+
+    @Test
+    public void shouldTrackLagAndThrottling() {
+
+        //Given
+
+        //When
+        reaperMonitor.setLag(5000);
+        reaperMonitor.throttled();
+        reaperMonitor.throttled();
+
+        //Then
+        assertEquals(reaperMonitor.getLag(), 5000L);
+        assertEquals(reaperMonitor.getThrottleCount(), 2L);
+    }
 }
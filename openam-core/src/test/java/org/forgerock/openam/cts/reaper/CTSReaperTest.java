@@ -14,10 +14,12 @@
  * Copyright 2013-2014 ForgeRock AS.
  *
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.reaper;
 
 import com.sun.identity.shared.debug.Debug;
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.cts.impl.query.reaper.ReaperQuery;
 import org.forgerock.openam.cts.impl.query.reaper.ReaperQueryFactory;
@@ -118,4 +120,21 @@ public class CTSReaperTest {
         // Then
         verify(mockTokenDeletion, times(0)).deleteBatch(eq(tokens));
     }
+
+    @Test
+    public void shouldDelegateToPartitionedReaperWhenPartitionsConfigured() throws CoreTokenException {
+        // Given
+        PartitionedCTSReaper partitionedReaper = mock(PartitionedCTSReaper.class);
+        CoreTokenConfig config = mock(CoreTokenConfig.class);
+        given(config.getReaperPartitions()).willReturn(4);
+        reaper = new CTSReaper(mockQueryFactory, mockTokenDeletion, monitoringStore, partitionedReaper, config,
+                mock(Debug.class));
+
+        // When
+        reaper.run();
+
+        // Then
+        verify(partitionedReaper).run();
+        verify(mockQueryFactory, times(0)).getQuery();
+    }
 }
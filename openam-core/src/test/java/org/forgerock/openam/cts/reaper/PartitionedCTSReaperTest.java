@@ -0,0 +1,192 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.reaper;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Provider;
+
+import org.forgerock.openam.cts.CTSPersistentStore;
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.impl.query.reaper.ReaperQuery;
+import org.forgerock.openam.cts.impl.query.reaper.ReaperQueryFactory;
+import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
+import org.mockito.ArgumentMatcher;
+import org.mockito.ArgumentMatchers;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.shared.debug.Debug;
+
+public class PartitionedCTSReaperTest {
+
+    private ReaperQueryFactory queryFactory;
+    private TokenDeletion tokenDeletion;
+    private CTSPersistentStore store;
+    private CTSReaperMonitoringStore monitoringStore;
+    private CoreTokenConfig config;
+    private ExecutorService executorService;
+    private Debug debug;
+    private PartitionedCTSReaper reaper;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        queryFactory = mock(ReaperQueryFactory.class);
+        tokenDeletion = mock(TokenDeletion.class);
+        store = mock(CTSPersistentStore.class);
+        monitoringStore = mock(CTSReaperMonitoringStore.class);
+        config = mock(CoreTokenConfig.class);
+        given(config.getReaperPartitions()).willReturn(3);
+        given(config.getReaperPartitionSpan()).willReturn(60000);
+        given(config.getReaperParallelism()).willReturn(2);
+        given(config.isReaperCoordinated()).willReturn(true);
+
+        Collection<String> page = Arrays.asList("badger", "weasel");
+        given(queryFactory.getQuery(ArgumentMatchers.<Calendar>any(), any(Calendar.class))).willAnswer(invocation -> {
+            ReaperQuery query = mock(ReaperQuery.class);
+            given(query.nextPage()).willReturn(page).willReturn(null);
+            return query;
+        });
+        given(tokenDeletion.deleteBatch(ArgumentMatchers.<String>anyCollection())).willReturn(new CountDownLatch(0));
+
+        Provider<CTSPersistentStore> provider = mock(Provider.class);
+        given(provider.get()).willReturn(store);
+
+        executorService = Executors.newFixedThreadPool(2);
+        ReaperThrottle throttle = new ReaperThrottle(4, 1000, 100, new TaskQueueMonitor(), monitoringStore);
+        debug = mock(Debug.class);
+        reaper = new PartitionedCTSReaper(queryFactory, tokenDeletion, throttle, provider, monitoringStore, config,
+                executorService, debug);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executorService.shutdownNow();
+        // Clear the interrupt status.
+        Thread.interrupted();
+    }
+
+    @Test
+    public void shouldDivideExpiredTokensIntoAlignedPartitions() {
+        // When
+        List<ReaperPartition> partitions = ReaperPartition.partition(10500, 3, 1000);
+
+        // Then
+        assertThat(partitions).hasSize(3);
+        assertThat(partitions.get(0).getFrom()).isNull();
+        assertThat(partitions.get(0).getTo()).isEqualTo(8000);
+        assertThat(partitions.get(0).getLeaseId()).isEqualTo("reaper-backlog-8000");
+        assertThat(partitions.get(1).getFrom()).isEqualTo(8000);
+        assertThat(partitions.get(1).getTo()).isEqualTo(9000);
+        assertThat(partitions.get(2).getLeaseId()).isEqualTo("reaper-9000-10000");
+    }
+
+    @Test
+    public void shouldReapEveryClaimedPartition() throws Exception {
+        // When
+        reaper.run();
+
+        // Then
+        verify(store, times(3)).create(any(Token.class));
+        verify(queryFactory).getQuery((Calendar) isNull(), (Calendar) notNull());
+        verify(queryFactory, times(2)).getQuery((Calendar) notNull(), (Calendar) notNull());
+        verify(tokenDeletion, times(3)).deleteBatch(ArgumentMatchers.<String>anyCollection());
+        verify(monitoringStore).addReaperRun(anyLong(), anyLong(), eq(6L));
+    }
+
+    @Test
+    public void shouldSkipPartitionsClaimedByAnotherServer() throws Exception {
+        // Given
+        willThrow(new CoreTokenException("Entry already exists")).given(store).create(argThat(backlogLease()));
+        given(store.read(startsWith("reaper-backlog-"))).willReturn(mock(Token.class));
+
+        // When
+        reaper.run();
+
+        // Then
+        verify(queryFactory, never()).getQuery((Calendar) isNull(), any(Calendar.class));
+        verify(queryFactory, times(2)).getQuery((Calendar) notNull(), (Calendar) notNull());
+        verify(monitoringStore).addReaperRun(anyLong(), anyLong(), eq(4L));
+        verify(debug, never()).error(anyString(), any(Throwable.class));
+    }
+
+    @Test
+    public void shouldReportClaimFailuresOtherThanAnExistingLease() throws Exception {
+        // Given
+        willThrow(new CoreTokenException("Connection failed")).given(store).create(argThat(backlogLease()));
+
+        // When
+        reaper.run();
+
+        // Then
+        verify(queryFactory, never()).getQuery((Calendar) isNull(), any(Calendar.class));
+        verify(debug).error(startsWith("CTS Reaper failed to reap partition"), any(CoreTokenException.class));
+        verify(monitoringStore).addReaperRun(anyLong(), anyLong(), eq(4L));
+    }
+
+    @Test
+    public void shouldNotClaimPartitionsWhenUncoordinated() throws Exception {
+        // Given
+        given(config.isReaperCoordinated()).willReturn(false);
+
+        // When
+        reaper.run();
+
+        // Then
+        verify(store, never()).create(any(Token.class));
+        verify(tokenDeletion, times(3)).deleteBatch(ArgumentMatchers.<String>anyCollection());
+    }
+
+    @Test
+    public void shouldReportLag() throws Exception {
+        // When
+        reaper.run();
+
+        // Then
+        verify(monitoringStore, times(4)).setReaperLag(anyLong());
+    }
+
+    private static ArgumentMatcher<Token> backlogLease() {
+        return token -> token != null && token.getTokenId().startsWith("reaper-backlog-");
+    }
+}
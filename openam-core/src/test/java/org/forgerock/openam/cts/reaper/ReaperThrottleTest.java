@@ -0,0 +1,141 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.reaper;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ReaperThrottleTest {
+
+    private TaskQueueMonitor queueMonitor;
+    private CTSReaperMonitoringStore monitoringStore;
+    private ReaperThrottle throttle;
+
+    @BeforeMethod
+    public void setUp() {
+        queueMonitor = new TaskQueueMonitor();
+        monitoringStore = mock(CTSReaperMonitoringStore.class);
+        throttle = new ReaperThrottle(4, 1000, 100, queueMonitor, monitoringStore);
+    }
+
+    @Test
+    public void shouldHalveLimitWhenPagesAreSlow() throws Exception {
+        // Given
+        throttle.submitted(new CountDownLatch(0), 0L);
+
+        // When
+        throttle.acquire();
+
+        // Then
+        assertThat(throttle.getLimit()).isEqualTo(2);
+        verify(monitoringStore, never()).addReaperThrottle();
+    }
+
+    @Test
+    public void shouldRaiseLimitWhenPagesAreFast() throws Exception {
+        // Given
+        throttle.submitted(new CountDownLatch(0), 0L);
+        throttle.acquire();
+
+        // When
+        throttle.submitted(new CountDownLatch(0), System.currentTimeMillis());
+        throttle.acquire();
+
+        // Then
+        assertThat(throttle.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldWaitForOutstandingPagesWhenAtLimit() throws Exception {
+        // Given
+        final CountDownLatch page = new CountDownLatch(1);
+        throttle = new ReaperThrottle(1, 1000, 100, queueMonitor, monitoringStore);
+        throttle.submitted(page, System.currentTimeMillis());
+        CountDownLatch acquired = acquireInBackground();
+
+        // When
+        assertThat(acquired.await(50, TimeUnit.MILLISECONDS)).isFalse();
+        page.countDown();
+
+        // Then
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(monitoringStore).addReaperThrottle();
+    }
+
+    @Test
+    public void shouldWaitWhileTaskQueuesAreFull() throws Exception {
+        // Given
+        for (int i = 0; i < 101; i++) {
+            queueMonitor.taskQueued();
+        }
+        CountDownLatch acquired = acquireInBackground();
+
+        // When
+        assertThat(acquired.await(50, TimeUnit.MILLISECONDS)).isFalse();
+        queueMonitor.batchProcessed(101);
+
+        // Then
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(monitoringStore).addReaperThrottle();
+    }
+
+    @Test
+    public void shouldDrainUntilAllPagesComplete() throws Exception {
+        // Given
+        final CountDownLatch page = new CountDownLatch(1);
+        throttle.submitted(page, System.currentTimeMillis());
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                page.countDown();
+            }
+        }).start();
+
+        // When
+        throttle.drain();
+
+        // Then
+        assertThat(page.getCount()).isEqualTo(0);
+    }
+
+    private CountDownLatch acquireInBackground() {
+        final CountDownLatch acquired = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    throttle.acquire();
+                    acquired.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return acquired;
+    }
+}
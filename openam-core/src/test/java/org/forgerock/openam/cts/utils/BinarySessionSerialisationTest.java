@@ -0,0 +1,173 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.cts.utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iplanet.dpro.session.DNOrIPAddressListTokenRestriction;
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import org.forgerock.guice.core.GuiceModules;
+import org.forgerock.guice.core.GuiceTestCase;
+import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.core.guice.CoreGuiceModule;
+import org.forgerock.openam.core.guice.DataLayerGuiceModule;
+import org.forgerock.openam.shared.guice.SharedGuiceModule;
+import org.forgerock.openam.utils.IOUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Properties;
+
+@GuiceModules({CoreGuiceModule.class, SharedGuiceModule.class, DataLayerGuiceModule.class,
+        JSONSerialisationTest.DummyAuditConfigModule.class})
+public class BinarySessionSerialisationTest extends GuiceTestCase {
+
+    private JSONSerialisation jsonSerialisation;
+    private BinarySessionSerialisation serialisation;
+    private ObjectMapper mapper;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        jsonSerialisation = InjectorHolder.getInstance(JSONSerialisation.class);
+        serialisation = InjectorHolder.getInstance(BinarySessionSerialisation.class);
+        mapper = new ObjectMapper();
+    }
+
+    @DataProvider(name = "sessions")
+    public Object[][] getSessionJSONs() {
+        return new Object[][]{
+            {"/json/basic-session.json"},
+            {"/json/basic-session-with-restriction.json"},
+            {"/json/complex-session-with-restriction-v11.json"},
+            {"/json/complex-session-with-restriction-v12.json"}
+        };
+    }
+
+    @Test(dataProvider = "sessions")
+    public void shouldDeserialiseTheSessionItSerialises(String path) throws Exception {
+        // Given
+        InternalSession session = jsonSerialisation.deserialise(getJSON(path), InternalSession.class);
+
+        // When
+        byte[] blob = serialisation.serialise(session);
+        InternalSession result = serialisation.deserialise(blob, serialisation.getLatestAccessTime(session));
+
+        // Then
+        assertThat(BinarySessionSerialisation.isBinary(blob)).isTrue();
+        assertThat(mapper.readTree(jsonSerialisation.serialise(result)))
+                .isEqualTo(mapper.readTree(jsonSerialisation.serialise(session)));
+    }
+
+    @Test
+    public void shouldRestoreTokenRestrictions() throws Exception {
+        // Given
+        InternalSession session = jsonSerialisation.deserialise(getJSON("/json/basic-session-with-restriction.json"),
+                InternalSession.class);
+
+        // When
+        InternalSession result = serialisation.deserialise(serialisation.serialise(session), 0);
+
+        // Then
+        assertThat(result.getRestrictionForToken(new SessionID("AQIC5wM2LY4SfcyTLz6VjQ7nkFeDcEh8K5dXkIENpXlpg28.*"
+                + "AAJTSQACMDIAAlMxAAIwMQACU0sAEzc5ODIzMDM5MzQyNzU2MTg1NDQ.*")))
+                .isNotNull().isInstanceOf(DNOrIPAddressListTokenRestriction.class);
+    }
+
+    @Test
+    public void shouldPreserveNonAsciiProperties() throws Exception {
+        // Given
+        InternalSession session = jsonSerialisation.deserialise(getJSON("/json/basic-session.json"),
+                InternalSession.class);
+        getProperties(session).put("displayName", "\u5c71\u7530 \u592a\u90ce \ud83d\ude00");
+
+        // When
+        InternalSession result = serialisation.deserialise(serialisation.serialise(session), 0);
+
+        // Then
+        assertThat(getProperties(result).get("displayName")).isEqualTo("\u5c71\u7530 \u592a\u90ce \ud83d\ude00");
+    }
+
+    @Test
+    public void shouldRestoreLatestAccessTime() throws Exception {
+        // Given
+        InternalSession session = jsonSerialisation.deserialise(getJSON("/json/basic-session.json"),
+                InternalSession.class);
+
+        // When
+        InternalSession result = serialisation.deserialise(serialisation.serialise(session), 1376308558L);
+
+        // Then
+        assertThat(serialisation.getLatestAccessTime(result)).isEqualTo(1376308558L);
+    }
+
+    @Test
+    public void shouldNotTreatJSONAsBinary() throws Exception {
+        assertThat(BinarySessionSerialisation.isBinary(
+                jsonSerialisation.serialise(new InternalSession()).getBytes("UTF-8"))).isFalse();
+        assertThat(BinarySessionSerialisation.isBinary(new byte[0])).isFalse();
+        assertThat(BinarySessionSerialisation.isBinary(null)).isFalse();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldRejectTruncatedSession() throws Exception {
+        InternalSession session = jsonSerialisation.deserialise(getJSON("/json/complex-session-with-restriction-v12.json"),
+                InternalSession.class);
+        byte[] blob = serialisation.serialise(session);
+
+        serialisation.deserialise(Arrays.copyOf(blob, blob.length - 10), 0);
+    }
+
+    @Test(enabled = false)
+    public void benchmarkRoundTrip() throws Exception {
+        InternalSession session = jsonSerialisation.deserialise(getJSON("/json/complex-session-with-restriction-v12.json"),
+                InternalSession.class);
+        Properties properties = getProperties(session);
+        for (int i = 0; i < 60; i++) {
+            properties.put("am.protected.attribute" + i, "uid=user" + i + ",ou=people,dc=openam,dc=example,dc=com");
+        }
+        int iterations = 100000;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                jsonSerialisation.deserialise(jsonSerialisation.serialise(session), InternalSession.class);
+            }
+            long jsonTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                serialisation.deserialise(serialisation.serialise(session), 0);
+            }
+            long binaryTime = System.nanoTime() - start;
+            System.out.println("JSON: " + jsonTime / iterations + "ns (" + jsonSerialisation.serialise(session).length()
+                    + " bytes), binary: " + binaryTime / iterations + "ns (" + serialisation.serialise(session).length
+                    + " bytes) per round trip");
+        }
+    }
+
+    private static Properties getProperties(InternalSession session) throws Exception {
+        Field field = InternalSession.class.getDeclaredField("sessionProperties");
+        field.setAccessible(true);
+        return (Properties) field.get(session);
+    }
+
+    private static String getJSON(String path) throws Exception {
+        return IOUtils.getFileContentFromClassPath(BinarySessionSerialisationTest.class, path).replaceAll("\\s", "");
+    }
+}
@@ -12,18 +12,25 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.cts.utils.blob.strategies;
 
 import org.HdrHistogram.AbstractHistogram;
 import org.HdrHistogram.AtomicHistogram;
 import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.BlobCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.FastBlobCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.GzipBlobCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.codec.SessionBlobCodec;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Locale;
@@ -32,6 +39,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.forgerock.openam.utils.Time.*;
@@ -98,6 +106,112 @@ public class CompressionStrategyTest {
         assertThat(compression.reverse(compression.perform(data))).isEqualTo(data);
     }
 
+    @DataProvider
+    public Object[][] codecs() {
+        return new Object[][]{
+                { new GzipBlobCodec() },
+                { new FastBlobCodec() },
+                { new SessionBlobCodec() }
+        };
+    }
+
+    @Test(dataProvider = "codecs")
+    public void shouldDecompressContentsCompressedWithAnyCodec(BlobCodec codec) throws TokenStrategyFailedException {
+        // Given
+        byte[] compressed = new CompressionStrategy(codec).perform(data);
+
+        // When
+        byte[] result = compression.reverse(compressed);
+
+        // Then
+        assertThat(compressed.length).isLessThan(data.length);
+        assertThat(result).isEqualTo(data);
+    }
+
+    @Test(dataProvider = "codecs")
+    public void shouldRoundTripEmptyContents(BlobCodec codec) throws TokenStrategyFailedException {
+        CompressionStrategy strategy = new CompressionStrategy(codec);
+        assertThat(strategy.reverse(strategy.perform(new byte[0]))).isEqualTo(new byte[0]);
+    }
+
+    @Test
+    public void shouldDecompressLegacyGzipContentsWhenAnotherCodecIsConfigured() throws Exception {
+        // Given
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        GZIPOutputStream out = new GZIPOutputStream(bout);
+        out.write(data);
+        out.close();
+        CompressionStrategy strategy = new CompressionStrategy(new SessionBlobCodec());
+
+        // When
+        byte[] result = strategy.reverse(bout.toByteArray());
+
+        // Then
+        assertThat(result).isEqualTo(data);
+    }
+
+    @Test
+    public void shouldCompressSessionContentsFurtherWithSessionDictionary() throws TokenStrategyFailedException {
+        int fast = new FastBlobCodec().compress(data).length;
+        int session = new SessionBlobCodec().compress(data).length;
+        assertThat(session).isLessThan(fast);
+    }
+
+    @Test(expectedExceptions = TokenStrategyFailedException.class)
+    public void shouldFailToDecompressUnrecognisedContents() throws TokenStrategyFailedException {
+        compression.reverse(data);
+    }
+
+    @DataProvider(name = "corruptLengths")
+    public Object[][] getCorruptLengths() {
+        return new Object[][] {
+                { 0xFF, 0xFF, 0xFF, 0xFF },
+                { 0x7F, 0xFF, 0xFF, 0xFF },
+                { 0x00, 0x01, 0x00, 0x00 }
+        };
+    }
+
+    @Test(dataProvider = "corruptLengths", expectedExceptions = TokenStrategyFailedException.class)
+    public void shouldRejectCorruptUncompressedLength(int b2, int b3, int b4, int b5)
+            throws TokenStrategyFailedException {
+        // Given
+        byte[] blob = new FastBlobCodec().compress(data);
+        blob[2] = (byte) b2;
+        blob[3] = (byte) b3;
+        blob[4] = (byte) b4;
+        blob[5] = (byte) b5;
+
+        // When
+        new FastBlobCodec().decompress(Arrays.copyOf(blob, 16));
+    }
+
+    /**
+     * Compares the size and round trip time of each codec on a Session Token.
+     * Disabled by default to avoid slowing down the build.
+     *
+     * @param codec the codec to measure.
+     */
+    @Test(dataProvider = "codecs", enabled = false)
+    public void compareCodecs(BlobCodec codec) throws Exception {
+        final int WARMUP_ROUNDS = 10000;
+        final int ROUNDS = 100000;
+        final CompressionStrategy strategy = new CompressionStrategy(codec);
+
+        boolean b = true;
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            b &= strategy.reverse(strategy.perform(data)).length == data.length;
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; ++i) {
+            b &= strategy.reverse(strategy.perform(data)).length == data.length;
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        assertThat(b).isTrue();
+        System.out.println(String.format(Locale.US, "%-12s %5d -> %5d bytes, %8d ns per round trip",
+                codec.getName(), data.length, strategy.perform(data).length, elapsed / ROUNDS));
+    }
+
     @DataProvider
     public Object[][] numThreads() {
         return new Object[][]{
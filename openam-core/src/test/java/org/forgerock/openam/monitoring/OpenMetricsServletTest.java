@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.monitoring;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.iplanet.am.util.SystemProperties;
+import com.sun.identity.shared.Constants;
+
+public class OpenMetricsServletTest {
+
+    private final OpenMetricsServlet servlet = new OpenMetricsServlet();
+
+    @AfterMethod
+    public void tearDown() {
+        SystemProperties.initializeProperties(Constants.OPENMETRICS_ENABLED, "false");
+        SystemProperties.initializeProperties(Constants.OPENMETRICS_ALLOWED_ADDRESSES, "127.0.0.1,::1");
+    }
+
+    @Test
+    public void shouldNotServeMetricsWhenDisabled() throws Exception {
+        // Given
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        given(request.getRemoteAddr()).willReturn("127.0.0.1");
+
+        // When
+        servlet.doGet(request, response);
+
+        // Then
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void shouldRefuseCallersOutsideTheLoopbackAddressesByDefault() throws Exception {
+        // Given
+        SystemProperties.initializeProperties(Constants.OPENMETRICS_ENABLED, "true");
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        given(request.getRemoteAddr()).willReturn("192.0.2.10");
+
+        // When
+        servlet.doGet(request, response);
+
+        // Then
+        verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+    }
+
+    @Test
+    public void shouldRefuseCallersNotInTheAllowedAddresses() throws Exception {
+        // Given
+        SystemProperties.initializeProperties(Constants.OPENMETRICS_ENABLED, "true");
+        SystemProperties.initializeProperties(Constants.OPENMETRICS_ALLOWED_ADDRESSES, "192.0.2.10, 192.0.2.11");
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        given(request.getRemoteAddr()).willReturn("127.0.0.1");
+
+        // When
+        servlet.doGet(request, response);
+
+        // Then
+        verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.session.stateless.cache;
 
@@ -144,4 +145,114 @@ public class StatelessJWTCacheTest {
         // Then
         assertThat(cache.contains(mockSessionInfo)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindSessionInfoByValue() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(10);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo info = sessionInfo("session", Long.MAX_VALUE);
+        cache.cache(info, "badger");
+
+        // When / Then
+        assertThat(cache.contains(sessionInfo("session", Long.MAX_VALUE))).isTrue();
+        assertThat(cache.contains(sessionInfo("other", Long.MAX_VALUE))).isFalse();
+    }
+
+    @Test
+    public void shouldExpireEntryAtSessionExpiryTime() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(10);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo expired = sessionInfo("session", System.currentTimeMillis() - 1000);
+
+        // When
+        cache.cache(expired, "badger");
+
+        // Then
+        assertThat(cache.getSessionInfo("badger")).isNull();
+        assertThat(cache.contains(expired)).isFalse();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(2);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo("one", Long.MAX_VALUE), "one");
+        cache.cache(sessionInfo("two", Long.MAX_VALUE), "two");
+        cache.getSessionInfo("one");
+
+        // When
+        cache.cache(sessionInfo("three", Long.MAX_VALUE), "three");
+
+        // Then
+        assertThat(cache.contains("one")).isTrue();
+        assertThat(cache.contains("two")).isFalse();
+        assertThat(cache.contains("three")).isTrue();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRecordHitsAndMisses() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo("session", Long.MAX_VALUE), "badger");
+
+        // When
+        cache.getSessionInfo("badger");
+        cache.getSessionInfo("weasel");
+        cache.getSessionInfo(null);
+
+        // Then
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldBoundEvictionQueueWhenEntriesAreDiscardedBeforeCacheFills() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(2);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo("live", Long.MAX_VALUE), "live");
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            cache.cache(sessionInfo("session" + i, System.currentTimeMillis() - 1000), "jwt" + i);
+            cache.getSessionInfo("jwt" + i);
+        }
+
+        // Then
+        assertThat(cache.getEvictionQueueLength()).isLessThanOrEqualTo(4);
+        assertThat(cache.contains("live")).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldEmptyEvictionQueueOnClear() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(10);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo("one", Long.MAX_VALUE), "one");
+        cache.cache(sessionInfo("two", Long.MAX_VALUE), "two");
+
+        // When
+        cache.clear();
+
+        // Then
+        assertThat(cache.getEvictionQueueLength()).isEqualTo(0);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    private static SessionInfo sessionInfo(String sessionId, long expiryTime) {
+        SessionInfo info = new SessionInfo();
+        info.setSessionID(sessionId);
+        info.setExpiryTime(expiryTime);
+        return info;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.sm.datalayer.impl;
@@ -27,6 +28,7 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.Task;
@@ -44,6 +46,7 @@ public class SeriesTaskExecutorTest {
     private SeriesTaskExecutorThreadFactory processorFactory;
     private ThreadMonitor monitor;
     private CTSQueueConfiguration configuration;
+    private TaskQueueMonitor queueMonitor;
 
     @BeforeMethod
     public void setup() throws Exception {
@@ -52,8 +55,10 @@ public class SeriesTaskExecutorTest {
         monitor = mock(ThreadMonitor.class);
         configuration = mock(CTSQueueConfiguration.class);
         given(configuration.getQueueSize()).willReturn(10);
+        queueMonitor = new TaskQueueMonitor();
 
-        executor = new SeriesTaskExecutor(executorService, processorFactory, monitor, configuration, mock(Debug.class));
+        executor = new SeriesTaskExecutor(executorService, processorFactory, monitor, configuration, queueMonitor,
+                mock(Debug.class));
     }
 
     @Test
@@ -94,6 +99,21 @@ public class SeriesTaskExecutorTest {
         assertThat(captor.getValue().size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldReportQueuedTasksToQueueMonitor() throws Exception {
+        // Given
+        given(processorFactory.create(any(BlockingQueue.class))).willReturn(mock(SeriesTaskExecutorThread.class));
+        given(configuration.getProcessors()).willReturn(2);
+        executor.start();
+
+        // When
+        executor.execute("123", mock(Task.class));
+        executor.execute("456", mock(Task.class));
+
+        // Then
+        assertThat(queueMonitor.getQueueDepth()).isEqualTo(2);
+    }
+
 
     @Test
     public void shouldCatchTimeoutWhenOfferingTaskToQueue() throws Exception {
@@ -118,5 +138,6 @@ public class SeriesTaskExecutorTest {
 
         // Then
         assertThat(result).isNotNull();
+        assertThat(queueMonitor.getQueueDepth()).isEqualTo(1);
     }
 }
\ No newline at end of file
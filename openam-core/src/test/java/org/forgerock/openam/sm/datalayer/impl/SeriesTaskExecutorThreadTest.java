@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.sm.datalayer.impl;
 
@@ -19,6 +20,7 @@ import static org.mockito.BDDMockito.*;
 
 import java.util.concurrent.BlockingQueue;
 
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
 import org.forgerock.openam.sm.datalayer.api.Task;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -32,12 +34,14 @@ public class SeriesTaskExecutorThreadTest {
 
     private SeriesTaskExecutorThread processor;
     private SimpleTaskExecutor mockExecutor;
+    private TaskQueueMonitor mockQueueMonitor;
 
     @BeforeMethod
     public void setup() {
         Thread.interrupted();
         mockExecutor = mock(SimpleTaskExecutor.class);
-        processor = new SeriesTaskExecutorThread(mock(Debug.class), mockExecutor);
+        mockQueueMonitor = mock(TaskQueueMonitor.class);
+        processor = new SeriesTaskExecutorThread(mock(Debug.class), mockExecutor, mockQueueMonitor);
     }
 
     // NB: TaskProcessor has a threading policy around interrupted. This tear down clears the interrupted state.
@@ -76,6 +80,18 @@ public class SeriesTaskExecutorThreadTest {
         verify(mockExecutor).execute(null, mockTask);
     }
 
+    @Test
+    public void shouldReportTaskDrawnFromQueue() throws Exception {
+        // Given
+        processor.setQueue(generateTestQueue(mock(Task.class)));
+
+        // When
+        processor.run();
+
+        // Then
+        verify(mockQueueMonitor).batchProcessed(1);
+    }
+
     private BlockingQueue<Task> generateTestQueue(final Task first) throws InterruptedException {
         BlockingQueue<Task> queue = mock(BlockingQueue.class);
         given(queue.take()).willAnswer(new Answer<Object>() {
@@ -0,0 +1,235 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.sm.datalayer.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+
+import org.forgerock.openam.cts.impl.queue.QueueSelector;
+import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
+import org.forgerock.openam.cts.monitoring.impl.queue.TaskQueueMonitor;
+import org.forgerock.openam.shared.concurrency.ThreadMonitor;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.Task;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.shared.debug.Debug;
+
+public class WorkStealingTaskExecutorTest {
+
+    private ExecutorService executorService;
+    private SimpleTaskExecutor simpleTaskExecutor;
+    private ThreadMonitor monitor;
+    private CTSQueueConfiguration configuration;
+    private TaskQueueMonitor queueMonitor;
+    private WorkStealingTaskExecutor executor;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        executorService = mock(ExecutorService.class);
+        simpleTaskExecutor = mock(SimpleTaskExecutor.class);
+        monitor = mock(ThreadMonitor.class);
+        configuration = mock(CTSQueueConfiguration.class);
+        queueMonitor = new TaskQueueMonitor();
+        given(configuration.getQueueSize()).willReturn(10);
+        given(configuration.getQueueTimeout()).willReturn(1);
+        given(configuration.getBatchSize()).willReturn(4);
+
+        Provider<SimpleTaskExecutor> provider = new Provider<SimpleTaskExecutor>() {
+            @Override
+            public SimpleTaskExecutor get() {
+                return simpleTaskExecutor;
+            }
+        };
+        executor = new WorkStealingTaskExecutor(executorService, provider, monitor, configuration, queueMonitor,
+                mock(Debug.class)) {
+            @Override
+            Task wrap(Task task) {
+                return task;
+            }
+        };
+    }
+
+    @Test
+    public void shouldStartTaskProcessorsWithThreadMonitor() throws Exception {
+        // Given
+        int processors = 4;
+        given(configuration.getProcessors()).willReturn(processors);
+
+        // When
+        executor.start();
+
+        // Then
+        verify(monitor, times(processors)).watchThread(any(ExecutorService.class), any(Runnable.class));
+    }
+
+    @Test
+    public void shouldReportQueuedTasksToMonitor() throws Exception {
+        // Given
+        given(configuration.getProcessors()).willReturn(2);
+        executor.start();
+
+        // When
+        executor.execute("123", mock(Task.class));
+        executor.execute("456", mock(Task.class));
+
+        // Then
+        assertThat(queueMonitor.getQueueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldTimeoutWhenQueuesAreFull() throws Exception {
+        // Given
+        given(configuration.getQueueSize()).willReturn(1);
+        given(configuration.getProcessors()).willReturn(1);
+        executor.start();
+        executor.execute("123", mock(Task.class)); // Fills the only available slot
+
+        // When
+        DataLayerException result = null;
+        try {
+            executor.execute("456", mock(Task.class));
+            fail("Expected exception");
+        } catch (DataLayerException e) {
+            result = e;
+        }
+
+        // Then
+        assertThat(result).isNotNull();
+    }
+
+    @Test
+    public void shouldProcessTasksForTheSameTokenInOrderAndInBatches() throws Exception {
+        // Given
+        given(configuration.getProcessors()).willReturn(1);
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        executor.start();
+        verify(monitor).watchThread(any(ExecutorService.class), captor.capture());
+
+        final List<Task> processed = new CopyOnWriteArrayList<Task>();
+        final CountDownLatch latch = new CountDownLatch(6);
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                processed.add((Task) invocation.getArguments()[1]);
+                latch.countDown();
+                return null;
+            }
+        }).given(simpleTaskExecutor).execute((String) isNull(), any(Task.class));
+
+        Task[] tasks = new Task[6];
+        for (int ii = 0; ii < tasks.length; ii++) {
+            tasks[ii] = mock(Task.class);
+            executor.execute("123", tasks[ii]);
+        }
+
+        // When
+        Thread processor = new Thread(captor.getValue());
+        processor.start();
+        latch.await(10, TimeUnit.SECONDS);
+        processor.interrupt();
+
+        // Then
+        assertThat(processed).containsExactly(tasks);
+        assertThat(queueMonitor.getQueueDepth()).isEqualTo(0);
+        assertThat(queueMonitor.getMaximumBatchSize()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldStealTasksFromSaturatedProcessor() throws Exception {
+        // Given
+        given(configuration.getProcessors()).willReturn(2);
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        executor.start();
+        verify(monitor, times(2)).watchThread(any(ExecutorService.class), captor.capture());
+        String busyToken = findTokenForProcessor(0, 2, null);
+        String queuedToken = findTokenForProcessor(0, 2, busyToken);
+
+        final Task blocking = mock(Task.class);
+        final CountDownLatch blockingStarted = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final CountDownLatch blockingFinished = new CountDownLatch(1);
+        final List<Task> processed = new CopyOnWriteArrayList<Task>();
+        final CountDownLatch latch = new CountDownLatch(6);
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                Task task = (Task) invocation.getArguments()[1];
+                if (task == blocking) {
+                    blockingStarted.countDown();
+                    unblock.await(10, TimeUnit.SECONDS);
+                    blockingFinished.countDown();
+                } else {
+                    processed.add(task);
+                    latch.countDown();
+                }
+                return null;
+            }
+        }).given(simpleTaskExecutor).execute((String) isNull(), any(Task.class));
+
+        Thread busyProcessor = new Thread(captor.getAllValues().get(0));
+        busyProcessor.start();
+        executor.execute(busyToken, blocking);
+        blockingStarted.await(10, TimeUnit.SECONDS);
+
+        Task[] tasks = new Task[6];
+        for (int ii = 0; ii < tasks.length; ii++) {
+            tasks[ii] = mock(Task.class);
+            executor.execute(queuedToken, tasks[ii]);
+        }
+
+        // When
+        Thread idleProcessor = new Thread(captor.getAllValues().get(1));
+        idleProcessor.start();
+        latch.await(10, TimeUnit.SECONDS);
+        unblock.countDown();
+        blockingFinished.await(10, TimeUnit.SECONDS);
+        busyProcessor.interrupt();
+        idleProcessor.interrupt();
+
+        // Then
+        assertThat(processed).containsExactly(tasks);
+        assertThat(queueMonitor.getStolenTaskCount()).isEqualTo(6);
+    }
+
+    private String findTokenForProcessor(int processor, int processors, String otherToken) {
+        int lanes = processors * WorkStealingTaskExecutor.LANES_PER_PROCESSOR;
+        int otherLane = otherToken == null ? -1 : QueueSelector.select(otherToken, lanes);
+        for (int ii = 0; ; ii++) {
+            String tokenId = "token" + ii;
+            int lane = QueueSelector.select(tokenId, lanes);
+            if (lane % processors == processor && lane != otherLane) {
+                return tokenId;
+            }
+        }
+    }
+}
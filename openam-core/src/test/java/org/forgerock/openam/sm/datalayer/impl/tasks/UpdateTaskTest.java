@@ -14,6 +14,7 @@
  * Copyright 2014-2015 ForgeRock AS.
  *
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
@@ -56,6 +57,14 @@ public class UpdateTaskTest {
         verify(mockAdapter).update(nullable(Connection.class), nullable(Token.class), eq(mockToken));
     }
 
+    @Test
+    public void shouldNotReadWhenUpdatedWithoutReading() throws Exception {
+        given(mockAdapter.updateIfUnchanged(nullable(Connection.class), eq(mockToken))).willReturn(true);
+        task.execute(mockConnection, mockAdapter);
+        verify(mockAdapter, never()).read(nullable(Connection.class), nullable(String.class));
+        verify(mockHandler).processResults(eq(mockToken));
+    }
+
     @Test
     public void shouldCreateWhenNotPresent() throws Exception {
         given(mockAdapter.read(nullable(Connection.class), nullable(String.class))).willReturn(null);
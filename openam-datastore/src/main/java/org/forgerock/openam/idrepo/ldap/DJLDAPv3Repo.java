@@ -13,7 +13,7 @@
  *
  * Copyright 2013-2016 ForgeRock AS.
  * Portions Copyright 2016 Nomura Research Institute, Ltd.
- * Portions copyright 2021 OSSTech Corporation
+ * Portions copyright 2021-2026 OSSTech Corporation
  */
 package org.forgerock.openam.idrepo.ldap;
 
@@ -21,7 +21,6 @@ import static org.forgerock.openam.ldap.LDAPConstants.*;
 import static org.forgerock.openam.utils.CollectionUtils.asSet;
 import static org.forgerock.opendj.ldap.LDAPConnectionFactory.*;
 
-import com.iplanet.am.util.Cache;
 import com.iplanet.services.naming.ServerEntryNotFoundException;
 import com.iplanet.services.naming.WebtopNaming;
 import com.iplanet.sso.SSOToken;
@@ -49,11 +48,13 @@ import com.sun.identity.sm.SchemaType;
 
 import java.nio.charset.Charset;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -123,6 +124,8 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
             Filter.valueOf("(&(objectclass=ldapsubentry)(objectclass=nsmanagedroledefinition))");
     private static final Filter DEFAULT_FILTERED_ROLE_SEARCH_FILTER =
             Filter.valueOf("(&(objectclass=ldapsubentry)(objectclass=nsfilteredroledefinition))");
+    /** The number of groups whose parent groups are looked up with a single search. */
+    private static final int NESTED_GROUP_BATCH_SIZE = 50;
     private Set<LDAPURL> ldapServers;
     private IdRepoListener idRepoListener;
     private Map<IdType, Set<IdOperation>> supportedTypesAndOperations;
@@ -175,9 +178,13 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
     //holds the directory schema
     private volatile Schema schema;
     //provides a cache for DNs (if enabled), because an entry tends to be requested in bursts.
-    private Cache dnCache;
+    private DNCache dnCache;
     // provides a switch to enable/disable the dnCache
     private boolean dnCacheEnabled = false;
+    //caches the group memberships of users (if enabled), kept up to date by persistent search
+    private GroupMembershipCache membershipCache;
+    //whether the groups of groups are included in group memberships
+    private boolean nestedGroupsEnabled = false;
 
     private boolean isSecure = false;
     private boolean useStartTLS = false;
@@ -211,7 +218,13 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
         }
         dnCacheEnabled = CollectionHelper.getBooleanMapAttr(configMap, LDAP_DNCACHE_ENABLED, true);
         if (dnCacheEnabled) {
-            dnCache = new Cache(CollectionHelper.getIntMapAttr(configParams, LDAP_DNCACHE_SIZE, 1500, DEBUG));
+            dnCache = new DNCache(CollectionHelper.getIntMapAttr(configParams, LDAP_DNCACHE_SIZE, 1500, DEBUG));
+        }
+        nestedGroupsEnabled = CollectionHelper.getBooleanMapAttr(configMap, LDAP_NESTED_GROUPS_ENABLED, false);
+        int membershipCacheTtl = CollectionHelper.getIntMapAttr(configParams, LDAP_MEMBERSHIP_CACHE_TTL, 0, DEBUG);
+        if (membershipCacheTtl > 0) {
+            membershipCache = new GroupMembershipCache(TimeUnit.SECONDS.toMillis(membershipCacheTtl),
+                    CollectionHelper.getIntMapAttr(configParams, LDAP_DNCACHE_SIZE, 1500, DEBUG));
         }
         ldapServers = LDAPUtils.prioritizeServers(configParams.get(LDAP_SERVER_LIST), hostServerId, hostSiteId);
 
@@ -933,7 +946,8 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
      */
     private void setAttributes(SSOToken token, IdType type, String name, Map attributes,
             boolean isAdd, boolean isString, boolean changeOCs) throws IdRepoException {
-        ModifyRequest modifyRequest = LDAPRequests.newModifyRequest(getDN(type, name));
+        String dn = getDN(type, name);
+        ModifyRequest modifyRequest = LDAPRequests.newModifyRequest(dn);
         attributes = removeUndefinedAttributes(type, attributes);
 
         if (type.equals(IdType.USER)) {
@@ -1052,6 +1066,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
             handleErrorResult(ere);
         } finally {
             IOUtils.closeIfNotNull(conn);
+            invalidateMemberships(type, dn);
         }
     }
 
@@ -1090,6 +1105,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
             handleErrorResult(ere);
         } finally {
             IOUtils.closeIfNotNull(conn);
+            invalidateMemberships(type, dn);
         }
     }
 
@@ -1262,6 +1278,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
         if (dnCacheEnabled) {
             dnCache.remove(generateDNCacheKey(name, type));
         }
+        invalidateMemberships(type, dn);
     }
 
     /**
@@ -1482,6 +1499,37 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
         throw newIdRepoException(IdRepoErrorCode.MEMBERSHIP_NOT_SUPPORTED, CLASS_NAME, type.getName(), membershipType.getName());
     }
 
+    /**
+     * Returns the group membership informations for this given user, from the membership cache if it is enabled.
+     * When nested groups are enabled, the groups that these groups are members of are included as well.
+     *
+     * @param dn The DN of the user identity.
+     * @return The DNs of the groups that the provided user is member of.
+     * @throws IdRepoException If there was an error while retrieving the group membership information.
+     */
+    private Set<String> getGroupMemberships(String dn) throws IdRepoException {
+        if (membershipCache == null) {
+            return resolveGroupMemberships(dn);
+        }
+        DN userDN = DN.valueOf(dn);
+        Set<String> cached = membershipCache.get(userDN);
+        if (cached != null) {
+            return new HashSet<String>(cached);
+        }
+        long generation = membershipCache.getGeneration();
+        Set<String> results = resolveGroupMemberships(dn);
+        membershipCache.put(userDN, results, generation);
+        return results;
+    }
+
+    private Set<String> resolveGroupMemberships(String dn) throws IdRepoException {
+        Set<String> results = getDirectGroupMemberships(dn);
+        if (nestedGroupsEnabled && !results.isEmpty()) {
+            results = expandNestedGroups(results);
+        }
+        return results;
+    }
+
     /**
      * Returns the group membership informations for this given user. In case the memberOf attribute is configured,
      * this will try to query the user entry and return the group DNs found in the memberOf attribute. Otherwise a
@@ -1491,26 +1539,14 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
      * @return The DNs of the groups that the provided user is member of.
      * @throws IdRepoException If there was an error while retrieving the group membership information.
      */
-    private Set<String> getGroupMemberships(String dn) throws IdRepoException {
+    private Set<String> getDirectGroupMemberships(String dn) throws IdRepoException {
         Set<String> results = new HashSet<String>();
         if (memberOfAttr == null) {
             Filter filter = Filter.and(groupSearchFilter, Filter.equality(uniqueMemberAttr, dn));
-            SearchRequest searchRequest =
-                    LDAPRequests.newSearchRequest(getBaseDN(IdType.GROUP), defaultScope, filter, DN_ATTR);
-            searchRequest.setTimeLimit(defaultTimeLimit);
-            searchRequest.setSizeLimit(defaultSizeLimit);
             Connection conn = null;
             try {
                 conn = connectionFactory.getConnection();
-                ConnectionEntryReader reader = conn.search(searchRequest);
-                while (reader.hasNext()) {
-                    if (reader.isEntry()) {
-                        results.add(reader.readEntry().getName().toString());
-                    } else {
-                        //ignore search result references
-                        reader.readReference();
-                    }
-                }
+                results.addAll(searchGroups(conn, filter));
             } catch (LdapException ere) {
                 DEBUG.error("An error occurred while trying to retrieve group memberships for " + dn
                         + " using " + uniqueMemberAttr, ere);
@@ -1543,6 +1579,96 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
         return results;
     }
 
+    /**
+     * Adds the groups that the provided groups are members of, and the groups that those are members of, until there
+     * are no more to find. Each level is expanded by searching for the groups listing any of a batch of groups in
+     * their uniqueMember attribute, rather than by one search per group.
+     *
+     * @param groupDNs The DNs of the groups to expand.
+     * @return The DNs of the provided groups and of every group they are nested in.
+     * @throws IdRepoException If there was an error while retrieving the group membership information.
+     */
+    private Set<String> expandNestedGroups(Set<String> groupDNs) throws IdRepoException {
+        Set<String> results = new HashSet<String>(groupDNs);
+        Set<DN> visited = new HashSet<DN>();
+        List<String> level = new ArrayList<String>();
+        for (String groupDN : groupDNs) {
+            if (visited.add(DN.valueOf(groupDN))) {
+                level.add(groupDN);
+            }
+        }
+        Connection conn = null;
+        try {
+            conn = connectionFactory.getConnection();
+            while (!level.isEmpty()) {
+                List<String> nextLevel = new ArrayList<String>();
+                for (int i = 0; i < level.size(); i += NESTED_GROUP_BATCH_SIZE) {
+                    List<Filter> memberFilters = new ArrayList<Filter>(NESTED_GROUP_BATCH_SIZE);
+                    for (String groupDN : level.subList(i, Math.min(level.size(), i + NESTED_GROUP_BATCH_SIZE))) {
+                        memberFilters.add(Filter.equality(uniqueMemberAttr, groupDN));
+                    }
+                    Filter filter = Filter.and(groupSearchFilter, Filter.or(memberFilters));
+                    for (String parentDN : searchGroups(conn, filter)) {
+                        if (visited.add(DN.valueOf(parentDN))) {
+                            results.add(parentDN);
+                            nextLevel.add(parentDN);
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+        } catch (LdapException ere) {
+            DEBUG.error("An error occurred while trying to expand nested groups of " + groupDNs
+                    + " using " + uniqueMemberAttr, ere);
+            handleErrorResult(ere);
+        } catch (SearchResultReferenceIOException srrioe) {
+            //should never ever happen...
+            DEBUG.error("Got reference instead of entry", srrioe);
+            throw newIdRepoException(IdRepoErrorCode.SEARCH_FAILED, CLASS_NAME);
+        } finally {
+            IOUtils.closeIfNotNull(conn);
+        }
+        return results;
+    }
+
+    /**
+     * Searches for groups under the group base DN.
+     *
+     * @param conn The connection to search with.
+     * @param filter The filter matching the groups.
+     * @return The DNs of the groups found.
+     */
+    private Set<String> searchGroups(Connection conn, Filter filter)
+            throws LdapException, SearchResultReferenceIOException {
+        SearchRequest searchRequest =
+                LDAPRequests.newSearchRequest(getBaseDN(IdType.GROUP), defaultScope, filter, DN_ATTR);
+        searchRequest.setTimeLimit(defaultTimeLimit);
+        searchRequest.setSizeLimit(defaultSizeLimit);
+        Set<String> results = new HashSet<String>();
+        ConnectionEntryReader reader = conn.search(searchRequest);
+        while (reader.hasNext()) {
+            if (reader.isEntry()) {
+                results.add(reader.readEntry().getName().toString());
+            } else {
+                //ignore search result references
+                reader.readReference();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Forgets the cached group memberships that a change to an identity may have affected.
+     *
+     * @param type The type of the identity.
+     * @param dn The DN of the identity.
+     */
+    private void invalidateMemberships(IdType type, String dn) {
+        if (membershipCache != null) {
+            membershipCache.invalidate(DN.valueOf(dn), IdType.GROUP.equals(type));
+        }
+    }
+
     /**
      * Return the role membership informations for this given user. This will execute a read on the user entry to
      * retrieve the nsRoleDN attribute. The values of the attribute will be returned.
@@ -1689,6 +1815,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
             handleErrorResult(ere);
         } finally {
             IOUtils.closeIfNotNull(conn);
+            invalidateMemberships(IdType.GROUP, groupDN);
         }
 
     }
@@ -2101,7 +2228,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
                 String username = CollectionHelper.getMapAttr(configMap, LDAP_SERVER_USER_NAME);
                 char[] password = CollectionHelper.getMapAttr(configMap, LDAP_SERVER_PASSWORD, "").toCharArray();
                 pSearch = new DJLDAPv3PersistentSearch(configMap, createConnectionFactory(username, password, 1));
-                if (dnCacheEnabled) {
+                if (dnCacheEnabled || membershipCache != null) {
                     pSearch.addMovedOrRenamedListener(this);
                 }
                 pSearch.addListener(idRepoListener, getSupportedTypes());
@@ -2109,7 +2236,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
                 pSearchMap.put(pSearchId, pSearch);
             } else {
                 pSearch.addListener(idRepoListener, getSupportedTypes());
-                if (dnCacheEnabled) {
+                if (dnCacheEnabled || membershipCache != null) {
                     pSearch.addMovedOrRenamedListener(this);
                 }
             }
@@ -2174,15 +2301,52 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
     public void identityMovedOrRenamed(DN previousDN) {
 
         if (dnCacheEnabled) {
-            String name = LDAPUtils.getName(previousDN);
-            for (IdType idType : getSupportedTypes()) {
-                String previousId =  generateDNCacheKey(name, idType);
-                Object previousDn = dnCache.remove(previousId);
-                if (DEBUG.messageEnabled() && previousDn != null) {
-                    DEBUG.message("Removed " + previousId + " from DN Cache");
-                }
+            int removed = dnCache.removeSubtree(previousDN);
+            if (DEBUG.messageEnabled() && removed > 0) {
+                DEBUG.message("Removed " + removed + " names under " + previousDN + " from DN Cache");
             }
         }
+        if (membershipCache != null) {
+            membershipCache.invalidate(previousDN, isGroupDN(previousDN));
+        }
+    }
+
+    /**
+     * Called if an identity has been added or modified within the identity store, or renamed or moved to this DN.
+     * The names cached for the entry are forgotten, as the attribute they were looked up by may have changed, and so
+     * are the group memberships the change may have affected.
+     * @param dn The DN of the identity
+     */
+    @Override
+    public void identityChanged(DN dn) {
+        if (dnCacheEnabled) {
+            dnCache.removeEntry(dn);
+        }
+        if (membershipCache != null) {
+            membershipCache.invalidate(dn, isGroupDN(dn));
+        }
+    }
+
+    /**
+     * Called if changes may have been missed while persistent search was not running, which clears the DN and
+     * group membership caches.
+     */
+    @Override
+    public void allIdentitiesChanged() {
+        if (dnCacheEnabled) {
+            dnCache.clear();
+        }
+        if (membershipCache != null) {
+            membershipCache.clear();
+        }
+    }
+
+    /**
+     * Whether an entry which has changed may be a group, in which case every cached membership is forgotten. Without
+     * a group container every entry under the root suffix may be a group.
+     */
+    private boolean isGroupDN(DN dn) {
+        return dn.isInScopeOf(getBaseDN(IdType.GROUP), defaultScope);
     }
 
     /**
@@ -2331,12 +2495,14 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
 
     private String getDN(IdType type, String name, boolean shouldGenerate, String searchAttr) throws IdRepoException {
 
-        Object cachedDn = null;
+        String cachedDn = null;
+        long generation = 0;
         if (dnCacheEnabled) {
+            generation = dnCache.getGeneration();
             cachedDn = dnCache.get(generateDNCacheKey(name, type));
         }
         if (cachedDn != null) {
-            return cachedDn.toString();
+            return cachedDn;
         }
         String dn = null;
         DN searchBase = getBaseDN(type);
@@ -2389,7 +2555,7 @@ public class DJLDAPv3Repo extends IdRepo implements IdentityMovedOrRenamedListen
         }
 
         if (dnCacheEnabled && !shouldGenerate) {
-            dnCache.put(generateDNCacheKey(name, type), dn);
+            dnCache.put(generateDNCacheKey(name, type), dn, generation);
         }
         return dn;
     }
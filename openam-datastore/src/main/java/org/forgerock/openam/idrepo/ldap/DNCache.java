@@ -0,0 +1,274 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.idrepo.ldap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.SearchScope;
+
+/**
+ * Caches the DNs that identity names resolve to, and remembers which names resolved to each DN so that they can be
+ * invalidated when the entry is modified, renamed, moved or deleted, whatever name they were looked up by.
+ * <p>
+ * Lookups do not lock. Changes are serialized, and once the cache holds its maximum number of names the least
+ * recently used name is evicted to make room for a new one. So that lookups do not reorder shared state, a hit only
+ * marks the name as used, and the eviction moves a marked name to the back of the queue instead of evicting it, as a
+ * second chance (clock) approximation of LRU.
+ * <p>
+ * A name is only cached if none of the entries invalidated since its lookup started could be the entry it resolved
+ * to, so that a change to one entry does not stop the names of other entries being cached.
+ */
+final class DNCache {
+
+    /**
+     * The number of invalidations remembered for {@link #put}. A lookup which spans more invalidations is not cached.
+     */
+    private static final int RECENT_INVALIDATIONS = 64;
+
+    private final int maxSize;
+    private final Map<String, Entry> dns = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final Map<DN, Set<String>> names = new HashMap<>();
+    // Guarded by this, in eviction order
+    private final Map<String, Entry> order = new LinkedHashMap<>();
+    // Guarded by this, the DN invalidated by each recent generation, or null if every name was invalidated
+    private final DN[] invalidated = new DN[RECENT_INVALIDATIONS];
+    private final LongAdder hits = new LongAdder();
+    // Advanced by every invalidation, guarded by this
+    private volatile long generation;
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize The maximum number of names cached.
+     */
+    DNCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * @param key The name of the identity and its type.
+     * @return The DN the name resolved to, or <code>null</code> if it is not cached.
+     */
+    String get(String key) {
+        Entry entry = dns.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.referenced = true;
+        return entry.dn.toString();
+    }
+
+    /**
+     * @return The current generation, to be passed to {@link #put} once the name has been resolved.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Caches the DN a name resolved to, unless the entry may have been invalidated since the lookup started, in
+     * which case the DN may already be out of date.
+     *
+     * @param key The name of the identity and its type.
+     * @param dn The DN the name resolved to.
+     * @param lookupGeneration The generation when the lookup started.
+     */
+    synchronized void put(String key, String dn, long lookupGeneration) {
+        DN value = DN.valueOf(dn);
+        if (isInvalidatedSince(value, lookupGeneration)) {
+            return;
+        }
+        Entry entry = new Entry(value);
+        Entry previous = dns.put(key, entry);
+        if (previous != null) {
+            unindex(key, previous.dn);
+            order.remove(key);
+        }
+        order.put(key, entry);
+        Set<String> keys = names.get(value);
+        if (keys == null) {
+            keys = new HashSet<>(2);
+            names.put(value, keys);
+        }
+        keys.add(key);
+        evict();
+    }
+
+    /**
+     * @param key The name of the identity and its type.
+     */
+    synchronized void remove(String key) {
+        Entry entry = dns.remove(key);
+        if (entry != null) {
+            unindex(key, entry.dn);
+            order.remove(key);
+        }
+        invalidate(entry == null ? null : entry.dn);
+    }
+
+    /**
+     * Removes every name that resolved to the entry, as the attribute they were looked up by may have changed.
+     *
+     * @param dn The DN of the entry.
+     * @return The number of names removed.
+     */
+    synchronized int removeEntry(DN dn) {
+        invalidate(dn);
+        Set<String> keys = names.remove(dn);
+        if (keys == null) {
+            return 0;
+        }
+        for (String key : keys) {
+            dns.remove(key);
+            order.remove(key);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Removes every name that resolved to the entry, or to an entry beneath it, so that renaming or moving a
+     * container also forgets the identities within it.
+     *
+     * @param dn The DN of the entry.
+     * @return The number of names removed.
+     */
+    synchronized int removeSubtree(DN dn) {
+        invalidate(dn);
+        int removed = 0;
+        Iterator<Map.Entry<DN, Set<String>>> it = names.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<DN, Set<String>> entry = it.next();
+            if (entry.getKey().isInScopeOf(dn, SearchScope.WHOLE_SUBTREE)) {
+                for (String key : entry.getValue()) {
+                    dns.remove(key);
+                    order.remove(key);
+                    removed++;
+                }
+                it.remove();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every name.
+     */
+    synchronized void clear() {
+        invalidate(null);
+        dns.clear();
+        names.clear();
+        order.clear();
+    }
+
+    /**
+     * @return The number of names cached.
+     */
+    int size() {
+        return dns.size();
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups not answered from the cache.
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Starts a new generation, recording the DN of the entry invalidated by it.
+     *
+     * @param dn The DN of the entry, which also covers the entries beneath it, or null for every entry.
+     */
+    private void invalidate(DN dn) {
+        invalidated[(int) ((generation + 1) % RECENT_INVALIDATIONS)] = dn;
+        generation++;
+    }
+
+    private boolean isInvalidatedSince(DN dn, long lookupGeneration) {
+        if (generation - lookupGeneration > RECENT_INVALIDATIONS) {
+            return true;
+        }
+        for (long g = lookupGeneration + 1; g <= generation; g++) {
+            DN invalidatedDN = invalidated[(int) (g % RECENT_INVALIDATIONS)];
+            if (invalidatedDN == null || dn.isInScopeOf(invalidatedDN, SearchScope.WHOLE_SUBTREE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evicts names from the front of the queue until the cache is within its maximum size. A name which has been
+     * used since it was last queued is given a second chance and moved to the back instead, unless every name has
+     * already had one during this eviction.
+     */
+    private void evict() {
+        int chances = order.size();
+        while (dns.size() > maxSize) {
+            Iterator<Map.Entry<String, Entry>> oldest = order.entrySet().iterator();
+            Map.Entry<String, Entry> candidate = oldest.next();
+            oldest.remove();
+            String key = candidate.getKey();
+            Entry entry = candidate.getValue();
+            if (entry.referenced && chances-- > 0) {
+                entry.referenced = false;
+                order.put(key, entry);
+            } else {
+                dns.remove(key);
+                unindex(key, entry.dn);
+            }
+        }
+    }
+
+    private void unindex(String key, DN dn) {
+        Set<String> keys = names.get(dn);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                names.remove(dn);
+            }
+        }
+    }
+
+    /**
+     * A cached DN, marked when it is looked up.
+     */
+    private static final class Entry {
+        private final DN dn;
+        private volatile boolean referenced;
+
+        private Entry(DN dn) {
+            this.dn = dn;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.idrepo.ldap;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.opendj.ldap.DN;
+
+/**
+ * Caches the groups each user is a member of, including the groups those groups are members of when nested groups
+ * are expanded.
+ * <p>
+ * Entries expire after a fixed time. A change to the entry of a user forgets the groups of that user, while a change
+ * to a group, which can add or remove members anywhere below it, forgets every user.
+ */
+final class GroupMembershipCache {
+
+    private final long ttl;
+    private final int maxSize;
+    private final Map<DN, Memberships> memberships = new ConcurrentHashMap<>();
+    // Every group in a cached membership, guarded by this
+    private final Set<DN> groups = new HashSet<>();
+    // Guarded by this, in the order the users were added
+    private final Set<DN> order = new LinkedHashSet<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Advanced by every invalidation, guarded by this
+    private volatile long generation;
+
+    /**
+     * @param ttl How long in milliseconds memberships are cached for.
+     * @param maxSize The maximum number of users whose memberships are cached.
+     */
+    GroupMembershipCache(long ttl, int maxSize) {
+        this.ttl = ttl;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * @param user The DN of the user.
+     * @return The DNs of the groups the user is a member of, or <code>null</code> if they are not cached.
+     */
+    Set<String> get(DN user) {
+        Memberships cached = memberships.get(user);
+        if (cached == null || cached.expiry <= currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.groups;
+    }
+
+    /**
+     * @return The current generation, to be passed to {@link #put} once the memberships have been resolved.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Caches the groups of a user, unless a user or group has been invalidated since the lookup started, in which
+     * case the groups may already be out of date.
+     *
+     * @param user The DN of the user.
+     * @param groupDNs The DNs of the groups the user is a member of.
+     * @param lookupGeneration The generation when the lookup started.
+     */
+    synchronized void put(DN user, Set<String> groupDNs, long lookupGeneration) {
+        if (lookupGeneration != generation) {
+            return;
+        }
+        for (String group : groupDNs) {
+            groups.add(DN.valueOf(group));
+        }
+        memberships.put(user, new Memberships(Collections.unmodifiableSet(new HashSet<>(groupDNs)),
+                currentTimeMillis() + ttl));
+        order.remove(user);
+        order.add(user);
+        Iterator<DN> oldest = order.iterator();
+        while (memberships.size() > maxSize && oldest.hasNext()) {
+            memberships.remove(oldest.next());
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Forgets what is cached about an entry which has changed.
+     *
+     * @param dn The DN of the entry.
+     * @param isGroup Whether the entry is known to be a group.
+     */
+    synchronized void invalidate(DN dn, boolean isGroup) {
+        if (isGroup || groups.contains(dn)) {
+            clear();
+        } else {
+            generation++;
+            memberships.remove(dn);
+            order.remove(dn);
+        }
+    }
+
+    /**
+     * Forgets every membership.
+     */
+    synchronized void clear() {
+        generation++;
+        memberships.clear();
+        groups.clear();
+        order.clear();
+    }
+
+    /**
+     * @return The number of users whose memberships are cached.
+     */
+    int size() {
+        return memberships.size();
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups not answered from the cache.
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    private static final class Memberships {
+        private final Set<String> groups;
+        private final long expiry;
+
+        private Memberships(Set<String> groups, long expiry) {
+            this.groups = groups;
+            this.expiry = expiry;
+        }
+    }
+}
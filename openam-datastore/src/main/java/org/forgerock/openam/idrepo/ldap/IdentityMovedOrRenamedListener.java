@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.idrepo.ldap;
 
@@ -24,4 +25,17 @@ public interface IdentityMovedOrRenamedListener {
      * @param previousDN The DN of the identity before the move or rename
      */
     public void identityMovedOrRenamed(DN previousDN);
+
+    /**
+     * Called if an identity has been added, modified, renamed or moved within the identity store.
+     * @param dn The DN of the identity after the change
+     */
+    default void identityChanged(DN dn) {
+    }
+
+    /**
+     * Called if changes to identities may have been missed, for example while persistent search was reconnecting.
+     */
+    default void allIdentitiesChanged() {
+    }
 }
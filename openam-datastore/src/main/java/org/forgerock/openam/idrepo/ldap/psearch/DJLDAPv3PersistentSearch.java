@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.idrepo.ldap.psearch;
@@ -87,6 +88,9 @@ public class DJLDAPv3PersistentSearch extends LDAPv3PersistentSearch<IdRepoListe
 
     @Override
     protected void clearCaches() {
+        for (IdentityMovedOrRenamedListener listener : movedOrRenamedListenerSet) {
+            listener.allIdentitiesChanged();
+        }
         for (IdRepoListener idRepoListener : getListeners().keySet()) {
             idRepoListener.allObjectsChanged();
         }
@@ -112,6 +116,10 @@ public class DJLDAPv3PersistentSearch extends LDAPv3PersistentSearch<IdRepoListe
                     for (IdentityMovedOrRenamedListener listener : movedOrRenamedListenerSet) {
                         listener.identityMovedOrRenamed(entry.getName());
                     }
+                } else {
+                    for (IdentityMovedOrRenamedListener listener : movedOrRenamedListenerSet) {
+                        listener.identityChanged(entry.getName());
+                    }
                 }
 
                 for (Map.Entry<IdRepoListener, Set<IdType>> listenerEntry : getListeners().entrySet()) {
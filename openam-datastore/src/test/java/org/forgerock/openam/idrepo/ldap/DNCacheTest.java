@@ -0,0 +1,163 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.idrepo.ldap;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.forgerock.opendj.ldap.DN;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class DNCacheTest {
+
+    private static final String DEMO_DN = "uid=demo,ou=people,dc=openam,dc=forgerock,dc=org";
+    private static final String USER_DN = "uid=user,ou=people,dc=openam,dc=forgerock,dc=org";
+
+    private DNCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        cache = new DNCache(3);
+    }
+
+    @Test
+    public void shouldReturnCachedDN() {
+        cache.put("demo,user", DEMO_DN, cache.getGeneration());
+
+        assertThat(cache.get("demo,user")).isEqualTo(DEMO_DN);
+        assertThat(cache.get("other,user")).isNull();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictOldestName() {
+        for (int i = 0; i < 4; i++) {
+            cache.put("user" + i + ",user", "uid=user" + i + ",ou=people,dc=openam,dc=forgerock,dc=org",
+                    cache.getGeneration());
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("user0,user")).isNull();
+        assertThat(cache.get("user3,user")).isNotNull();
+    }
+
+    @Test
+    public void shouldKeepRecentlyUsedName() {
+        for (int i = 0; i < 3; i++) {
+            cache.put("user" + i + ",user", "uid=user" + i + ",ou=people,dc=openam,dc=forgerock,dc=org",
+                    cache.getGeneration());
+        }
+        cache.get("user0,user");
+
+        cache.put("user3,user", "uid=user3,ou=people,dc=openam,dc=forgerock,dc=org", cache.getGeneration());
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("user0,user")).isNotNull();
+        assertThat(cache.get("user1,user")).isNull();
+        assertThat(cache.get("user3,user")).isNotNull();
+    }
+
+    @Test
+    public void shouldRemoveOnlyNamesOfChangedEntry() {
+        cache.put("people,container", "ou=people,dc=openam,dc=forgerock,dc=org", cache.getGeneration());
+        cache.put("demo,user", DEMO_DN, cache.getGeneration());
+        cache.put("demo@example.com,user", DEMO_DN, cache.getGeneration());
+
+        assertThat(cache.removeEntry(DN.valueOf("ou=people,dc=openam,dc=forgerock,dc=org"))).isEqualTo(1);
+
+        assertThat(cache.get("people,container")).isNull();
+        assertThat(cache.get("demo,user")).isEqualTo(DEMO_DN);
+        assertThat(cache.get("demo@example.com,user")).isEqualTo(DEMO_DN);
+    }
+
+    @Test
+    public void shouldCacheLookupOfOtherEntryStartedBeforeChange() {
+        long generation = cache.getGeneration();
+        cache.removeEntry(DN.valueOf(DEMO_DN));
+
+        cache.put("user,user", USER_DN, generation);
+
+        assertThat(cache.get("user,user")).isEqualTo(USER_DN);
+    }
+
+    @Test
+    public void shouldIgnoreLookupOfEntryChangedSinceItStarted() {
+        long generation = cache.getGeneration();
+        cache.removeEntry(DN.valueOf(DEMO_DN));
+
+        cache.put("demo,user", DEMO_DN, generation);
+
+        assertThat(cache.get("demo,user")).isNull();
+    }
+
+    @Test
+    public void shouldIgnoreLookupSpanningTooManyChanges() {
+        long generation = cache.getGeneration();
+        for (int i = 0; i < 100; i++) {
+            cache.removeEntry(DN.valueOf(DEMO_DN));
+        }
+
+        cache.put("user,user", USER_DN, generation);
+
+        assertThat(cache.get("user,user")).isNull();
+    }
+
+    @Test
+    public void shouldRemoveEveryNameOfRenamedEntry() {
+        cache.put("demo,user", DEMO_DN, cache.getGeneration());
+        cache.put("demo@example.com,user", DEMO_DN, cache.getGeneration());
+        cache.put("user,user", USER_DN, cache.getGeneration());
+
+        assertThat(cache.removeSubtree(DN.valueOf(DEMO_DN))).isEqualTo(2);
+
+        assertThat(cache.get("demo,user")).isNull();
+        assertThat(cache.get("demo@example.com,user")).isNull();
+        assertThat(cache.get("user,user")).isEqualTo(USER_DN);
+    }
+
+    @Test
+    public void shouldRemoveNamesBeneathMovedContainer() {
+        cache.put("demo,user", DEMO_DN, cache.getGeneration());
+        cache.put("user,user", USER_DN, cache.getGeneration());
+        cache.put("admins,group", "cn=admins,ou=groups,dc=openam,dc=forgerock,dc=org", cache.getGeneration());
+
+        cache.removeSubtree(DN.valueOf("ou=people,dc=openam,dc=forgerock,dc=org"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("admins,group")).isNotNull();
+    }
+
+    @Test
+    public void shouldIgnoreLookupStartedBeforeInvalidation() {
+        long generation = cache.getGeneration();
+        cache.remove("demo,user");
+
+        cache.put("demo,user", DEMO_DN, generation);
+
+        assertThat(cache.get("demo,user")).isNull();
+    }
+
+    @Test
+    public void shouldReindexReplacedName() {
+        cache.put("demo,user", DEMO_DN, cache.getGeneration());
+        cache.put("demo,user", USER_DN, cache.getGeneration());
+
+        assertThat(cache.removeSubtree(DN.valueOf(DEMO_DN))).isEqualTo(0);
+        assertThat(cache.get("demo,user")).isEqualTo(USER_DN);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.idrepo.ldap;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.forgerock.openam.utils.CollectionUtils.asSet;
+
+import org.forgerock.opendj.ldap.DN;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class GroupMembershipCacheTest {
+
+    private static final DN DEMO = DN.valueOf("uid=demo,ou=people,dc=openam,dc=forgerock,dc=org");
+    private static final DN USER = DN.valueOf("uid=user,ou=people,dc=openam,dc=forgerock,dc=org");
+    private static final String ADMINS = "cn=admins,ou=groups,dc=openam,dc=forgerock,dc=org";
+    private static final String STAFF = "cn=staff,ou=groups,dc=openam,dc=forgerock,dc=org";
+
+    private GroupMembershipCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        cache = new GroupMembershipCache(60000, 2);
+    }
+
+    @Test
+    public void shouldReturnCachedGroups() {
+        cache.put(DEMO, asSet(ADMINS, STAFF), cache.getGeneration());
+
+        assertThat(cache.get(DEMO)).containsOnly(ADMINS, STAFF);
+        assertThat(cache.get(USER)).isNull();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldExpireGroups() {
+        cache = new GroupMembershipCache(0, 2);
+        cache.put(DEMO, asSet(ADMINS), cache.getGeneration());
+
+        assertThat(cache.get(DEMO)).isNull();
+    }
+
+    @Test
+    public void shouldForgetOnlyChangedUser() {
+        cache.put(DEMO, asSet(ADMINS), cache.getGeneration());
+        cache.put(USER, asSet(STAFF), cache.getGeneration());
+
+        cache.invalidate(DEMO, false);
+
+        assertThat(cache.get(DEMO)).isNull();
+        assertThat(cache.get(USER)).containsOnly(STAFF);
+    }
+
+    @Test
+    public void shouldForgetEveryUserWhenKnownGroupChanges() {
+        cache.put(DEMO, asSet(ADMINS), cache.getGeneration());
+        cache.put(USER, asSet(STAFF), cache.getGeneration());
+
+        cache.invalidate(DN.valueOf(STAFF), false);
+
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldIgnoreLookupStartedBeforeInvalidation() {
+        long generation = cache.getGeneration();
+        cache.invalidate(USER, false);
+
+        cache.put(DEMO, asSet(ADMINS), generation);
+
+        assertThat(cache.get(DEMO)).isNull();
+    }
+
+    @Test
+    public void shouldEvictOldestUser() {
+        cache.put(DEMO, asSet(ADMINS), cache.getGeneration());
+        cache.put(USER, asSet(ADMINS), cache.getGeneration());
+        cache.put(DN.valueOf("uid=other,ou=people,dc=openam,dc=forgerock,dc=org"), asSet(STAFF),
+                cache.getGeneration());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(DEMO)).isNull();
+    }
+}
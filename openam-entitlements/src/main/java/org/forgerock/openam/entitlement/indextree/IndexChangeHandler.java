@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.entitlement.indextree;
@@ -93,10 +94,10 @@ public class IndexChangeHandler implements SearchResultHandler {
                         // be taken is to send an update notification, to ensure the index is picked up. However,
                         // this will result in the old index remaining.
                     case ADD:
-                        observable.notifyObservers(ModificationEventType.ADD.createEvent(pathIndex, realm));
+                        observable.notifyObservers(ModificationEventType.ADD.createEvent(pathIndex, realm, dn));
                         break;
                     case DELETE:
-                        observable.notifyObservers(ModificationEventType.DELETE.createEvent(pathIndex, realm));
+                        observable.notifyObservers(ModificationEventType.DELETE.createEvent(pathIndex, realm, dn));
                         break;
                 }
             }
@@ -12,11 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.entitlement.indextree;
 
 import com.iplanet.sso.SSOToken;
 import com.sun.identity.entitlement.EntitlementException;
+import com.sun.identity.entitlement.opensso.OpenSSOIndexStore;
 import com.sun.identity.shared.debug.Debug;
 import com.sun.identity.sm.SMSDataEntry;
 import com.sun.identity.sm.SMSException;
@@ -199,6 +201,11 @@ public class IndexTreeServiceImpl implements IndexTreeService, IndexChangeObserv
             String realm = modification.getRealm();
             IndexRuleTree tree = indexTreeCache.get(realm);
 
+            if (modification.getDN() != null) {
+                // The privilege may have been changed by another server, so forget its cached indexes.
+                OpenSSOIndexStore.indexEntryChanged(realm, modification.getDN());
+            }
+
             if (tree != null) {
                 String pathIndex = modification.getPathIndex();
 
@@ -220,6 +227,7 @@ public class IndexTreeServiceImpl implements IndexTreeService, IndexChangeObserv
             // Error event received, destroy the cache as policy updates may well have been lost, resulting in cached
             // trees becoming inconsistent. This will force all trees to be reloaded with clean data.
             indexTreeCache.clear();
+            OpenSSOIndexStore.clearIndexCaches();
 
             if (DEBUG.messageEnabled()) {
                 DEBUG.message("Potential policy path index loss, cached index trees cleared.");
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock Inc.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.entitlement.indextree.events;
 
@@ -24,11 +25,17 @@ public class ModificationEvent extends IndexChangeEvent {
 
     private final String pathIndex;
     private final String realm;
+    private final String dn;
 
     protected ModificationEvent(String pathIndex, String realm, ModificationEventType type) {
+        this(pathIndex, realm, null, type);
+    }
+
+    protected ModificationEvent(String pathIndex, String realm, String dn, ModificationEventType type) {
         super(type);
         this.realm = realm;
         this.pathIndex = pathIndex;
+        this.dn = dn;
     }
 
     /**
@@ -45,4 +52,11 @@ public class ModificationEvent extends IndexChangeEvent {
         return realm;
     }
 
+    /**
+     * @return The DN of the index entry which changed, or <code>null</code> if it is not known.
+     */
+    public String getDN() {
+        return dn;
+    }
+
 }
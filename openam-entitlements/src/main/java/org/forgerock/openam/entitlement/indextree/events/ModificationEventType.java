@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock Inc.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.entitlement.indextree.events;
 
@@ -52,4 +53,20 @@ public enum ModificationEventType implements EventType {
         return new ModificationEvent(pathIndex, realm, this);
     }
 
+    /**
+     * An event representing the selected type containing the passed path index and realm, and the index entry
+     * they were read from.
+     *
+     * @param pathIndex
+     *         The path index.
+     * @param realm
+     *         The realm for which the path index is associated.
+     * @param dn
+     *         The DN of the index entry.
+     * @return An event representing the selected type.
+     */
+    public IndexChangeEvent createEvent(String pathIndex, String realm, String dn) {
+        return new ModificationEvent(pathIndex, realm, dn, this);
+    }
+
 }
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014 ForgeRock AS.
+* Portions copyright 2026 OSSTech Corporation
 */
 package org.forgerock.openam.entitlement.monitoring;
 
@@ -21,11 +22,13 @@ import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.security.auth.Subject;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
 import org.forgerock.openam.shared.monitoring.RateTimer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -53,7 +56,7 @@ public class PolicyMonitorImplTest {
 
         testPolicyMonitor = new PolicyMonitorImpl(mockDebug, service, selfEvaluationMonitoringStore,
                 selfEvaluationTimingStore, subtreeEvaluationMonitoringStore, subtreeEvaluationTimingStore,
-                internalEvaluationTimingStore);
+                internalEvaluationTimingStore, new RequestEvaluationStore());
     }
 
     @Test
@@ -64,7 +67,7 @@ public class PolicyMonitorImplTest {
 
         testPolicyMonitor = new PolicyMonitorImpl(mockDebug, service, selfEvaluationMonitoringStore,
                 selfEvaluationTimingStore, mockSubtreeEvaluationMonitoringStore, mockSubtreeEvaluationTimingStore,
-                internalEvaluationTimingStore);
+                internalEvaluationTimingStore, new RequestEvaluationStore());
 
         //when
         testPolicyMonitor.addEvaluation(1l, null, null, null, mockSubject, PolicyMonitoringType.SUBTREE);
@@ -82,7 +85,7 @@ public class PolicyMonitorImplTest {
 
         testPolicyMonitor = new PolicyMonitorImpl(mockDebug, service, mockSelfEvaluationMonitoringStore,
                 mockSelfEvaluationTimingStore, subtreeEvaluationMonitoringStore, subtreeEvaluationTimingStore,
-                internalEvaluationTimingStore);
+                internalEvaluationTimingStore, new RequestEvaluationStore());
 
         //when
         testPolicyMonitor.addEvaluation(1l, null, null, null, mockSubject, PolicyMonitoringType.SELF);
@@ -99,7 +102,7 @@ public class PolicyMonitorImplTest {
 
         testPolicyMonitor = new PolicyMonitorImpl(mockDebug, service, selfEvaluationMonitoringStore,
                 selfEvaluationTimingStore, subtreeEvaluationMonitoringStore, subtreeEvaluationTimingStore,
-                mockInternalEvaluationTimingStore);
+                mockInternalEvaluationTimingStore, new RequestEvaluationStore());
 
         //when
         testPolicyMonitor.addEvaluation(null, 1l, null, null, null, mockSubject);
@@ -139,6 +142,41 @@ public class PolicyMonitorImplTest {
         assertEquals(slowest, 100l);
     }
 
+    @Test
+    public void testRequestEvaluationsAreRecorded() {
+        //given
+        testPolicyMonitor.addRequestEvaluation(10l, 0, 0);
+        testPolicyMonitor.addRequestEvaluation(30l, 2, 0);
+        testPolicyMonitor.addRequestEvaluation(20l, 1, 4);
+
+        //then
+        assertEquals(testPolicyMonitor.getAverageRequestEvaluationTime(), 20l);
+        assertEquals(testPolicyMonitor.getParallelRequestEvaluationCount(), 2l);
+        assertEquals(testPolicyMonitor.getDecidedEarlyRequestEvaluationCount(), 1l);
+        assertEquals(testPolicyMonitor.getSkippedPolicyEvaluationCount(), 4l);
+    }
+
+    @Test
+    public void testMetricsAreWritten() {
+        //given
+        testPolicyMonitor.addEvaluation(5l, null, null, null, mockSubject, PolicyMonitoringType.SELF);
+        testPolicyMonitor.addEvaluation(15l, null, null, null, mockSubject, PolicyMonitoringType.SELF);
+        testPolicyMonitor.addRequestEvaluation(20l, 1, 4);
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+
+        //when
+        testPolicyMonitor.writeMetrics(writer);
+
+        //then
+        String metrics = writer.toString();
+        assertThat(metrics).contains("openam_policy_evaluations_total{mode=\"self\"} 2\n");
+        assertThat(metrics).contains("openam_policy_evaluations_total{mode=\"subtree\"} 0\n");
+        assertThat(metrics).contains("openam_policy_evaluation_duration_seconds_count{mode=\"self\"} 2\n");
+        assertThat(metrics).contains(
+                "openam_policy_evaluation_duration_seconds{mode=\"self\",quantile=\"0.99\"} 0.015\n");
+        assertThat(metrics).contains("openam_policy_evaluations_skipped_total 4\n");
+    }
+
     // Executor that runs everything in the calling thread without a pool
     private class CallerRunsExecutor extends AbstractExecutorService {
 
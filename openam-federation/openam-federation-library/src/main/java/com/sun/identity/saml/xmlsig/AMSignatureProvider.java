@@ -1240,7 +1240,16 @@ public class AMSignatureProvider implements SignatureProvider {
 	    throw new XMLSignatureException(
 		      SAMLUtilsCommon.bundle.getString("nullInput"));
 	}    
-        return verifyXMLSignature(XMLUtils.print(element));
+        Document doc = XMLUtils.toDOMDocument(element, SAMLUtilsCommon.debug);
+        if (doc == null) {
+            return verifyXMLSignature(XMLUtils.print(element));
+        }
+        try {
+            return verifyXMLSignature(doc, DEF_ID_ATTRIBUTE, null);
+        } catch (Exception ex) {
+            SAMLUtilsCommon.debug.error("verifyXMLSignature Exception: ", ex);
+            throw new XMLSignatureException(ex.getMessage());
+        }
     }
 
     /**
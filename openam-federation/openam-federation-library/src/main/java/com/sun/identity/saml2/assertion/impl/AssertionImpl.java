@@ -25,6 +25,7 @@
  * $Id: AssertionImpl.java,v 1.8 2009/05/09 15:43:59 mallas Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 
@@ -85,7 +86,10 @@ public class AssertionImpl implements Assertion {
     private List<AttributeStatement> attributeStatements = new ArrayList();
     private Issuer issuer;
     private boolean isMutable = true;
-    private String signedXMLString = null;
+    private volatile String signedXMLString = null;
+    // the signed assertion as the root of a document of its own; it is only
+    // printed when the XML string is asked for
+    private Document signedDocument = null;
     private Boolean isSignatureValid = null;
 
     public static String ASSERTION_ELEMENT = "Assertion";
@@ -148,7 +152,10 @@ public class AssertionImpl implements Assertion {
         processElement(element);
         makeImmutable();
         if (signature != null) {
-            signedXMLString = XMLUtils.print(element,"UTF-8");
+            signedDocument = XMLUtils.toDOMDocument(element, SAML2SDKUtils.debug);
+            if (signedDocument == null) {
+                signedXMLString = XMLUtils.print(element, "UTF-8");
+            }
         }
     }
 
@@ -663,10 +670,17 @@ public class AssertionImpl implements Assertion {
     throws SAML2Exception {
 
         if (isSignatureValid == null) {            
-            if (signedXMLString == null) {
-                signedXMLString = toXMLString(true, true);
+            if (signedDocument != null) {
+                synchronized (this) {
+                    isSignatureValid = SigManager.getSigInstance().verify(signedDocument, getID(),
+                            verificationCerts);
+                }
+            } else {
+                if (signedXMLString == null) {
+                    signedXMLString = toXMLString(true, true);
+                }
+                isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
             }
-            isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
         }
         return isSignatureValid.booleanValue();
     }
@@ -687,17 +701,20 @@ public class AssertionImpl implements Assertion {
         X509Certificate cert
     ) throws SAML2Exception {
 
+        Document doc = XMLUtils.toDOMDocument(toXMLString(true, true), SAML2SDKUtils.debug);
+        if (doc == null) {
+            throw new SAML2Exception(SAML2SDKUtils.bundle.getString("errorObtainingElement"));
+        }
         Element signatureElement = 
             SigManager.getSigInstance().sign(
-            toXMLString(true, true),
+            doc,
             getID(),
             privateKey,
             cert
         );
         signature = XMLUtils.print(signatureElement); 
-        signedXMLString = XMLUtils.print(
-            signatureElement.getOwnerDocument().
-            getDocumentElement(), "UTF-8");
+        signedDocument = signatureElement.getOwnerDocument();
+        signedXMLString = null;
         makeImmutable();  
     }
 
@@ -727,14 +744,32 @@ public class AssertionImpl implements Assertion {
         String recipientEntityID
     ) throws SAML2Exception {
         
-        Element el = EncManager.getEncInstance().encrypt(
-            toXMLString(true, true),
-            recipientPublicKey,
-            dataEncAlgorithm,
-            dataEncStrength,
-            recipientEntityID,
-            "EncryptedAssertion"
-        );
+        Element el;
+        if (signedDocument != null) {
+            // encryption replaces the root of the document it is given
+            Document doc;
+            synchronized (this) {
+                doc = (Document) signedDocument.cloneNode(true);
+            }
+            el = EncManager.getEncInstance().encrypt(
+                doc,
+                recipientPublicKey,
+                null,
+                dataEncAlgorithm,
+                dataEncStrength,
+                recipientEntityID,
+                "EncryptedAssertion"
+            );
+        } else {
+            el = EncManager.getEncInstance().encrypt(
+                toXMLString(true, true),
+                recipientPublicKey,
+                dataEncAlgorithm,
+                dataEncStrength,
+                recipientEntityID,
+                "EncryptedAssertion"
+            );
+        }
         return AssertionFactory.getInstance().
             createEncryptedAssertion(el);
     }
@@ -771,8 +806,17 @@ public class AssertionImpl implements Assertion {
     public String toXMLString(boolean includeNSPrefix, boolean declareNS)
         throws SAML2Exception {
 
-        if ((signature != null) && (signedXMLString != null)) {
-            return signedXMLString;
+        if (signature != null) {
+            if (signedXMLString == null && signedDocument != null) {
+                synchronized (this) {
+                    if (signedXMLString == null) {
+                        signedXMLString = XMLUtils.print(signedDocument.getDocumentElement(), "UTF-8");
+                    }
+                }
+            }
+            if (signedXMLString != null) {
+                return signedXMLString;
+            }
         }
 
         StringBuffer sb = new StringBuffer(2000);
@@ -28,29 +28,61 @@
 
  /*
  * Portions Copyrighted [2010] [ForgeRock AS]
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.saml2.meta;
 
-import java.util.Hashtable;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.forgerock.openam.shared.monitoring.LatencyHistogram;
 
 import com.sun.identity.shared.debug.Debug;
 
 import com.sun.identity.saml2.jaxb.entityconfig.EntityConfigElement;
+import com.sun.identity.saml2.jaxb.metadata.AttributeAuthorityDescriptorElement;
+import com.sun.identity.saml2.jaxb.metadata.AuthnAuthorityDescriptorElement;
 import com.sun.identity.saml2.jaxb.metadata.EntityDescriptorElement;
-import com.sun.identity.saml2.jaxb.metadataattr.EntityAttributesType;
-import com.sun.identity.saml2.jaxb.metadataattr.EntityAttributesElement;
-import com.sun.identity.saml2.jaxb.metadataattr.ObjectFactory;
+import com.sun.identity.saml2.jaxb.metadata.IDPSSODescriptorElement;
+import com.sun.identity.saml2.jaxb.metadata.PDPDescriptorElement;
+import com.sun.identity.saml2.jaxb.metadata.SPSSODescriptorElement;
 
 /**
  * The <code>SAML2MetaCache</code> provides metadata cache.
+ * <p>
+ * Entity descriptors are kept by entity ID together with the names of the
+ * roles they contain, so role lookups do not need the descriptor itself.
+ * A descriptor may be added as the XML stored in the configuration store, in
+ * which case it is only unmarshalled the first time it is read.
  */
 class SAML2MetaCache
 {
     private static Debug debug = SAML2MetaUtils.debug;
 
-    private static Hashtable descriptorCache = new Hashtable();
-    private static Hashtable configCache = new Hashtable();
+    private static final XMLInputFactory XML_INPUT_FACTORY = createFactory();
+
+    private static final ConcurrentMap<String, Entry> descriptorCache =
+        new ConcurrentHashMap<String, Entry>();
+    private static final ConcurrentMap<String, EntityConfigElement>
+        configCache = new ConcurrentHashMap<String, EntityConfigElement>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder unmarshalled = new LongAdder();
+    private static final LatencyHistogram lookups = new LatencyHistogram();
 
     private SAML2MetaCache() {
     }
@@ -66,9 +98,22 @@ class SAML2MetaCache
     static EntityDescriptorElement getEntityDescriptor(
             String realm, String entityId) 
     {
+        long start = System.nanoTime();
         String cacheKey = buildCacheKey(realm, entityId);
-        EntityDescriptorElement descriptor =
-	    (EntityDescriptorElement)descriptorCache.get(cacheKey);
+        Entry entry = descriptorCache.get(cacheKey);
+        EntityDescriptorElement descriptor = null;
+        if (entry != null) {
+            descriptor = entry.getDescriptor();
+            if (descriptor == null) {
+                descriptorCache.remove(cacheKey, entry);
+            }
+        }
+        if (descriptor != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        lookups.record(System.nanoTime() - start);
         if (debug.messageEnabled()) {
             debug.message("SAML2MetaCache.getEntityDescriptor: cacheKey = " +
                           cacheKey + ", found = " + (descriptor != null));
@@ -85,22 +130,52 @@ class SAML2MetaCache
     static void putEntityDescriptor(String realm, String entityId,
             EntityDescriptorElement descriptor)
     {
-        String cacheKey = buildCacheKey(realm, entityId);
         if (descriptor != null) {
-            if (debug.messageEnabled()) {
-                debug.message("SAML2MetaCache.putEntityDescriptor: cacheKey = " +
-                    cacheKey);
-            }
-            descriptorCache.put(cacheKey, descriptor);
+            putEntry(realm, entityId, new Entry(descriptor));
         } else {
-            if (debug.messageEnabled()) {
-                debug.message(
-                    "SAML2MetaCache.putEntityDescriptor: delete cacheEey = " +
-                    cacheKey);
-            }
-            descriptorCache.remove(cacheKey);
-            configCache.remove(cacheKey);
+            removeEntity(realm, entityId);
+        }
+    }
+
+    /**
+     * Adds the standard metadata entity descriptor under the realm to cache
+     * without unmarshalling it. The roles of the entity are read from the XML
+     * straight away, the descriptor is unmarshalled when it is first read.
+     * @param realm The realm under which the entity resides.
+     * @param entityId ID of the entity to be retrieved.
+     * @param xml The entity descriptor as stored in the configuration.
+     */
+    static void putEntityDescriptor(String realm, String entityId,
+            String xml)
+    {
+        if (xml == null) {
+            removeEntity(realm, entityId);
+            return;
         }
+        Set<String> roles;
+        try {
+            roles = getRoles(xml);
+        } catch (XMLStreamException e) {
+            debug.error("SAML2MetaCache.putEntityDescriptor: unable to read "
+                + "roles of " + entityId, e);
+            descriptorCache.remove(buildCacheKey(realm, entityId));
+            return;
+        }
+        putEntry(realm, entityId, new Entry(xml, roles));
+    }
+
+    /**
+     * Returns whether the cached entity descriptor has a role.
+     * @param realm The realm under which the entity resides.
+     * @param entityId ID of the entity.
+     * @param role The local name of the role descriptor element, for example
+     *        {@link SAML2MetaConstants#SPSSO_DESCRIPTOR}.
+     * @return whether the entity has the role, or null if the entity
+     *         descriptor is not cached.
+     */
+    static Boolean hasRole(String realm, String entityId, String role) {
+        Entry entry = descriptorCache.get(buildCacheKey(realm, entityId));
+        return entry == null ? null : entry.roles.contains(role);
     }
 
     /**
@@ -114,8 +189,7 @@ class SAML2MetaCache
             String realm, String entityId)
     {
         String cacheKey = buildCacheKey(realm, entityId);
-        EntityConfigElement config =
-	    (EntityConfigElement)configCache.get(cacheKey);
+        EntityConfigElement config = configCache.get(cacheKey);
         if (debug.messageEnabled()) {
             debug.message("SAML2MetaCache.getEntityConfig: cacheKey = " +
 			  cacheKey + ", found = " + (config != null));
@@ -153,12 +227,142 @@ class SAML2MetaCache
      */
     static void clear() {
         if (debug.messageEnabled()) {
-            debug.message("SAML2MetaCache.clear() called");
+            debug.message("SAML2MetaCache.clear() called, " + getStatistics());
         }
 	descriptorCache.clear();
 	configCache.clear();
     }
 
+    /**
+     * Returns the number of cached entities, how many of them have not been
+     * unmarshalled yet with the size of their XML, the hit and miss counts and
+     * the latency of descriptor lookups in nanoseconds.
+     * @return The cache statistics.
+     */
+    static String getStatistics() {
+        int pending = 0;
+        long pendingChars = 0;
+        for (Entry entry : descriptorCache.values()) {
+            String xml = entry.xml;
+            if (xml != null) {
+                pending++;
+                pendingChars += xml.length();
+            }
+        }
+        return "SAML2MetaCache{entities=" + descriptorCache.size()
+            + ", configs=" + configCache.size()
+            + ", pending=" + pending + ", pendingChars=" + pendingChars
+            + ", unmarshalled=" + unmarshalled.sum()
+            + ", hits=" + hits.sum() + ", misses=" + misses.sum()
+            + ", lookupMean=" + lookups.getMean()
+            + ", lookupP99=" + lookups.getValueAtQuantile(0.99D)
+            + ", lookupMax=" + lookups.getMax() + '}';
+    }
+
+    /**
+     * Returns the local names of the role descriptors of an entity. Roles
+     * other than the ones defined in {@link SAML2MetaConstants} are returned
+     * as {@link SAML2MetaConstants#ROLE_DESCRIPTOR}.
+     * @param descriptor The entity descriptor.
+     * @return The role names.
+     */
+    static Set<String> getRoles(EntityDescriptorElement descriptor) {
+        Set<String> roles = new HashSet<String>();
+        for (Iterator iter = descriptor.
+            getRoleDescriptorOrIDPSSODescriptorOrSPSSODescriptor().iterator();
+            iter.hasNext();) {
+            Object role = iter.next();
+            if (role instanceof SPSSODescriptorElement) {
+                roles.add(SAML2MetaConstants.SPSSO_DESCRIPTOR);
+            } else if (role instanceof IDPSSODescriptorElement) {
+                roles.add(SAML2MetaConstants.IDPSSO_DESCRIPTOR);
+            } else if (role instanceof AttributeAuthorityDescriptorElement) {
+                roles.add(SAML2MetaConstants.ATTRIBUTE_AUTHORITY_DESCRIPTOR);
+            } else if (role instanceof AuthnAuthorityDescriptorElement) {
+                roles.add(SAML2MetaConstants.AUTHN_AUTHORITY_DESCRIPTOR);
+            } else if (role instanceof PDPDescriptorElement) {
+                roles.add(SAML2MetaConstants.PDP_DESCRIPTOR);
+            } else {
+                roles.add(SAML2MetaConstants.ROLE_DESCRIPTOR);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Reads the local names of the role descriptors of an entity from its XML
+     * without building the descriptor.
+     * @param xml The entity descriptor XML.
+     * @return The role names, as returned by
+     *         {@link #getRoles(EntityDescriptorElement)}.
+     * @throws XMLStreamException if the XML cannot be read.
+     */
+    static Set<String> getRoles(String xml) throws XMLStreamException {
+        Set<String> roles = new HashSet<String>();
+        XMLStreamReader reader =
+            XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2) {
+                        roles.add(getRole(reader.getNamespaceURI(),
+                            reader.getLocalName()));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        roles.remove(null);
+        return roles;
+    }
+
+    private static String getRole(String namespace, String localName) {
+        if (SAML2MetaSecurityUtils.NS_XMLSIG.equals(namespace)) {
+            return null;
+        }
+        if (!SAML2MetaConstants.NS_METADATA.equals(namespace)) {
+            // Extended roles such as the attribute query descriptor
+            return SAML2MetaConstants.ROLE_DESCRIPTOR;
+        }
+        if (SAML2MetaConstants.SPSSO_DESCRIPTOR.equals(localName)
+            || SAML2MetaConstants.IDPSSO_DESCRIPTOR.equals(localName)
+            || SAML2MetaConstants.ATTRIBUTE_AUTHORITY_DESCRIPTOR.equals(
+                localName)
+            || SAML2MetaConstants.AUTHN_AUTHORITY_DESCRIPTOR.equals(localName)
+            || SAML2MetaConstants.PDP_DESCRIPTOR.equals(localName)
+            || SAML2MetaConstants.ROLE_DESCRIPTOR.equals(localName)) {
+            return localName;
+        }
+        // Signature, Extensions, Organization, ContactPerson and so on
+        return null;
+    }
+
+    private static void putEntry(String realm, String entityId, Entry entry) {
+        String cacheKey = buildCacheKey(realm, entityId);
+        if (debug.messageEnabled()) {
+            debug.message("SAML2MetaCache.putEntityDescriptor: cacheKey = " +
+                cacheKey + ", roles = " + entry.roles);
+        }
+        descriptorCache.put(cacheKey, entry);
+    }
+
+    private static void removeEntity(String realm, String entityId) {
+        String cacheKey = buildCacheKey(realm, entityId);
+        if (debug.messageEnabled()) {
+            debug.message(
+                "SAML2MetaCache.putEntityDescriptor: delete cacheEey = " +
+                cacheKey);
+        }
+        descriptorCache.remove(cacheKey);
+        configCache.remove(cacheKey);
+    }
+
     /**
      * Build cache key for descriptorCache and configCache based on realm and
      * entity ID.
@@ -169,4 +373,64 @@ class SAML2MetaCache
     private static String buildCacheKey(String realm, String entityId) {
         return realm + "//" + entityId;
     }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+            false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    /**
+     * A cached entity descriptor, held as XML until it is first read.
+     */
+    private static final class Entry {
+
+        private final Set<String> roles;
+        private volatile String xml;
+        private volatile EntityDescriptorElement descriptor;
+
+        Entry(EntityDescriptorElement descriptor) {
+            this.roles = Collections.unmodifiableSet(getRoles(descriptor));
+            this.descriptor = descriptor;
+        }
+
+        Entry(String xml, Set<String> roles) {
+            this.roles = Collections.unmodifiableSet(roles);
+            this.xml = xml;
+        }
+
+        EntityDescriptorElement getDescriptor() {
+            EntityDescriptorElement result = descriptor;
+            if (result == null) {
+                synchronized (this) {
+                    result = descriptor;
+                    if (result == null && xml != null) {
+                        result = unmarshal(xml);
+                        descriptor = result;
+                        xml = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static EntityDescriptorElement unmarshal(String xml) {
+            try {
+                Object obj = SAML2MetaUtils.convertStringToJAXB(xml);
+                if (obj instanceof EntityDescriptorElement) {
+                    unmarshalled.increment();
+                    return (EntityDescriptorElement) obj;
+                }
+                debug.error("SAML2MetaCache.getEntityDescriptor: invalid "
+                    + "descriptor");
+            } catch (JAXBException e) {
+                debug.error("SAML2MetaCache.getEntityDescriptor: unable to "
+                    + "unmarshal descriptor", e);
+            }
+            return null;
+        }
+    }
 }
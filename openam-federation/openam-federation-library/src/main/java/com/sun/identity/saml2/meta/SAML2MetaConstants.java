@@ -24,6 +24,7 @@
  *
  * $Id: SAML2MetaConstants.java,v 1.5 2008/06/25 05:47:49 qcheng Exp $
  *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 
@@ -62,11 +63,41 @@ public interface SAML2MetaConstants {
      */
     String ENTITY_DESCRIPTOR = "EntityDescriptor";
 
+    /**
+     * Constant for EntitiesDescriptor Element
+     */
+    String ENTITIES_DESCRIPTOR = "EntitiesDescriptor";
+
     /**
      * Constant for RoleDescriptor Element
      */
     String ROLE_DESCRIPTOR = "RoleDescriptor";
 
+    /**
+     * Constant for SPSSODescriptor Element
+     */
+    String SPSSO_DESCRIPTOR = "SPSSODescriptor";
+
+    /**
+     * Constant for IDPSSODescriptor Element
+     */
+    String IDPSSO_DESCRIPTOR = "IDPSSODescriptor";
+
+    /**
+     * Constant for AttributeAuthorityDescriptor Element
+     */
+    String ATTRIBUTE_AUTHORITY_DESCRIPTOR = "AttributeAuthorityDescriptor";
+
+    /**
+     * Constant for AuthnAuthorityDescriptor Element
+     */
+    String AUTHN_AUTHORITY_DESCRIPTOR = "AuthnAuthorityDescriptor";
+
+    /**
+     * Constant for PDPDescriptor Element
+     */
+    String PDP_DESCRIPTOR = "PDPDescriptor";
+
     /**
      * Constant for AttributeQueryDescriptorType Type
      */
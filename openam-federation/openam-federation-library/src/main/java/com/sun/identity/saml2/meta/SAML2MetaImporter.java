@@ -0,0 +1,277 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package com.sun.identity.saml2.meta;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBException;
+
+import org.forgerock.guava.common.annotations.VisibleForTesting;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.sun.identity.saml2.jaxb.metadata.EntityDescriptorElement;
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+import com.sun.identity.shared.debug.Debug;
+import com.sun.identity.shared.xml.XMLUtils;
+
+/**
+ * Imports the entities of an EntitiesDescriptor, such as a federation metadata aggregate.
+ * <p>
+ * Each EntityDescriptor is copied into its own document and removed from the aggregate, so the aggregate shrinks as
+ * the import goes on and no JAXB object of the whole aggregate is ever built. The entities are converted into JAXB
+ * objects by a pool of threads, with a bounded number of entities being converted ahead, and are created one by one
+ * in document order by the calling thread. The number of threads is read from {@value #THREADS_PROPERTY}.
+ * <p>
+ * The import stops at the first entity that fails, and the entities before it in the document are the only ones
+ * created, as when the entities are imported one after the other.
+ *
+ * @since 15.0.0
+ */
+class SAML2MetaImporter {
+
+    /** The system property holding the number of threads used to import the entities of an aggregate. */
+    static final String THREADS_PROPERTY = "com.sun.identity.saml2.meta.importThreads";
+
+    private static final Debug debug = SAML2MetaUtils.debug;
+    private static final String ENTITY_ID = "entityID";
+
+    private final SAML2MetaManager metaManager;
+    private final String realm;
+    private final int threads;
+
+    /**
+     * Creates an importer that uses the number of threads from {@value #THREADS_PROPERTY}.
+     *
+     * @param metaManager The manager used to create the entities.
+     * @param realm The realm to create the entities in.
+     */
+    SAML2MetaImporter(SAML2MetaManager metaManager, String realm) {
+        this(metaManager, realm, getThreadCount());
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param metaManager The manager used to create the entities.
+     * @param realm The realm to create the entities in.
+     * @param threads The number of threads to convert with, 1 to convert on the calling thread.
+     */
+    SAML2MetaImporter(SAML2MetaManager metaManager, String realm, int threads) {
+        this.metaManager = metaManager;
+        this.realm = realm;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Imports the EntityDescriptor children of an EntitiesDescriptor whose signature has already been verified. The
+     * children are removed from the EntitiesDescriptor as they are handed out.
+     *
+     * @param entities The EntitiesDescriptor element.
+     * @return The entityIDs of the entities created, in document order.
+     * @throws SAML2MetaException if an entity cannot be created.
+     * @throws JAXBException if an entity cannot be converted into a JAXB object.
+     */
+    List<String> importEntities(Element entities) throws SAML2MetaException, JAXBException {
+        long start = currentTimeMillis();
+        long heapBefore = getUsedHeap();
+
+        List<Element> children = getEntityDescriptors(entities);
+        List<String> result = new ArrayList<String>(children.size());
+        int poolSize = Math.min(threads, children.size());
+        if (poolSize <= 1) {
+            for (int i = 0; i < children.size(); i++) {
+                Document entity = detach(children.get(i));
+                children.set(i, null);
+                create(SAML2MetaUtils.convertSAML2Entity(realm, entity), result);
+            }
+        } else {
+            importInParallel(children, result, poolSize);
+        }
+
+        if (debug.messageEnabled()) {
+            debug.message("SAML2MetaImporter.importEntities: imported " + result.size() + " of " + children.size()
+                    + " entities in " + (currentTimeMillis() - start) + "ms using " + poolSize
+                    + " threads, heap used before = " + heapBefore / 1024 + "KB, after = " + getUsedHeap() / 1024
+                    + "KB, " + SAML2MetaCache.getStatistics());
+        }
+        return result;
+    }
+
+    private void importInParallel(List<Element> children, List<String> result, int poolSize)
+            throws SAML2MetaException, JAXBException {
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new ImporterThreadFactory());
+        Deque<Future<EntityDescriptorElement>> converting = new ArrayDeque<Future<EntityDescriptorElement>>();
+        try {
+            for (int i = 0; i < children.size(); i++) {
+                if (converting.size() >= poolSize * 2) {
+                    create(converting.poll(), result);
+                }
+                Document entity;
+                try {
+                    entity = detach(children.get(i));
+                } catch (SAML2MetaException e) {
+                    // The entities before this one are created first, as if they were imported one by one
+                    while (!converting.isEmpty()) {
+                        create(converting.poll(), result);
+                    }
+                    throw e;
+                }
+                children.set(i, null);
+                converting.add(executor.submit(new ConvertTask(entity)));
+            }
+            while (!converting.isEmpty()) {
+                create(converting.poll(), result);
+            }
+        } finally {
+            // Entities after a failed one are never created, whether or not they have been converted
+            executor.shutdownNow();
+        }
+    }
+
+    private void create(Future<EntityDescriptorElement> converted, List<String> result)
+            throws SAML2MetaException, JAXBException {
+        EntityDescriptorElement descriptor;
+        try {
+            descriptor = converted.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SAML2MetaException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SAML2MetaException) {
+                throw (SAML2MetaException) cause;
+            } else if (cause instanceof JAXBException) {
+                throw (JAXBException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SAML2MetaException(e);
+        }
+        create(descriptor, result);
+    }
+
+    private void create(EntityDescriptorElement descriptor, List<String> result) throws SAML2MetaException {
+        String entityId = SAML2MetaUtils.importSAML2Entity(metaManager, realm, descriptor);
+        if (entityId != null) {
+            result.add(entityId);
+        }
+    }
+
+    private static List<Element> getEntityDescriptors(Element entities) {
+        List<Element> result = new ArrayList<Element>();
+        for (Node child = entities.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                    && SAML2MetaConstants.ENTITY_DESCRIPTOR.equals(child.getLocalName())
+                    && SAML2MetaConstants.NS_METADATA.equals(child.getNamespaceURI())) {
+                result.add((Element) child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies an EntityDescriptor into its own document and removes it from the aggregate. Namespace declarations of
+     * the aggregate are copied as well, as they may be referred to by xsi:type values.
+     */
+    @VisibleForTesting
+    Document detach(Element element) throws SAML2MetaException {
+        Document doc = XMLUtils.toDOMDocument(element, debug);
+        if (doc == null) {
+            String[] data = { element.getAttribute(ENTITY_ID), realm };
+            throw new SAML2MetaException("invalid_descriptor", data);
+        }
+        Element root = doc.getDocumentElement();
+        for (Node parent = element.getParentNode(); parent instanceof Element; parent = parent.getParentNode()) {
+            NamedNodeMap attributes = parent.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Attr attribute = (Attr) attributes.item(i);
+                if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())
+                        && !root.hasAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attribute.getLocalName())) {
+                    root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attribute.getName(),
+                            attribute.getValue());
+                }
+            }
+        }
+        element.getParentNode().removeChild(element);
+        return doc;
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int getThreadCount() {
+        int defaultThreads = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        String value = SystemPropertiesManager.get(THREADS_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultThreads;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            debug.error("SAML2MetaImporter.getThreadCount: invalid value for " + THREADS_PROPERTY
+                    + ". Using default.");
+            return defaultThreads;
+        }
+    }
+
+    private final class ConvertTask implements Callable<EntityDescriptorElement> {
+
+        private final Document entity;
+
+        ConvertTask(Document entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public EntityDescriptorElement call() throws Exception {
+            return SAML2MetaUtils.convertSAML2Entity(realm, entity);
+        }
+    }
+
+    private static final class ImporterThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "SAML2MetaImporter-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
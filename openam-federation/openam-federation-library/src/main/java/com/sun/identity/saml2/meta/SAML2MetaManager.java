@@ -25,6 +25,7 @@
  * $Id: SAML2MetaManager.java,v 1.18 2009/10/28 23:58:58 exu Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.saml2.meta;
@@ -617,8 +618,10 @@ public class SAML2MetaManager {
             if (isCreate) {
                 configInst.createConfiguration(realm, entityId, newAttrs);
                 if (descriptor != null) {
+                    // Cache the stored XML, it is unmarshalled when first read
+                    Set values = (Set)newAttrs.get(ATTR_METADATA);
                     SAML2MetaCache.putEntityDescriptor(
-                        realm, entityId, descriptor);
+                        realm, entityId, (String)values.iterator().next());
                     LogUtil.access(Level.INFO,
                         LogUtil.ENTITY_DESCRIPTOR_CREATED, objs, null);
                 } else if (config != null) {
@@ -1272,7 +1275,8 @@ public class SAML2MetaManager {
 
         for(Iterator iter = hostedEntityIds.iterator(); iter.hasNext();) {
             String entityId = (String)iter.next();
-            if (getSPSSODescriptor(realm, entityId) != null) {
+            if (hasRole(realm, entityId,
+                SAML2MetaConstants.SPSSO_DESCRIPTOR)) {
                 hostedSPEntityIds.add(entityId);
             }
         }
@@ -1381,7 +1385,8 @@ public class SAML2MetaManager {
 
         for(Iterator iter = hostedEntityIds.iterator(); iter.hasNext();) {
             String entityId = (String)iter.next();
-            if (getIDPSSODescriptor(realm, entityId) != null) {
+            if (hasRole(realm, entityId,
+                SAML2MetaConstants.IDPSSO_DESCRIPTOR)) {
                 hostedIDPEntityIds.add(entityId);
             }
         }
@@ -1442,7 +1447,8 @@ public class SAML2MetaManager {
 
         for(Iterator iter = remoteEntityIds.iterator(); iter.hasNext();) {
             String entityId = (String)iter.next();
-            if (getSPSSODescriptor(realm, entityId) != null) {
+            if (hasRole(realm, entityId,
+                SAML2MetaConstants.SPSSO_DESCRIPTOR)) {
                 remoteSPEntityIds.add(entityId);
             }
         }
@@ -1464,13 +1470,69 @@ public class SAML2MetaManager {
 
         for(Iterator iter = remoteEntityIds.iterator(); iter.hasNext();) {
             String entityId = (String)iter.next();
-            if (getIDPSSODescriptor(realm, entityId) != null) {
+            if (hasRole(realm, entityId,
+                SAML2MetaConstants.IDPSSO_DESCRIPTOR)) {
                 remoteIDPEntityIds.add(entityId);
             }
         }
         return remoteIDPEntityIds;
     }
 
+    /**
+     * Returns whether an entity has a role, using the role index of the
+     * metadata cache so that the entity descriptor does not need to be
+     * unmarshalled.
+     * @param realm The realm under which the entity resides.
+     * @param entityId ID of the entity.
+     * @param role The local name of the role descriptor element.
+     * @return whether the entity has the role.
+     * @throws SAML2MetaException if unable to retrieve the entity descriptor.
+     */
+    private boolean hasRole(String realm, String entityId, String role)
+        throws SAML2MetaException {
+
+        if (realm == null) {
+            realm = "/";
+        }
+        if (callerSession == null) {
+            Boolean cached = SAML2MetaCache.hasRole(realm, entityId, role);
+            if (cached == null) {
+                try {
+                    Map attrs = configInst.getConfiguration(realm, entityId);
+                    Set values = (attrs == null) ? null :
+                        (Set)attrs.get(ATTR_METADATA);
+                    if ((values == null) || values.isEmpty()) {
+                        return false;
+                    }
+                    SAML2MetaCache.putEntityDescriptor(realm, entityId,
+                        (String)values.iterator().next());
+                } catch (ConfigurationException e) {
+                    debug.error("SAML2MetaManager.hasRole", e);
+                    throw new SAML2MetaException(e);
+                }
+                cached = SAML2MetaCache.hasRole(realm, entityId, role);
+            }
+            if (cached != null) {
+                return cached;
+            }
+        }
+        EntityDescriptorElement descriptor =
+            getEntityDescriptor(realm, entityId);
+        return (descriptor != null) &&
+            SAML2MetaCache.getRoles(descriptor).contains(role);
+    }
+
+    /**
+     * Returns the statistics of the metadata cache shared by all the
+     * <code>SAML2MetaManager</code> instances.
+     * @return the number of cached entities, how many of them have not been
+     *     unmarshalled yet, the hit and miss counts and the lookup latency in
+     *     nanoseconds.
+     */
+    public static String getCacheStatistics() {
+        return SAML2MetaCache.getStatistics();
+    }
+
     /**
      * Returns entity ID associated with the metaAlias.
      * @param metaAlias The metaAlias.
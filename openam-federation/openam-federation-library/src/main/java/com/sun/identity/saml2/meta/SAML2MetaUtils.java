@@ -40,6 +40,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -96,6 +98,15 @@ public final class SAML2MetaUtils {
 
     private static NamespacePrefixMapperImpl nsPrefixMapper =
                                             new NamespacePrefixMapperImpl();
+    // Unmarshallers and marshallers are not thread safe but can be reused.
+    // They are only returned to the pool after a successful call, and the
+    // pools are not thread locals, so that container threads do not keep
+    // this class loader after a redeploy.
+    private static final int POOL_SIZE = 16;
+    private static final BlockingQueue<Unmarshaller> unmarshallers =
+        new ArrayBlockingQueue<Unmarshaller>(POOL_SIZE);
+    private static final BlockingQueue<Marshaller> marshallers =
+        new ArrayBlockingQueue<Marshaller>(POOL_SIZE);
     static String jaxbPackages = null;
 
     static {
@@ -139,8 +150,10 @@ public final class SAML2MetaUtils {
     public static Object convertStringToJAXB(String str)
         throws JAXBException {
 
-       Unmarshaller u = jaxbContext.createUnmarshaller();
-       return u.unmarshal(XMLUtils.createSAXSource(new InputSource(new StringReader(str))));
+       Unmarshaller u = getUnmarshaller();
+       Object obj = u.unmarshal(XMLUtils.createSAXSource(new InputSource(new StringReader(str))));
+       unmarshallers.offer(u);
+       return obj;
     }
 
     /**
@@ -153,8 +166,10 @@ public final class SAML2MetaUtils {
     public static Object convertInputStreamToJAXB(InputStream is)
         throws JAXBException {
 
-       Unmarshaller u = jaxbContext.createUnmarshaller();
-       return u.unmarshal(XMLUtils.createSAXSource(new InputSource(is)));
+       Unmarshaller u = getUnmarshaller();
+       Object obj = u.unmarshal(XMLUtils.createSAXSource(new InputSource(is)));
+       unmarshallers.offer(u);
+       return obj;
     }
 
     /**
@@ -167,10 +182,12 @@ public final class SAML2MetaUtils {
     public static Object convertNodeToJAXB(Node node)
         throws JAXBException {
 
-       Unmarshaller u = jaxbContext.createUnmarshaller();
+       Unmarshaller u = getUnmarshaller();
        //no need to get SAXSource, since the node is already created by using
        //a secure XML parser
-       return u.unmarshal(node);
+       Object obj = u.unmarshal(node);
+       unmarshallers.offer(u);
+       return obj;
     }
 
     /**
@@ -183,10 +200,9 @@ public final class SAML2MetaUtils {
         throws JAXBException {
 
         StringWriter sw = new StringWriter();
-        Marshaller marshaller = jaxbContext.createMarshaller();
-        marshaller.setProperty(PROP_JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        marshaller.setProperty(PROP_NAMESPACE_PREFIX_MAPPER, nsPrefixMapper);
+        Marshaller marshaller = getMarshaller();
         marshaller.marshal(jaxbObj, sw);
+        marshallers.offer(marshaller);
         return sw.toString();
     }
 
@@ -200,10 +216,28 @@ public final class SAML2MetaUtils {
                                                  OutputStream os)
         throws JAXBException {
 
-        Marshaller marshaller = jaxbContext.createMarshaller();
-        marshaller.setProperty(PROP_JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        marshaller.setProperty(PROP_NAMESPACE_PREFIX_MAPPER, nsPrefixMapper);
+        Marshaller marshaller = getMarshaller();
         marshaller.marshal(jaxbObj, os);
+        marshallers.offer(marshaller);
+    }
+
+    private static Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller u = unmarshallers.poll();
+        if (u == null) {
+            u = jaxbContext.createUnmarshaller();
+        }
+        return u;
+    }
+
+    private static Marshaller getMarshaller() throws JAXBException {
+        Marshaller marshaller = marshallers.poll();
+        if (marshaller == null) {
+            marshaller = jaxbContext.createMarshaller();
+            marshaller.setProperty(PROP_JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setProperty(PROP_NAMESPACE_PREFIX_MAPPER,
+                nsPrefixMapper);
+        }
+        return marshaller;
     }
 
     /**
@@ -639,7 +673,8 @@ public final class SAML2MetaUtils {
     /**
      * For the given XML metadata document representing either a SAML2 EntityDescriptorElement or EntitiesDescriptorElement,
      * return a list of entityId's for all the Entities created. Carries out a signature validation of the document as
-     * part of the import process.
+     * part of the import process. The entities of an EntitiesDescriptorElement are converted in parallel and created
+     * in document order, by {@link SAML2MetaImporter}.
      * @param metaManager An instance of the SAML2MetaManager, used to do the actual create.
      * @param realm The realm to create the Entities in
      * @param doc The XML document that represents either an EntityDescriptorElement or EntitiesDescriptorElement
@@ -652,17 +687,21 @@ public final class SAML2MetaUtils {
 
         List<String> result = new ArrayList<String>(1);
 
-        Object element = preProcessSAML2Document(doc);
+        Element docElem = doc.getDocumentElement();
+        if (SAML2MetaConstants.ENTITIES_DESCRIPTOR.equals(docElem.getLocalName()) &&
+                SAML2MetaConstants.NS_METADATA.equals(docElem.getNamespaceURI())) {
+            SAML2MetaSecurityUtils.verifySignature(doc);
+            result = new SAML2MetaImporter(metaManager, realm).importEntities(docElem);
+        } else {
+            Object element = preProcessSAML2Document(doc);
 
-        if (element instanceof EntityDescriptorElement) {
-            String entityId = importSAML2Entity(metaManager, realm,
-                    (EntityDescriptorElement)element);
-            if (entityId != null) {
-                result.add(entityId);
+            if (element instanceof EntityDescriptorElement) {
+                String entityId = importSAML2Entity(metaManager, realm,
+                        (EntityDescriptorElement)element);
+                if (entityId != null) {
+                    result.add(entityId);
+                }
             }
-        } else if (element instanceof EntitiesDescriptorElement) {
-            result = importSAML2Entites(metaManager, realm,
-                    (EntitiesDescriptorElement)element);
         }
 
         if (debug.messageEnabled()) {
@@ -686,30 +725,36 @@ public final class SAML2MetaUtils {
         return obj;
     }
 
-    private static List<String> importSAML2Entites(SAML2MetaManager metaManager, String realm,
-            EntitiesDescriptorElement descriptor) throws SAML2MetaException {
-
-        List<String> result = new ArrayList<String>();
+    /**
+     * Converts a document holding a single EntityDescriptor, whose signature has already been verified, into a JAXB
+     * object.
+     * @param realm The realm the Entity is to be created in.
+     * @param doc The XML document of the EntityDescriptor.
+     * @return The EntityDescriptorElement.
+     * @throws SAML2MetaException if the document does not hold an EntityDescriptor.
+     * @throws JAXBException for any issues converting the document into a JAXB document.
+     */
+    static EntityDescriptorElement convertSAML2Entity(String realm, Document doc)
+            throws SAML2MetaException, JAXBException {
 
-        List descriptors = descriptor.getEntityDescriptorOrEntitiesDescriptor();
-        if (descriptors != null && !descriptors.isEmpty()) {
-            Iterator entities = descriptors.iterator();
-            while (entities.hasNext()) {
-                Object o = entities.next();
-                if (o instanceof EntityDescriptorElement) {
-                    String entityId = importSAML2Entity(metaManager, realm,
-                            (EntityDescriptorElement) o);
-                    if (entityId != null) {
-                        result.add(entityId);
-                    }
-                }
-            }
+        workaroundAbstractRoleDescriptor(doc);
+        Object obj = workaroundJAXBBug(convertNodeToJAXB(doc));
+        if (!(obj instanceof EntityDescriptorElement)) {
+            String[] data = { doc.getDocumentElement().getAttribute("entityID"), realm };
+            throw new SAML2MetaException("invalid_descriptor", data);
         }
-
-        return result;
+        return (EntityDescriptorElement) obj;
     }
 
-    private static String importSAML2Entity(SAML2MetaManager metaManager, String realm,
+    /**
+     * Creates the entity of an EntityDescriptorElement, without its non-SAML2 roles.
+     * @param metaManager An instance of the SAML2MetaManager, used to do the actual create.
+     * @param realm The realm to create the Entity in.
+     * @param descriptor The EntityDescriptorElement.
+     * @return The entityId of the Entity created, or null if the Entity has no SAML2 role.
+     * @throws SAML2MetaException for any issues as a result of trying to create the Entity.
+     */
+    static String importSAML2Entity(SAML2MetaManager metaManager, String realm,
             EntityDescriptorElement descriptor) throws SAML2MetaException {
 
         String result = null;
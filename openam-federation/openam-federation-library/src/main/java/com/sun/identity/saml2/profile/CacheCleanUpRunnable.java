@@ -23,6 +23,8 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  *
  * $Id: CacheCleanUpRunnable.java,v 1.2 2008/11/10 22:57:03 veiming Exp $
+ *
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 
@@ -31,9 +33,12 @@ package com.sun.identity.saml2.profile;
 import java.util.List;
 import java.util.Iterator;
 
+import org.forgerock.openam.saml2.cache.SAML2Cache;
+
 import com.sun.identity.common.GeneralTaskRunnable;
 import com.sun.identity.saml2.assertion.Assertion;
 import com.sun.identity.saml2.common.SAML2Utils;
+import com.sun.identity.saml2.meta.SAML2MetaManager;
 
 /**
  * This is a helper class to clean up cache.
@@ -78,15 +83,17 @@ public class CacheCleanUpRunnable extends GeneralTaskRunnable {
             SAML2Utils.debug.message("CacheCleanUpRunnable.run:");
         }
 
-        synchronized(IDPCache.assertionCache) {
-            for(Iterator iter = IDPCache.assertionCache.keySet().iterator();
-                iter.hasNext(); ) {
+        // The cache is safe to iterate concurrently. Each assertion list is
+        // guarded by its own monitor, as in IDPSSOUtil and AuthnQueryUtil.
+        for(Iterator iter = IDPCache.assertionCache.keySet().iterator();
+            iter.hasNext(); ) {
 
-                String userName = (String)iter.next();
-                List assertions = (List)IDPCache.assertionCache.get(userName);
-                if ((assertions == null) || (assertions.isEmpty())) {
-                    continue;
-                }
+            String userName = (String)iter.next();
+            List assertions = (List)IDPCache.assertionCache.get(userName);
+            if (assertions == null) {
+                continue;
+            }
+            synchronized (assertions) {
                 for(Iterator iterA = assertions.iterator(); iterA.hasNext();) {
                     Assertion assertion = (Assertion)iterA.next();
                     if (!assertion.isTimeValid()) {
@@ -95,7 +102,7 @@ public class CacheCleanUpRunnable extends GeneralTaskRunnable {
                                 "CacheCleanUpRunnable.run: remove assertion." +
                                 "ID = " + assertion.getID() + ", userName = " +
                                 userName);
-			}
+                        }
                         iterA.remove();
                         IDPCache.assertionByIDCache.remove(assertion.getID());
                     }
@@ -103,6 +110,16 @@ public class CacheCleanUpRunnable extends GeneralTaskRunnable {
             }
         }
 
+        for (SAML2Cache<?, ?> cache : SAML2Cache.getCaches()) {
+            cache.purgeExpired();
+            if (SAML2Utils.debug.messageEnabled()) {
+                SAML2Utils.debug.message("CacheCleanUpRunnable.run: " + cache + ", hitRate = "
+                        + cache.getHitRate());
+            }
+        }
+        if (SAML2Utils.debug.messageEnabled()) {
+            SAML2Utils.debug.message("CacheCleanUpRunnable.run: " + SAML2MetaManager.getCacheStatistics());
+        }
     }
     
 }
@@ -39,32 +39,14 @@ import java.util.Date;
 
 public class CacheCleanUpScheduler {
     
-    /* Schedule the periodic containers to SystemTimerPool. */
+    /*
+     * Schedule the cache clean up to SystemTimerPool. The SAML2Cache instances in IDPCache and SPCache are purged of
+     * expired entries by CacheCleanUpRunnable.
+     */
     public static void doSchedule() {
         TimerPool pool = SystemTimerPool.getTimerPool();
         Date nextRun = new Date(((currentTimeMillis() +
                 (interval * 1000)) / 1000) * 1000);
-        pool.schedule(SPCache.requestHash, nextRun);
-        pool.schedule(SPCache.responseHash, nextRun);
-        pool.schedule(SPCache.mniRequestHash, nextRun);
-        pool.schedule(SPCache.relayStateHash, nextRun);
-        pool.schedule(SPCache.logoutRequestIDHash, nextRun);
-        pool.schedule(SPCache.reqParamHash, nextRun);
-        pool.schedule(SPCache.authnRequestHash, nextRun);
-        pool.schedule(SPCache.fedAccountHash, nextRun);
-        pool.schedule(SPCache.assertionByIDCache, nextRun);
-        pool.schedule(IDPCache.authnRequestCache, nextRun);
-        pool.schedule(IDPCache.idpAuthnContextCache, nextRun);
-        pool.schedule(IDPCache.assertionByIDCache, nextRun);
-        pool.schedule(IDPCache.relayStateCache, nextRun);
-        pool.schedule(IDPCache.responsesByArtifacts, nextRun);
-        pool.schedule(IDPCache.mniRequestHash, nextRun);
-        pool.schedule(IDPCache.responseCache, nextRun);
-        pool.schedule(IDPCache.proxySPAuthnReqCache, nextRun);
-        pool.schedule(IDPCache.proxySPLogoutReqCache, nextRun);
-        pool.schedule(IDPCache.SOAPMessageByLogoutRequestID, nextRun);
-        pool.schedule(IDPCache.logoutResponseCache, nextRun);
-        pool.schedule(IDPCache.attributeConsentCache, nextRun);
         pool.schedule(new CacheCleanUpRunnable(SPCache.interval * 1000),
             nextRun);
     }
@@ -25,6 +25,7 @@
  * $Id: DoManageNameID.java,v 1.26 2009/11/24 21:53:27 madan_ranganath Exp $
  *
  * Portions copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.profile;
 
@@ -36,6 +37,7 @@ import java.io.OutputStream;
 import java.security.Key;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.Iterator;
@@ -1082,8 +1084,8 @@ public class DoManageNameID {
                 // there are active session using this Name id
                 NameIDandSPpair pair = new NameIDandSPpair(newNameID,
                     remoteEntityID);
-                synchronized(IDPCache.idpSessionsByIndices) {
-                    List list = (List) idpSession.getNameIDandSPpairs();
+                List list = (List) idpSession.getNameIDandSPpairs();
+                synchronized(list) {
                     list.add(pair);
                 }
             }
@@ -1684,8 +1686,8 @@ public class DoManageNameID {
                     get(sessionProvider.getSessionID(session));
 
                 if (idpSession != null) {
-                    synchronized(IDPCache.idpSessionsByIndices) {
-                        List list = (List)idpSession.getNameIDandSPpairs();
+                    List list = (List)idpSession.getNameIDandSPpairs();
+                    synchronized(list) {
                         list.add(pair);
                     }
                 }
@@ -2043,7 +2045,7 @@ public class DoManageNameID {
                + ", nameID=" + nameID + " from IDP session cache");
         }
         if (IDPCache.idpSessionsByIndices != null) {
-            keys = IDPCache.idpSessionsByIndices.keys();
+            keys = Collections.enumeration(IDPCache.idpSessionsByIndices.keySet());
         } else {
             if (debug.messageEnabled()) {
                 debug.message(method+"IDPCache.idpSessionsByIndices is null.");
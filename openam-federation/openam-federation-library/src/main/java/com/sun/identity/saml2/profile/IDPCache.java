@@ -29,19 +29,27 @@
  */
 package com.sun.identity.saml2.profile;
 
-import com.sun.identity.common.PeriodicCleanUpMap;
 import java.util.Collections;
-import java.util.Hashtable;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.forgerock.openam.saml2.cache.SAML2Cache;
+
 /**
  * This class caches authn request objects and relay states
  * based on the request id of the authn requests 
  * It also caches idp session by session index. 
- * TODO: Add cleanup thread to update IDP Cache if the cached
- * objects stay in the cache longer than a certain Cache Duration.
+ * Each cache is a {@link SAML2Cache}; the maximum size and time to live of
+ * each can be overridden with the
+ * <code>com.sun.identity.saml2.cache.IDPCache.&lt;name&gt;.maxSize</code> and
+ * <code>.timeToLive</code> system properties.
+ * <p>
+ * Every cache is bounded and expires its entries. State for in flight
+ * requests expires after the cleanup interval. State held for the life of
+ * a session, such as the IDP sessions, expires after
+ * {@link SAML2Cache#DEFAULT_LONG_TIME_TO_LIVE} seconds, which must be raised
+ * if sessions may last longer. Configuration and plugin instances expire
+ * after the same time, and are reloaded by their callers when missing.
  */
 
 public class IDPCache {
@@ -56,8 +64,8 @@ public class IDPCache {
      * TODO : handle the case when assertion effective time is different
      *        from cleanup interval
      */
-    public static PeriodicCleanUpMap authnRequestCache = new PeriodicCleanUpMap(
-        SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache authnRequestCache =
+            SAML2Cache.create("IDPCache.authnRequestCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Cache saves the authn context objects before IDP redirects user to 
@@ -65,33 +73,33 @@ public class IDPCache {
      * Key : request ID String
      * Value : AuthnContext object
      */
-    public static PeriodicCleanUpMap idpAuthnContextCache = 
-        new PeriodicCleanUpMap(
-            SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache idpAuthnContextCache =
+            SAML2Cache.create("IDPCache.idpAuthnContextCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Cache saves the assertion objects.
      * Key : user ID String
      * Value : list of assertion objects
      */
-    public static Hashtable assertionCache = new Hashtable();
+    public static SAML2Cache assertionCache =
+            SAML2Cache.create("IDPCache.assertionCache", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the assertion objects.
      * Key : assertion ID String
      * Value : assertion object
      */
-    public static PeriodicCleanUpMap assertionByIDCache =
-        new PeriodicCleanUpMap(SPCache.interval * 1000,
-        SPCache.interval * 1000); 
+    public static SAML2Cache assertionByIDCache =
+            SAML2Cache.create("IDPCache.assertionByIDCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Cache saves the relay state strings.
      * Key : request ID String
      * Value : relay state string
      */
-    public static PeriodicCleanUpMap relayStateCache = new PeriodicCleanUpMap(
-        SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache relayStateCache =
+            SAML2Cache.create("IDPCache.relayStateCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Cache saves the idp sessions.
@@ -99,69 +107,90 @@ public class IDPCache {
      * value :IDPSession
      * IDP: used in SingleSignOnService and SingleLogoutService
      *      to invalidate a specific session
+     * Sessions evicted to keep the cache within its maximum size are written
+     * to the SAML2 token repository when failover is enabled, where they are
+     * found by the failover reads of the repository. A read of this cache is
+     * never served from the repository.
      */
-    public static Hashtable<String, IDPSession> idpSessionsByIndices = new Hashtable<String, IDPSession>();
+    public static SAML2Cache<String, IDPSession> idpSessionsByIndices =
+            SAML2Cache.create("IDPCache.idpSessionsByIndices", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE, new IDPSessionSpillStore());
 
     /**
      * Cache saves Responses to be used by ArtifactResolutionService.
      * key --- artifact string (after encoding and all that)
      * value --- Response
      * IDP: used in SingleSignOnService and ArtifactResolutionService
+     * When failover is enabled every response is also saved to the SAML2
+     * token repository, from which ArtifactResolutionService resolves
+     * artifacts missing from this cache, including evicted ones.
      * TODO : handle the case when artifact expiration time is different
      *        from cleanup interval
      */
-    public static PeriodicCleanUpMap responsesByArtifacts = 
-       new PeriodicCleanUpMap(SPCache.interval * 1000, SPCache.interval * 1000);
+    public static SAML2Cache responsesByArtifacts =
+            SAML2Cache.create("IDPCache.responsesByArtifacts", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Hashtable saves the MNI request info.
      * Key   :   requestID String
      * Value : ManageNameIDRequestInfo object
      */
-    public static PeriodicCleanUpMap mniRequestHash = new PeriodicCleanUpMap(
-        SPCache.interval * 1000, SPCache.interval * 1000);
+    public static SAML2Cache mniRequestHash =
+            SAML2Cache.create("IDPCache.mniRequestHash", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Cache saves the idp attribute mapper.
      * Key : idp attribute mapper class name
      * Value : idp attribute mapper object
      */
-    public static Hashtable idpAttributeMapperCache = new Hashtable(); 
+    public static SAML2Cache idpAttributeMapperCache =
+            SAML2Cache.create("IDPCache.idpAttributeMapperCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the idp account mapper.
      * Key : idp account mapper class name
      * Value : idp account mapper object
      */
-    public static Hashtable idpAccountMapperCache = new Hashtable();
+    public static SAML2Cache idpAccountMapperCache =
+            SAML2Cache.create("IDPCache.idpAccountMapperCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the idp authn context mapper.
      * Key : idp authn context mapper class name
      * Value : idp authn context mapper object
      */
-    public static Hashtable idpAuthnContextMapperCache = new Hashtable(); 
+    public static SAML2Cache idpAuthnContextMapperCache =
+            SAML2Cache.create("IDPCache.idpAuthnContextMapperCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the idp ecp session mapper.
      * Key : idp ecp session mapper class name
      * Value : idp ecp session mapper object
      */
-    public static Hashtable idpECPSessionMapperCache = new Hashtable(); 
+    public static SAML2Cache idpECPSessionMapperCache =
+            SAML2Cache.create("IDPCache.idpECPSessionMapperCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
      /**
      * Cache saves the IDP Proxy Finder.
      * Key : IDP Proxy Finder class name
      * Value : IDP Proxy Finder mapper object
      */
-    public static Hashtable idpProxyFinderCache = new Hashtable();
+    public static SAML2Cache idpProxyFinderCache =
+            SAML2Cache.create("IDPCache.idpProxyFinderCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the IDP Adapter.
      * Key : IDP Adapter class name
      * Value : IDP Adapter mapper object
      */
-    public static Hashtable idpAdapterCache = new Hashtable();
+    public static SAML2Cache idpAdapterCache =
+            SAML2Cache.create("IDPCache.idpAdapterCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves information needed after coming back from COT cookie setting.
@@ -169,8 +198,8 @@ public class IDPCache {
      * value --- Response Information List (ArrayList of size 9)
      * IDP: used in SingleSignOnService and ArtifactResolutionService
      */
-    public static PeriodicCleanUpMap responseCache = new PeriodicCleanUpMap(
-        SPCache.interval * 1000, SPCache.interval * 1000);
+    public static SAML2Cache responseCache =
+            SAML2Cache.create("IDPCache.responseCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
  
     /**
      * Cache saves informate needed to determine the Authentication
@@ -178,7 +207,9 @@ public class IDPCache {
      * key   : sessionIndex (String)
      * value : the AuthnContext object
      */
-    public static Hashtable authnContextCache = new Hashtable();
+    public static SAML2Cache authnContextCache =
+            SAML2Cache.create("IDPCache.authnContextCache", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves information to determine if the request was
@@ -186,63 +217,67 @@ public class IDPCache {
      * key   : requestID (String)
      * value : session upgrade (Boolean)
      */
-    public static Set isSessionUpgradeCache =  
-        Collections.synchronizedSet(new HashSet());
+    public static Set isSessionUpgradeCache = Collections.newSetFromMap(
+            SAML2Cache.create("IDPCache.isSessionUpgradeCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval));
 
     /**
      * Cache saves the IDP Session object before an session upgrade.
      * key    : requestID (String)
      * value  : IDPSession object.
      */
-    public static Hashtable oldIDPSessionCache = new Hashtable();
+    public static SAML2Cache oldIDPSessionCache =
+            SAML2Cache.create("IDPCache.oldIDPSessionCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
     
     /**
       * Cache saves the original AuthnRequest coming from SP to IDP proxy
       * key   : requestID (String) 
       * value : AuthnRequest 
       */ 
-    public static PeriodicCleanUpMap proxySPAuthnReqCache =
-         new PeriodicCleanUpMap(
-         SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache proxySPAuthnReqCache =
+            SAML2Cache.create("IDPCache.proxySPAuthnReqCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /** 
       * Cache saves the IDPSession per session ID.
       * key   : sessionId (String) 
       * value : IDPSession
       */
-    public static Hashtable<String, IDPSession> idpSessionsBySessionID = new Hashtable<>();
+    public static SAML2Cache<String, IDPSession> idpSessionsBySessionID =
+            SAML2Cache.create("IDPCache.idpSessionsBySessionID", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
     
     /** 
       * Cache saves user ID for transient NameID 
       * key   : NameID value (String) 
       * value : user ID 
       */
-    public static Hashtable userIDByTransientNameIDValue = new Hashtable(); 
+    public static SAML2Cache userIDByTransientNameIDValue =
+            SAML2Cache.create("IDPCache.userIDByTransientNameIDValue", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /** 
       * Cache saves the original LogoutRequest coming from SP to IDP proxy
       * key   : requestID (String) 
       * value : LogoutRequest
       */
-    public static PeriodicCleanUpMap proxySPLogoutReqCache =
-        new PeriodicCleanUpMap(
-        SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache proxySPLogoutReqCache =
+            SAML2Cache.create("IDPCache.proxySPLogoutReqCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
     
     /** 
       * Cache saves the SOAPMessage created by proxy IDP to the original SP
       * key   : requestID (String) 
       * value : SOAPMessage
       */
-    public static PeriodicCleanUpMap SOAPMessageByLogoutRequestID =
-         new PeriodicCleanUpMap(
-         SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache SOAPMessageByLogoutRequestID =
+            SAML2Cache.create("IDPCache.SOAPMessageByLogoutRequestID", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
     
     /**
       * Cache saves the SAML2 Session Partner's providerID 
       * key   : sessionId (String)
       * value : SAML2 SessionPartner's provider id 
       */
-    public static Hashtable<String, String> spSessionPartnerBySessionID = new Hashtable<>();
+    public static SAML2Cache<String, String> spSessionPartnerBySessionID =
+            SAML2Cache.create("IDPCache.spSessionPartnerBySessionID", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
     
      /** 
       * Cache saves the original LogoutResponse generated by IDP proxy 
@@ -251,16 +286,17 @@ public class IDPCache {
       * value : Map keeping LogoutResponse, sending location, 
       *         spEntityID and idpEntityID. 
       */
-     public static PeriodicCleanUpMap logoutResponseCache =
-          new PeriodicCleanUpMap(
-          SPCache.interval * 1000, SPCache.interval * 1000); 
+    public static SAML2Cache logoutResponseCache =
+            SAML2Cache.create("IDPCache.logoutResponseCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
     /**
      * Hashtable saves AuthnContextClassRef to auth schems mapping
      * key  : hostEntityID + "|" + realmName
      * value: Map containing AuthnContext class ref as Key and 
      *            Set of auth schemes as value.
      */
-    public static Hashtable classRefSchemesHash = new Hashtable();
+    public static SAML2Cache classRefSchemesHash =
+            SAML2Cache.create("IDPCache.classRefSchemesHash", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Hashtable saves AuthnContextClassRef to AuthLevel mapping
@@ -268,14 +304,18 @@ public class IDPCache {
      * value: Map containing AuthnContext class ref as Key and 
      *            authLevel as value.
      */
-    public static Hashtable classRefLevelHash = new Hashtable();
+    public static SAML2Cache classRefLevelHash =
+            SAML2Cache.create("IDPCache.classRefLevelHash", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Hashtable saves AuthLevel to AuthnContextClassRef mapping
      * key  : hostEntityID + "|" + realmName
      * value: String default AuthnContext Class Ref.
      */
-    public static Hashtable defaultClassRefHash = new Hashtable();
+    public static SAML2Cache defaultClassRefHash =
+            SAML2Cache.create("IDPCache.defaultClassRefHash", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Hashtable saves NameID format to user profile attribute mapping
@@ -283,7 +323,9 @@ public class IDPCache {
      * value: Map containing NameNameID format as Key and user profile
      *     attribute name as Value.
      */
-    public static final Map<String, Map<String, String>> formatAttributeHash = new Hashtable<>();
+    public static final Map<String, Map<String, String>> formatAttributeHash =
+            SAML2Cache.create("IDPCache.formatAttributeHash", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the <code>AttributeConsentCache</code> objects.
@@ -291,8 +333,8 @@ public class IDPCache {
      * Value : <code>AttributeConsentCache</code> object
      * from cleanup interval
      */
-    public static PeriodicCleanUpMap attributeConsentCache = new PeriodicCleanUpMap(
-            SPCache.interval * 1000, SPCache.interval * 1000);
+    public static SAML2Cache attributeConsentCache =
+            SAML2Cache.create("IDPCache.attributeConsentCache", SAML2Cache.DEFAULT_MAX_SIZE, SPCache.interval);
 
     /**
      * Clears the authn context mapping hash tables.
@@ -25,6 +25,7 @@
  * $Id: IDPProxyUtil.java,v 1.18 2009/11/20 21:41:16 exu Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.saml2.profile;
@@ -277,9 +278,7 @@ public class IDPProxyUtil {
         AuthnRequestInfo reqInfo = new AuthnRequestInfo(request, response,
                 realm, hostedEntityId, preferredIDP, newAuthnRequest, relayState,
                 null);
-        synchronized(SPCache.requestHash) {
-            SPCache.requestHash.put(requestID, reqInfo);
-        }
+        SPCache.requestHash.put(requestID, reqInfo);
         if (SAML2FailoverUtils.isSAML2FailoverEnabled()) {
             try {
                 // sessionExpireTime is counted in seconds
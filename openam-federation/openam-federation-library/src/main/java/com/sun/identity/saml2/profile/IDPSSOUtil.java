@@ -1036,8 +1036,8 @@ public class IDPSSOUtil {
         }
         NameIDandSPpair pair = new NameIDandSPpair(subject.getNameID(), spEntityID);
 
-        synchronized (IDPCache.idpSessionsByIndices) {
-            List<NameIDandSPpair> list = idpSession.getNameIDandSPpairs();
+        List<NameIDandSPpair> list = idpSession.getNameIDandSPpairs();
+        synchronized (list) {
             String id;
             if (authnReq != null) {
                 id = authnReq.getIssuer().getValue();
@@ -1096,16 +1096,7 @@ public class IDPSSOUtil {
 
             String cacheKey = userName.toLowerCase();
 
-            List assertions = (List) IDPCache.assertionCache.get(cacheKey);
-            if (assertions == null) {
-                synchronized (IDPCache.assertionCache) {
-                    assertions = (List) IDPCache.assertionCache.get(cacheKey);
-                    if (assertions == null) {
-                        assertions = new ArrayList();
-                        IDPCache.assertionCache.put(cacheKey, assertions);
-                    }
-                }
-            }
+            List assertions = (List) IDPCache.assertionCache.computeIfAbsent(cacheKey, key -> new ArrayList());
             synchronized (assertions) {
                 assertions.add(assertion);
             }
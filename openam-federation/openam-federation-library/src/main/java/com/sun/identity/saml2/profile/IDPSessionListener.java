@@ -25,6 +25,7 @@
  * $Id: IDPSessionListener.java,v 1.10 2009/09/23 22:28:31 bigfatrat Exp $
  *
  * Portions Copyrighted 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.profile;
 
@@ -208,8 +209,8 @@ public class IDPSessionListener
                            "IDPSessionListener.sessionInvalidated:", s);
                 }
                
-                synchronized(IDPCache.idpSessionsByIndices) {
-                    List list = (List)idpSession.getNameIDandSPpairs();
+                List list = (List)idpSession.getNameIDandSPpairs();
+                synchronized(list) {
                     for(Iterator iter = list.iterator(); iter.hasNext();) {
                         NameIDandSPpair pair = (NameIDandSPpair)iter.next();
                         NameID nameID = pair.getNameID();
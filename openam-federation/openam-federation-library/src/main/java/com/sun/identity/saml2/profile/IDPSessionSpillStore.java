@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.saml2.profile;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import org.forgerock.openam.federation.saml2.SAML2TokenRepositoryException;
+import org.forgerock.openam.saml2.cache.SpillStore;
+
+import com.sun.identity.plugin.session.SessionException;
+import com.sun.identity.plugin.session.SessionManager;
+import com.sun.identity.saml2.common.SAML2FailoverUtils;
+import com.sun.identity.saml2.common.SAML2Utils;
+
+/**
+ * Spills IDP sessions evicted from {@link IDPCache#idpSessionsByIndices} to the SAML2 token repository, in the same
+ * form and under the same key that {@link IDPSSOUtil} saves them for failover. An evicted session is then found by
+ * the existing failover reads of the repository, such as those in {@link IDPSSOUtil} and {@link IDPSingleLogout},
+ * with the participants it had when it was evicted.
+ */
+class IDPSessionSpillStore implements SpillStore<String, IDPSession> {
+
+    @Override
+    public boolean isEnabled() {
+        return SAML2FailoverUtils.isSAML2FailoverEnabled();
+    }
+
+    @Override
+    public void store(String sessionIndex, IDPSession idpSession) {
+        Object session = idpSession.getSession();
+        if (session == null) {
+            return;
+        }
+        try {
+            long sessionExpireTime = currentTimeMillis() / 1000
+                    + SessionManager.getProvider().getTimeLeft(session);
+            SAML2FailoverUtils.saveSAML2TokenWithoutSecondaryKey(sessionIndex, new IDPSessionCopy(idpSession),
+                    sessionExpireTime);
+        } catch (SessionException se) {
+            if (SAML2Utils.debug.messageEnabled()) {
+                SAML2Utils.debug.message("IDPSessionSpillStore.store: session for sessionIndex " + sessionIndex
+                        + " is no longer valid, not spilling", se);
+            }
+        } catch (SAML2TokenRepositoryException se) {
+            SAML2Utils.debug.error("IDPSessionSpillStore.store: Unable to save IDPSession to the SAML2 Token "
+                    + "Repository for sessionIndex:" + sessionIndex, se);
+        }
+    }
+}
@@ -25,11 +25,13 @@
  * $Id: IDPSingleLogout.java,v 1.28 2009/11/25 01:20:47 madan_ranganath Exp $
  *
  * Portions Copyrighted 2010-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.profile;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -1391,7 +1393,7 @@ public class IDPSingleLogout {
         String  userToLogout, HttpServletRequest request,
         HttpServletResponse response) {
 
-        Enumeration keys = IDPCache.idpSessionsByIndices.keys();
+        Enumeration keys = Collections.enumeration(IDPCache.idpSessionsByIndices.keySet());
         String idpSessionIndex = null;
         IDPSession idpSession = null;
         Object idpToken = null;
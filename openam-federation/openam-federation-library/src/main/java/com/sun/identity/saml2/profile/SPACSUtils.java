@@ -25,6 +25,7 @@
  * $Id: SPACSUtils.java,v 1.48 2009/11/20 21:41:16 exu Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.profile;
 
@@ -245,9 +246,7 @@ public class SPACSUtils {
                 SAML2Utils.debug.message("SPACSUtils.getResponseFromGet: resID="
                         + resID);
             }
-            synchronized (SPCache.responseHash) {
-                respInfo = (ResponseInfo) SPCache.responseHash.remove(resID);
-            }
+            respInfo = (ResponseInfo) SPCache.responseHash.remove(resID);
             if (respInfo == null) {
                 if (SAML2Utils.debug.messageEnabled()) {
                     SAML2Utils.debug.message("SPACSUtils.getResponseFromGet: "
@@ -1517,13 +1516,8 @@ public class SPACSUtils {
             List fedSessions = (List)
                 SPCache.fedSessionListsByNameIDInfoKey.get(infoKeyString);
             if (fedSessions == null) {
-                synchronized (SPCache.fedSessionListsByNameIDInfoKey) {
-                    fedSessions = (List)
-                    SPCache.fedSessionListsByNameIDInfoKey.get(infoKeyString);
-                    if (fedSessions == null) {
-                        fedSessions = new ArrayList();
-                    }
-                }  
+                fedSessions = (List) SPCache.fedSessionListsByNameIDInfoKey.computeIfAbsent(infoKeyString,
+                        key -> new ArrayList());
                 synchronized (fedSessions) {
                     fedSessions.add(new SPFedSession(sessionIndex, tokenID,
                         info, metaAlias));
@@ -1803,10 +1797,7 @@ public class SPACSUtils {
         }
 
         respInfo.setIsLocalLogin(true);
-        synchronized (SPCache.responseHash) {
-           SPCache.responseHash.put(respInfo.getResponse().getID(), 
-               respInfo);
-        }   
+        SPCache.responseHash.put(respInfo.getResponse().getID(), respInfo);
         if (SAML2Utils.debug.messageEnabled()) {
             SAML2Utils.debug.message("SPACSUtils:prepareForLocalLogin: " +
                 "localLoginUrl = " + localLoginUrl);
@@ -25,14 +25,14 @@
  * $Id: SPCache.java,v 1.17 2009/06/09 20:28:32 exu Exp $
  *
  * Portions Copyrighted 2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 
 package com.sun.identity.saml2.profile;
 
-import java.util.Hashtable;
+import org.forgerock.openam.saml2.cache.SAML2Cache;
 
-import com.sun.identity.common.PeriodicCleanUpMap;
 import com.sun.identity.saml2.common.SAML2Constants;
 import com.sun.identity.saml2.common.SAML2Utils;
 import com.sun.identity.shared.configuration.SystemPropertiesManager;
@@ -40,6 +40,7 @@ import com.sun.identity.shared.configuration.SystemPropertiesManager;
 
 /**
  * This class provides the memory store for SAML request and response information on Service Provider side.
+ * Each store is a {@link SAML2Cache}, sized and expired as described by {@link IDPCache}.
  */
 
 public class SPCache {
@@ -84,40 +85,40 @@ public class SPCache {
      * Key   :   A unique key String value
      * Value : AuthnRequest object
      */
-    final public static PeriodicCleanUpMap authnRequestHash = new PeriodicCleanUpMap(
-            interval * 1000, interval * 1000);
+    final public static SAML2Cache authnRequestHash =
+            SAML2Cache.create("SPCache.authnRequestHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Map saves data on whether the account was federated.
      * Key   :   A unique key String value
      * Value : String representing boolean val
      */
-    final public static PeriodicCleanUpMap fedAccountHash = new PeriodicCleanUpMap(
-            interval * 1000, interval * 1000);
+    final public static SAML2Cache fedAccountHash =
+            SAML2Cache.create("SPCache.fedAccountHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Map saves the request info.
      * Key   :   requestID String
      * Value : AuthnRequestInfo object
      */
-    final public static PeriodicCleanUpMap requestHash = new PeriodicCleanUpMap(
-        interval * 1000, interval * 1000); 
+    final public static SAML2Cache requestHash =
+            SAML2Cache.create("SPCache.requestHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Map saves the MNI request info.
      * Key   :   requestID String
      * Value : ManageNameIDRequestInfo object
      */
-    final protected static PeriodicCleanUpMap mniRequestHash = new PeriodicCleanUpMap(
-        interval * 1000, interval * 1000);
+    final protected static SAML2Cache mniRequestHash =
+            SAML2Cache.create("SPCache.mniRequestHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Map to save the relayState URL.
      * Key  : a String the relayStateID 
      * Value: a String the RelayState Value 
      */
-    final public static PeriodicCleanUpMap relayStateHash= new PeriodicCleanUpMap(
-        interval * 1000, interval * 1000);
+    final public static SAML2Cache relayStateHash =
+            SAML2Cache.create("SPCache.relayStateHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Hashtable stores information required for LogoutRequest consumption.
@@ -127,7 +128,9 @@ public class SPCache {
      *                     - sp token id (String)                     
      * one key --- multiple SPFedSession's
      */
-    final public static Hashtable fedSessionListsByNameIDInfoKey = new Hashtable();
+    final public static SAML2Cache fedSessionListsByNameIDInfoKey =
+            SAML2Cache.create("SPCache.fedSessionListsByNameIDInfoKey", SAML2Cache.DEFAULT_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * SP: used to map LogoutRequest ID and inResponseTo in LogoutResponse
@@ -135,23 +138,25 @@ public class SPCache {
      * key : request ID (String)
      * value : original logout request object  (LogotRequest)
      */
-    final public static PeriodicCleanUpMap logoutRequestIDHash =
-        new PeriodicCleanUpMap(interval * 1000, interval * 1000);
+    final public static SAML2Cache logoutRequestIDHash =
+            SAML2Cache.create("SPCache.logoutRequestIDHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Map saves response info for local auth.
      * Key: requestID String
      * Value: ResponseInfo object
      */
-    final protected static PeriodicCleanUpMap responseHash = new PeriodicCleanUpMap(
-        interval * 1000, interval * 1000);
+    final protected static SAML2Cache responseHash =
+            SAML2Cache.create("SPCache.responseHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
     /**
      * Hashtable saves AuthnContext Mapper object.
      * Key: hostEntityID+realmName
      * Value: SPAuthnContextMapper
      */
-    final public static Hashtable authCtxObjHash = new Hashtable();
+    final public static SAML2Cache authCtxObjHash =
+            SAML2Cache.create("SPCache.authCtxObjHash", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Hashtable saves AuthnContext class name and the authLevel. 
@@ -159,7 +164,9 @@ public class SPCache {
      * Value: Map containing AuthContext Class Name as Key and value
      *              is authLevel.
      */
-    final public static Hashtable authContextHash = new Hashtable();
+    final public static SAML2Cache authContextHash =
+            SAML2Cache.create("SPCache.authContextHash", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Hashtable saves the Request Parameters before redirecting
@@ -167,8 +174,8 @@ public class SPCache {
      * Key: requestID a String
      * Value : Request Parameters Map , a Map
      */
-    final public static PeriodicCleanUpMap reqParamHash = new PeriodicCleanUpMap(
-        SPCache.interval * 1000, SPCache.interval * 1000);
+    final public static SAML2Cache reqParamHash =
+            SAML2Cache.create("SPCache.reqParamHash", SAML2Cache.DEFAULT_MAX_SIZE, interval);
 
 
     /**
@@ -176,7 +183,9 @@ public class SPCache {
      * Key : sp account mapper class name
      * Value : sp account mapper object
      */
-    final public static Hashtable spAccountMapperCache = new Hashtable();
+    final public static SAML2Cache spAccountMapperCache =
+            SAML2Cache.create("SPCache.spAccountMapperCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
     
     /**
      * Cache saves the sp adapter class instance.
@@ -184,7 +193,9 @@ public class SPCache {
      * Value : sp adapter class instance 
      * (<code>SAML2ServiceProviderAdapter</code>)
      */
-    final public static Hashtable spAdapterClassCache = new Hashtable();
+    final public static SAML2Cache spAdapterClassCache =
+            SAML2Cache.create("SPCache.spAdapterClassCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the fedlet adapter class instance.
@@ -192,23 +203,26 @@ public class SPCache {
      * Value : fedlet adapter class instance 
      * (<code>FedletAdapter</code>)
      */
-    public static Hashtable fedletAdapterClassCache = new Hashtable();
+    public static SAML2Cache fedletAdapterClassCache =
+            SAML2Cache.create("SPCache.fedletAdapterClassCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the ecp request IDP list finder.
      * Key : ecp request IDP list finder class name
      * Value : ecp request IDP list finder object
      */
-    final public static Hashtable ecpRequestIDPListFinderCache = new Hashtable();
+    final public static SAML2Cache ecpRequestIDPListFinderCache =
+            SAML2Cache.create("SPCache.ecpRequestIDPListFinderCache", SAML2Cache.DEFAULT_CONFIG_MAX_SIZE,
+                    SAML2Cache.DEFAULT_LONG_TIME_TO_LIVE);
 
     /**
      * Cache saves the assertion id.
      * Key : assertion ID String
      * Value : Constant  
      */
-    final public static PeriodicCleanUpMap assertionByIDCache =
-        new PeriodicCleanUpMap(interval * 1000,
-        interval * 1000);
+    final public static SAML2Cache assertionByIDCache =
+            SAML2Cache.create("SPCache.assertionByIDCache", SAML2Cache.DEFAULT_MAX_SIZE, interval);
     
     /**
      * Clears the auth context object hash table.
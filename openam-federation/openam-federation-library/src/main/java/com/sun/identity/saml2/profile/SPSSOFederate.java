@@ -25,6 +25,7 @@
  * $Id: SPSSOFederate.java,v 1.29 2009/11/24 21:53:28 madan_ranganath Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.profile;
 
@@ -308,9 +309,7 @@ public class SPSSOFederate {
                 new AuthnRequestInfo(request, response, realm, spEntityID,
                         idpEntityID, authnRequest, relayState, paramsMap);
 
-            synchronized(SPCache.requestHash) {             
-                SPCache.requestHash.put(authnRequest.getID(),reqInfo);
-            }
+            SPCache.requestHash.put(authnRequest.getID(),reqInfo);
 
             if (SAML2FailoverUtils.isSAML2FailoverEnabled()) {
                 // sessionExpireTime is counted in seconds
@@ -675,9 +674,7 @@ public class SPSSOFederate {
                 new AuthnRequestInfo(request,response,realm,spEntityID,
                                      null, authnRequest,relayState,
                                      paramsMap);
-            synchronized(SPCache.requestHash) {             
-                SPCache.requestHash.put(authnRequest.getID(),reqInfo);
-            }
+            SPCache.requestHash.put(authnRequest.getID(),reqInfo);
             if (SAML2FailoverUtils.isSAML2FailoverEnabled()) {
                 // sessionExpireTime is counted in seconds
                 long sessionExpireTime = currentTimeMillis() / 1000 + SPCache.interval;
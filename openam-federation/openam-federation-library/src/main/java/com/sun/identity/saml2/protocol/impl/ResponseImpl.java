@@ -24,7 +24,7 @@
  *
  * $Id: ResponseImpl.java,v 1.4 2009/12/16 05:26:39 ericow Exp $
  *
- * Portions Copyrighted 2021 OSSTech Corporation
+ * Portions Copyrighted 2021-2026 OSSTech Corporation
  */
 
 
@@ -294,9 +294,10 @@ public class ResponseImpl extends StatusResponseImpl implements Response {
         throws SAML2Exception {
         parseElement(element);
         if (isSigned) {
-            signedXMLString = XMLUtils.print(element,
-                "UTF-8");
-
+            signedDocument = XMLUtils.toDOMDocument(element, SAML2SDKUtils.debug);
+            if (signedDocument == null) {
+                signedXMLString = XMLUtils.print(element, "UTF-8");
+            }
         }
     }
 
@@ -416,8 +417,9 @@ public class ResponseImpl extends StatusResponseImpl implements Response {
      **/
     public String toXMLString(boolean includeNSPrefix, boolean declareNS)
 	throws SAML2Exception {
-	if (isSigned && signedXMLString != null) {
-	    return signedXMLString;
+	String signedXML = isSigned ? getSignedXMLString() : null;
+	if (signedXML != null) {
+	    return signedXML;
 	}
 	this.validateData();
         StringBuffer result = new StringBuffer(1000);
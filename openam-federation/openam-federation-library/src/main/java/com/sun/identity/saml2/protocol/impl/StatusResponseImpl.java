@@ -25,7 +25,7 @@
  * $Id: StatusResponseImpl.java,v 1.4 2008/06/25 05:48:01 qcheng Exp $
  *
  * Portions Copyrighted 2015 ForgeRock AS.
- * Portions Copyrighted 2021 OSSTech Corporation
+ * Portions Copyrighted 2021-2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.protocol.impl;
 
@@ -48,6 +48,7 @@ import java.security.cert.X509Certificate;
 import java.util.Set;
 
 import com.sun.identity.saml2.xmlsig.SigManager;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import com.sun.identity.shared.xml.XMLUtils;
 
@@ -75,6 +76,9 @@ public abstract class StatusResponseImpl implements StatusResponse {
     protected boolean isMutable = false;
     protected PublicKey publicKey = null;
     protected String  signedXMLString = null;
+    // signed response read from DOM, kept as a document of its own so that
+    // it is verified without printing and parsing it again
+    protected Document signedDocument = null;
 
     /**
      * Returns the value of the version property.
@@ -361,10 +365,31 @@ public abstract class StatusResponseImpl implements StatusResponse {
     public boolean isSignatureValid(Set<X509Certificate> verificationCerts)
         throws SAML2Exception { 	
         if (isSignatureValid == null) {
-             isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
+            if (signedDocument != null) {
+                synchronized (this) {
+                    isSignatureValid = SigManager.getSigInstance().verify(signedDocument, getID(),
+                            verificationCerts);
+                }
+            } else {
+                isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
+            }
          }
          return isSignatureValid.booleanValue();
     }   
+
+    /**
+     * Returns the signed XML string, printing it from the signed document
+     * the first time it is needed.
+     *
+     * @return the signed XML string, or null if the response was not read
+     *         from signed XML.
+     */
+    protected synchronized String getSignedXMLString() {
+        if (signedXMLString == null && signedDocument != null) {
+            signedXMLString = XMLUtils.print(signedDocument.getDocumentElement(), "UTF-8");
+        }
+        return signedXMLString;
+    }
     
     /**
      * Returns the <code>StatusResponse</code> in an XML document String format
@@ -25,9 +25,11 @@
  * $Id: EncProvider.java,v 1.3 2008/06/25 05:48:03 qcheng Exp $
  *
  * Portions Copyrighted 2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.xmlenc;
 
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import java.security.Key;
 import java.security.PrivateKey;
@@ -35,6 +37,7 @@ import java.util.Set;
 import javax.crypto.SecretKey;
 
 import com.sun.identity.saml2.common.SAML2Exception;
+import com.sun.identity.shared.xml.XMLUtils;
 
 /**
  * <code>EncProvider</code> is an interface for encrypting and 
@@ -111,6 +114,32 @@ public interface EncProvider {
 
 	throws SAML2Exception;
 
+    /**
+     * Encrypts the root element of the given DOM document, in the same way as
+     * {@link #encrypt(String, Key, SecretKey, String, int, String, String)}.
+     * The document is consumed: its root element is replaced by the encrypted
+     * data, so callers which still need the plain XML should pass a copy.
+     * @param doc Document whose root element is to be encrypted.
+     * @param recipientPublicKey Public key used to encrypt the data encryption
+     *                           (secret) key.
+     * @param secretKey the secret key used to encrypted data, or null to use
+     *                  the cached or a newly generated one.
+     * @param dataEncAlgorithm Data encryption algorithm.
+     * @param dataEncStrength Data encryption strength.
+     * @param recipientEntityID Unique identifier of the recipient, it is used
+     *                          as the index to the cached secret key.
+     * @param outerElementName Name of the element that will wrap around the
+     *                         encrypted data and encrypted key(s) sub-elements
+     * @return org.w3c.dom.Element Root element of the encypted document
+     * @exception SAML2Exception if there is an error during the encryption
+     *                           process
+     */
+    default Element encrypt(Document doc, Key recipientPublicKey, SecretKey secretKey, String dataEncAlgorithm,
+            int dataEncStrength, String recipientEntityID, String outerElementName) throws SAML2Exception {
+        return encrypt(doc == null ? null : XMLUtils.print(doc.getDocumentElement(), "UTF-8"), recipientPublicKey,
+                secretKey, dataEncAlgorithm, dataEncStrength, recipientEntityID, outerElementName);
+    }
+
     /**
      * Returns the secret key that encrypts encrypted data and is encrypted
      * with recipient's public key in the XML document.
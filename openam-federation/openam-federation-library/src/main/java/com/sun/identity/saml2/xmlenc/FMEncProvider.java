@@ -174,11 +174,57 @@ public final class FMEncProvider implements EncProvider {
         String outerElementName)
     throws SAML2Exception {
 
+        if (xmlString == null || xmlString.length() == 0) {
+            SAML2SDKUtils.debug.error("FMEncProvider.encrypt: Null input parameter(s).");
+            throw new SAML2Exception(
+                SAML2SDKUtils.bundle.getString("nullInput"));
+        }
+        Document doc = XMLUtils.toDOMDocument(xmlString, SAML2SDKUtils.debug);
+        if (doc == null) {
+            throw new SAML2Exception(
+                SAML2SDKUtils.bundle.getString("errorObtainingElement"));
+        }
+        return encrypt(doc, recipientPublicKey, secretKey, dataEncAlgorithm, dataEncStrength, recipientEntityID,
+                outerElementName);
+    }
+
+    /**
+     * Encrypts the root element of the given DOM document without serializing
+     * it first. The root element of <code>doc</code> is replaced by the
+     * encrypted data.
+     * @param doc Document whose root element is to be encrypted.
+     * @param recipientPublicKey Public key used to encrypt the data encryption
+     *                           (secret) key, it is the public key of the
+     *                           recipient of the XML document to be encrypted.
+     * @param secretKey the secret key used to encrypted data.
+     * @param dataEncAlgorithm Data encryption algorithm.
+     * @param dataEncStrength Data encryption strength.
+     * @param recipientEntityID Unique identifier of the recipient, it is used
+     *                          as the index to the cached secret key so that
+     *                          the key can be reused for the same recipient.
+     * @param outerElementName Name of the element that will wrap around the
+     *                         encrypted data and encrypted key(s) sub-elements
+     * @return org.w3c.dom.Element Root element of the encypted document; The
+     *                             name of this root element is indicated by
+     *                             the last input parameter
+     * @exception SAML2Exception if there is an error during the encryption
+     *                           process
+     */
+    @Override
+    public Element encrypt(
+        Document doc,
+        Key recipientPublicKey,
+        SecretKey secretKey,
+        String dataEncAlgorithm,
+        int dataEncStrength,
+        String recipientEntityID,
+        String outerElementName)
+    throws SAML2Exception {
+
         String classMethod = "FMEncProvider.encrypt: ";
 
         // checking the input parameters
-        if (xmlString==null ||
-            xmlString.length()==0 ||
+        if (doc == null ||
             recipientPublicKey==null ||
             dataEncAlgorithm==null ||
             dataEncAlgorithm.length() == 0 ||
@@ -210,11 +256,6 @@ public final class FMEncProvider implements EncProvider {
             throw new SAML2Exception(SAML2SDKUtils.bundle.getString(
                 "algSizeMismatch"));
         }                
-        Document doc = XMLUtils.toDOMDocument(xmlString, SAML2SDKUtils.debug);
-        if (doc == null) {
-            throw new SAML2Exception(
-                SAML2SDKUtils.bundle.getString("errorObtainingElement"));
-        }
         if (dataEncStrength <= 0) {
             dataEncStrength = 128;
         }
@@ -35,8 +35,6 @@ import java.security.cert.X509Certificate;
 import java.util.Collections;
 import java.util.Set;
 
-import javax.xml.xpath.XPathException;
-
 import org.forgerock.openam.utils.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -55,9 +53,9 @@ import org.apache.xml.security.utils.ElementProxy;
 
 import com.sun.identity.shared.configuration.SystemPropertiesManager;
 import com.sun.identity.shared.xml.XMLUtils;
-import com.sun.identity.shared.xml.XPathAPI;
 
 import com.sun.identity.saml.common.SAMLConstants;
+import com.sun.identity.saml.xmlsig.OfflineResolver;
 import com.sun.identity.saml2.common.SAML2SDKUtils;
 import com.sun.identity.saml2.common.SAML2Exception;
 import com.sun.identity.saml2.common.SAML2Constants;
@@ -77,6 +75,8 @@ public final class FMSigProvider implements SigProvider {
     // flag to check if the partner's signing cert included in
     // the XML doc is the same as the one in its meta data
     private static boolean checkCert = true;
+    // the resolver keeps no state of its own, so one instance serves every signature
+    private static final OfflineResolver OFFLINE_RESOLVER = new OfflineResolver();
 
     static {
         org.apache.xml.security.Init.init();
@@ -132,6 +132,37 @@ public final class FMSigProvider implements SigProvider {
         if (StringUtils.isEmpty(xmlString)) {
             SAML2SDKUtils.debug.error(classMethod + "The xml to sign was empty.");
             throw new SAML2Exception(SAML2SDKUtils.BUNDLE_NAME, "emptyInputMessage", new String[]{"xml"});
+        }
+	    Document doc = XMLUtils.toDOMDocument(xmlString, SAML2SDKUtils.debug);
+        if (doc == null) {
+            throw new SAML2Exception(SAML2SDKUtils.bundle.getString("errorObtainingElement"));
+        }
+        return sign(doc, idValue, privateKey, cert);
+    }
+
+    /**
+     * Sign the root element of the given DOM document in place. The document
+     * is neither copied nor serialized, so callers which already hold the XML
+     * as DOM avoid a print and parse cycle.
+     * @param doc Document whose root element is to be signed
+     * @param idValue id attribute value of the root node to be signed
+     * @param privateKey Signing key
+     * @param cert Certificate which contain the public key correlated to
+     *             the signing key; It if is not null, then the signature
+     *             will include the certificate; Otherwise, the signature
+     *             will not include any certificate
+     * @return Element representing the signature element, inserted into
+     *         <code>doc</code>
+     * @throws SAML2Exception if the document could not be signed
+     */
+    @Override
+    public Element sign(Document doc, String idValue, PrivateKey privateKey, X509Certificate cert)
+            throws SAML2Exception {
+
+        String classMethod = "FMSigProvider.sign: ";
+        if (doc == null || doc.getDocumentElement() == null) {
+            SAML2SDKUtils.debug.error(classMethod + "The document to sign was null.");
+            throw new SAML2Exception(SAML2SDKUtils.BUNDLE_NAME, "nullInputMessage", new String[]{"document"});
         }
         if (StringUtils.isEmpty(idValue)) {
             SAML2SDKUtils.debug.error(classMethod + "The idValue was empty.");
@@ -141,10 +172,6 @@ public final class FMSigProvider implements SigProvider {
             SAML2SDKUtils.debug.error(classMethod + "The private key was null.");
             throw new SAML2Exception(SAML2SDKUtils.BUNDLE_NAME, "nullInputMessage", new String[]{"private key"});
         }                                                 
-	    Document doc = XMLUtils.toDOMDocument(xmlString, SAML2SDKUtils.debug);
-        if (doc == null) {
-            throw new SAML2Exception(SAML2SDKUtils.bundle.getString("errorObtainingElement"));
-        }
 	Element root = doc.getDocumentElement();
 	XMLSignature sig = null;
 	try {
@@ -187,8 +214,7 @@ public final class FMSigProvider implements SigProvider {
 	} else {
 	    root.insertBefore(sig.getElement(), nextSibling);
 	}
-	sig.getSignedInfo().addResourceResolver(   
-	    new com.sun.identity.saml.xmlsig.OfflineResolver()); 
+	sig.getSignedInfo().addResourceResolver(OFFLINE_RESOLVER);
 	Transforms transforms = new Transforms(doc);
 	try {
 	    transforms.addTransform(
@@ -256,22 +282,36 @@ public final class FMSigProvider implements SigProvider {
                             "errorObtainingElement")
             );
         }
-        Element nscontext = XMLUtils.createNamespaceElement(doc, "ds", Constants.SignatureSpecNS);
-        Element sigElement = null;
-        try {
-            sigElement = (Element) XPathAPI.selectSingleNode(
-                    doc,
-                    "//ds:Signature[1]", nscontext);
-        } catch (XPathException te) {
-            throw new SAML2Exception(te);
+        return verify(doc, idValue, verificationCerts);
+    }
+
+    /**
+     * Verify the signature of the given DOM document without serializing it.
+     * The first signature in the document must reference its root element,
+     * as for {@link #verify(String, String, Set)}.
+     *
+     * @param doc Document whose root element carries the signature.
+     * @param idValue id attribute value of the node whose signature is to be verified.
+     * @param verificationCerts Certificates containing the public keys which may be used for signature verification.
+     * @return true if the xml signature is verified, false otherwise.
+     * @throws SAML2Exception if problem occurs during verification.
+     */
+    @Override
+    public boolean verify(Document doc, String idValue, Set<X509Certificate> verificationCerts)
+            throws SAML2Exception {
+
+        String classMethod = "FMSigProvider.verify: ";
+        if (doc == null || StringUtils.isEmpty(idValue)) {
+            SAML2SDKUtils.debug.error(classMethod + "Either input document or idValue is null.");
+            throw new SAML2Exception(SAML2SDKUtils.bundle.getString("nullInput"));
         }
-        Element refElement;
-        try {
-            refElement = (Element) XPathAPI.selectSingleNode(
-                    doc,
-                    "//ds:Reference[1]", nscontext);
-        } catch (XPathException te) {
-            throw new SAML2Exception(te);
+        Element sigElement = (Element) doc.getElementsByTagNameNS(Constants.SignatureSpecNS,
+                Constants._TAG_SIGNATURE).item(0);
+        Element refElement = (Element) doc.getElementsByTagNameNS(Constants.SignatureSpecNS,
+                Constants._TAG_REFERENCE).item(0);
+        if (sigElement == null || refElement == null) {
+            SAML2SDKUtils.debug.error(classMethod + "The document does not contain a signature.");
+            throw new SAML2Exception(SAML2SDKUtils.bundle.getString("uriNoMatchWithId"));
         }
         String refUri = refElement.getAttribute("URI");
         String signedId = ((Element) sigElement.getParentNode()).getAttribute(SAML2Constants.ID);
@@ -291,9 +331,7 @@ public final class FMSigProvider implements SigProvider {
         } catch (XMLSecurityException xse) {
             throw new SAML2Exception(xse);
         }
-        signature.addResourceResolver(
-                new com.sun.identity.saml.xmlsig.
-                        OfflineResolver());
+        signature.addResourceResolver(OFFLINE_RESOLVER);
         KeyInfo ki = signature.getKeyInfo();
         X509Certificate certToUse = null;
         if (ki != null && ki.containsX509Data()) {
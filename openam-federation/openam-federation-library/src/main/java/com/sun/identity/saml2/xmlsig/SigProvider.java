@@ -25,6 +25,7 @@
  * $Id: SigProvider.java,v 1.2 2008/06/25 05:48:04 qcheng Exp $
  *
  * Portions Copyrighted 2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.saml2.xmlsig;
 
@@ -35,6 +36,7 @@ import java.security.cert.X509Certificate;
 import java.util.Set;
 
 import com.sun.identity.saml2.common.SAML2Exception;
+import com.sun.identity.shared.xml.XMLUtils;
 
 /**
  * <code>SigProvider</code> is an interface for signing
@@ -80,4 +82,42 @@ public interface SigProvider {
 	String idValue,
 	Set<X509Certificate> verificationCerts
     ) throws SAML2Exception;
+
+    /**
+     * Sign the root element of the given DOM document in place, in the same
+     * way as {@link #sign(String, String, PrivateKey, X509Certificate)}.
+     * Providers which cannot work on a DOM document sign a serialized copy of
+     * it, in which case the returned signature element belongs to that copy.
+     * @param doc Document whose root element is to be signed
+     * @param idValue id attribute value of the root node to be signed
+     * @param privateKey Signing key
+     * @param cert Certificate which contain the public key correlated to
+     *             the signing key; It if is not null, then the signature
+     *             will include the certificate; Otherwise, the signature
+     *             will not include any certificate
+     * @return Element representing the signature element; Its owner document
+     *         holds the signed XML
+     * @throws SAML2Exception if the document could not be signed
+     */
+    default Element sign(Document doc, String idValue, PrivateKey privateKey, X509Certificate cert)
+            throws SAML2Exception {
+        return sign(doc == null ? null : XMLUtils.print(doc.getDocumentElement(), "UTF-8"), idValue, privateKey,
+                cert);
+    }
+
+    /**
+     * Verify the signature of the root element of the given DOM document, in
+     * the same way as {@link #verify(String, String, Set)}.
+     *
+     * @param doc Document whose root element carries the signature.
+     * @param idValue id attribute value of the node whose signature is to be verified.
+     * @param verificationCerts Certificates containing the public keys which may be used for signature verification.
+     * @return true if the xml signature is verified, false otherwise.
+     * @throws SAML2Exception if problem occurs during verification.
+     */
+    default boolean verify(Document doc, String idValue, Set<X509Certificate> verificationCerts)
+            throws SAML2Exception {
+        return verify(doc == null ? null : XMLUtils.print(doc.getDocumentElement(), "UTF-8"), idValue,
+                verificationCerts);
+    }
 }
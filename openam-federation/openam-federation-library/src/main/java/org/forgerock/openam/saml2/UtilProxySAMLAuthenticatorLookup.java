@@ -106,10 +106,7 @@ public class UtilProxySAMLAuthenticatorLookup extends SAMLBase implements SAMLAu
 
         // Get the cached Authentication Request and Relay State before
         // invoking the IDP Adapter
-        CacheObject cacheObj;
-        synchronized (IDPCache.authnRequestCache) {
-            cacheObj = (CacheObject) IDPCache.authnRequestCache.get(data.getRequestID());
-        }
+        CacheObject cacheObj = (CacheObject) IDPCache.authnRequestCache.get(data.getRequestID());
         if (cacheObj != null) {
             data.setAuthnRequest((AuthnRequest) cacheObj.getObject());
         }
@@ -148,17 +145,13 @@ public class UtilProxySAMLAuthenticatorLookup extends SAMLBase implements SAMLAu
             throw new ServerFaultException(data.getIdpAdapter(), SSO_OR_FEDERATION_ERROR, e.getMessage());
         }
 
-        synchronized (IDPCache.authnRequestCache) {
-            cacheObj = (CacheObject) IDPCache.authnRequestCache.remove(data.getRequestID());
-        }
+        cacheObj = (CacheObject) IDPCache.authnRequestCache.remove(data.getRequestID());
 
         if (cacheObj != null) {
             data.setAuthnRequest((AuthnRequest) cacheObj.getObject());
         }
 
-        synchronized (IDPCache.idpAuthnContextCache) {
-            cacheObj = (CacheObject) IDPCache.idpAuthnContextCache.remove(data.getRequestID());
-        }
+        cacheObj = (CacheObject) IDPCache.idpAuthnContextCache.remove(data.getRequestID());
 
         if (cacheObj != null) {
             data.setMatchingAuthnContext((AuthnContext) cacheObj.getObject());
@@ -0,0 +1,575 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.saml2.cache;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.util.Reject;
+import org.forgerock.util.annotations.VisibleForTesting;
+
+import com.sun.identity.saml2.common.SAML2Utils;
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+
+/**
+ * A bounded, expiring, concurrent map used for the SAML2 profile caches in
+ * {@link com.sun.identity.saml2.profile.IDPCache} and {@link com.sun.identity.saml2.profile.SPCache}.
+ * <p>
+ * Each cache has a maximum number of entries and a time to live. Entries are discarded once their time to live
+ * has passed, either when they are next read or by {@link #purgeExpired()}, which is run for every registered cache
+ * by {@link com.sun.identity.saml2.profile.CacheCleanUpRunnable}. When a put takes the cache over its maximum size
+ * the least recently used entries are evicted, using a second chance (clock) approximation of LRU so that reads
+ * never need to reorder shared state. Reads are lock free.
+ * <p>
+ * A cache may be given a {@link SpillStore}. Entries evicted to keep the cache within its maximum size are then
+ * written to the store rather than dropped. This is used to move failover relevant state to the CTS under memory
+ * pressure. Reads never consult the store, so a read which misses in memory returns null just as it would for an
+ * entry that was never cached; callers which can recover a missing entry from the CTS do so explicitly, as the
+ * SAML2 failover code already does.
+ * <p>
+ * Null keys are not permitted. As the caches replaced by this class did not consistently reject null values, putting
+ * a null value removes any existing mapping for the key, so that a subsequent read returns null as before.
+ * <p>
+ * Each cache counts hits, misses, evictions, expiries and spills. These are exported as metrics by
+ * {@link SAML2CacheMetrics} and logged at message level by the cache clean up task.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ */
+public class SAML2Cache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    /**
+     * Value for the maximum size which places no bound on the number of entries.
+     */
+    public static final int UNBOUNDED = 0;
+
+    /**
+     * Value for the time to live under which entries never expire.
+     */
+    public static final long NO_EXPIRY = 0;
+
+    /**
+     * The default maximum size of the caches which hold state for in flight requests.
+     */
+    public static final int DEFAULT_MAX_SIZE = 100000;
+
+    /**
+     * The default maximum size of the caches which hold configuration and plugin instances.
+     */
+    public static final int DEFAULT_CONFIG_MAX_SIZE = 10000;
+
+    /**
+     * The default time to live in seconds of the caches which hold state for the life of a session, configuration
+     * or plugin instances. One day, which is well beyond the default maximum session time.
+     */
+    public static final long DEFAULT_LONG_TIME_TO_LIVE = 86400;
+
+    /**
+     * Prefix of the system properties used to override the maximum size and time to live of a cache. The
+     * properties are {@code com.sun.identity.saml2.cache.<name>.maxSize} and
+     * {@code com.sun.identity.saml2.cache.<name>.timeToLive}, the latter in seconds.
+     */
+    public static final String CACHE_PROPERTY_PREFIX = "com.sun.identity.saml2.cache.";
+
+    private static final String MAX_SIZE_SUFFIX = ".maxSize";
+    private static final String TIME_TO_LIVE_SUFFIX = ".timeToLive";
+
+    private static final List<SAML2Cache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final int maxSize;
+    private final long timeToLive;
+    private final SpillStore<K, V> spillStore;
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<K, V>> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder spills = new LongAdder();
+
+    /**
+     * Creates a cache without a spill store.
+     *
+     * @param name The name of the cache, used when reporting statistics.
+     * @param maxSize The maximum number of entries, or {@link #UNBOUNDED}.
+     * @param timeToLive The time to live of each entry in milliseconds, or {@link #NO_EXPIRY}.
+     */
+    public SAML2Cache(String name, int maxSize, long timeToLive) {
+        this(name, maxSize, timeToLive, null);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param name The name of the cache, used when reporting statistics.
+     * @param maxSize The maximum number of entries, or {@link #UNBOUNDED}.
+     * @param timeToLive The time to live of each entry in milliseconds, or {@link #NO_EXPIRY}.
+     * @param spillStore Possibly null store to which entries are evicted.
+     */
+    public SAML2Cache(String name, int maxSize, long timeToLive, SpillStore<K, V> spillStore) {
+        Reject.ifNull(name);
+        Reject.ifTrue(maxSize < 0, "Maximum size cannot be negative");
+        Reject.ifTrue(timeToLive < 0, "Time to live cannot be negative");
+        this.name = name;
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.spillStore = spillStore;
+    }
+
+    /**
+     * Creates and registers a cache whose maximum size and time to live may be overridden by system properties.
+     *
+     * @param name The name of the cache, used for its system properties and when reporting statistics.
+     * @param defaultMaxSize The maximum size to use if the property is not set.
+     * @param defaultTimeToLive The time to live in seconds to use if the property is not set.
+     * @param <K> The type of keys.
+     * @param <V> The type of values.
+     * @return A new registered cache.
+     */
+    public static <K, V> SAML2Cache<K, V> create(String name, int defaultMaxSize, long defaultTimeToLive) {
+        return create(name, defaultMaxSize, defaultTimeToLive, null);
+    }
+
+    /**
+     * Creates and registers a cache whose maximum size and time to live may be overridden by system properties.
+     *
+     * @param name The name of the cache, used for its system properties and when reporting statistics.
+     * @param defaultMaxSize The maximum size to use if the property is not set.
+     * @param defaultTimeToLive The time to live in seconds to use if the property is not set.
+     * @param spillStore Possibly null store to which entries are evicted.
+     * @param <K> The type of keys.
+     * @param <V> The type of values.
+     * @return A new registered cache.
+     */
+    public static <K, V> SAML2Cache<K, V> create(String name, int defaultMaxSize, long defaultTimeToLive,
+            SpillStore<K, V> spillStore) {
+        int maxSize = (int) Math.min(Integer.MAX_VALUE, getProperty(name + MAX_SIZE_SUFFIX, defaultMaxSize));
+        long timeToLive = getProperty(name + TIME_TO_LIVE_SUFFIX, defaultTimeToLive);
+        SAML2Cache<K, V> cache =
+                new SAML2Cache<>(name, maxSize, TimeUnit.SECONDS.toMillis(timeToLive), spillStore);
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * @return The caches created by {@link #create(String, int, long, SpillStore)}.
+     */
+    public static List<SAML2Cache<?, ?>> getCaches() {
+        return Collections.unmodifiableList(CACHES);
+    }
+
+    private static long getProperty(String name, long defaultValue) {
+        String value = SystemPropertiesManager.get(CACHE_PROPERTY_PREFIX + name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long result = Long.parseLong(value.trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the default
+        }
+        if (SAML2Utils.debug.messageEnabled()) {
+            SAML2Utils.debug.message("SAML2Cache.getProperty: invalid value for " + CACHE_PROPERTY_PREFIX
+                    + name + ". Using default.");
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public V get(Object key) {
+        Entry<K, V> entry = lookup(key);
+        if (entry != null) {
+            hits.increment();
+            entry.referenced = true;
+            return entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return lookup(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Reject.ifNull(key);
+        if (value == null) {
+            return remove(key);
+        }
+        Entry<K, V> previous = entries.put(key, newEntry(key, value));
+        enforceBounds();
+        return liveValue(previous);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Reject.ifNull(key, value);
+        Entry<K, V> entry = newEntry(key, value);
+        while (true) {
+            Entry<K, V> existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                enforceBounds();
+                return null;
+            }
+            if (!existing.hasExpired(currentTimeMillis())) {
+                return existing.value;
+            }
+            if (entries.replace(key, existing, entry)) {
+                expirations.increment();
+                enforceBounds();
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        return liveValue(entries.remove(key));
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Entry<K, V> entry = lookup(key);
+        return entry != null && entry.value.equals(value) && entries.remove(key, entry);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Reject.ifNull(key, oldValue, newValue);
+        Entry<K, V> entry = lookup(key);
+        return entry != null && entry.value.equals(oldValue) && entries.replace(key, entry, newEntry(key, newValue));
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Reject.ifNull(key, value);
+        while (true) {
+            Entry<K, V> entry = lookup(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entries.replace(key, entry, newEntry(key, value))) {
+                return entry.value;
+            }
+        }
+    }
+
+    /**
+     * The number of entries held in memory, which may include expired entries which have not yet been purged.
+     */
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        while (evictionOrder.poll() != null) {
+            queued.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Removes all entries whose time to live has passed.
+     */
+    public void purgeExpired() {
+        if (timeToLive == NO_EXPIRY) {
+            return;
+        }
+        long now = currentTimeMillis();
+        for (Entry<K, V> entry : entries.values()) {
+            if (entry.hasExpired(now) && entries.remove(entry.key, entry)) {
+                expirations.increment();
+            }
+        }
+    }
+
+    /**
+     * @return The name of this cache.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The maximum number of entries, or {@link #UNBOUNDED}.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The number of reads which found an entry in memory.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of reads which did not find an entry in memory.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The proportion of reads which found an entry in memory, or zero if there have been no reads.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0D : (double) hitCount / total;
+    }
+
+    /**
+     * @return The number of entries evicted to keep the cache within its maximum size.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of entries discarded because their time to live had passed.
+     */
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * @return The number of evicted entries written to the spill store.
+     */
+    public long getSpillCount() {
+        return spills.sum();
+    }
+
+    /**
+     * @return The number of nodes in the eviction queue, including nodes for entries which have since been removed.
+     */
+    @VisibleForTesting
+    int getQueuedCount() {
+        return queued.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SAML2Cache{name=" + name + ", size=" + size() + ", maxSize=" + maxSize
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+                + ", expired=" + getExpiredCount() + ", spilled=" + getSpillCount() + '}';
+    }
+
+    private Entry<K, V> newEntry(K key, V value) {
+        long expiry = timeToLive == NO_EXPIRY ? Long.MAX_VALUE : currentTimeMillis() + timeToLive;
+        Entry<K, V> entry = new Entry<>(key, value, expiry);
+        if (maxSize != UNBOUNDED) {
+            evictionOrder.offer(entry);
+            queued.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Finds the live entry for a key, discarding it if it has expired.
+     */
+    private Entry<K, V> lookup(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.hasExpired(currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private V liveValue(Entry<K, V> entry) {
+        return entry == null || entry.hasExpired(currentTimeMillis()) ? null : entry.value;
+    }
+
+    /**
+     * Evicts entries in clock order until the cache is within its maximum size, and discards queue nodes for
+     * entries which have since been removed or replaced so that the queue stays proportional to the cache.
+     */
+    private void enforceBounds() {
+        if (maxSize == UNBOUNDED) {
+            return;
+        }
+        long now = currentTimeMillis();
+        int budget = 2 * queued.get() + 1;
+        while ((entries.size() > maxSize || queued.get() > 2 * maxSize) && budget-- > 0) {
+            Entry<K, V> entry = evictionOrder.poll();
+            if (entry == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.get(entry.key) != entry) {
+                continue;
+            }
+            if (entry.hasExpired(now)) {
+                if (entries.remove(entry.key, entry)) {
+                    expirations.increment();
+                }
+                continue;
+            }
+            if (entries.size() > maxSize && !entry.referenced) {
+                if (entries.remove(entry.key, entry)) {
+                    evictions.increment();
+                    spill(entry);
+                }
+                continue;
+            }
+            entry.referenced = false;
+            evictionOrder.offer(entry);
+            queued.incrementAndGet();
+        }
+    }
+
+    private void spill(Entry<K, V> entry) {
+        if (spillStore == null || !spillStore.isEnabled()) {
+            return;
+        }
+        try {
+            spillStore.store(entry.key, entry.value);
+            spills.increment();
+        } catch (RuntimeException e) {
+            SAML2Utils.debug.error("SAML2Cache.spill: unable to spill entry from " + name, e);
+        }
+    }
+
+    /**
+     * A cached value, with the state needed to expire and evict it.
+     */
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiry;
+        private volatile boolean referenced;
+
+        private Entry(K key, V value, long expiry) {
+            this.key = key;
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        private boolean hasExpired(long now) {
+            return now >= expiry;
+        }
+    }
+
+    /**
+     * View of the live entries in the cache. Iteration is weakly consistent, as for {@link ConcurrentHashMap}.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            final Iterator<Entry<K, V>> delegate = entries.values().iterator();
+            final long now = currentTimeMillis();
+            return new Iterator<Map.Entry<K, V>>() {
+                private Entry<K, V> next = advance();
+                private Entry<K, V> last;
+
+                private Entry<K, V> advance() {
+                    while (delegate.hasNext()) {
+                        Entry<K, V> candidate = delegate.next();
+                        if (!candidate.hasExpired(now)) {
+                            return candidate;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = advance();
+                    return new SimpleImmutableEntry<>(last.key, last.value);
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    entries.remove(last.key, last);
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public void clear() {
+            SAML2Cache.this.clear();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.saml2.cache;
+
+import javax.inject.Singleton;
+
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+
+/**
+ * Writes the size and statistics of every registered {@link SAML2Cache} as metrics, labelled with the name of
+ * the cache.
+ *
+ * @since 15.0.0
+ */
+@Singleton
+public class SAML2CacheMetrics implements MetricsSource {
+
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        for (SAML2Cache<?, ?> cache : SAML2Cache.getCaches()) {
+            String name = cache.getName();
+            writer.gauge("openam_saml2_cache_size", "Entries held in the SAML2 cache.", cache.size(),
+                    "cache", name);
+            writer.gauge("openam_saml2_cache_max_size", "Maximum number of entries in the SAML2 cache, or 0 if "
+                    + "unbounded.", cache.getMaxSize(), "cache", name);
+            writer.counter("openam_saml2_cache_reads", "SAML2 cache reads since server start up.",
+                    cache.getHitCount(), "cache", name, "result", "hit");
+            writer.counter("openam_saml2_cache_reads", "SAML2 cache reads since server start up.",
+                    cache.getMissCount(), "cache", name, "result", "miss");
+            writer.gauge("openam_saml2_cache_hit_ratio",
+                    "Proportion of SAML2 cache reads served from memory since server start up.", cache.getHitRate(),
+                    "cache", name);
+            writer.counter("openam_saml2_cache_removals", "SAML2 cache entries removed since server start up.",
+                    cache.getEvictionCount(), "cache", name, "reason", "size");
+            writer.counter("openam_saml2_cache_removals", "SAML2 cache entries removed since server start up.",
+                    cache.getExpiredCount(), "cache", name, "reason", "expired");
+            writer.counter("openam_saml2_cache_spills",
+                    "SAML2 cache entries written to the token repository on eviction since server start up.",
+                    cache.getSpillCount(), "cache", name);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.saml2.cache;
+
+/**
+ * A secondary store for a {@link SAML2Cache}, to which entries are written when they are evicted from memory. The
+ * cache never reads from the store; it is up to the callers which need an evicted entry to read it back.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ */
+public interface SpillStore<K, V> {
+
+    /**
+     * Whether the store is available. When it is not, evicted entries are dropped.
+     *
+     * @return True if entries may be written to the store.
+     */
+    boolean isEnabled();
+
+    /**
+     * Writes an evicted entry to the store. Failures should be logged rather than thrown.
+     *
+     * @param key The non null key.
+     * @param value The non null value.
+     */
+    void store(K key, V value);
+}
@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package com.sun.identity.saml2.meta;
+
+import static org.testng.Assert.*;
+
+import com.sun.identity.saml2.jaxb.metadata.EntityDescriptorElement;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class SAML2MetaCacheTest {
+
+    private static final String REALM = "/";
+    private static final String ENTITY_ID = "http://sp.example.com";
+    private static final String ENTITY_XML =
+            "<EntityDescriptor xmlns=\"urn:oasis:names:tc:SAML:2.0:metadata\" entityID=\"" + ENTITY_ID + "\">"
+            + "<ds:Signature xmlns:ds=\"http://www.w3.org/2000/09/xmldsig#\"/>"
+            + "<SPSSODescriptor protocolSupportEnumeration=\"urn:oasis:names:tc:SAML:2.0:protocol\">"
+            + "<AssertionConsumerService Binding=\"urn:oasis:names:tc:SAML:2.0:bindings:HTTP-POST\" "
+            + "Location=\"http://sp.example.com/acs\" index=\"0\"/>"
+            + "</SPSSODescriptor>"
+            + "<AttributeAuthorityDescriptor protocolSupportEnumeration=\"urn:oasis:names:tc:SAML:2.0:protocol\">"
+            + "<AttributeService Binding=\"urn:oasis:names:tc:SAML:2.0:bindings:SOAP\" "
+            + "Location=\"http://sp.example.com/attr\"/>"
+            + "</AttributeAuthorityDescriptor>"
+            + "<Organization><OrganizationName xml:lang=\"en\">Example</OrganizationName>"
+            + "<OrganizationDisplayName xml:lang=\"en\">Example</OrganizationDisplayName>"
+            + "<OrganizationURL xml:lang=\"en\">http://sp.example.com</OrganizationURL></Organization>"
+            + "</EntityDescriptor>";
+
+    @AfterMethod
+    public void tearDown() {
+        SAML2MetaCache.clear();
+    }
+
+    @Test
+    public void shouldIndexRolesWithoutUnmarshalling() throws Exception {
+        // When
+        SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID, ENTITY_XML);
+
+        // Then
+        assertEquals(SAML2MetaCache.hasRole(REALM, ENTITY_ID, SAML2MetaConstants.SPSSO_DESCRIPTOR), Boolean.TRUE);
+        assertEquals(SAML2MetaCache.hasRole(REALM, ENTITY_ID,
+                SAML2MetaConstants.ATTRIBUTE_AUTHORITY_DESCRIPTOR), Boolean.TRUE);
+        assertEquals(SAML2MetaCache.hasRole(REALM, ENTITY_ID, SAML2MetaConstants.IDPSSO_DESCRIPTOR), Boolean.FALSE);
+        assertNull(SAML2MetaCache.hasRole("/other", ENTITY_ID, SAML2MetaConstants.SPSSO_DESCRIPTOR));
+        assertTrue(SAML2MetaCache.getStatistics().contains("pending=1,"));
+    }
+
+    @Test
+    public void shouldUnmarshalDescriptorOnceOnFirstRead() throws Exception {
+        // Given
+        SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID, ENTITY_XML);
+
+        // When
+        EntityDescriptorElement first = SAML2MetaCache.getEntityDescriptor(REALM, ENTITY_ID);
+        EntityDescriptorElement second = SAML2MetaCache.getEntityDescriptor(REALM, ENTITY_ID);
+
+        // Then
+        assertNotNull(first);
+        assertEquals(first.getEntityID(), ENTITY_ID);
+        assertSame(second, first);
+        assertNotNull(SAML2MetaUtils.getSPSSODescriptor(first));
+        assertTrue(SAML2MetaCache.getStatistics().contains("pending=0,"));
+    }
+
+    @Test
+    public void shouldReadSameRolesFromXMLAndDescriptor() throws Exception {
+        // Given
+        EntityDescriptorElement descriptor =
+                (EntityDescriptorElement) SAML2MetaUtils.convertStringToJAXB(ENTITY_XML);
+
+        // Then
+        assertEquals(SAML2MetaCache.getRoles(ENTITY_XML), SAML2MetaCache.getRoles(descriptor));
+        assertEquals(SAML2MetaCache.getRoles(descriptor), new HashSet<String>(Arrays.asList(
+                SAML2MetaConstants.SPSSO_DESCRIPTOR, SAML2MetaConstants.ATTRIBUTE_AUTHORITY_DESCRIPTOR)));
+    }
+
+    @Test
+    public void shouldRemoveDescriptor() throws Exception {
+        // Given
+        SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID, ENTITY_XML);
+
+        // When
+        SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID, (EntityDescriptorElement) null);
+
+        // Then
+        assertNull(SAML2MetaCache.getEntityDescriptor(REALM, ENTITY_ID));
+        assertNull(SAML2MetaCache.hasRole(REALM, ENTITY_ID, SAML2MetaConstants.SPSSO_DESCRIPTOR));
+    }
+
+    @Test
+    public void shouldDropDescriptorThatCannotBeUnmarshalled() throws Exception {
+        // Given
+        SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID, "<unknown xmlns=\"urn:example\"><child/></unknown>");
+
+        // When
+        EntityDescriptorElement descriptor = SAML2MetaCache.getEntityDescriptor(REALM, ENTITY_ID);
+
+        // Then
+        assertNull(descriptor);
+        assertNull(SAML2MetaCache.hasRole(REALM, ENTITY_ID, SAML2MetaConstants.ROLE_DESCRIPTOR));
+    }
+
+    @Test(enabled = false)
+    public void benchmarkRoleLookup() throws Exception {
+        int entities = 5000;
+        for (int run = 0; run < 5; run++) {
+            SAML2MetaCache.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < entities; i++) {
+                SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID + i, (EntityDescriptorElement)
+                        SAML2MetaUtils.convertStringToJAXB(ENTITY_XML.replace(ENTITY_ID, ENTITY_ID + i)));
+            }
+            long eagerTime = System.nanoTime() - start;
+            SAML2MetaCache.clear();
+            start = System.nanoTime();
+            for (int i = 0; i < entities; i++) {
+                SAML2MetaCache.putEntityDescriptor(REALM, ENTITY_ID + i, ENTITY_XML.replace(ENTITY_ID, ENTITY_ID + i));
+                SAML2MetaCache.hasRole(REALM, ENTITY_ID + i, SAML2MetaConstants.SPSSO_DESCRIPTOR);
+            }
+            long lazyTime = System.nanoTime() - start;
+            System.out.println("Unmarshalled: " + eagerTime / entities / 1000 + "us, indexed: "
+                    + lazyTime / entities / 1000 + "us per entity, " + SAML2MetaCache.getStatistics());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package com.sun.identity.saml2.meta;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.*;
+
+import com.sun.identity.saml2.jaxb.metadata.EntityDescriptorElement;
+import com.sun.identity.shared.xml.XMLUtils;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.XMLConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SAML2MetaImporterTest {
+
+    private static final String REALM = "/";
+    private static final int ENTITIES = 12;
+
+    private SAML2MetaManager metaManager;
+    private List<String> created;
+    private String failingEntityId;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        metaManager = mock(SAML2MetaManager.class);
+        created = Collections.synchronizedList(new ArrayList<String>());
+        failingEntityId = null;
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                String entityId = ((EntityDescriptorElement) invocation.getArguments()[1]).getEntityID();
+                if (entityId.equals(failingEntityId)) {
+                    throw new SAML2MetaException("Failed to create " + entityId);
+                }
+                created.add(entityId);
+                return null;
+            }
+        }).when(metaManager).createEntityDescriptor(eq(REALM), any(EntityDescriptorElement.class));
+    }
+
+    @Test
+    public void shouldCreateEntitiesInDocumentOrderWhenConvertingInParallel() throws Exception {
+        // Given
+        Element entities = getEntitiesDescriptor();
+
+        // When
+        List<String> result = new SAML2MetaImporter(metaManager, REALM, 4).importEntities(entities);
+
+        // Then
+        assertEquals(result, getEntityIds(ENTITIES));
+        assertEquals(created, getEntityIds(ENTITIES));
+        assertNull(entities.getFirstChild());
+    }
+
+    @Test
+    public void shouldCreateEntitiesInDocumentOrderOnCallingThread() throws Exception {
+        // When
+        List<String> result = new SAML2MetaImporter(metaManager, REALM, 1).importEntities(getEntitiesDescriptor());
+
+        // Then
+        assertEquals(result, getEntityIds(ENTITIES));
+        assertEquals(created, getEntityIds(ENTITIES));
+    }
+
+    @Test
+    public void shouldOnlyCreateEntitiesBeforeFirstFailure() throws Exception {
+        // Given
+        failingEntityId = getEntityId(5);
+
+        // When
+        try {
+            new SAML2MetaImporter(metaManager, REALM, 4).importEntities(getEntitiesDescriptor());
+            fail("Expected SAML2MetaException");
+        } catch (SAML2MetaException e) {
+            // Then
+            assertEquals(created, getEntityIds(5));
+        }
+    }
+
+    @Test
+    public void shouldCopyAggregateNamespacesIntoDetachedEntity() throws Exception {
+        // Given
+        Element entities = XMLUtils.toDOMDocument("<EntitiesDescriptor xmlns=\"" + SAML2MetaConstants.NS_METADATA
+                + "\" xmlns:query=\"urn:oasis:names:tc:SAML:metadata:ext:query\" xmlns:ex=\"urn:example:outer\">"
+                + "<EntityDescriptor xmlns:ex=\"urn:example:inner\" entityID=\"http://sp.example.com\"/>"
+                + "</EntitiesDescriptor>", SAML2MetaUtils.debug).getDocumentElement();
+        Element entity = (Element) entities.getFirstChild();
+
+        // When
+        Document detached = new SAML2MetaImporter(metaManager, REALM, 1).detach(entity);
+
+        // Then
+        Element root = detached.getDocumentElement();
+        assertEquals(root.getAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "query"),
+                "urn:oasis:names:tc:SAML:metadata:ext:query");
+        assertEquals(root.getAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "ex"), "urn:example:inner");
+        assertEquals(root.getAttribute("entityID"), "http://sp.example.com");
+        assertNull(entities.getFirstChild());
+    }
+
+    private static Element getEntitiesDescriptor() {
+        StringBuilder xml = new StringBuilder("<EntitiesDescriptor xmlns=\"")
+                .append(SAML2MetaConstants.NS_METADATA).append("\">");
+        for (int i = 0; i < ENTITIES; i++) {
+            xml.append("<EntityDescriptor entityID=\"").append(getEntityId(i)).append("\">")
+                    .append("<SPSSODescriptor protocolSupportEnumeration=\"urn:oasis:names:tc:SAML:2.0:protocol\">")
+                    .append("<AssertionConsumerService Binding=\"urn:oasis:names:tc:SAML:2.0:bindings:HTTP-POST\" ")
+                    .append("Location=\"http://sp").append(i).append(".example.com/acs\" index=\"0\"/>")
+                    .append("</SPSSODescriptor></EntityDescriptor>");
+        }
+        xml.append("</EntitiesDescriptor>");
+        return XMLUtils.toDOMDocument(xml.toString(), SAML2MetaUtils.debug).getDocumentElement();
+    }
+
+    private static List<String> getEntityIds(int count) {
+        List<String> entityIds = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            entityIds.add(getEntityId(i));
+        }
+        return entityIds;
+    }
+
+    private static String getEntityId(int index) {
+        return "http://sp" + index + ".example.com";
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package com.sun.identity.saml2.profile;
+
+import static org.testng.Assert.*;
+
+import com.sun.identity.saml.xmlsig.KeyProvider;
+import com.sun.identity.saml2.assertion.Assertion;
+import com.sun.identity.saml2.assertion.AssertionFactory;
+import com.sun.identity.saml2.assertion.EncryptedAssertion;
+import com.sun.identity.saml2.assertion.Issuer;
+import com.sun.identity.saml2.common.SAML2Constants;
+import com.sun.identity.saml2.common.SAML2Exception;
+import com.sun.identity.saml2.common.SAML2Utils;
+import com.sun.identity.saml2.protocol.ProtocolFactory;
+import com.sun.identity.saml2.protocol.Response;
+import com.sun.identity.saml2.protocol.Status;
+import com.sun.identity.saml2.protocol.StatusCode;
+import com.sun.identity.saml2.xmlenc.EncManager;
+import com.sun.identity.saml2.xmlsig.SigManager;
+import com.sun.identity.shared.encode.Base64;
+import com.sun.identity.shared.xml.XMLUtils;
+import org.apache.xml.security.encryption.XMLCipher;
+import org.forgerock.openam.utils.AMKeyProvider;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Signs and encrypts responses the way {@link IDPSSOUtil} does before it posts them to the service provider.
+ */
+public class IDPSSOResponseSigningTest {
+
+    private static final String DEFAULT_PRIVATE_KEY_ALIAS = "defaultkey";
+
+    private PrivateKey privateKey;
+    private X509Certificate cert;
+    private Set<X509Certificate> verificationCerts;
+
+    @BeforeClass
+    public void setUp() {
+        // The keystore properties required to bootstrap this class are setup in the POM
+        KeyProvider keyProvider = new AMKeyProvider();
+        privateKey = keyProvider.getPrivateKey(DEFAULT_PRIVATE_KEY_ALIAS);
+        cert = keyProvider.getX509Certificate(DEFAULT_PRIVATE_KEY_ALIAS);
+        verificationCerts = Collections.singleton(cert);
+    }
+
+    @Test
+    public void shouldVerifySignedAssertionReadFromSignedResponse() throws Exception {
+        // Given
+        Assertion assertion = createAssertion();
+        assertion.sign(privateKey, cert);
+        Response response = createResponse();
+        response.setAssertion(Collections.singletonList(assertion));
+        response.sign(privateKey, cert);
+
+        // When
+        Element element = XMLUtils.toDOMDocument(response.toXMLString(true, true), SAML2Utils.debug)
+                .getDocumentElement();
+        Response parsed = ProtocolFactory.getInstance().createResponse(element);
+
+        // Then
+        assertTrue(assertion.isSignatureValid(verificationCerts));
+        assertTrue(parsed.isSignatureValid(verificationCerts));
+        Assertion parsedAssertion = (Assertion) parsed.getAssertion().get(0);
+        assertTrue(parsedAssertion.isSignatureValid(verificationCerts));
+        assertEquals(parsedAssertion.getID(), assertion.getID());
+        assertTrue(parsed.toXMLString(true, true).contains(assertion.getID()));
+    }
+
+    @Test
+    public void shouldDecryptSignedAssertion() throws Exception {
+        // Given
+        Assertion assertion = createAssertion();
+        assertion.sign(privateKey, cert);
+        String signedXML = assertion.toXMLString(true, true);
+
+        // When
+        EncryptedAssertion encrypted = assertion.encrypt(cert.getPublicKey(), XMLCipher.AES_128, 128, null);
+        Assertion decrypted = encrypted.decrypt(Collections.singleton(privateKey));
+
+        // Then
+        assertEquals(assertion.toXMLString(true, true), signedXML);
+        assertTrue(assertion.isSignatureValid(verificationCerts));
+        assertEquals(decrypted.getID(), assertion.getID());
+        assertTrue(decrypted.isSignatureValid(verificationCerts));
+    }
+
+    @Test(enabled = false)
+    public void benchmarkSignedAndEncryptedResponse() throws Exception {
+        int iterations = 2000;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                // The string based steps each assertion and response went through before
+                Assertion assertion = createAssertion();
+                Element signature = SigManager.getSigInstance().sign(assertion.toXMLString(true, true),
+                        assertion.getID(), privateKey, cert);
+                XMLUtils.print(signature);
+                String signedAssertion = XMLUtils.print(signature.getOwnerDocument().getDocumentElement(), "UTF-8");
+                Element encrypted = EncManager.getEncInstance().encrypt(signedAssertion, cert.getPublicKey(),
+                        XMLCipher.AES_128, 128, "sp", "EncryptedAssertion");
+                Response response = createResponse();
+                response.setEncryptedAssertion(Collections.singletonList(
+                        AssertionFactory.getInstance().createEncryptedAssertion(encrypted)));
+                response.sign(privateKey, cert);
+                Base64.encode(response.toXMLString(true, true).getBytes("UTF-8"));
+            }
+            long stringTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                // IDPSSOUtil.signAndEncryptResponseComponents followed by signResponse and the POST encoding
+                Assertion assertion = createAssertion();
+                assertion.sign(privateKey, cert);
+                Response response = createResponse();
+                response.setEncryptedAssertion(Collections.singletonList(
+                        assertion.encrypt(cert.getPublicKey(), XMLCipher.AES_128, 128, "sp")));
+                response.sign(privateKey, cert);
+                Base64.encode(response.toXMLString(true, true).getBytes("UTF-8"));
+            }
+            long domTime = System.nanoTime() - start;
+            System.out.println("String: " + stringTime / iterations / 1000 + "us, DOM: "
+                    + domTime / iterations / 1000 + "us per signed and encrypted response");
+        }
+    }
+
+    private static Assertion createAssertion() throws SAML2Exception {
+        Assertion assertion = AssertionFactory.getInstance().createAssertion();
+        assertion.setVersion(SAML2Constants.VERSION_2_0);
+        assertion.setID("s2" + UUID.randomUUID());
+        assertion.setIssueInstant(new Date());
+        assertion.setIssuer(createIssuer());
+        return assertion;
+    }
+
+    private static Response createResponse() throws SAML2Exception {
+        StatusCode statusCode = ProtocolFactory.getInstance().createStatusCode();
+        statusCode.setValue(SAML2Constants.SUCCESS);
+        Status status = ProtocolFactory.getInstance().createStatus();
+        status.setStatusCode(statusCode);
+        Response response = ProtocolFactory.getInstance().createResponse();
+        response.setVersion(SAML2Constants.VERSION_2_0);
+        response.setID("s2" + UUID.randomUUID());
+        response.setIssueInstant(new Date());
+        response.setIssuer(createIssuer());
+        response.setStatus(status);
+        return response;
+    }
+
+    private static Issuer createIssuer() throws SAML2Exception {
+        Issuer issuer = AssertionFactory.getInstance().createIssuer();
+        issuer.setValue("http://idp.example.com");
+        return issuer;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.sun.identity.saml2.xmlsig;
@@ -25,6 +26,7 @@ import org.forgerock.openam.utils.AMKeyProvider;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
@@ -89,4 +91,47 @@ public class SigProviderTest {
         }
         Assert.assertTrue(verified);
     }
+
+    @Test
+    public void testSigningDocument() throws Exception {
+
+        Document documentToSign = XMLUtils.toDOMDocument(ClassLoader.getSystemResourceAsStream(XML_DOCUMENT_TO_SIGN),
+                SAML2Utils.debug);
+
+        // The signature is added to the given document rather than to a parsed copy of it
+        Element signature = sigProvider.sign(
+                documentToSign,
+                ID_ATTRIBUTE_VALUE,
+                keyProvider.getPrivateKey(DEFAULT_PRIVATE_KEY_ALIAS),
+                keyProvider.getX509Certificate(DEFAULT_PRIVATE_KEY_ALIAS));
+        Assert.assertSame(signature.getOwnerDocument(), documentToSign);
+        Assert.assertTrue(sigProvider.verify(documentToSign, ID_ATTRIBUTE_VALUE,
+                Collections.singleton(keyProvider.getX509Certificate(DEFAULT_PRIVATE_KEY_ALIAS))));
+    }
+
+    @Test
+    public void testVerifySignatureOfEmbeddedElement() throws Exception {
+
+        Document signedDocument = XMLUtils.toDOMDocument(ClassLoader.getSystemResourceAsStream(SIGNED_XML_DOCUMENT),
+                SAML2Utils.debug);
+        Document wrapper = XMLUtils.toDOMDocument("<Wrapper xmlns:ds=\"http://www.w3.org/2000/09/xmldsig#\"/>",
+                SAML2Utils.debug);
+        Element embedded = (Element) wrapper.importNode(signedDocument.getDocumentElement(), true);
+        wrapper.getDocumentElement().appendChild(embedded);
+
+        // The embedded element is verified as if it had been printed and parsed on its own
+        Assert.assertTrue(sigProvider.verify(XMLUtils.toDOMDocument(embedded, SAML2Utils.debug), ID_ATTRIBUTE_VALUE,
+                Collections.singleton(keyProvider.getX509Certificate(DEFAULT_PRIVATE_KEY_ALIAS))));
+    }
+
+    @Test
+    public void testVerifyModifiedDocumentFails() throws Exception {
+
+        Document signedDocument = XMLUtils.toDOMDocument(ClassLoader.getSystemResourceAsStream(SIGNED_XML_DOCUMENT),
+                SAML2Utils.debug);
+        signedDocument.getElementsByTagName("SubElement").item(0).setTextContent("changed");
+
+        Assert.assertFalse(sigProvider.verify(signedDocument, ID_ATTRIBUTE_VALUE,
+                Collections.singleton(keyProvider.getX509Certificate(DEFAULT_PRIVATE_KEY_ALIAS))));
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.saml2.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+import org.testng.annotations.Test;
+
+public class SAML2CacheMetricsTest {
+
+    @Test
+    public void shouldWriteStatisticsOfRegisteredCaches() {
+        // Given
+        SAML2Cache<String, String> cache = SAML2Cache.create("SAML2CacheMetricsTest", 10, SAML2Cache.NO_EXPIRY);
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("b");
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+
+        // When
+        new SAML2CacheMetrics().writeMetrics(writer);
+
+        // Then
+        assertThat(writer.toString())
+                .contains("openam_saml2_cache_size{cache=\"SAML2CacheMetricsTest\"} 1.0")
+                .contains("openam_saml2_cache_max_size{cache=\"SAML2CacheMetricsTest\"} 10.0")
+                .contains("openam_saml2_cache_reads_total{cache=\"SAML2CacheMetricsTest\",result=\"hit\"} 1")
+                .contains("openam_saml2_cache_reads_total{cache=\"SAML2CacheMetricsTest\",result=\"miss\"} 1")
+                .contains("openam_saml2_cache_hit_ratio{cache=\"SAML2CacheMetricsTest\"} 0.5");
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.saml2.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+public class SAML2CacheTest {
+
+    @Test
+    public void shouldStoreAndRemoveValues() {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", SAML2Cache.UNBOUNDED, SAML2Cache.NO_EXPIRY);
+
+        // When
+        cache.put("a", "1");
+        cache.put("b", "2");
+        String removed = cache.remove("a");
+
+        // Then
+        assertThat(removed).isEqualTo("1");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("2");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.keySet()).containsOnly("b");
+    }
+
+    @Test
+    public void shouldRemoveMappingWhenNullValueIsPut() {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", SAML2Cache.UNBOUNDED, SAML2Cache.NO_EXPIRY);
+        cache.put("a", "1");
+
+        // When
+        cache.put("a", null);
+
+        // Then
+        assertThat(cache.containsKey("a")).isFalse();
+        assertThat(cache.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldExpireEntriesAfterTimeToLive() throws Exception {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", SAML2Cache.UNBOUNDED, 50);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertThat(cache.get("a")).isNull();
+        cache.purgeExpired();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getExpiredCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntriesWhenFull() {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", 2, SAML2Cache.NO_EXPIRY);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        // When
+        cache.put("c", "3");
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.containsKey("a")).isTrue();
+        assertThat(cache.containsKey("b")).isFalse();
+        assertThat(cache.containsKey("c")).isTrue();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotGrowEvictionQueueWhenSameKeyIsReplaced() {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", 2, SAML2Cache.NO_EXPIRY);
+
+        // When
+        for (int i = 0; i < 10000; i++) {
+            cache.put("a", String.valueOf(i));
+        }
+
+        // Then
+        assertThat(cache.get("a")).isEqualTo("9999");
+        assertThat(cache.getEvictionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldResetEvictionQueueWhenCleared() {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", 10, SAML2Cache.NO_EXPIRY);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.entrySet().clear();
+        cache.put("c", "3");
+
+        // When
+        cache.clear();
+
+        // Then
+        assertThat(cache.isEmpty()).isTrue();
+        assertThat(cache.getQueuedCount()).isEqualTo(0);
+        cache.put("d", "4");
+        assertThat(cache.getQueuedCount()).isEqualTo(1);
+        assertThat(cache.get("d")).isEqualTo("4");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSpillEvictedEntriesWithoutReadingThemBack() {
+        // Given
+        SpillStore<String, String> store = mock(SpillStore.class);
+        given(store.isEnabled()).willReturn(true);
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", 1, SAML2Cache.NO_EXPIRY, store);
+
+        // When
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        // Then
+        verify(store).store("a", "1");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.containsKey("a")).isFalse();
+        assertThat(cache.get("b")).isEqualTo("2");
+        assertThat(cache.getSpillCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldDropEvictedEntriesWhenSpillStoreIsDisabled() {
+        // Given
+        SpillStore<String, String> store = mock(SpillStore.class);
+        given(store.isEnabled()).willReturn(false);
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", 1, SAML2Cache.NO_EXPIRY, store);
+
+        // When
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        // Then
+        verify(store, never()).store("a", "1");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.getSpillCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldReportHitRate() {
+        // Given
+        SAML2Cache<String, String> cache = new SAML2Cache<>("test", SAML2Cache.UNBOUNDED, SAML2Cache.NO_EXPIRY);
+        cache.put("a", "1");
+
+        // When
+        cache.get("a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        // Then
+        assertThat(cache.getHitCount()).isEqualTo(3);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.75D);
+    }
+
+    @Test
+    public void shouldStayWithinBoundsUnderConcurrentUpdates() throws Exception {
+        // Given
+        final int maxSize = 100;
+        final SAML2Cache<String, String> cache = new SAML2Cache<>("test", maxSize, SAML2Cache.NO_EXPIRY);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < 10000; i++) {
+                            String key = thread + ":" + i;
+                            cache.put(key, key);
+                            cache.get(thread + ":" + (i / 2));
+                            if (i % 3 == 0) {
+                                cache.remove(key);
+                            }
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        // When
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(failures.get()).isEqualTo(0);
+        cache.put("final", "final");
+        assertThat(cache.size()).isLessThanOrEqualTo(maxSize);
+    }
+}
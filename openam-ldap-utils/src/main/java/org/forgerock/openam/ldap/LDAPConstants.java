@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.ldap;
@@ -69,6 +70,12 @@ public final class LDAPConstants {
     /** LDAP DN cache size property key. */
     public static final String LDAP_DNCACHE_SIZE = "sun-idrepo-ldapv3-dncache-size";
 
+    /** LDAP nested group expansion enabled property key. */
+    public static final String LDAP_NESTED_GROUPS_ENABLED = "sun-idrepo-ldapv3-nestedgroups-enabled";
+
+    /** LDAP group membership cache time to live property key. */
+    public static final String LDAP_MEMBERSHIP_CACHE_TTL = "sun-idrepo-ldapv3-membershipcache-ttl";
+
     /** LDAP server list property key. */
     public static final String LDAP_SERVER_LIST = "sun-idrepo-ldapv3-config-ldap-server";
 
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.oauth2;
@@ -106,6 +107,16 @@ public class OAuth2GlobalSettings {
         return unit.convert(configuration.blacklistPurgeDelay, TimeUnit.MINUTES);
     }
 
+    /**
+     * Maximum number of stateful access and refresh tokens to cache in memory on each server. May be 0 to indicate
+     * that tokens are read from the CTS every time.
+     *
+     * Defaults to 0.
+     */
+    public int getStatefulTokenCacheSize() {
+        return configuration.statefulTokenCacheSize;
+    }
+
     /**
      * Private value object for storing snapshot state of amSession.xml config settings.
      *
@@ -117,6 +128,7 @@ public class OAuth2GlobalSettings {
         private final int blacklistCacheSize;
         private final long blacklistPollInterval;
         private final long blacklistPurgeDelay;
+        private final int statefulTokenCacheSize;
 
         private HotSwappableConfiguration(ServiceSchemaManager ssm) throws SMSException {
             ServiceSchema schema = ssm.getGlobalSchema();
@@ -126,6 +138,7 @@ public class OAuth2GlobalSettings {
             blacklistCacheSize = CollectionHelper.getIntMapAttr(attrs, "blacklistCacheSize", 0, logger);
             blacklistPollInterval = CollectionHelper.getLongMapAttr(attrs, "blacklistPollInterval", 60, logger);
             blacklistPurgeDelay = CollectionHelper.getLongMapAttr(attrs, "blacklistPurgeDelay", 1, logger);
+            statefulTokenCacheSize = CollectionHelper.getIntMapAttr(attrs, "statefulTokenCacheSize", 0, logger);
         }
     }
 }
@@ -0,0 +1,450 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.oauth2;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openam.blacklist.Blacklist;
+import org.forgerock.openam.blacklist.BlacklistException;
+import org.forgerock.openam.blacklist.Blacklistable;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+import org.forgerock.util.Reject;
+
+/**
+ * A bounded, in-memory cache of the stateful access and refresh tokens read from the CTS, so that a token presented
+ * repeatedly to this server is not read from the CTS each time.
+ * <p/>
+ * Entries are held until the expiry time of the token, after which they are treated as absent and discarded. When
+ * the cache is full the least recently used entries are evicted using a second chance (clock) approximation of LRU.
+ * <p/>
+ * Deleting a token on one server removes it from the cache on every server. The deleting server records the token
+ * ID in the invalidation {@link Blacklist}, a {@link org.forgerock.openam.blacklist.CTSBlacklist} which the other
+ * servers poll, so a deleted token may still be read from the cache of another server until its next poll. Each
+ * server then keeps a marker for the deleted token for two poll intervals, so that a read which races with the
+ * (asynchronous) CTS delete cannot put the token back in the cache.
+ * <p/>
+ * Thread Safety: This class is lock free.
+ *
+ * @since 15.0.0
+ */
+public class StatefulTokenCache implements MetricsSource {
+
+    private static final String INVALIDATION_PREFIX = "oauth2-stateful-invalidation-";
+    private static final char INVALIDATION_SEPARATOR = '.';
+
+    private final ConcurrentMap<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final Queue<String> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong removals = new AtomicLong();
+    private final int maxSize;
+    private final long invalidationLifetimeMs;
+    private final Blacklist<Blacklistable> invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+
+    /**
+     * Constructs a new StatefulTokenCache.
+     *
+     * @param maxSize The maximum number of tokens to cache. May be 0 to disable the cache.
+     * @param pollIntervalMs The interval at which the other servers poll the invalidation blacklist.
+     * @param invalidations The blacklist used to tell the other servers of deleted tokens.
+     */
+    public StatefulTokenCache(int maxSize, long pollIntervalMs, Blacklist<Blacklistable> invalidations) {
+        Reject.ifNull(invalidations);
+        this.maxSize = maxSize;
+        // Long enough for every other server to have polled at least once
+        this.invalidationLifetimeMs = 2 * pollIntervalMs;
+        this.invalidations = invalidations;
+        if (isEnabled()) {
+            invalidations.subscribe(new Blacklist.Listener() {
+                @Override
+                public void onBlacklisted(String id, long expiryTime) {
+                    String tokenId = getInvalidatedTokenId(id);
+                    if (tokenId != null) {
+                        markDeleted(tokenId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * @return True if tokens are cached.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Gets a copy of the cached token, so that the caller may modify it without affecting the cache.
+     *
+     * @param tokenId The token ID.
+     * @return The token, or {@code null} if it is not cached or has expired.
+     */
+    public JsonValue get(String tokenId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = lookup(tokenId);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.referenced = true;
+        return entry.token.copy();
+    }
+
+    /**
+     * Marks the start of a read of a token from the CTS, so that a token removed while it is being read is not
+     * cached afterwards.
+     *
+     * @return The stamp to pass to {@link #cache(String, JsonValue, long, long)}.
+     */
+    public long startRead() {
+        return removals.get();
+    }
+
+    /**
+     * Caches a copy of the token read from the CTS, unless a token has been removed from the cache since the read
+     * started.
+     *
+     * @param tokenId The token ID.
+     * @param token The token.
+     * @param expiryTime The time at which the token expires, in milliseconds from the UTC epoch, or zero or less if
+     * the token does not expire.
+     * @param readStamp The stamp returned by {@link #startRead()} before the token was read.
+     */
+    public void cache(String tokenId, JsonValue token, long expiryTime, long readStamp) {
+        Reject.ifNull(tokenId, token);
+        if (!isEnabled()) {
+            return;
+        }
+        long now = currentTimeMillis();
+        Entry entry = new Entry(token.copy(), expiryTime);
+        if (entry.hasExpired(now) || removals.get() != readStamp) {
+            return;
+        }
+        Entry existing = tokens.get(tokenId);
+        if (existing == null) {
+            if (tokens.putIfAbsent(tokenId, entry) != null) {
+                return;
+            }
+            size.incrementAndGet();
+            offer(tokenId);
+            evictWhileFull();
+            if (queued.get() > 2 * maxSize) {
+                compact();
+            }
+        } else if ((existing.isDeleted() && !existing.hasExpired(now)) || !tokens.replace(tokenId, existing, entry)) {
+            return;
+        }
+        // The token may have been removed between the check above and being cached
+        if (removals.get() != readStamp) {
+            discard(tokenId, entry);
+        }
+    }
+
+    /**
+     * Removes the token from the cache of this server only, for example after it has been updated.
+     *
+     * @param tokenId The token ID.
+     */
+    public void remove(String tokenId) {
+        removals.incrementAndGet();
+        Entry entry = tokens.get(tokenId);
+        if (entry != null && !entry.isDeleted() && discard(tokenId, entry)) {
+            invalidated.increment();
+        }
+    }
+
+    /**
+     * Removes the token from the cache of this server and tells the other servers to remove it from theirs. Must be
+     * called after the token has been deleted from the CTS.
+     *
+     * @param tokenId The token ID.
+     * @throws BlacklistException If the other servers could not be told of the deletion.
+     */
+    public void invalidate(String tokenId) throws BlacklistException {
+        if (!isEnabled()) {
+            return;
+        }
+        markDeleted(tokenId);
+        invalidations.blacklist(new Invalidation(tokenId, currentTimeMillis() + invalidationLifetimeMs));
+    }
+
+    /**
+     * @return The number of entries currently held in the cache, including any tokens which have expired and markers
+     * of deleted tokens which have not yet been discarded.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return The number of reads which found a cached token since server start up.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of reads which did not find a cached token since server start up.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The proportion of reads which found a cached token since server start up, or zero if there have been
+     * no reads.
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0D : (double) hitCount / total;
+    }
+
+    /**
+     * @return The number of entries evicted to keep the cache within its configured size since server start up.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of entries discarded because the token they contain had expired since server start up.
+     */
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * @return The number of entries removed because the token was updated or deleted, on this or another server,
+     * since server start up.
+     */
+    public long getInvalidatedCount() {
+        return invalidated.sum();
+    }
+
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        if (!isEnabled()) {
+            return;
+        }
+        writer.counter("openam_oauth2_token_cache_reads", "Stateful OAuth2 token reads since server start up.",
+                getHitCount(), "result", "hit");
+        writer.counter("openam_oauth2_token_cache_reads", "Stateful OAuth2 token reads since server start up.",
+                getMissCount(), "result", "miss");
+        writer.gauge("openam_oauth2_token_cache_hit_ratio",
+                "Proportion of stateful OAuth2 token reads served from the cache since server start up.",
+                getHitRate());
+        writer.counter("openam_oauth2_token_cache_removals",
+                "Stateful OAuth2 tokens removed from the cache since server start up.", getEvictionCount(),
+                "reason", "size");
+        writer.counter("openam_oauth2_token_cache_removals",
+                "Stateful OAuth2 tokens removed from the cache since server start up.", getExpiredCount(),
+                "reason", "expired");
+        writer.counter("openam_oauth2_token_cache_removals",
+                "Stateful OAuth2 tokens removed from the cache since server start up.", getInvalidatedCount(),
+                "reason", "invalidated");
+        writer.gauge("openam_oauth2_token_cache_size", "Stateful OAuth2 tokens held in the cache.", size());
+    }
+
+    /**
+     * Replace any cached token with a marker that it has been deleted.
+     */
+    private void markDeleted(String tokenId) {
+        removals.incrementAndGet();
+        Entry previous = tokens.put(tokenId, new Entry(null, currentTimeMillis() + invalidationLifetimeMs));
+        if (previous == null) {
+            size.incrementAndGet();
+            offer(tokenId);
+            evictWhileFull();
+        } else if (!previous.isDeleted()) {
+            invalidated.increment();
+        }
+    }
+
+    /**
+     * Find the live entry for a token, discarding it if the token has expired.
+     */
+    private Entry lookup(String tokenId) {
+        if (tokenId == null) {
+            return null;
+        }
+        Entry entry = tokens.get(tokenId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.hasExpired(currentTimeMillis())) {
+            if (discard(tokenId, entry) && !entry.isDeleted()) {
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry.isDeleted() ? null : entry;
+    }
+
+    /**
+     * Evict entries in clock order until the cache is within its bounds. Entries which have been read since they
+     * were last considered are given a second chance and moved to the back.
+     */
+    private void evictWhileFull() {
+        long now = currentTimeMillis();
+        while (size.get() > maxSize) {
+            String tokenId = poll();
+            if (tokenId == null) {
+                return;
+            }
+            Entry entry = tokens.get(tokenId);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.hasExpired(now)) {
+                if (discard(tokenId, entry) && !entry.isDeleted()) {
+                    expirations.increment();
+                }
+            } else if (entry.referenced) {
+                entry.referenced = false;
+                offer(tokenId);
+            } else if (discard(tokenId, entry) && !entry.isDeleted()) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drop the IDs of tokens which have been removed, or queued more than once, from the eviction order. Tokens
+     * which are updated or deleted leave their IDs behind, which would otherwise build up while the cache is not
+     * full and so is not being evicted from.
+     */
+    private void compact() {
+        Set<String> live = new HashSet<>();
+        for (int i = queued.get(); i > 0; i--) {
+            String tokenId = poll();
+            if (tokenId == null) {
+                return;
+            }
+            if (tokens.containsKey(tokenId) && live.add(tokenId)) {
+                offer(tokenId);
+            }
+        }
+    }
+
+    private void offer(String tokenId) {
+        queued.incrementAndGet();
+        evictionOrder.offer(tokenId);
+    }
+
+    private String poll() {
+        String tokenId = evictionOrder.poll();
+        if (tokenId != null) {
+            queued.decrementAndGet();
+        }
+        return tokenId;
+    }
+
+    /**
+     * Remove the given mapping if it is still current. The token ID is left in the eviction order until it is
+     * reached or compacted away.
+     *
+     * @return True if this call removed the mapping.
+     */
+    private boolean discard(String tokenId, Entry entry) {
+        if (tokens.remove(tokenId, entry)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private static String getInvalidatedTokenId(String stableStorageId) {
+        int separator = stableStorageId.lastIndexOf(INVALIDATION_SEPARATOR);
+        if (!stableStorageId.startsWith(INVALIDATION_PREFIX) || separator < INVALIDATION_PREFIX.length()) {
+            return null;
+        }
+        return stableStorageId.substring(INVALIDATION_PREFIX.length(), separator);
+    }
+
+    /**
+     * A cached token, or the marker of a deleted token, with the state needed to expire and evict it.
+     */
+    private static final class Entry {
+        private final JsonValue token;
+        private final long expiryTime;
+        private volatile boolean referenced;
+
+        private Entry(JsonValue token, long expiryTime) {
+            this.token = token;
+            this.expiryTime = expiryTime;
+        }
+
+        /**
+         * A token without an expiry time is kept until evicted.
+         */
+        private boolean hasExpired(long now) {
+            return expiryTime > 0 && now >= expiryTime;
+        }
+
+        private boolean isDeleted() {
+            return token == null;
+        }
+    }
+
+    /**
+     * The record of a deleted token in the invalidation blacklist. Each deletion is given its own ID, so that a
+     * token deleted on two servers at once is recorded twice rather than failing on the second.
+     */
+    private static final class Invalidation implements Blacklistable {
+        private final String stableStorageId;
+        private final long expiryTime;
+
+        private Invalidation(String tokenId, long expiryTime) {
+            this.stableStorageId = INVALIDATION_PREFIX + tokenId + INVALIDATION_SEPARATOR + UUID.randomUUID();
+            this.expiryTime = expiryTime;
+        }
+
+        @Override
+        public String getStableStorageID() {
+            return stableStorageId;
+        }
+
+        @Override
+        public long getBlacklistExpiryTime() {
+            return expiryTime;
+        }
+    }
+}
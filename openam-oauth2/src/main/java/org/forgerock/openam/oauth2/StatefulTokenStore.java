@@ -66,6 +66,7 @@ import org.forgerock.oauth2.core.exceptions.InvalidRequestException;
 import org.forgerock.oauth2.core.exceptions.NotFoundException;
 import org.forgerock.oauth2.core.exceptions.ServerException;
 import org.forgerock.oauth2.core.exceptions.UnauthorizedClientException;
+import org.forgerock.openam.blacklist.BlacklistException;
 import org.forgerock.openam.core.RealmInfo;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.tokens.CoreTokenField;
@@ -118,6 +119,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
     private final SecureRandom secureRandom;
     private final ClientAuthenticationFailureFactory failureFactory;
     private final RecoveryCodeGenerator recoveryCodeGenerator;
+    private final StatefulTokenCache tokenCache;
 
     /**
      * Constructs a new OpenAMTokenStore.
@@ -130,6 +132,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
      * @param auditLogger An instance of OAuth2AuditLogger
      * @param failureFactory
      * @param recoveryCodeGenerator An instance of RecoveryCodeGenerator
+     * @param tokenCache An instance of StatefulTokenCache
      */
     @Inject
     public StatefulTokenStore(OAuthTokenStore tokenStore, OAuth2ProviderSettingsFactory providerSettingsFactory,
@@ -137,7 +140,8 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
             OpenIdConnectClientRegistrationStore clientRegistrationStore, RealmNormaliser realmNormaliser,
             SSOTokenManager ssoTokenManager, CookieExtractor cookieExtractor, OAuth2AuditLogger auditLogger,
             @Named(OAuth2Constants.DEBUG_LOG_NAME) Debug logger, SecureRandom secureRandom,
-            ClientAuthenticationFailureFactory failureFactory, RecoveryCodeGenerator recoveryCodeGenerator) {
+            ClientAuthenticationFailureFactory failureFactory, RecoveryCodeGenerator recoveryCodeGenerator,
+            StatefulTokenCache tokenCache) {
         this.tokenStore = tokenStore;
         this.providerSettingsFactory = providerSettingsFactory;
         this.oauth2UrisFactory = oauth2UrisFactory;
@@ -150,6 +154,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
         this.secureRandom = secureRandom;
         this.failureFactory = failureFactory;
         this.recoveryCodeGenerator = recoveryCodeGenerator;
+        this.tokenCache = tokenCache;
     }
 
     /**
@@ -733,6 +738,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
     public void updateAccessToken(OAuth2Request request, AccessToken accessToken) {
         try {
             tokenStore.update(accessToken.toJsonValue());
+            tokenCache.remove(accessToken.getTokenId());
         } catch (CoreTokenException e) {
             logger.error("DefaultOAuthTokenStoreImpl::Unable to update access token "
                     + accessToken.getTokenId(), e);
@@ -787,9 +793,13 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
         // Delete the code
         try {
             tokenStore.delete(accessTokenId);
+            tokenCache.invalidate(accessTokenId);
         } catch (CoreTokenException e) {
             logger.error("Unable to delete access token corresponding to id: " + accessTokenId, e);
             throw new ServerException("Could not delete token from CTS: " + e.getMessage());
+        } catch (BlacklistException e) {
+            logger.error("Unable to invalidate cached access token corresponding to id: " + accessTokenId, e);
+            throw new ServerException("Could not invalidate cached token: " + e.getMessage());
         }
     }
 
@@ -801,9 +811,13 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
         // Delete the code
         try {
             tokenStore.delete(refreshTokenId);
+            tokenCache.invalidate(refreshTokenId);
         } catch (CoreTokenException e) {
             logger.error("Unable to delete refresh token corresponding to id: " + refreshTokenId, e);
             throw new InvalidRequestException();
+        } catch (BlacklistException e) {
+            logger.error("Unable to invalidate cached refresh token corresponding to id: " + refreshTokenId, e);
+            throw new InvalidRequestException();
         }
     }
 
@@ -817,6 +831,15 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
             return loaded;
         }
 
+        JsonValue cached = tokenCache.get(tokenId);
+        if (cached != null) {
+            StatefulAccessToken accessToken = new StatefulAccessToken(cached);
+            validateTokenRealm(accessToken.getRealm(), request);
+
+            request.setToken(AccessToken.class, accessToken);
+            return accessToken;
+        }
+
         OAuth2ProviderSettings providerSettings = null;
         final int ctsRetryNumber;
         final int ctsRetryInterval;
@@ -839,6 +862,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
 
         JsonValue token = null;
         int retryCount = 0;
+        long readStamp = tokenCache.startRead();
 
         // Read from CTS
         while (true) {
@@ -874,6 +898,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
         }
 
         StatefulAccessToken accessToken = new StatefulAccessToken(token);
+        tokenCache.cache(tokenId, token, accessToken.getExpiryTime(), readStamp);
         validateTokenRealm(accessToken.getRealm(), request);
 
         request.setToken(AccessToken.class, accessToken);
@@ -890,8 +915,18 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
             return loaded;
         }
 
+        JsonValue cached = tokenCache.get(tokenId);
+        if (cached != null) {
+            StatefulRefreshToken refreshToken = new StatefulRefreshToken(cached);
+            validateTokenRealm(refreshToken.getRealm(), request);
+
+            request.setToken(RefreshToken.class, refreshToken);
+            return refreshToken;
+        }
+
         logger.message("Read refresh token");
         JsonValue token;
+        long readStamp = tokenCache.startRead();
 
         try {
             token = tokenStore.read(tokenId);
@@ -906,6 +941,7 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
         }
 
         StatefulRefreshToken refreshToken = new StatefulRefreshToken(token);
+        tokenCache.cache(tokenId, token, refreshToken.getExpiryTime(), readStamp);
         validateTokenRealm(refreshToken.getRealm(), request);
 
         request.setToken(RefreshToken.class, refreshToken);
@@ -1093,9 +1129,13 @@ public class StatefulTokenStore implements OpenIdConnectTokenStore {
     private void delete(String tokenId) throws ServerException {
         try {
             tokenStore.delete(tokenId);
+            tokenCache.invalidate(tokenId);
         } catch (CoreTokenException e) {
             logger.error("Unable to delete token corresponding to id : " + tokenId, e);
             throw new ServerException("Could not delete token in CTS: " + e.getMessage());
+        } catch (BlacklistException e) {
+            logger.error("Unable to invalidate cached token corresponding to id : " + tokenId, e);
+            throw new ServerException("Could not invalidate cached token: " + e.getMessage());
         }
 
     }
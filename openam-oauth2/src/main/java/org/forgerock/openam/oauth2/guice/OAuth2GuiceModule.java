@@ -14,6 +14,7 @@
  * Copyright 2014-2016 ForgeRock AS.
  * Portions copyright 2019 Open Source Solution Technology Corporation
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.oauth2.guice;
 
@@ -102,6 +103,7 @@ import org.forgerock.openam.oauth2.OpenAMClientRegistrationStore;
 import org.forgerock.openam.oauth2.OpenAMOAuth2UrisFactory;
 import org.forgerock.openam.oauth2.OpenAMTokenStore;
 import org.forgerock.openam.oauth2.ResourceSetDescription;
+import org.forgerock.openam.oauth2.StatefulTokenCache;
 import org.forgerock.openam.oauth2.StatefulTokenStore;
 import org.forgerock.openam.oauth2.StatelessCheck;
 import org.forgerock.openam.oauth2.StatelessTokenCtsAdapter;
@@ -116,6 +118,7 @@ import org.forgerock.openam.oauth2.validation.SsrfUrlValidator;
 import org.forgerock.openam.rest.representations.JacksonRepresentationFactory;
 import org.forgerock.openam.scripting.ScriptEngineConfiguration;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
 import org.forgerock.openam.sm.datalayer.utils.ThreadSafeTokenIdGenerator;
 import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.utils.RecoveryCodeGenerator;
@@ -217,6 +220,8 @@ public class OAuth2GuiceModule extends AbstractModule {
 
         bind(TokenIdGenerator.class).to(ThreadSafeTokenIdGenerator.class);
 
+        Multibinder.newSetBinder(binder(), MetricsSource.class).addBinding().to(StatefulTokenCache.class);
+
         Multibinder.newSetBinder(binder(), TokenIntrospectionHandler.class)
                 .addBinding().to(OAuth2TokenIntrospectionHandler.class);
 
@@ -355,4 +360,23 @@ public class OAuth2GuiceModule extends AbstractModule {
 
         return blacklist;
     }
+
+    @Provides @Singleton @Inject
+    public static StatefulTokenCache getStatefulTokenCache(CTSPersistentStore cts,
+            @Named(CoreTokenConstants.CTS_SCHEDULED_SERVICE) ScheduledExecutorService scheduler,
+            ThreadMonitor threadMonitor, WebtopNamingQuery webtopNamingQuery, OAuth2GlobalSettings globalSettings) {
+
+        int cacheSize = globalSettings.getStatefulTokenCacheSize();
+        long pollIntervalMs = globalSettings.getBlacklistPollInterval(TimeUnit.MILLISECONDS);
+
+        // Without polling, tokens deleted on other servers would be read from the cache until they expire
+        if (cacheSize <= 0 || pollIntervalMs <= 0) {
+            return new StatefulTokenCache(0, 0, new NoOpBlacklist<Blacklistable>());
+        }
+
+        long purgeDelayMs = globalSettings.getBlacklistPurgeDelay(TimeUnit.MILLISECONDS);
+        return new StatefulTokenCache(cacheSize, pollIntervalMs, new CTSBlacklist<Blacklistable>(cts,
+                TokenType.OAUTH_STATEFUL_INVALIDATION, scheduler, threadMonitor, webtopNamingQuery, purgeDelayMs,
+                pollIntervalMs));
+    }
 }
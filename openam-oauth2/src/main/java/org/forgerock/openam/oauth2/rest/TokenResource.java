@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions copyright [year] [name of copyright owner]"
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.oauth2.rest;
@@ -67,6 +68,7 @@ import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.ForbiddenException;
 import org.forgerock.oauth2.core.OAuth2ProviderSettingsFactory;
 import org.forgerock.openam.oauth2.OAuthTokenStore;
+import org.forgerock.openam.oauth2.StatefulTokenCache;
 import org.forgerock.openam.utils.OpenAMSettings;
 import org.forgerock.services.context.Context;
 import org.forgerock.json.JsonValue;
@@ -93,6 +95,7 @@ import org.forgerock.oauth2.core.OAuth2ProviderSettings;
 import org.forgerock.oauth2.core.OAuth2Request;
 import org.forgerock.oauth2.core.exceptions.ServerException;
 import org.forgerock.oauth2.core.exceptions.UnauthorizedClientException;
+import org.forgerock.openam.blacklist.BlacklistException;
 import org.forgerock.openam.cts.api.fields.OAuthTokenField;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.oauth2.IdentityManager;
@@ -132,6 +135,7 @@ public class TokenResource implements CollectionResourceProvider {
     private final ClientDAO clientDao;
 
     private final OAuthTokenStore tokenStore;
+    private final StatefulTokenCache tokenCache;
     private final OAuth2ProviderSettingsFactory oAuth2ProviderSettingsFactory;
     private final Debug debug;
     private static SSOToken token = (SSOToken) AccessController.doPrivileged(AdminTokenAction.getInstance());
@@ -151,8 +155,9 @@ public class TokenResource implements CollectionResourceProvider {
     @Inject
     public TokenResource(OAuthTokenStore tokenStore, ClientDAO clientDao, IdentityManager identityManager,
             OAuth2ProviderSettingsFactory oAuth2ProviderSettingsFactory, OpenAMSettings authServiceSettings,
-            @Named("frRest") Debug debug) {
+            @Named("frRest") Debug debug, StatefulTokenCache tokenCache) {
         this.tokenStore = tokenStore;
+        this.tokenCache = tokenCache;
         this.clientDao = clientDao;
         this.identityManager = identityManager;
         this.oAuth2ProviderSettingsFactory = oAuth2ProviderSettingsFactory;
@@ -268,7 +273,7 @@ public class TokenResource implements CollectionResourceProvider {
                 if (deleteRefreshToken) {
                     deleteAccessTokensRefreshToken(token);
                 }
-                tokenStore.delete(tokenId);
+                delete(tokenId);
             } else {
                 String realm = getAttributeValue(token, REALM);
                 AMIdentity uid2 = identityManager.getResourceOwnerIdentity(username, realm);
@@ -276,7 +281,7 @@ public class TokenResource implements CollectionResourceProvider {
                     if (deleteRefreshToken) {
                         deleteAccessTokensRefreshToken(token);
                     }
-                    tokenStore.delete(tokenId);
+                    delete(tokenId);
                 } else {
                     if (debug.errorEnabled()) {
                         debug.error("TokenResource :: DELETE : Only the resource owner or an administrator may perform "
@@ -334,7 +339,7 @@ public class TokenResource implements CollectionResourceProvider {
                 throw new ForbiddenException("Unauthorized", null);
             } else {
                 deleteAccessTokensRefreshToken(token);
-                tokenStore.delete(tokenId);
+                delete(tokenId);
             }
 
             return newResultPromise(null);
@@ -354,17 +359,36 @@ public class TokenResource implements CollectionResourceProvider {
         return token;
     }
 
+    /**
+     * Deletes the token from the CTS, and from the stateful token cache of every server.
+     *
+     * @param tokenId The token id.
+     * @throws CoreTokenException If there was a problem deleting the token.
+     * @throws ServiceUnavailableException If the cached token could not be invalidated.
+     */
+    private void delete(String tokenId) throws CoreTokenException, ServiceUnavailableException {
+        tokenStore.delete(tokenId);
+        try {
+            tokenCache.invalidate(tokenId);
+        } catch (BlacklistException e) {
+            debug.error("TokenResource :: Unable to invalidate cached token with ID, " + tokenId + ".", e);
+            throw new ServiceUnavailableException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Deletes the provided access token's refresh token.
      *
      * @param token The access token.
      * @throws CoreTokenException If there was a problem deleting the refresh token.
+     * @throws ServiceUnavailableException If the cached refresh token could not be invalidated.
      */
-    private void deleteAccessTokensRefreshToken(JsonValue token) throws CoreTokenException {
+    private void deleteAccessTokensRefreshToken(JsonValue token) throws CoreTokenException,
+            ServiceUnavailableException {
         if (OAUTH_ACCESS_TOKEN.equals(getAttributeValue(token, TOKEN_NAME))) {
             String refreshTokenId = getAttributeValue(token, REFRESH_TOKEN);
             if (refreshTokenId != null) {
-                tokenStore.delete(refreshTokenId);
+                delete(refreshTokenId);
             }
         }
     }
@@ -0,0 +1,200 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.oauth2;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.forgerock.json.JsonValue.*;
+import static org.mockito.BDDMockito.*;
+import static org.mockito.Mockito.mock;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openam.blacklist.Blacklist;
+import org.forgerock.openam.blacklist.Blacklistable;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class StatefulTokenCacheTest {
+
+    private Blacklist<Blacklistable> invalidations;
+    private StatefulTokenCache cache;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        invalidations = mock(Blacklist.class);
+        cache = new StatefulTokenCache(2, 60000, invalidations);
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedToken() {
+        // Given
+        cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+
+        // When
+        JsonValue first = cache.get("one");
+        first.put("realm", "/changed");
+
+        // Then
+        assertThat(cache.get("one").get("realm").asString()).isEqualTo("/");
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() {
+        // Given
+        cache = new StatefulTokenCache(0, 0, invalidations);
+
+        // When
+        cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+
+        // Then
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+        verify(invalidations, never()).subscribe(any(Blacklist.Listener.class));
+    }
+
+    @Test
+    public void shouldExpireEntryAtTokenExpiryTime() {
+        // Given
+        cache.cache("one", token("one"), System.currentTimeMillis() + 60000, cache.startRead());
+        cache.cache("two", token("two"), System.currentTimeMillis() - 1000, cache.startRead());
+
+        // Then
+        assertThat(cache.get("one")).isNotNull();
+        assertThat(cache.get("two")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        // Given
+        cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+        cache.cache("two", token("two"), Long.MAX_VALUE, cache.startRead());
+        cache.get("one");
+
+        // When
+        cache.cache("three", token("three"), Long.MAX_VALUE, cache.startRead());
+
+        // Then
+        assertThat(cache.get("one")).isNotNull();
+        assertThat(cache.get("two")).isNull();
+        assertThat(cache.get("three")).isNotNull();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheTokenReadBeforeItWasRemoved() {
+        // Given
+        long readStamp = cache.startRead();
+        cache.remove("one");
+
+        // When
+        cache.cache("one", token("one"), Long.MAX_VALUE, readStamp);
+
+        // Then
+        assertThat(cache.get("one")).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheDeletedTokenAgain() throws Exception {
+        // Given
+        cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+        cache.invalidate("one");
+
+        // When
+        cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+
+        // Then
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.getInvalidatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldTellOtherServersOfDeletedToken() throws Exception {
+        // Given
+        ArgumentCaptor<Blacklistable> invalidation = ArgumentCaptor.forClass(Blacklistable.class);
+
+        // When
+        cache.invalidate("one");
+        cache.invalidate("one");
+
+        // Then
+        verify(invalidations, times(2)).blacklist(invalidation.capture());
+        assertThat(invalidation.getAllValues().get(0).getStableStorageID()).contains("one")
+                .isNotEqualTo(invalidation.getAllValues().get(1).getStableStorageID());
+        assertThat(invalidation.getValue().getBlacklistExpiryTime()).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    public void shouldRemoveTokenDeletedOnOtherServer() throws Exception {
+        // Given
+        ArgumentCaptor<Blacklist.Listener> listener = ArgumentCaptor.forClass(Blacklist.Listener.class);
+        verify(invalidations).subscribe(listener.capture());
+        ArgumentCaptor<Blacklistable> invalidation = ArgumentCaptor.forClass(Blacklistable.class);
+        new StatefulTokenCache(2, 60000, invalidations).invalidate("one.two");
+        verify(invalidations).blacklist(invalidation.capture());
+        cache.cache("one.two", token("one.two"), Long.MAX_VALUE, cache.startRead());
+
+        // When
+        listener.getValue().onBlacklisted(invalidation.getValue().getStableStorageID(), Long.MAX_VALUE);
+        listener.getValue().onBlacklisted("blacklist-oauth2-stateless-one.two", Long.MAX_VALUE);
+
+        // Then
+        assertThat(cache.get("one.two")).isNull();
+        assertThat(cache.getInvalidatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReportHitRate() {
+        // Given
+        cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+        cache.get("one");
+        cache.get("one");
+        cache.get("one");
+        cache.get("two");
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+
+        // When
+        cache.writeMetrics(writer);
+
+        // Then
+        assertThat(cache.getHitRate()).isEqualTo(0.75D);
+        assertThat(writer.toString())
+                .contains("openam_oauth2_token_cache_reads_total{result=\"hit\"} 3")
+                .contains("openam_oauth2_token_cache_reads_total{result=\"miss\"} 1")
+                .contains("openam_oauth2_token_cache_size 1");
+    }
+
+    @Test
+    public void shouldRemoveTokenEachTimeItIsUpdated() {
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.cache("one", token("one"), Long.MAX_VALUE, cache.startRead());
+            cache.remove("one");
+        }
+
+        // Then
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getInvalidatedCount()).isEqualTo(1000);
+    }
+
+    private static JsonValue token(String id) {
+        return json(object(field("id", id), field("realm", "/")));
+    }
+}
@@ -43,12 +43,15 @@ import org.forgerock.oauth2.core.OAuth2ProviderSettingsFactory;
 import org.forgerock.oauth2.core.OAuth2Request;
 import org.forgerock.oauth2.core.OAuth2RequestFactory;
 import org.forgerock.oauth2.core.OAuth2UrisFactory;
+import org.forgerock.oauth2.core.RefreshToken;
 import org.forgerock.oauth2.core.ResourceOwner;
 import org.forgerock.oauth2.core.exceptions.ClientAuthenticationFailureFactory;
 import org.forgerock.oauth2.core.exceptions.InvalidClientException;
 import org.forgerock.oauth2.core.exceptions.InvalidGrantException;
 import org.forgerock.oauth2.core.exceptions.NotFoundException;
 import org.forgerock.oauth2.core.exceptions.ServerException;
+import org.forgerock.openam.blacklist.Blacklist;
+import org.forgerock.openam.blacklist.Blacklistable;
 import org.forgerock.openam.core.RealmInfo;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.oauth2.guice.OAuth2GuiceModule;
@@ -84,6 +87,7 @@ public class StatefulTokenStoreTest {
     private OAuth2RequestFactory oAuth2RequestFactory;
     private RecoveryCodeGenerator recoveryCodeGenerator;
     private OAuth2ProviderSettings providerSettings;
+    private Blacklist<Blacklistable> invalidations;
 
     private final int retryNum = 3;
     private final int retryInt = 100;
@@ -103,6 +107,7 @@ public class StatefulTokenStoreTest {
         debug = mock(Debug.class);
         failureFactory = mock(ClientAuthenticationFailureFactory.class);
         recoveryCodeGenerator = mock(RecoveryCodeGenerator.class);
+        invalidations = mock(Blacklist.class);
 
         oAuth2RequestFactory = new OAuth2RequestFactory(new JacksonRepresentationFactory(new ObjectMapper()));
 
@@ -115,7 +120,8 @@ public class StatefulTokenStoreTest {
 
         openAMtokenStore = new StatefulTokenStore(tokenStore, providerSettingsFactory, oAuth2UrisFactory,
                 clientRegistrationStore, realmNormaliser, ssoTokenManager, cookieExtractor, auditLogger, debug,
-                new SecureRandom(), failureFactory, recoveryCodeGenerator);
+                new SecureRandom(), failureFactory, recoveryCodeGenerator,
+                new StatefulTokenCache(100, 1000, invalidations));
 
         providerSettings = mock(OAuth2ProviderSettings.class);
         given(providerSettingsFactory.get(any(OAuth2Request.class))).willReturn(providerSettings);
@@ -216,6 +222,69 @@ public class StatefulTokenStoreTest {
         verify(tokenStore, times(1)).read("TOKEN_ID");
     }
 
+    @Test
+    public void shouldReadCachedAccessTokenWithoutCTS() throws Exception {
+        //Given
+        JsonValue token = json(object(
+                field("tokenName", Collections.singleton("access_token")),
+                field("realm", Collections.singleton("/testrealm")),
+                field("expireTime", Collections.singleton(Long.toString(currentTimeMillis() + 60000)))));
+        given(tokenStore.read("TOKEN_ID")).willReturn(token);
+        given(request.getAttributes()).willReturn(new ConcurrentHashMap<>(singletonMap("realm", (Object) "/testrealm")));
+        given(realmNormaliser.normalise("/testrealm")).willReturn("/testrealm");
+        openAMtokenStore.readAccessToken(oAuth2RequestFactory.create(this.request), "TOKEN_ID");
+
+        //When
+        OAuth2Request request = oAuth2RequestFactory.create(this.request);
+        AccessToken accessToken = openAMtokenStore.readAccessToken(request, "TOKEN_ID");
+
+        //Then
+        verify(tokenStore, times(1)).read("TOKEN_ID");
+        assertThat(accessToken.getRealm()).isEqualTo("/testrealm");
+        assertThat(request.getToken(AccessToken.class)).isSameAs(accessToken);
+    }
+
+    @Test
+    public void shouldReadCachedRefreshTokenWithoutCTS() throws Exception {
+        //Given
+        JsonValue token = json(object(
+                field("tokenName", Collections.singleton("refresh_token")),
+                field("realm", Collections.singleton("/testrealm"))));
+        given(tokenStore.read("TOKEN_ID")).willReturn(token);
+        given(request.getAttributes()).willReturn(new ConcurrentHashMap<>(singletonMap("realm", (Object) "/testrealm")));
+        given(realmNormaliser.normalise("/testrealm")).willReturn("/testrealm");
+        openAMtokenStore.readRefreshToken(oAuth2RequestFactory.create(this.request), "TOKEN_ID");
+
+        //When
+        RefreshToken refreshToken = openAMtokenStore.readRefreshToken(oAuth2RequestFactory.create(this.request),
+                "TOKEN_ID");
+
+        //Then
+        verify(tokenStore, times(1)).read("TOKEN_ID");
+        assertThat(refreshToken.getRealm()).isEqualTo("/testrealm");
+    }
+
+    @Test
+    public void shouldNotReadDeletedAccessTokenFromCache() throws Exception {
+        //Given
+        JsonValue token = json(object(
+                field("tokenName", Collections.singleton("access_token")),
+                field("realm", Collections.singleton("/testrealm"))));
+        given(tokenStore.read("TOKEN_ID")).willReturn(token);
+        given(request.getAttributes()).willReturn(new ConcurrentHashMap<>(singletonMap("realm", (Object) "/testrealm")));
+        given(realmNormaliser.normalise("/testrealm")).willReturn("/testrealm");
+        openAMtokenStore.readAccessToken(oAuth2RequestFactory.create(this.request), "TOKEN_ID");
+
+        //When
+        openAMtokenStore.deleteAccessToken(oAuth2RequestFactory.create(this.request), "TOKEN_ID");
+        openAMtokenStore.readAccessToken(oAuth2RequestFactory.create(this.request), "TOKEN_ID");
+
+        //Then
+        verify(tokenStore).delete("TOKEN_ID");
+        verify(invalidations).blacklist(any(Blacklistable.class));
+        verify(tokenStore, times(2)).read("TOKEN_ID");
+    }
+
     @Test (expectedExceptions = InvalidGrantException.class)
     public void shouldReadAuthorizationCodeWhenNull() throws Exception {
         //Given
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.radius.server;
 
@@ -30,9 +31,11 @@ import org.forgerock.openam.radius.server.config.RadiusServerConstants;
 import org.forgerock.openam.radius.server.config.RadiusServerManager;
 import org.forgerock.openam.radius.server.monitoring.RadiusServerEventRegistrar;
 import org.forgerock.openam.radius.server.monitoring.RadiusServerEventRegistrator;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
+import com.google.inject.multibindings.Multibinder;
 import com.iplanet.sso.SSOToken;
 import com.sun.identity.security.AdminTokenAction;
 import com.sun.identity.shared.debug.Debug;
@@ -66,6 +69,7 @@ public class RadiusServerGuiceModule extends AbstractModule {
         // that.
         bind(RadiusServer.class).to(RadiusServerManager.class).in(Singleton.class);
         bind(RadiusAuditor.class).to(RadiusAuditLoggerEventBus.class).in(Singleton.class);
+        Multibinder.newSetBinder(binder(), MetricsSource.class).addBinding().toInstance(eventRegistrar);
         LOG.message("RadiusServerGuiceModule - Leaving configure.");
     }
 
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 /**
  *
@@ -29,18 +30,24 @@ import javax.management.ObjectName;
 import org.forgerock.guava.common.eventbus.EventBus;
 import org.forgerock.guava.common.eventbus.Subscribe;
 import org.forgerock.openam.radius.server.config.RadiusServerConstants;
+import org.forgerock.openam.radius.server.events.AcceptedRadiusEvent;
 import org.forgerock.openam.radius.server.events.AuthRequestAcceptedEvent;
+import org.forgerock.openam.radius.server.events.AuthRequestChallengedEvent;
 import org.forgerock.openam.radius.server.events.AuthRequestReceivedEvent;
 import org.forgerock.openam.radius.server.events.AuthRequestRejectedEvent;
 import org.forgerock.openam.radius.server.events.PacketProcessedEvent;
 import org.forgerock.openam.radius.server.events.PacketReceivedEvent;
+import org.forgerock.openam.shared.monitoring.LatencyHistogram;
+import org.forgerock.openam.shared.monitoring.MetricsSource;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
 
 import com.sun.identity.shared.debug.Debug;
 
 /**
- * Collates information for JMX reporting and monitoring.
+ * Collates information for JMX reporting and monitoring, and for the OpenMetrics endpoint.
  */
-public class RadiusServerEventRegistrar implements RadiusServerEventRegistrator, RadiusServerEventMonitorMXBean {
+public class RadiusServerEventRegistrar implements RadiusServerEventRegistrator, RadiusServerEventMonitorMXBean,
+        MetricsSource {
 
     // private static Logger logger = LoggerFactory.getLogger(RadiusServerConstants.RADIUS_SERVER_LOGGER);
     private static final Debug LOG = Debug.getInstance(RadiusServerConstants.RADIUS_SERVER_LOGGER);
@@ -50,6 +57,7 @@ public class RadiusServerEventRegistrar implements RadiusServerEventRegistrator,
     private final AtomicLong noOfPacketsProcessed = new AtomicLong();
     private final AtomicLong noOfAuthRequestsAccepted = new AtomicLong();
     private final AtomicLong noOfAuthRequestsRejected = new AtomicLong();
+    private final LatencyHistogram requestTimes = new LatencyHistogram();
 
     /**
      * Constructor. Registers this class with the radius events bus, such that it will be a subscriber to radius events.
@@ -213,6 +221,7 @@ public class RadiusServerEventRegistrar implements RadiusServerEventRegistrator,
     public void authRequestAccepted(AuthRequestAcceptedEvent acceptedEvent) {
         LOG.message("RadiusServerEventRegistrar.authRequestAccepted() called by EventBus");
         authRequestAccepted();
+        recordServiceTime(acceptedEvent);
     }
 
     @Override
@@ -247,6 +256,7 @@ public class RadiusServerEventRegistrar implements RadiusServerEventRegistrator,
     public void authRequestRejected(AuthRequestRejectedEvent authRequestRejectedEvent) {
         LOG.message("Entering RadiusServerEventRegistrar.authRequestRejected()");
         authRequestRejected();
+        recordServiceTime(authRequestRejectedEvent);
     }
 
     /*
@@ -267,4 +277,42 @@ public class RadiusServerEventRegistrar implements RadiusServerEventRegistrator,
     public long getNumberOfAuthRequestsRejected() {
         return noOfAuthRequestsRejected.get();
     }
+
+    ////////////////////
+    // Requests handled.
+
+    /**
+     * Once an object of this class has registered with the eventBus (passed into the constructor) the
+     * <code>EventBus</code> will call this method when any <code>AuthRequestChallengedEvent</code> objects are posted.
+     *
+     * @param authRequestChallengedEvent - the event that was posted to the <code>EventBus</code>
+     */
+    @Subscribe
+    public void authRequestChallenged(AuthRequestChallengedEvent authRequestChallengedEvent) {
+        recordServiceTime(authRequestChallengedEvent);
+    }
+
+    /**
+     * Records the time taken to service a request which has been accepted, challenged or rejected. The
+     * <code>AuthRequestReceivedEvent</code> is posted before the request is serviced, so it is not recorded.
+     */
+    private void recordServiceTime(AcceptedRadiusEvent acceptedRadiusEvent) {
+        requestTimes.record(acceptedRadiusEvent.getResponse().getTimeToServiceRequestInMilliSeconds());
+    }
+
+    @Override
+    public void writeMetrics(OpenMetricsWriter writer) {
+        writer.counter("openam_radius_packets", "RADIUS packets since server start up.",
+                noOfPacketsReceived.get(), "stage", "received");
+        writer.counter("openam_radius_packets", "RADIUS packets since server start up.",
+                noOFPacketsAccepted.get(), "stage", "accepted");
+        writer.counter("openam_radius_packets", "RADIUS packets since server start up.",
+                noOfPacketsProcessed.get(), "stage", "processed");
+        writer.counter("openam_radius_auth_requests", "RADIUS authentication requests since server start up.",
+                noOfAuthRequestsAccepted.get(), "outcome", "accepted");
+        writer.counter("openam_radius_auth_requests", "RADIUS authentication requests since server start up.",
+                noOfAuthRequestsRejected.get(), "outcome", "rejected");
+        writer.summary("openam_radius_request_duration_seconds", "Time taken to service RADIUS requests.",
+                requestTimes, OpenMetricsWriter.MILLISECONDS);
+    }
 }
@@ -12,12 +12,20 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.radius.server.monitoring;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 import org.forgerock.guava.common.eventbus.EventBus;
+import org.forgerock.openam.radius.server.RadiusRequest;
+import org.forgerock.openam.radius.server.RadiusRequestContext;
+import org.forgerock.openam.radius.server.RadiusResponse;
+import org.forgerock.openam.radius.server.events.AuthRequestAcceptedEvent;
+import org.forgerock.openam.radius.server.events.AuthRequestReceivedEvent;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
 import org.testng.annotations.Test;
 
 /**
@@ -121,4 +129,49 @@ public class RadiusServerEventRegistrarTest {
         // Then
         assertThat(eventRegistrar.getNumberOfPacketsRecieved()).isEqualTo(1);
     }
+
+    /**
+     * Test the following method.
+     *
+     * @see org.forgerock.openam.radius.server.monitoring.RadiusServerEventRegistrar#writeMetrics
+     */
+    @Test(enabled = true)
+    public void writeMetrics() {
+        // Given
+        EventBus eventBus = new EventBus();
+        final RadiusServerEventRegistrar eventRegistrar = new RadiusServerEventRegistrar(eventBus);
+        eventRegistrar.packetReceived();
+        eventRegistrar.authRequestAccepted();
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        // When
+        eventRegistrar.writeMetrics(writer);
+        // Then
+        assertThat(writer.toString()).contains("openam_radius_packets_total{stage=\"received\"} 1\n")
+                .contains("openam_radius_auth_requests_total{outcome=\"accepted\"} 1\n")
+                .contains("openam_radius_request_duration_seconds_count 0\n");
+    }
+
+    /**
+     * Test that a request records one service time, although both an <code>AuthRequestReceivedEvent</code> and an
+     * <code>AuthRequestAcceptedEvent</code> are posted for it.
+     *
+     * @see org.forgerock.openam.radius.server.monitoring.RadiusServerEventRegistrar#authRequestAccepted
+     */
+    @Test(enabled = true)
+    public void recordsOneServiceTimePerRequest() {
+        // Given
+        EventBus eventBus = new EventBus();
+        final RadiusServerEventRegistrar eventRegistrar = new RadiusServerEventRegistrar(eventBus);
+        RadiusRequest request = mock(RadiusRequest.class);
+        RadiusRequestContext context = mock(RadiusRequestContext.class);
+        RadiusResponse response = new RadiusResponse();
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        // When
+        eventBus.post(new AuthRequestReceivedEvent(request, response, context));
+        response.setTimeToServiceRequestInMilliSeconds(25);
+        eventBus.post(new AuthRequestAcceptedEvent(request, response, context));
+        eventRegistrar.writeMetrics(writer);
+        // Then
+        assertThat(writer.toString()).contains("openam_radius_request_duration_seconds_count 1\n");
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+
+package org.forgerock.openam.scripting;
+
+import org.forgerock.util.Reject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of compiled scripts, keyed by the script engine factory that compiled them and a SHA-256 hash of the script
+ * source. Repeat evaluations of the same script can then skip parsing (and, for Groovy, class generation) and run the
+ * compiled form directly.
+ *
+ * Compiled scripts are safe to evaluate concurrently from different threads, each evaluation being given its own
+ * {@link javax.script.ScriptContext}, so one cache is shared by all of the script evaluator's worker threads. Scripts
+ * are keyed by their content rather than their name or id, so an edited script is never served from a stale entry.
+ * The cache is nevertheless cleared whenever the scripts or the script engine configuration change, as the sandbox
+ * applied by a compiled Groovy script is fixed when it is compiled.
+ *
+ * The number of entries is bounded. Once the bound is reached an arbitrary entry is discarded for each new script
+ * compiled, which is sufficient given that the set of configured scripts is normally far smaller than the bound.
+ *
+ * @since 15.0.0
+ */
+@Singleton
+public class CompiledScriptCache {
+
+    /**
+     * The default maximum number of compiled scripts held.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledScriptCache.class);
+
+    private final ConcurrentMap<Key, CompiledScript> compiledScripts = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    /**
+     * Constructs a cache holding up to {@link #DEFAULT_MAX_ENTRIES} compiled scripts.
+     */
+    public CompiledScriptCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs a cache holding up to the given number of compiled scripts.
+     *
+     * @param maxEntries the maximum number of compiled scripts to hold. Must be positive.
+     */
+    public CompiledScriptCache(int maxEntries) {
+        Reject.ifTrue(maxEntries <= 0, "Maximum entries must be positive");
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the compiled form of the given script source, compiling it with the given engine if it has not been
+     * seen before. Script compilation errors are not cached.
+     *
+     * @param engine the script engine to compile the script with. Must not be null.
+     * @param source the script source. Must not be null.
+     * @return the compiled script, or {@code null} if the engine does not support compilation.
+     * @throws ScriptException if the script cannot be compiled.
+     */
+    public CompiledScript getCompiledScript(final ScriptEngine engine, final String source) throws ScriptException {
+        Reject.ifNull(engine, source);
+        if (!(engine instanceof Compilable)) {
+            return null;
+        }
+
+        final Key key = new Key(engine.getFactory(), digest(source));
+        CompiledScript compiledScript = compiledScripts.get(key);
+        if (compiledScript == null) {
+            compiledScript = ((Compilable) engine).compile(source);
+            makeRoom();
+            final CompiledScript existing = compiledScripts.putIfAbsent(key, compiledScript);
+            if (existing != null) {
+                compiledScript = existing;
+            }
+        }
+        return compiledScript;
+    }
+
+    /**
+     * Discards all compiled scripts.
+     */
+    public void clear() {
+        LOGGER.debug("Clearing compiled script cache");
+        compiledScripts.clear();
+    }
+
+    /**
+     * @return the number of compiled scripts currently held.
+     */
+    public int size() {
+        return compiledScripts.size();
+    }
+
+    private void makeRoom() {
+        final Iterator<Key> keys = compiledScripts.keySet().iterator();
+        while (compiledScripts.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static byte[] digest(String source) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Identifies a compiled script. Engine factories are compared by identity, as each script engine manager has its
+     * own factories with their own sandbox configuration.
+     */
+    private static final class Key {
+        private final ScriptEngineFactory factory;
+        private final byte[] digest;
+        private final int hashCode;
+
+        private Key(ScriptEngineFactory factory, byte[] digest) {
+            this.factory = factory;
+            this.digest = digest;
+            this.hashCode = 31 * System.identityHashCode(factory) + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return factory == that.factory && Arrays.equals(digest, that.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
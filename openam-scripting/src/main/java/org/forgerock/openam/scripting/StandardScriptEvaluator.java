@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.scripting;
@@ -23,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
@@ -47,15 +49,37 @@ public class StandardScriptEvaluator implements ScriptEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(StandardScriptEvaluator.class);
 
     private final StandardScriptEngineManager scriptEngineManager;
+    private final CompiledScriptCache compiledScriptCache;
 
     /**
-     * Constructs the script evaluator using the given JSR 223 script engine manager instance.
+     * Constructs the script evaluator using the given JSR 223 script engine manager instance, with its own cache of
+     * compiled scripts.
      *
      * @param scriptEngineManager the script engine manager to use for creating script engines. May not be null.
      */
     public StandardScriptEvaluator(StandardScriptEngineManager scriptEngineManager) {
-        Reject.ifNull(scriptEngineManager);
+        this(scriptEngineManager, new CompiledScriptCache());
+    }
+
+    /**
+     * Constructs the script evaluator using the given JSR 223 script engine manager instance and compiled script
+     * cache. The cache is cleared whenever the script engine configuration changes.
+     *
+     * @param scriptEngineManager the script engine manager to use for creating script engines. May not be null.
+     * @param compiledScriptCache the cache of compiled scripts to use. May not be null.
+     */
+    public StandardScriptEvaluator(StandardScriptEngineManager scriptEngineManager,
+            CompiledScriptCache compiledScriptCache) {
+        Reject.ifNull(scriptEngineManager, compiledScriptCache);
         this.scriptEngineManager = scriptEngineManager;
+        this.compiledScriptCache = compiledScriptCache;
+
+        scriptEngineManager.addConfigurationListener(new StandardScriptEngineManager.ConfigurationListener() {
+            @Override
+            public void onConfigurationChange(ScriptEngineConfiguration newConfiguration) {
+                compiledScriptCache.clear();
+            }
+        });
     }
 
     /**
@@ -72,6 +96,9 @@ public class StandardScriptEvaluator implements ScriptEvaluator {
      * be wrapped with a {@link org.forgerock.openam.scripting.ThreadPoolScriptEvaluator} if script interruption or
      * timeouts are required.
      *
+     * Scripts are compiled on first use and the compiled form is reused for subsequent evaluations of the same script
+     * source.
+     *
      * @param script the script to evaluate.
      * @param bindings any additional variable bindings to set before running the script.
      * @param <T> the type of result returned from the script.
@@ -91,7 +118,12 @@ public class StandardScriptEvaluator implements ScriptEvaluator {
         final Bindings variableBindings = mergeBindings(script.getBindings(), bindings);
         final ScriptContext context = buildScriptContext(variableBindings);
 
-        return (T) engine.eval(script.getScript(), context);
+        engine.setContext(context);
+        final CompiledScript compiledScript = compiledScriptCache.getCompiledScript(engine, script.getScript());
+        if (compiledScript == null) {
+            return (T) engine.eval(script.getScript(), context);
+        }
+        return (T) compiledScript.eval(context);
     }
 
     /**
@@ -13,6 +13,7 @@
 *
 * Copyright 2014-2015 ForgeRock AS.
 * Portions copyright 2026 3A Systems, LLC
+* Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.scripting.factories;
 
@@ -89,4 +90,13 @@ public class GroovyEngineFactory extends GroovyScriptEngineFactory {
         Reject.ifNull(sandbox);
         this.sandbox = sandbox;
     }
+
+    /**
+     * Returns the Groovy value filter currently used for sandboxing scripts.
+     *
+     * @return the current sandbox.
+     */
+    GroovyValueFilter getSandbox() {
+        return sandbox;
+    }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.scripting.factories;
@@ -124,7 +125,9 @@ final class SandboxedGroovyScriptEngine extends AbstractScriptEngine implements
     }
 
     /**
-     * Compiled script wrapper that ensures that the sandbox is applied when executing the script.
+     * Compiled script wrapper that ensures that the sandbox is applied when executing the script. Compiled scripts
+     * may be cached and evaluated long after they were compiled, so the sandbox currently configured on the factory
+     * is applied rather than the one this engine was created with.
      */
     private final class SandboxedCompiledScript extends CompiledScript {
         private final CompiledScript realCompiledScript;
@@ -141,11 +144,12 @@ final class SandboxedGroovyScriptEngine extends AbstractScriptEngine implements
          */
         @Override
         public Object eval(final ScriptContext scriptContext) throws ScriptException {
-            sandbox.register();
+            final GroovyValueFilter currentSandbox = factory.getSandbox();
+            currentSandbox.register();
             try {
                 return realCompiledScript.eval(scriptContext);
             } finally {
-                sandbox.unregister();
+                currentSandbox.unregister();
             }
         }
 
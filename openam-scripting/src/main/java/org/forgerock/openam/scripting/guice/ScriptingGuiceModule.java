@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.scripting.guice;
@@ -34,6 +35,7 @@ import javax.inject.Singleton;
 import org.forgerock.guice.core.GuiceModule;
 import org.forgerock.http.Client;
 import org.forgerock.http.client.RestletHttpClient;
+import org.forgerock.openam.scripting.CompiledScriptCache;
 import org.forgerock.openam.scripting.ScriptConstants;
 import org.forgerock.openam.scripting.ScriptEngineConfiguration;
 import org.forgerock.openam.scripting.ScriptEvaluator;
@@ -103,6 +105,7 @@ public class ScriptingGuiceModule extends AbstractModule {
      *
      * @param scriptEngineManager the script engine manager to use.
      * @param executorServiceFactory the factory for creating managed thread pools for script execution.
+     * @param compiledScriptCache the cache of compiled scripts shared by the evaluator's worker threads.
      * @return an appropriately configured script evaluator for use with scripted authentication.
      */
     @Provides
@@ -111,9 +114,10 @@ public class ScriptingGuiceModule extends AbstractModule {
     @Named(AUTHENTICATION_SERVER_SIDE_NAME)
     ScriptEvaluator getAuthenticationServerSideScriptEvaluator(
             @Named(AUTHENTICATION_SERVER_SIDE_NAME) StandardScriptEngineManager scriptEngineManager,
-            ExecutorServiceFactory executorServiceFactory) {
+            ExecutorServiceFactory executorServiceFactory,
+            CompiledScriptCache compiledScriptCache) {
 
-        return createEvaluator(scriptEngineManager, executorServiceFactory);
+        return createEvaluator(scriptEngineManager, executorServiceFactory, compiledScriptCache);
     }
 
     /**
@@ -122,6 +126,7 @@ public class ScriptingGuiceModule extends AbstractModule {
      *
      * @param scriptEngineManager the script engine manager to use.
      * @param executorServiceFactory the factory for creating managed thread pools for script execution.
+     * @param compiledScriptCache the cache of compiled scripts shared by the evaluator's worker threads.
      * @return an appropriately configured script evaluator for use with scripted entitlement condition.
      */
     @Provides
@@ -130,9 +135,10 @@ public class ScriptingGuiceModule extends AbstractModule {
     @Named(POLICY_CONDITION_NAME)
     ScriptEvaluator getPoliyConditionScriptEvaluator(
             @Named(POLICY_CONDITION_NAME) StandardScriptEngineManager scriptEngineManager,
-            ExecutorServiceFactory executorServiceFactory) {
+            ExecutorServiceFactory executorServiceFactory,
+            CompiledScriptCache compiledScriptCache) {
 
-        return createEvaluator(scriptEngineManager, executorServiceFactory);
+        return createEvaluator(scriptEngineManager, executorServiceFactory, compiledScriptCache);
     }
 
     /**
@@ -141,6 +147,7 @@ public class ScriptingGuiceModule extends AbstractModule {
      *
      * @param scriptEngineManager the script engine manager to use.
      * @param executorServiceFactory the factory for creating managed thread pools for script execution.
+     * @param compiledScriptCache the cache of compiled scripts shared by the evaluator's worker threads.
      * @return an appropriately configured script evaluator for use with OIDC Claims scripts.
      */
     @Provides
@@ -149,13 +156,15 @@ public class ScriptingGuiceModule extends AbstractModule {
     @Named(OIDC_CLAIMS_NAME)
     ScriptEvaluator getOidcClaimsScriptEvaluator(
             @Named(OIDC_CLAIMS_NAME) StandardScriptEngineManager scriptEngineManager,
-            ExecutorServiceFactory executorServiceFactory) {
+            ExecutorServiceFactory executorServiceFactory,
+            CompiledScriptCache compiledScriptCache) {
 
-        return createEvaluator(scriptEngineManager, executorServiceFactory);
+        return createEvaluator(scriptEngineManager, executorServiceFactory, compiledScriptCache);
     }
 
     private ThreadPoolScriptEvaluator createEvaluator(StandardScriptEngineManager scriptEngineManager,
-                                                      ExecutorServiceFactory executorServiceFactory) {
+                                                      ExecutorServiceFactory executorServiceFactory,
+                                                      CompiledScriptCache compiledScriptCache) {
 
         ScriptEngineConfiguration configuration = scriptEngineManager.getConfiguration();
 
@@ -167,7 +176,7 @@ public class ScriptingGuiceModule extends AbstractModule {
                         TimeUnit.SECONDS,
                         getThreadPoolQueue(configuration.getThreadPoolQueueSize())
                 ),
-                new StandardScriptEvaluator(scriptEngineManager));
+                new StandardScriptEvaluator(scriptEngineManager, compiledScriptCache));
     }
 
     private BlockingQueue<Runnable> getThreadPoolQueue(int size) {
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package org.forgerock.openam.scripting.service;
 
@@ -60,6 +61,7 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.security.auth.Subject;
 
 import org.forgerock.openam.core.CoreWrapper;
+import org.forgerock.openam.scripting.CompiledScriptCache;
 import org.forgerock.openam.scripting.ScriptException;
 import org.forgerock.util.Reject;
 import org.forgerock.util.query.QueryFilter;
@@ -96,6 +98,7 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
     private final String realm;
     private final CoreWrapper coreWrapper;
     private final ServiceConfigManager scm;
+    private final CompiledScriptCache compiledScriptCache;
     private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     @GuardedBy("lock")
     private Map<String, ScriptConfiguration> realmConfigurations;
@@ -109,13 +112,28 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
      * @param realm            The realm in which the {@code ScriptConfiguration} resides in.
      * @param coreWrapper      Wrapper for access to core services.
      */
-    @Inject
     public ScriptConfigurationService(Logger logger, String realm, CoreWrapper coreWrapper, ServiceConfigManager scm) {
-        Reject.ifNull(realm);
+        this(logger, realm, coreWrapper, scm, new CompiledScriptCache());
+    }
+
+    /**
+     * Construct a new instance of {@code ScriptConfigurationService} which clears the given compiled script cache
+     * whenever the script configurations change.
+     *
+     * @param logger              The logger log any error and debug messages to.
+     * @param realm               The realm in which the {@code ScriptConfiguration} resides in.
+     * @param coreWrapper         Wrapper for access to core services.
+     * @param compiledScriptCache The cache of compiled scripts to clear on change.
+     */
+    @Inject
+    public ScriptConfigurationService(Logger logger, String realm, CoreWrapper coreWrapper, ServiceConfigManager scm,
+            CompiledScriptCache compiledScriptCache) {
+        Reject.ifNull(realm, compiledScriptCache);
         this.logger = logger;
         this.realm = realm;
         this.coreWrapper = coreWrapper;
         this.scm = scm;
+        this.compiledScriptCache = compiledScriptCache;
         init();
     }
 
@@ -627,6 +645,7 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
             int type) {
         if (serviceName.equals(SERVICE_NAME)) {
             reload();
+            compiledScriptCache.clear();
         }
     }
 
@@ -635,6 +654,7 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
             String serviceComponent, int type) {
         if (serviceName.equals(SERVICE_NAME)) {
             reload();
+            compiledScriptCache.clear();
         }
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.scripting;
@@ -22,6 +23,8 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import java.util.Arrays;
@@ -282,6 +285,95 @@ public class StandardScriptEvaluatorTest {
 
     }
 
+    @Test
+    public void shouldReuseCompiledScripts() throws Exception {
+        // Given
+        CompiledScriptCache cache = new CompiledScriptCache();
+        StandardScriptEvaluator evaluator = new StandardScriptEvaluator(scriptEngineManager, cache);
+        Bindings first = new SimpleBindings();
+        first.put("x", 2);
+        Bindings second = new SimpleBindings();
+        second.put("x", 5);
+
+        // When
+        Number firstResult = evaluator.evaluateScript(getJavascript("x * 3"), first);
+        Number secondResult = evaluator.evaluateScript(getJavascript("x * 3"), second);
+        evaluator.evaluateScript(getGroovyScript("x * 3"), first);
+
+        // Then
+        assertThat(firstResult.intValue()).isEqualTo(6);
+        assertThat(secondResult.intValue()).isEqualTo(15);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldClearCompiledScriptsWhenConfigurationChanges() throws Exception {
+        // Given
+        CompiledScriptCache cache = new CompiledScriptCache();
+        StandardScriptEvaluator evaluator = new StandardScriptEvaluator(scriptEngineManager, cache);
+        evaluator.evaluateScript(getGroovyScript("3 * 4"), null);
+
+        // When
+        scriptEngineManager.setConfiguration(CONFIGURATION);
+
+        // Then
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test(expectedExceptions = ScriptException.class,
+            expectedExceptionsMessageRegExp = ".*Access to Java class .*? is prohibited.*")
+    public void shouldApplySandboxToCachedGroovyScripts() throws Exception {
+        // Given
+        ScriptObject script = getGroovyScript(
+                "def value = new Integer(0).getClass().getDeclaredField('value')",
+                "value.setAccessible(true)",
+                "value.set(Integer.valueOf(1), Integer.valueOf(2))",
+                "Integer.valueOf(1)");
+        try {
+            testEvaluator.evaluateScript(script, null);
+        } catch (ScriptException ignored) {
+            // Expected - the first evaluation populates the cache
+        }
+
+        // When
+        testEvaluator.evaluateScript(script, null);
+
+        // Then - sandbox should abort script
+    }
+
+    /**
+     * Compares evaluation time with and without compiled script caching. Disabled by default as it is a benchmark
+     * rather than a test.
+     */
+    @Test(enabled = false)
+    public void compareCachedAndUncachedEvaluation() throws Exception {
+        int iterations = 20000;
+        ScriptObject[] scripts = {
+            getJavascript("var total = 0", "for (var i = 0; i < 10; i++) { total += i * x }", "total"),
+            getGroovyScript("def total = 0", "for (i in 0..9) { total += i * x }", "total")
+        };
+        for (ScriptObject script : scripts) {
+            StandardScriptEvaluator cached = new StandardScriptEvaluator(scriptEngineManager);
+            StandardScriptEvaluator uncached = new StandardScriptEvaluator(scriptEngineManager,
+                    new CompiledScriptCache(1) {
+                        @Override
+                        public CompiledScript getCompiledScript(ScriptEngine engine, String source) {
+                            return null;
+                        }
+                    });
+            for (StandardScriptEvaluator evaluator : new StandardScriptEvaluator[] {uncached, cached}) {
+                Bindings bindings = new SimpleBindings();
+                bindings.put("x", 3);
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    evaluator.evaluateScript(script, bindings);
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.println(script.getLanguage() + (evaluator == cached ? " cached: " : " uncached: ")
+                        + (elapsed / iterations) + "ns per evaluation");
+            }
+        }
+    }
 
     static ScriptObject getJavascript(String... script) {
         return getJavascript(null, script);
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.scripting.factories;
@@ -48,6 +49,7 @@ public class SandboxedGroovyScriptEngineTest {
         engineFactory = new GroovyEngineFactory();
         mockScriptEngine = mock(CompilableScriptEngine.class);
         mockValueFilter = mock(GroovyValueFilter.class);
+        engineFactory.setSandbox(mockValueFilter);
 
         testEngine = new SandboxedGroovyScriptEngine(engineFactory, mockScriptEngine, mockValueFilter);
     }
@@ -132,6 +134,26 @@ public class SandboxedGroovyScriptEngineTest {
         verify(mockValueFilter).unregister();
     }
 
+    @Test
+    public void shouldApplyCurrentSandboxToPreviouslyCompiledScripts() throws Exception {
+        // Given
+        String script = "1 + 1";
+        ScriptContext context = new SimpleScriptContext();
+        CompiledScript mockCompiledScript = mock(CompiledScript.class);
+        given(mockScriptEngine.compile(script)).willReturn(mockCompiledScript);
+        CompiledScript compiledScript = testEngine.compile(script);
+        GroovyValueFilter newValueFilter = mock(GroovyValueFilter.class);
+
+        // When
+        engineFactory.setSandbox(newValueFilter);
+        compiledScript.eval(context);
+
+        // Then
+        verify(newValueFilter).register();
+        verify(mockCompiledScript).eval(context);
+        verify(newValueFilter).unregister();
+    }
+
     @Test
     public void shouldApplySandboxToCompiledReaderScripts() throws Exception {
         // Given
@@ -0,0 +1,211 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.iplanet.services.util;
+
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+import com.sun.identity.shared.debug.Debug;
+import org.forgerock.openam.utils.CipherProvider;
+import org.forgerock.openam.utils.Providers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encryption provider using AES-GCM, which both encrypts the data and authenticates it.
+ * <p/>
+ * The AES key is derived from the password with PBKDF2-HMAC-SHA256 and 600,000 iterations, as recommended by OWASP,
+ * when the password is set, and is only kept by this provider. The salt is read from {@value #SALT_PROPERTY}, which
+ * must hold the same random value on every server and client sharing the encrypted values, and a different value in
+ * every deployment. There is no default salt: without it no key is derived, and the provider only decrypts values
+ * encrypted by {@link JCEEncryption}. Each thread reuses its own {@link Cipher}, and every encryption uses a new random
+ * nonce. The encrypted data is:
+ * <pre>
+ *     version (1 byte, 2) | nonce (12 bytes) | cipher text and authentication tag
+ * </pre>
+ * The version byte tells this format apart from the one of {@link JCEEncryption}, whose data starts with version 1,
+ * so values encrypted before switching provider are still decrypted, by a {@link JCEEncryption} set with the same
+ * password. New values are always encrypted with AES-GCM.
+ * <p/>
+ * To use it, set <code>com.iplanet.security.encryptor</code> to
+ * <code>com.iplanet.services.util.AESGCMEncryption</code> on every server and client sharing the encrypted values.
+ *
+ * @since 15.0.0
+ */
+public class AESGCMEncryption implements AMEncryption, ConfigurableKey {
+
+    private static final byte VERSION = 2;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final String KEY_ALGORITHM = "AES";
+
+    private static final String KEY_DERIVATION_ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final String CIPHER_PROVIDER = "SunJCE";
+
+    /**
+     * The system property holding the salt the AES key is derived with. It has no default, and should be a random
+     * value of at least 16 characters generated for the deployment.
+     */
+    public static final String SALT_PROPERTY = "am.encryption.gcm.salt";
+
+    private static final int KEY_DERIVATION_ITERATIONS = 600000;
+
+    private static final int KEY_LENGTH = 256;
+
+    private static final int NONCE_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final int HEADER_LENGTH = 1 + NONCE_LENGTH;
+
+    private static final String CRYPTO_CACHE_SIZE_PROPERTY_NAME = "amCryptoCacheSize";
+    private static final int DEFAULT_CACHE_SIZE = 500;
+    private static final int CACHE_SIZE = Integer.getInteger(CRYPTO_CACHE_SIZE_PROPERTY_NAME, DEFAULT_CACHE_SIZE);
+
+    /**
+     * Stores a per-thread copy of the AES-GCM cipher, preferring the Sun JCE provider if available.
+     */
+    private static final CipherProvider cipherProvider =
+            Providers.cipherProvider(TRANSFORMATION, CIPHER_PROVIDER, CACHE_SIZE);
+
+    private static final ThreadLocal<SecureRandom> random = new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+            return new SecureRandom();
+        }
+    };
+
+    private final JCEEncryption legacyEncryption = new JCEEncryption();
+
+    private volatile SecretKey key;
+
+    /**
+     * Encrypts the data with AES-GCM.
+     *
+     * @param clearText the data to encrypt
+     * @return the encrypted data, or <code>null</code> if there is no data or it can't be encrypted
+     */
+    public byte[] encrypt(byte[] clearText) {
+        if (clearText == null || clearText.length == 0) {
+            return null;
+        }
+        SecretKey secretKey = key;
+        if (secretKey == null) {
+            error("AESGCMEncryption:: not yet initialized", null);
+            return null;
+        }
+        try {
+            Cipher cipher = cipherProvider.getCipher();
+            if (cipher == null) {
+                error("AESGCMEncryption: Failed to obtain Cipher", null);
+                return null;
+            }
+            byte[] nonce = new byte[NONCE_LENGTH];
+            random.get().nextBytes(nonce);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, nonce));
+            cipher.updateAAD(new byte[] {VERSION});
+
+            byte[] result = new byte[HEADER_LENGTH + cipher.getOutputSize(clearText.length)];
+            result[0] = VERSION;
+            System.arraycopy(nonce, 0, result, 1, NONCE_LENGTH);
+            cipher.doFinal(clearText, 0, clearText.length, result, HEADER_LENGTH);
+            return result;
+        } catch (Exception ex) {
+            error("AESGCMEncryption:: failed to encrypt data", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Decrypts data encrypted with AES-GCM, or by {@link JCEEncryption}.
+     *
+     * @param encText the data to decrypt
+     * @return the decrypted data, or <code>null</code> if it can't be decrypted
+     */
+    public byte[] decrypt(byte[] encText) {
+        if (encText == null || encText.length == 0) {
+            return null;
+        }
+        if (encText[0] != VERSION) {
+            return legacyEncryption.decrypt(encText);
+        }
+        SecretKey secretKey = key;
+        if (secretKey == null) {
+            error("AESGCMEncryption:: not yet initialized", null);
+            return null;
+        }
+        if (encText.length < HEADER_LENGTH + TAG_LENGTH / 8) {
+            error("AESGCMEncryption:: encrypted data is too short", null);
+            return null;
+        }
+        try {
+            Cipher cipher = cipherProvider.getCipher();
+            if (cipher == null) {
+                error("AESGCMEncryption: Failed to obtain Cipher", null);
+                return null;
+            }
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, encText, 1, NONCE_LENGTH));
+            cipher.updateAAD(encText, 0, 1);
+            return cipher.doFinal(encText, HEADER_LENGTH, encText.length - HEADER_LENGTH);
+        } catch (Exception ex) {
+            error("AESGCMEncryption:: failed to decrypt data", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Sets the password the AES key is derived from, and the legacy key is generated from.
+     *
+     * @param password the password
+     * @throws Exception if the keys can't be generated, or if {@value #SALT_PROPERTY} is not set
+     */
+    public void setPassword(String password) throws Exception {
+        key = null;
+        legacyEncryption.setPassword(password);
+        key = deriveKey(password);
+    }
+
+    private static SecretKey deriveKey(String password) throws Exception {
+        String salt = SystemPropertiesManager.get(SALT_PROPERTY);
+        if (salt == null || salt.trim().isEmpty()) {
+            throw new IllegalStateException("AESGCMEncryption: " + SALT_PROPERTY + " is not set");
+        }
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt.trim().getBytes(StandardCharsets.UTF_8),
+                KEY_DERIVATION_ITERATIONS, KEY_LENGTH);
+        try {
+            byte[] keyBytes = SecretKeyFactory.getInstance(KEY_DERIVATION_ALGORITHM)
+                    .generateSecret(keySpec).getEncoded();
+            return new SecretKeySpec(keyBytes, KEY_ALGORITHM);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+
+    private static void error(String message, Exception ex) {
+        Debug debug = Debug.getInstance("amSDK");
+        if (debug != null) {
+            debug.error(message, ex);
+        }
+    }
+}
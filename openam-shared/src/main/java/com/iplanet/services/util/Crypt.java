@@ -25,6 +25,7 @@
  * $Id: Crypt.java,v 1.4 2008/08/19 19:14:54 veiming Exp $
  *
  * Portions Copyrighted 2010-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 
 package com.iplanet.services.util;
@@ -49,6 +50,8 @@ import com.sun.identity.security.ISSecurityPermission;
  * property: <code>com.iplanet.services.security.encryptor</code>. If none is
  * provided, the default provided by iDSAME
  * <code>com.iplanet.services.util.JCEEncryption</code> will be used.
+ * <code>com.iplanet.services.util.AESGCMEncryption</code> can be used instead,
+ * and still decrypts the values encrypted by the default.
  * <p>
  * Additionally, it provides a method to check if the calling class has
  * permission to call these methods. To enable the additional security, the
@@ -275,6 +278,9 @@ public class Crypt {
         // Perf Improvement : Removed the sync block and newed up the Encoder
         // object for every call. Its a trade off b/w CPU and mem usage.
         str = Base64.encode(encData).trim();
+        if (str.indexOf('\n') < 0 && str.indexOf('\r') < 0) {
+            return str;
+        }
 
         // Serialize the data, i.e., remove \n and \r
         BufferedReader bufReader = new BufferedReader(new StringReader(str));
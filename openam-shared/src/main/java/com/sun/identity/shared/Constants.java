@@ -26,6 +26,7 @@
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
  * Portions Copyrighted 2019-2020 Open Source Solution Technology Corporation
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.shared;
 
@@ -372,6 +373,11 @@ public interface Constants {
      */
     static final String AM_SESSION_MAX_SESSIONS = "com.iplanet.am.session.maxSessions";
 
+    /**
+     * Property string for the approximate maximum heap, in bytes, used by the sessions held on this server.
+     */
+    static final String AM_SESSION_MAX_SESSIONS_BYTES = "com.iplanet.am.session.maxSessionsBytes";
+
     /**
      * Property string for security provider package.
      */
@@ -437,6 +443,37 @@ public interface Constants {
     static final String NOTIFICATION_THREADPOOL_THRESHOLD =
             "com.iplanet.am.notification.threadpool.threshold";
 
+    /**
+     * Property string to enable coalescing session notifications into batches per destination.
+     */
+    static final String NOTIFICATION_BATCH_ENABLED = "com.iplanet.am.notification.batch.enabled";
+
+    /**
+     * Property string for the time in milliseconds session notifications wait to be sent in a batch.
+     */
+    static final String NOTIFICATION_BATCH_WINDOW = "com.iplanet.am.notification.batch.window";
+
+    /**
+     * Property string for the maximum number of session notifications sent in a batch.
+     */
+    static final String NOTIFICATION_BATCH_SIZE = "com.iplanet.am.notification.batch.size";
+
+    /**
+     * Property string for the maximum number of session notifications queued for each destination.
+     */
+    static final String NOTIFICATION_QUEUE_SIZE = "com.iplanet.am.notification.queue.size";
+
+    /**
+     * Property string for the number of times a batch of session notifications is retried.
+     */
+    static final String NOTIFICATION_RETRY_MAX = "com.iplanet.am.notification.retry.max";
+
+    /**
+     * Property string for the delay in milliseconds before the first retry of a batch of session notifications,
+     * which doubles with each retry.
+     */
+    static final String NOTIFICATION_RETRY_BACKOFF = "com.iplanet.am.notification.retry.backoff";
+
     /**
      * Property string for fully qualified host name map.
      */
@@ -652,6 +689,20 @@ public interface Constants {
     static final String SESSION_REPOSITORY_ATTRIBUTE_NAME_COMPRESSION =
             "com.sun.identity.session.repository.enableAttributeCompression";
 
+    /**
+     * The codec used to compress Session Tokens when compression is enabled. One of {@code gzip} (the default),
+     * {@code fast} or {@code fast-session}.
+     */
+    static final String SESSION_REPOSITORY_COMPRESSION_CODEC =
+            "com.sun.identity.session.repository.compressionCodec";
+
+    /**
+     * Sessions stored in the binary format are written and read without going through JSON. Every server sharing the
+     * Session Repository must be able to read the format before it is enabled.
+     */
+    static final String SESSION_REPOSITORY_BINARY_FORMAT =
+            "com.sun.identity.session.repository.enableBinaryFormat";
+
     /**
      * Property string for determining whether or not appplication sessions
      * should be returned via the getValidSessions() call.
@@ -1007,6 +1058,12 @@ public interface Constants {
      */
     static final String SMS_CACHE_TTL = "com.sun.identity.sm.cache.ttl";
 
+    /**
+     * property string for the maximum number of SMS entries cached.
+     * The default value of 0 does not limit the number of entries.
+     */
+    static final String SMS_CACHE_MAX_ENTRIES = "com.sun.identity.sm.cache.maxEntries";
+
     /**
      * property string to manage the persistent connection to directory
      */
@@ -1345,6 +1402,25 @@ public interface Constants {
     public static final String AUTH_LEVEL_EXCLUDE_REQUIRED_REQUISITE
         = "org.forgerock.openam.authLevel.excludeRequiredOrRequisite";
 
+    /**
+     * How logins through pure JAAS login modules are run: <code>thread</code> starts a new thread for every
+     * login, <code>pool</code> runs them on a bounded pool of reused threads and <code>virtual</code> runs them
+     * on virtual threads where the JVM supports them, or on the pool otherwise.
+     */
+    public static final String AUTH_JAAS_EXECUTION_MODE
+        = "org.forgerock.openam.authentication.jaas.executionMode";
+
+    /**
+     * The maximum number of pure JAAS logins in progress at once when they are run on a pool of threads.
+     */
+    public static final String AUTH_JAAS_POOL_SIZE = "org.forgerock.openam.authentication.jaas.poolSize";
+
+    /**
+     * The stack size in bytes of the threads which run pure JAAS logins, or 0 for the default of the JVM.
+     */
+    public static final String AUTH_JAAS_THREAD_STACK_SIZE
+        = "org.forgerock.openam.authentication.jaas.threadStackSize";
+
     /**
      * Size of XML shared TransformerFactory cache.
      */
@@ -1418,4 +1494,18 @@ public interface Constants {
      * Property to enable capturing trace-level messages from Log4J world when in message-level debug mode.
      */
     public static final String ENABLE_TRACE_IN_MESSAGE_MODE = "org.forgerock.openam.slf4j.enableTraceInMessage";
+
+    /**
+     * Property to enable the OpenMetrics endpoint, which serves the values of the monitoring stores for Prometheus
+     * and compatible collectors to scrape. Disabled by default. The endpoint does not authenticate its callers, so it
+     * only answers the addresses listed in {@link #OPENMETRICS_ALLOWED_ADDRESSES}.
+     */
+    public static final String OPENMETRICS_ENABLED = "org.forgerock.openam.monitoring.openmetrics.enabled";
+
+    /**
+     * Property holding the comma separated IP addresses that may read the OpenMetrics endpoint. Requests from any
+     * other address are refused with 403. Defaults to the loopback addresses, 127.0.0.1 and ::1.
+     */
+    public static final String OPENMETRICS_ALLOWED_ADDRESSES =
+            "org.forgerock.openam.monitoring.openmetrics.allowedAddresses";
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package com.sun.identity.shared.debug;
 
@@ -49,6 +50,33 @@ public final class DebugConstants {
 
     public static final String CONFIG_DEBUG_DIRECTORY = "com.iplanet.services.debug.directory";
 
+    /**
+     * Whether debug files are written by a background thread rather than by the thread which records the message.
+     * Disabled by default.
+     */
+    public static final String CONFIG_DEBUG_ASYNC = "org.forgerock.openam.debug.async";
+
+    /**
+     * The number of messages which may wait to be written to each debug file when written in the background.
+     */
+    public static final String CONFIG_DEBUG_ASYNC_QUEUE_SIZE = "org.forgerock.openam.debug.async.queueSize";
+
+    /**
+     * What to do with a message when the queue of its debug file is full: {@code block} until there is space,
+     * {@code drop} it, or {@code sample} the messages by blocking for one in every
+     * {@link #CONFIG_DEBUG_ASYNC_SAMPLE_RATE} and dropping the rest.
+     */
+    public static final String CONFIG_DEBUG_ASYNC_OVERFLOW = "org.forgerock.openam.debug.async.overflow";
+
+    /**
+     * One in how many messages are kept when a full queue is sampled.
+     */
+    public static final String CONFIG_DEBUG_ASYNC_SAMPLE_RATE = "org.forgerock.openam.debug.async.sampleRate";
+
+    public static final int DEFAULT_DEBUG_ASYNC_QUEUE_SIZE = 8192;
+
+    public static final int DEFAULT_DEBUG_ASYNC_SAMPLE_RATE = 10;
+
     /**
      * Constant string used as property key to look up the debug provider class
      * name.
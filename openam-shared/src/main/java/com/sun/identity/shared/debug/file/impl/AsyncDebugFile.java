@@ -0,0 +1,232 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import static org.forgerock.openam.utils.Time.*;
+
+import com.sun.identity.shared.debug.file.DebugFile;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Debug file written in the background
+ * The messages are queued by the recording thread, and formatted and written into the {@link DebugFileImpl} in
+ * batches by an {@link AsyncDebugFileWriter}. The log rotation is still managed by the {@link DebugFileImpl}.
+ * <p/>
+ * The queue is bounded. When it is full, the {@link OverflowPolicy} decides whether the recording thread waits for
+ * space or the message is dropped. The number of messages dropped is written into the file with the next batch.
+ *
+ * @since 15.0.0
+ */
+public class AsyncDebugFile implements DebugFile {
+
+    /**
+     * What to do with a message when the queue is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until there is space for the message
+         */
+        BLOCK,
+        /**
+         * Drop the message
+         */
+        DROP,
+        /**
+         * Wait until there is space for one in every sample rate messages, and drop the others
+         */
+        SAMPLE;
+
+        /**
+         * Get the policy with the given name, ignoring case
+         *
+         * @param name policy name
+         * @return the policy, or {@link #BLOCK} if the name is empty or unknown
+         */
+        public static OverflowPolicy fromString(String name) {
+            if (name != null) {
+                for (OverflowPolicy policy : values()) {
+                    if (policy.name().equalsIgnoreCase(name.trim())) {
+                        return policy;
+                    }
+                }
+            }
+            return BLOCK;
+        }
+    }
+
+    private static final long BLOCKED_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final DebugFileImpl file;
+    private final String debugName;
+    private final AsyncDebugFileWriter writer;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param file           debug file the messages are written into
+     * @param debugName      log file name
+     * @param writer         writer which writes the messages in the background
+     * @param capacity       maximum number of messages waiting to be written
+     * @param overflowPolicy what to do with a message when the queue is full
+     * @param sampleRate     one in how many messages are kept when the queue is full and sampled
+     */
+    public AsyncDebugFile(DebugFileImpl file, String debugName, AsyncDebugFileWriter writer, int capacity,
+            OverflowPolicy overflowPolicy, int sampleRate) {
+        this.file = file;
+        this.debugName = debugName;
+        this.writer = writer;
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        writer.register(this);
+    }
+
+    @Override
+    public void writeIt(String prefix, String msg, Throwable th) throws IOException {
+        if (writer.isStopped()) {
+            file.writeIt(prefix, msg, th);
+            return;
+        }
+
+        Message message = new Message(prefix, msg, th);
+        if (offer(message)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP
+                || (overflowPolicy == OverflowPolicy.SAMPLE && overflows.incrementAndGet() % sampleRate != 0)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        while (!offer(message)) {
+            if (writer.isStopped()) {
+                file.writeIt(prefix, msg, th);
+                return;
+            }
+            LockSupport.parkNanos(this, BLOCKED_WAIT_NANOS);
+            if (Thread.currentThread().isInterrupted()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private boolean offer(Message message) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.offer(message);
+        writer.wakeUp();
+        return true;
+    }
+
+    /**
+     * Check if messages are waiting to be written
+     *
+     * @return true if the queue isn't empty
+     */
+    boolean hasMessages() {
+        return !queue.isEmpty() || dropped.get() > 0;
+    }
+
+    /**
+     * Write a batch of the queued messages into the file. Only called by the writer thread.
+     *
+     * @param maxMessages maximum number of messages to write
+     * @return the number of lines written
+     */
+    int drain(int maxMessages) {
+        List<Message> messages = new ArrayList<>(Math.min(maxMessages, size.get()));
+        Message message;
+        while (messages.size() < maxMessages && (message = queue.poll()) != null) {
+            messages.add(message);
+        }
+        size.addAndGet(-messages.size());
+
+        long droppedMessages = dropped.getAndSet(0);
+        if (messages.isEmpty() && droppedMessages == 0) {
+            return 0;
+        }
+
+        List<String> lines = new ArrayList<>(messages.size() + 1);
+        if (droppedMessages > 0) {
+            lines.add(DebugFileImpl.format(debugName + ":" + formatDate(), "WARNING: " + droppedMessages
+                    + " debug messages were dropped because the queue was full (overflow policy "
+                    + overflowPolicy.name().toLowerCase(Locale.ROOT) + ")", null));
+        }
+        for (Message m : messages) {
+            lines.add(DebugFileImpl.format(m.prefix, m.msg, m.th));
+        }
+
+        try {
+            file.writeLines(lines);
+        } catch (IOException e) {
+            StdDebugFile.printError(debugName, "Debug file can't be written : " + e.getMessage(), null);
+            for (Message m : messages) {
+                try {
+                    StdDebugFile.getInstance().writeIt(m.prefix, m.msg, m.th);
+                } catch (IOException ioex) {
+                    StdDebugFile.printError(AsyncDebugFile.class.getSimpleName(), ioex.getMessage(), ioex);
+                }
+            }
+        }
+        return lines.size();
+    }
+
+    private static String formatDate() {
+        return new SimpleDateFormat("MM/dd/yyyy hh:mm:ss:SSS a zzz").format(newDate());
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncDebugFile{" + file + ", queued=" + size.get() + ", overflowPolicy=" + overflowPolicy + '}';
+    }
+
+    /**
+     * A message waiting to be formatted and written
+     */
+    private static final class Message {
+
+        private final String prefix;
+        private final String msg;
+        private final Throwable th;
+
+        private Message(String prefix, String msg, Throwable th) {
+            this.prefix = prefix;
+            this.msg = msg;
+            this.th = th;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.forgerock.util.thread.listener.ShutdownListener;
+import org.forgerock.util.thread.listener.ShutdownPriority;
+
+import com.sun.identity.common.ShutdownManager;
+
+/**
+ * Background thread writing the messages queued by the {@link AsyncDebugFile}s
+ * One thread serves every debug file: it writes a batch of each file's messages in turn, and sleeps while there are
+ * none. Once stopped, it writes the messages still queued and the debug files go back to being written by the
+ * recording thread.
+ *
+ * @since 15.0.0
+ */
+public class AsyncDebugFileWriter implements Runnable {
+
+    private static final int BATCH_SIZE = 512;
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long STOP_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5);
+
+    private final List<AsyncDebugFile> debugFiles = new CopyOnWriteArrayList<>();
+
+    private final Thread thread;
+
+    private volatile boolean stopped = false;
+
+    private volatile boolean waiting = false;
+
+    /**
+     * Constructor
+     * The thread isn't started until {@link #start()} is called.
+     */
+    public AsyncDebugFileWriter() {
+        thread = new Thread(this, "OpenAM-Debug-Writer");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start the thread, and stop it when the server shuts down so that the queued messages are written.
+     * The writer is stopped with the lowest priority, after the components which may still log while shutting down.
+     *
+     * @throws IllegalMonitorStateException If the server is already shutting down, in which case the thread isn't
+     * started.
+     */
+    public void start() {
+        ShutdownManager.getInstance().addShutdownListener(new ShutdownListener() {
+            @Override
+            public void shutdown() {
+                stop();
+            }
+        }, ShutdownPriority.LOWEST);
+        thread.start();
+    }
+
+    /**
+     * Stop the thread once it has written the messages already queued
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void register(AsyncDebugFile debugFile) {
+        debugFiles.add(debugFile);
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Wake the thread up if it is waiting for messages
+     */
+    void wakeUp() {
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            boolean stopping = stopped;
+            int written = 0;
+            for (AsyncDebugFile debugFile : debugFiles) {
+                try {
+                    written += debugFile.drain(BATCH_SIZE);
+                } catch (RuntimeException e) {
+                    StdDebugFile.printError(AsyncDebugFileWriter.class.getSimpleName(), e.getMessage(), e);
+                }
+            }
+            if (written > 0) {
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+            waiting = true;
+            if (!hasMessages()) {
+                LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+            }
+            waiting = false;
+        }
+    }
+
+    private boolean hasMessages() {
+        for (AsyncDebugFile debugFile : debugFiles) {
+            if (debugFile.hasMessages()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
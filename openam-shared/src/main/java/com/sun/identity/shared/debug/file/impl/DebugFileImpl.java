@@ -28,6 +28,7 @@
 
 /**
  * Portions Copyrighted 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 OSSTech Corporation
  */
 package com.sun.identity.shared.debug.file.impl;
 
@@ -48,6 +49,7 @@ import java.io.StringWriter;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.ResourceBundle;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -141,7 +143,58 @@ public class DebugFileImpl implements DebugFile {
 
     @Override
     public void writeIt(String prefix, String msg, Throwable th) throws IOException {
+        String line = format(prefix, msg, th);
 
+        prepare();
+
+        fileLock.readLock().lock();
+        try {
+            if (debugWriter != null) {
+                debugWriter.println(line);
+                debugWriter.flush();
+            } else {
+                StdDebugFile.printError(prefix, msg, th);
+            } 
+        } finally {
+            fileLock.readLock().unlock();
+        }
+
+    }
+
+    /**
+     * Write several formatted messages into the file at once, checking the configuration and the rotation once
+     * for all of them and flushing the file once they have all been written.
+     *
+     * @param lines the messages, as formatted by {@link #format(String, String, Throwable)}
+     * @throws IOException if the file can't be written
+     */
+    void writeLines(List<String> lines) throws IOException {
+        prepare();
+
+        fileLock.readLock().lock();
+        try {
+            if (debugWriter == null) {
+                throw new IOException("Debug file isn't open. Current Debug File : " + this);
+            }
+            for (String line : lines) {
+                debugWriter.println(line);
+            }
+            debugWriter.flush();
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Format a message as it is written into the file
+     *
+     * @param prefix Message prefix
+     * @param msg    Message to be recorded.
+     * @param th     the optional <code>java.lang.Throwable</code> which if
+     *               present will be used to record the stack trace.
+     * @return the formatted message
+     */
+    static String format(String prefix, String msg, Throwable th) {
         StringBuilder buf = new StringBuilder();
         buf.append(prefix);
         buf.append('\n');
@@ -154,7 +207,15 @@ public class DebugFileImpl implements DebugFile {
             stackStream.flush();
             buf.append(stBuf.toString());
         }
+        return buf.toString();
+    }
 
+    /**
+     * Open the file, or a new one if the configuration changed or the file needs to be rotated.
+     *
+     * @throws IOException if the file can't be opened
+     */
+    private void prepare() throws IOException {
         if (isConfigChanged() || !isConfigFileInitialized()) {
             initialize();
         }
@@ -162,18 +223,6 @@ public class DebugFileImpl implements DebugFile {
         if (needsTimeRotation() || needsSizeRotation()) {
             rotate();
         }
-
-        fileLock.readLock().lock();
-        try {
-            if (debugWriter != null) {
-                debugWriter.println(buf.toString());
-            } else {
-                StdDebugFile.printError(prefix, msg, th);
-            } 
-        } finally {
-            fileLock.readLock().unlock();
-        }
-
     }
 
     /**
@@ -260,8 +309,8 @@ public class DebugFileImpl implements DebugFile {
 
             try {
                 this.currentFile = new File(debugFilePath);
-                this.debugWriter = new PrintWriter(new FileWriter(currentFile, true), true);
-                debugWriter = new PrintWriter(new FileWriter(debugFilePath, true), true);
+                // Flushed by the writes rather than on each line, so that a batch of messages is written at once
+                this.debugWriter = new PrintWriter(new FileWriter(currentFile, true));
             } catch (IOException ioex) {
                 close();
                 ResourceBundle bundle = Locale.getInstallResourceBundle("amUtilMsgs");
@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 package com.sun.identity.shared.debug.file.impl;
 
 
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
 import com.sun.identity.shared.debug.DebugConstants;
 import com.sun.identity.shared.debug.file.DebugConfiguration;
 import com.sun.identity.shared.debug.file.DebugFile;
@@ -29,6 +31,8 @@ import java.util.Map;
  * Manage Debug files controller
  * Keep the following constraint one :
  * - One debugFile instance for One log file
+ * If {@link DebugConstants#CONFIG_DEBUG_ASYNC} is enabled when a debug file is first used, its messages are written
+ * in the background by an {@link AsyncDebugFile}.
  */
 public class DebugFileProviderImpl implements DebugFileProvider {
 
@@ -36,6 +40,8 @@ public class DebugFileProviderImpl implements DebugFileProvider {
 
     private DebugConfiguration configuration;
 
+    private AsyncDebugFileWriter asyncWriter;
+
     /**
      * Default constructor
      */
@@ -61,11 +67,45 @@ public class DebugFileProviderImpl implements DebugFileProvider {
         DebugFile debugFile = debugMap.get(debugName);
         if (debugFile == null) {
             debugFile = new DebugFileImpl(configuration, debugName);
+            if (Boolean.parseBoolean(SystemPropertiesManager.get(DebugConstants.CONFIG_DEBUG_ASYNC))) {
+                debugFile = newAsyncDebugFile((DebugFileImpl) debugFile, debugName);
+            }
             debugMap.put(debugName, debugFile);
         }
         return debugFile;
     }
 
+    private DebugFile newAsyncDebugFile(DebugFileImpl debugFile, String debugName) {
+        if (asyncWriter == null || asyncWriter.isStopped()) {
+            AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+            try {
+                writer.start();
+            } catch (IllegalMonitorStateException e) {
+                // The server is shutting down, so keep writing synchronously
+                return debugFile;
+            }
+            asyncWriter = writer;
+        }
+        return new AsyncDebugFile(debugFile, debugName, asyncWriter,
+                getInt(DebugConstants.CONFIG_DEBUG_ASYNC_QUEUE_SIZE, DebugConstants.DEFAULT_DEBUG_ASYNC_QUEUE_SIZE),
+                AsyncDebugFile.OverflowPolicy.fromString(
+                        SystemPropertiesManager.get(DebugConstants.CONFIG_DEBUG_ASYNC_OVERFLOW)),
+                getInt(DebugConstants.CONFIG_DEBUG_ASYNC_SAMPLE_RATE, DebugConstants.DEFAULT_DEBUG_ASYNC_SAMPLE_RATE));
+    }
+
+    private static int getInt(String property, int defaultValue) {
+        String value = SystemPropertiesManager.get(property);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                StdDebugFile.printError(DebugFileProviderImpl.class.getSimpleName(), "'" + property + "' value can't"
+                        + " be parsed: '" + value + "'. The default value " + defaultValue + " will be used.", null);
+            }
+        }
+        return defaultValue;
+    }
+
     /**
      * Get std out debug file
      *
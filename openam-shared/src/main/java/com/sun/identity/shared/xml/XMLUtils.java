@@ -229,6 +229,37 @@ public class XMLUtils {
         }
     }
 
+    /**
+     * Copies an element into a new DOM Document of its own. The namespace
+     * declarations the element inherits from its ancestors are added where
+     * they are used, so the result is equivalent to parsing the output of
+     * {@link #print(Node)} without serializing and parsing the element.
+     *
+     * @param element
+     *            the element to copy
+     * @param debug
+     *            is the debug object used for logging debug info
+     * @return Document whose root element is a copy of the element. Returns
+     *         null if element is null or the document cannot be created.
+     */
+    public static Document toDOMDocument(Element element, Debug debug) {
+        if (element == null) {
+            return null;
+        }
+
+        try {
+            Document doc = newDocument();
+            doc.appendChild(doc.importNode(element, true));
+            doc.normalizeDocument();
+            return doc;
+        } catch (Exception e) {
+            if (debug != null && debug.warningEnabled()) {
+                debug.warning("Can't copy the XML element", e);
+            }
+            return null;
+        }
+    }
+
     /**
      * This method parse an Attributes tag, DTD for Attribute is as follows.
      * 
@@ -12,19 +12,22 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.shared.monitoring;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * An abstract store for holding a set of {@link TimingEntry}s. The maximum size of the store
- * is set on creation. The store internally uses a synchronizedList, which verifies the size of the collection
- * isn't greater than the maximum upon insertion, and removes the oldest entry if it is.
+ * is set on creation. The store internally uses a fixed ring of entries, in which each new entry replaces the
+ * oldest one once the store is full, so that adding an entry neither locks nor grows the store.
  * Read operations are not synchronized.
+ * <br/>
+ * Every entry is also recorded in a {@link LatencyHistogram}, which holds the distribution of the durations since
+ * the store was created rather than only those of the most recent entries.
  */
 public abstract class AbstractTimingStore {
 
@@ -33,6 +36,13 @@ public abstract class AbstractTimingStore {
      */
     protected final int maxEntries;
 
+    /**
+     * The most recent entries, limited to the number of entries specified by the configuration set by administrator.
+     */
+    private final AtomicReferenceArray<TimingEntry> durationStore;
+    private final AtomicLong added = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
     /**
      * Constructs a new AbstractTimingStore instance.
      *
@@ -44,22 +54,19 @@ public abstract class AbstractTimingStore {
         } else {
             this.maxEntries = maxEntries;
         }
+        this.durationStore = new AtomicReferenceArray<TimingEntry>(this.maxEntries);
     }
 
     /**
-     * The duration store, limited to the number of entries specified by the configuration set by administrator.
+     * Adds an entry to the store, replacing the oldest entry if the store is full.
+     *
+     * @param entry The entry.
      */
-    protected final List<TimingEntry> durationStore = Collections.synchronizedList(new ArrayList<TimingEntry>() {
-
-        @Override
-        public boolean add(TimingEntry entry) {
-            while (size() >= maxEntries) {
-                remove(0);
-            }
-            return super.add(entry);
-        }
-
-    });
+    protected void add(TimingEntry entry) {
+        long position = added.getAndIncrement();
+        durationStore.set((int) (position % maxEntries), entry);
+        histogram.record(entry.getDuration());
+    }
 
     /**
      * Getter for the average length of time events recorded in the duration store have taken.
@@ -68,17 +75,22 @@ public abstract class AbstractTimingStore {
      */
     public long getDurationAverage() {
 
-        if (durationStore.size() == 0) {
-            return 0L;
-        }
-
         long current = 0L;
+        int count = 0;
 
-        for (TimingEntry te : durationStore) {
-            current += te.getDuration();
+        for (int i = 0; i < maxEntries; i++) {
+            final TimingEntry te = durationStore.get(i);
+            if (te != null) {
+                current += te.getDuration();
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return 0L;
         }
 
-        return current / durationStore.size();
+        return current / count;
 
     }
 
@@ -117,20 +129,19 @@ public abstract class AbstractTimingStore {
     }
 
     /**
-     * Finds the slowest (longest duration) timing entry in the durationStore.
+     * Finds the slowest (longest duration) timing entry in the durationStore. Of entries which took as long as each
+     * other, the earliest is returned.
      *
      * @return the slowest {@link TimingEntry} in the durationStore, or null.
      */
     private TimingEntry getSlowest() {
 
-        if (durationStore == null || durationStore.size() == 0) {
-            return null;
-        }
-
-        TimingEntry current = durationStore.get(0);
+        final long end = added.get();
+        TimingEntry current = null;
 
-        for (TimingEntry te : durationStore) {
-            if (current.getDuration() < te.getDuration()) {
+        for (long position = Math.max(0L, end - maxEntries); position < end; position++) {
+            final TimingEntry te = durationStore.get((int) (position % maxEntries));
+            if (te != null && (current == null || current.getDuration() < te.getDuration())) {
                 current = te;
             }
         }
@@ -138,6 +149,16 @@ public abstract class AbstractTimingStore {
         return current;
     }
 
+    /**
+     * Returns the distribution of the durations of every entry added to this store, including those which have
+     * since been removed from the store.
+     *
+     * @return the histogram of durations.
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
     /**
      * Returns the maximum entries for this store.
      *
@@ -0,0 +1,149 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.shared.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, or any other non-negative values, from which percentiles can be read.
+ * <br/>
+ * Values are counted in log-linear buckets: values below 16 each have their own bucket, and every power of two
+ * above that is split into 16 buckets of equal width. A percentile is therefore never more than 1/16th (6.25%)
+ * above the recorded value it stands for, and the histogram uses the same fixed amount of memory (under 8KB) no
+ * matter how many values are recorded or how large they are.
+ * <br/>
+ * Recording a value only increments counters, so it never blocks. Reads are not atomic with respect to recording,
+ * so a read taken while values are being recorded may count some of them in one figure but not another.
+ *
+ * @since 15.0.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below SUB_BUCKETS, then SUB_BUCKETS buckets for each power of two up to Long.MAX_VALUE
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value The value, such as the duration of an operation.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(getBucket(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Another thread recorded a new maximum, compare against that
+        }
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the total of the values recorded.
+     *
+     * @return The total of the values.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the largest value recorded, or 0 if no values have been recorded.
+     *
+     * @return The largest value.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded, or 0 if no values have been recorded.
+     *
+     * @return The mean of the values.
+     */
+    public long getMean() {
+        long values = count.sum();
+        return values == 0 ? 0L : sum.sum() / values;
+    }
+
+    /**
+     * Returns the value which the given fraction of the recorded values are less than or equal to, or 0 if no values
+     * have been recorded.
+     * <br/>
+     * The value returned is the upper bound of the bucket the quantile falls in, but never more than the largest
+     * value recorded.
+     *
+     * @param quantile The quantile, between 0 and 1. For example 0.99 for the 99th percentile.
+     * @return The value at the quantile.
+     */
+    public long getValueAtQuantile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1D, Math.max(0D, quantile)) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.shared.monitoring;
+
+/**
+ * A monitoring store which can write its current values as metrics.
+ * <br/>
+ * Implementations are bound with a Guice {@code Multibinder} so that every store is included when the metrics are
+ * collected.
+ *
+ * @since 15.0.0
+ */
+public interface MetricsSource {
+
+    /**
+     * Writes the current values of the store. Must not block, as it is called for every scrape of the metrics.
+     *
+     * @param writer The writer to add the metrics to.
+     */
+    void writeMetrics(OpenMetricsWriter writer);
+}
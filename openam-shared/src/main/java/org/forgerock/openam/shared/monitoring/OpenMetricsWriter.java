@@ -0,0 +1,200 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.shared.monitoring;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects metrics and writes them in the OpenMetrics text format, which Prometheus and compatible collectors
+ * scrape.
+ * <br/>
+ * Metrics are grouped into families by name, so the samples of a family may be added in any order and by any number
+ * of {@link MetricsSource}s, and its {@code HELP} and {@code TYPE} lines are still written once. Labels are given as
+ * name and value pairs, for example {@code counter("openam_cts_operations", help, 3, "operation", "CREATE")}.
+ * <br/>
+ * Instances are not thread safe; each collection of the metrics uses its own.
+ *
+ * @since 15.0.0
+ */
+public final class OpenMetricsWriter {
+
+    /**
+     * The content type of the OpenMetrics text format.
+     */
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /**
+     * The scale of a summary of values recorded in milliseconds, given in seconds.
+     */
+    public static final double MILLISECONDS = 1e-3;
+
+    /**
+     * The scale of a summary of values recorded in nanoseconds, given in seconds.
+     */
+    public static final double NANOSECONDS = 1e-9;
+
+    private static final double[] QUANTILES = {0.5D, 0.9D, 0.99D};
+
+    private final Map<String, Family> families = new LinkedHashMap<String, Family>();
+
+    /**
+     * Adds a sample of a counter, a value which only goes up from the start of the server.
+     *
+     * @param name The name of the family, without the {@code _total} suffix of the sample.
+     * @param help The description of the family.
+     * @param value The value.
+     * @param labels The label names and values of the sample.
+     */
+    public void counter(String name, String help, long value, String... labels) {
+        getFamily(name, "counter", help).add(name + "_total", labels, null, Long.toString(value));
+    }
+
+    /**
+     * Adds a sample of a gauge, a value which may go up and down.
+     *
+     * @param name The name of the family.
+     * @param help The description of the family.
+     * @param value The value.
+     * @param labels The label names and values of the sample.
+     */
+    public void gauge(String name, String help, double value, String... labels) {
+        getFamily(name, "gauge", help).add(name, labels, null, format(value));
+    }
+
+    /**
+     * Adds the median, 90th and 99th percentiles, count and sum of the values in a histogram.
+     *
+     * @param name The name of the family, which should end with the unit the values are given in, such as
+     * {@code _seconds}.
+     * @param help The description of the family.
+     * @param histogram The histogram.
+     * @param scale The factor to convert the recorded values to the unit of the family, for example
+     * {@link #MILLISECONDS} to give values recorded in ms in seconds.
+     * @param labels The label names and values of the sample.
+     */
+    public void summary(String name, String help, LatencyHistogram histogram, double scale, String... labels) {
+        Family family = getFamily(name, "summary", help);
+        for (double quantile : QUANTILES) {
+            family.add(name, labels, format(quantile), format(histogram.getValueAtQuantile(quantile) * scale));
+        }
+        family.add(name + "_count", labels, null, Long.toString(histogram.getCount()));
+        family.add(name + "_sum", labels, null, format(histogram.getSum() * scale));
+    }
+
+    /**
+     * Writes the metrics added so far, followed by the end of the exposition.
+     *
+     * @param writer The writer to write to.
+     * @throws IOException If the writer fails.
+     */
+    public void write(Writer writer) throws IOException {
+        for (Map.Entry<String, Family> family : families.entrySet()) {
+            writer.append("# HELP ").append(family.getKey()).append(' ').append(escape(family.getValue().help, false))
+                    .append('\n');
+            writer.append("# TYPE ").append(family.getKey()).append(' ').append(family.getValue().type).append('\n');
+            writer.append(family.getValue().samples);
+        }
+        writer.append("# EOF\n");
+    }
+
+    @Override
+    public String toString() {
+        StringWriter writer = new StringWriter();
+        try {
+            write(writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private Family getFamily(String name, String type, String help) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = new Family(type, help);
+            families.put(name, family);
+        } else if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + family.type + ", not a " + type);
+        }
+        return family;
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value, boolean quoted) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                escaped.append("\\\\");
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c == '"' && quoted) {
+                escaped.append("\\\"");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * The samples of one metric family.
+     */
+    private static final class Family {
+
+        private final String type;
+        private final String help;
+        private final StringBuilder samples = new StringBuilder();
+
+        private Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        private void add(String name, String[] labels, String quantile, String value) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("Labels of " + name + " must be name and value pairs");
+            }
+            samples.append(name);
+            if (labels.length > 0 || quantile != null) {
+                samples.append('{');
+                for (int i = 0; i < labels.length; i += 2) {
+                    if (i > 0) {
+                        samples.append(',');
+                    }
+                    samples.append(labels[i]).append("=\"").append(escape(labels[i + 1], true)).append('"');
+                }
+                if (quantile != null) {
+                    samples.append(labels.length > 0 ? "," : "").append("quantile=\"").append(quantile).append('"');
+                }
+                samples.append('}');
+            }
+            samples.append(' ').append(value).append('\n');
+        }
+    }
+}
@@ -16,11 +16,8 @@
  */
 package org.forgerock.openam.shared.monitoring;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * This class maintains the rate of an event for a sample rate over a window of a particular size.
@@ -29,6 +26,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * defined by the sample rate. The min, max and average will always be of the current window position, ie as the window
  * moves and sample are not covered by the window the sample will not be included in the  min, max and average
  * calculations.
+ * <br/>
+ * The window is a fixed ring of slots, one for each sample period, which is reused as the window moves. Recording an
+ * event and reading the rates neither lock nor allocate more than a single slot, however far time has moved on since
+ * the last event.
  *
  * @since 12.0.0
  */
@@ -37,16 +38,10 @@ public class RateWindow {
     private final RateTimer timer;
     private final int size;
     private final long sampleRate;
-    private final ConcurrentSkipListMap<Long, AtomicLong> window = new ConcurrentSkipListMap<Long, AtomicLong>();
-    private final Comparator<AtomicLong> atomicLongComparator = new Comparator<AtomicLong>() {
-
-        @Override
-        public int compare(AtomicLong rate, AtomicLong rate2) {
-            long x = rate.get();
-            long y = rate2.get();
-            return x > y ? 1 : x < y ? -1 : 0;
-        }
-    };
+    private final AtomicReferenceArray<Slot> window;
+    // The latest and earliest sample indexes an event has been recorded for
+    private final AtomicLong latestIndex = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong earliestIndex = new AtomicLong(Long.MAX_VALUE);
 
     /**
      * Constructs a new instance of the RateWindow.
@@ -57,8 +52,9 @@ public class RateWindow {
      */
     public RateWindow(final RateTimer timer, final int size, final long sampleRate) {
         this.timer = timer;
-        this.size = size;
+        this.size = Math.max(1, size);
         this.sampleRate = sampleRate;
+        this.window = new AtomicReferenceArray<Slot>(this.size);
     }
 
     /**
@@ -69,38 +65,27 @@ public class RateWindow {
     public void incrementForTimestamp(final long timestamp) {
         long index = getIndexForTimestamp(timestamp);
 
-        if (isWithinWindow(index)) {
-            AtomicLong rate = window.get(index);
-            if (rate == null) {
-                //fill in the RateWindow until the current index
-                fillInWindow(index - 1);
-                rate = new AtomicLong(0);
-                AtomicLong previousValue = window.putIfAbsent(index, rate);
-                if (previousValue == null) {
-                    //this is a new entry, hence we should clear out old entries to prevent memory leak
-                    window.headMap(window.lastKey() - size, true).clear();
-                } else {
-                    rate = previousValue;
-                }
-            }
-            rate.incrementAndGet();
+        long latest = latestIndex.get();
+        if (!isWithinWindow(index) || (latest != Long.MIN_VALUE && index <= latest - size)) {
+            return;
         }
-    }
-
-    /**
-     * Fills in the windows with 0 values until the index provided. This ensures that there are no empty spots between
-     * the indexes, so the information stored in the window actually represents a rolling window of data.
-     *
-     * @param index The index until which the window should be filled. The entry corresponding to the provided index
-     * will be also initialized
-     */
-    private void fillInWindow(long index) {
-        if (!window.isEmpty()) {
-            Long lastKey = window.lastKey();
-            for (int fillSize = Math.min((int)(index - lastKey), size); fillSize > 0; index--, fillSize--) {
-                window.putIfAbsent(index, new AtomicLong(0));
+        accumulateMax(latestIndex, index);
+        accumulateMin(earliestIndex, index);
+
+        int position = getPosition(index);
+        while (true) {
+            Slot slot = window.get(position);
+            if (slot != null && slot.index == index) {
+                slot.count.incrementAndGet();
+                return;
+            }
+            if (slot != null && slot.index > index) {
+                // The window has already moved past this sample
+                return;
+            }
+            if (window.compareAndSet(position, slot, new Slot(index))) {
+                return;
             }
-            window.headMap(window.lastKey() - size, true).clear();
         }
     }
 
@@ -112,26 +97,27 @@ public class RateWindow {
      *
      * @return The average event rate.
      */
-    public synchronized double getAverageRate() {
-        if (window.isEmpty()) {
+    public double getAverageRate() {
+        long currentIndex = getCurrentIndex();
+        long lastIndex = getLastIndex(currentIndex);
+        long firstIndex = getFirstIndex(lastIndex);
+        if (firstIndex > lastIndex) {
             return 0D;
         }
 
-        fillInWindow(getCurrentIndex());
         double averageRate = 0;
-        for (Map.Entry<Long, AtomicLong> entry : window.entrySet()) {
-            if (entry.getKey().equals(getCurrentIndex())) {
+        for (long index = firstIndex; index <= lastIndex; index++) {
+            if (index == currentIndex) {
                 /*
                  * If this is true then the latest window slot has not completed so the rate in it will not be
                  * accurate so skip it.
                  */
                 continue;
             }
-            averageRate += entry.getValue().get();
+            averageRate += getRate(index);
         }
 
-        return averageRate / window.size();
-
+        return averageRate / (lastIndex - firstIndex + 1);
     }
 
     /**
@@ -140,12 +126,17 @@ public class RateWindow {
      * @return The minimum event rate.
      */
     public long getMinRate() {
-        if (window.isEmpty()) {
+        long lastIndex = getLastIndex(getCurrentIndex());
+        long firstIndex = getFirstIndex(lastIndex);
+        if (firstIndex > lastIndex) {
             return 0L;
         }
 
-        fillInWindow(getCurrentIndex());
-        return Collections.min(window.values(), atomicLongComparator).get();
+        long minRate = Long.MAX_VALUE;
+        for (long index = firstIndex; index <= lastIndex; index++) {
+            minRate = Math.min(minRate, getRate(index));
+        }
+        return minRate;
     }
 
     /**
@@ -154,12 +145,44 @@ public class RateWindow {
      * @return The maximum event rate.
      */
     public long getMaxRate() {
-        if (window.isEmpty()) {
+        long lastIndex = getLastIndex(getCurrentIndex());
+        long firstIndex = getFirstIndex(lastIndex);
+        if (firstIndex > lastIndex) {
             return 0L;
         }
 
-        fillInWindow(getCurrentIndex());
-        return Collections.max(window.values(), atomicLongComparator).get();
+        long maxRate = 0L;
+        for (long index = firstIndex; index <= lastIndex; index++) {
+            maxRate = Math.max(maxRate, getRate(index));
+        }
+        return maxRate;
+    }
+
+    /**
+     * The window ends at the current time, or at the latest event if that is later.
+     */
+    private long getLastIndex(long currentIndex) {
+        long latest = latestIndex.get();
+        return latest == Long.MIN_VALUE ? Long.MIN_VALUE : Math.max(latest, currentIndex);
+    }
+
+    /**
+     * The window starts {@code size} slots before its end, or at the first event if that is later.
+     */
+    private long getFirstIndex(long lastIndex) {
+        if (lastIndex == Long.MIN_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(earliestIndex.get(), lastIndex - size + 1);
+    }
+
+    private long getRate(long index) {
+        Slot slot = window.get(getPosition(index));
+        return slot != null && slot.index == index ? slot.count.get() : 0L;
+    }
+
+    private int getPosition(long index) {
+        return (int) Math.floorMod(index, (long) size);
     }
 
     /**
@@ -179,4 +202,31 @@ public class RateWindow {
     private boolean isWithinWindow(final long index) {
         return getCurrentIndex() - size < index;
     }
+
+    private static void accumulateMax(AtomicLong value, long index) {
+        long current;
+        while (index > (current = value.get()) && !value.compareAndSet(current, index)) {
+            // Retry against the value another thread has set
+        }
+    }
+
+    private static void accumulateMin(AtomicLong value, long index) {
+        long current;
+        while (index < (current = value.get()) && !value.compareAndSet(current, index)) {
+            // Retry against the value another thread has set
+        }
+    }
+
+    /**
+     * The count of events for one sample period.
+     */
+    private static final class Slot {
+
+        private final long index;
+        private final AtomicLong count = new AtomicLong(1);
+
+        private Slot(long index) {
+            this.index = index;
+        }
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.iplanet.services.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.testng.Assert.fail;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+
+public class AESGCMEncryptionTest {
+
+    private static final String SALT = "9k8ZqTnV2pXcR4mE";
+    private static final String PASSWORD = "KmhUnWR1MYWDYW4xuqdF5nbm+CXIyOVt";
+    private static final byte[] CLEAR_TEXT = "cn=dsameuser,ou=DSAME Users,dc=openam,dc=example,dc=com"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private AESGCMEncryption encryption;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        SystemPropertiesManager.initializeProperties(AESGCMEncryption.SALT_PROPERTY, SALT);
+        encryption = new AESGCMEncryption();
+        encryption.setPassword(PASSWORD);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        SystemPropertiesManager.initializeProperties(AESGCMEncryption.SALT_PROPERTY, "");
+    }
+
+    @Test
+    public void shouldDecryptWhatItEncrypts() {
+        byte[] encrypted = encryption.encrypt(CLEAR_TEXT);
+
+        assertThat(encrypted[0]).isEqualTo((byte) 2);
+        assertThat(encryption.decrypt(encrypted)).isEqualTo(CLEAR_TEXT);
+    }
+
+    @Test
+    public void shouldUseNewNonceForEachEncryption() {
+        byte[] first = encryption.encrypt(CLEAR_TEXT);
+        byte[] second = encryption.encrypt(CLEAR_TEXT);
+
+        assertThat(Arrays.equals(first, second)).isFalse();
+        assertThat(encryption.decrypt(second)).isEqualTo(CLEAR_TEXT);
+    }
+
+    @Test
+    public void shouldDecryptWithOtherInstanceSetWithSamePassword() throws Exception {
+        AESGCMEncryption other = new AESGCMEncryption();
+        other.setPassword(PASSWORD);
+
+        assertThat(other.decrypt(encryption.encrypt(CLEAR_TEXT))).isEqualTo(CLEAR_TEXT);
+    }
+
+    @Test
+    public void shouldDecryptValuesEncryptedByLegacyProvider() throws Exception {
+        JCEEncryption legacy = new JCEEncryption();
+        legacy.setPassword(PASSWORD);
+
+        assertThat(encryption.decrypt(legacy.encrypt(CLEAR_TEXT))).isEqualTo(CLEAR_TEXT);
+    }
+
+    @Test
+    public void shouldNotDecryptWithOtherPassword() throws Exception {
+        AESGCMEncryption other = new AESGCMEncryption();
+        other.setPassword("another password");
+
+        assertThat(other.decrypt(encryption.encrypt(CLEAR_TEXT))).isNull();
+    }
+
+    @Test
+    public void shouldNotDecryptWithOtherSalt() throws Exception {
+        SystemPropertiesManager.initializeProperties(AESGCMEncryption.SALT_PROPERTY, "Y2l0ZS5leGFtcGxlLmNvbQ");
+        AESGCMEncryption salted = new AESGCMEncryption();
+        salted.setPassword(PASSWORD);
+        AESGCMEncryption sameSalt = new AESGCMEncryption();
+        sameSalt.setPassword(PASSWORD);
+
+        assertThat(sameSalt.decrypt(salted.encrypt(CLEAR_TEXT))).isEqualTo(CLEAR_TEXT);
+        assertThat(encryption.decrypt(salted.encrypt(CLEAR_TEXT))).isNull();
+    }
+
+    @Test
+    public void shouldNotEncryptWithoutSalt() throws Exception {
+        SystemPropertiesManager.initializeProperties(AESGCMEncryption.SALT_PROPERTY, "");
+        AESGCMEncryption unsalted = new AESGCMEncryption();
+        JCEEncryption legacy = new JCEEncryption();
+        legacy.setPassword(PASSWORD);
+
+        try {
+            unsalted.setPassword(PASSWORD);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertThat(unsalted.encrypt(CLEAR_TEXT)).isNull();
+            assertThat(unsalted.decrypt(legacy.encrypt(CLEAR_TEXT))).isEqualTo(CLEAR_TEXT);
+        }
+    }
+
+    @Test
+    public void shouldNotDecryptTamperedData() {
+        byte[] encrypted = encryption.encrypt(CLEAR_TEXT);
+        encrypted[encrypted.length / 2] ^= 1;
+
+        assertThat(encryption.decrypt(encrypted)).isNull();
+        assertThat(encryption.decrypt(Arrays.copyOf(encrypted, 20))).isNull();
+    }
+
+    @Test
+    public void shouldNotEncryptEmptyData() {
+        assertThat(encryption.encrypt(new byte[0])).isNull();
+        assertThat(encryption.encrypt(null)).isNull();
+    }
+
+    @Test(enabled = false)
+    public void benchmarkEncryption() throws Exception {
+        JCEEncryption legacy = new JCEEncryption();
+        legacy.setPassword(PASSWORD);
+        int iterations = 200000;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                legacy.decrypt(legacy.encrypt(CLEAR_TEXT));
+            }
+            long legacyTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encryption.decrypt(encryption.encrypt(CLEAR_TEXT));
+            }
+            long gcmTime = System.nanoTime() - start;
+            System.out.println("PBEWithMD5AndDES: " + legacyTime / iterations + "ns, AES-GCM: " + gcmTime / iterations
+                    + "ns per encryption and decryption");
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.sun.identity.shared.debug.DebugTestTemplate;
+import com.sun.identity.shared.debug.file.DebugFile;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class AsyncDebugFileTest extends DebugTestTemplate {
+
+    private static final Pattern DROPPED = Pattern.compile("WARNING: (\\d+) debug messages were dropped");
+
+    @Test
+    public void shouldWriteQueuedMessagesInOrder() throws Exception {
+        AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+        DebugFile debugFile = newDebugFile("asyncInOrder", writer, 100, AsyncDebugFile.OverflowPolicy.BLOCK);
+        writer.start();
+
+        for (int i = 0; i < 1000; i++) {
+            debugFile.writeIt("prefix", "message " + i, null);
+        }
+        writer.stop();
+
+        List<String> lines = readLines("asyncInOrder");
+        assertEquals(lines.size(), 2000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(lines.get(2 * i + 1), "message " + i);
+        }
+    }
+
+    @Test
+    public void shouldDropMessagesWhenQueueIsFull() throws Exception {
+        AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+        DebugFile debugFile = newDebugFile("asyncDrop", writer, 10, AsyncDebugFile.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 25; i++) {
+            debugFile.writeIt("prefix", "message " + i, null);
+        }
+        writer.start();
+        writer.stop();
+
+        List<String> lines = readLines("asyncDrop");
+        assertEquals(countMessages(lines), 10);
+        assertEquals(countDropped(lines), 15);
+        assertEquals(lines.get(lines.size() - 1), "message 9");
+    }
+
+    @Test
+    public void shouldKeepSampleOfMessagesWhenQueueIsFull() throws Exception {
+        final AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+        final DebugFile debugFile = newDebugFile("asyncSample", writer, 10, AsyncDebugFile.OverflowPolicy.SAMPLE);
+
+        Thread recorder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < 60; i++) {
+                        debugFile.writeIt("prefix", "message " + i, null);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        recorder.start();
+        // The recorder blocks on the fifth message it can't queue until the writer makes space
+        Thread.sleep(200);
+        assertTrue(recorder.isAlive());
+        writer.start();
+        recorder.join(10000);
+        writer.stop();
+
+        List<String> lines = readLines("asyncSample");
+        int written = countMessages(lines);
+        int dropped = countDropped(lines);
+        assertEquals(written + dropped, 60);
+        assertTrue(dropped >= 4, "dropped " + dropped);
+    }
+
+    @Test
+    public void shouldWriteDirectlyOnceStopped() throws Exception {
+        AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+        DebugFile debugFile = newDebugFile("asyncStopped", writer, 1, AsyncDebugFile.OverflowPolicy.BLOCK);
+        writer.start();
+        writer.stop();
+
+        debugFile.writeIt("prefix", "message 0", null);
+        debugFile.writeIt("prefix", "message 1", null);
+
+        assertEquals(countMessages(readLines("asyncStopped")), 2);
+    }
+
+    @Test
+    public void shouldRotateLogWrittenInBackground() throws Exception {
+        DebugConfigurationFromProperties configuration =
+                new DebugConfigurationFromProperties("/debug_config_test/debugconfigSizeRotation.properties");
+        AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+        DebugFile debugFile = new AsyncDebugFile(new DebugFileImpl(configuration, "asyncRotation"), "asyncRotation",
+                writer, 1000, AsyncDebugFile.OverflowPolicy.BLOCK, 1);
+        writer.start();
+
+        String fakeMessage = "A fake message that has to be long enough ! ForgeRock !";
+        for (long printed = 0; printed < 5 << 20; printed += fakeMessage.length()) {
+            debugFile.writeIt("prefix", fakeMessage, null);
+        }
+        writer.stop();
+
+        File[] files = new File(debugDirectory).listFiles();
+        assertTrue(files.length > 1, "Log wasn't rotated");
+        for (File file : files) {
+            assertTrue(file.length() < (2 << 20) + (100 << 10), "File '" + file.getName() + "' is too large");
+        }
+    }
+
+    @Test(enabled = false)
+    public void benchmarkWriting() throws Exception {
+        int messages = 200000;
+        for (int run = 0; run < 3; run++) {
+            DebugFile direct = new DebugFileImpl(DefaultDebugConfiguration.getInstance(), "benchmarkDirect",
+                    TimeService.SYSTEM);
+            long start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                direct.writeIt("prefix", "message " + i, null);
+            }
+            long directTime = System.nanoTime() - start;
+
+            AsyncDebugFileWriter writer = new AsyncDebugFileWriter();
+            DebugFile async = newDebugFile("benchmarkAsync", writer, 8192, AsyncDebugFile.OverflowPolicy.BLOCK);
+            writer.start();
+            start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                async.writeIt("prefix", "message " + i, null);
+            }
+            long asyncTime = System.nanoTime() - start;
+            writer.stop();
+            long drainedTime = System.nanoTime() - start;
+
+            System.out.println("direct: " + directTime / messages + "ns, async: " + asyncTime / messages
+                    + "ns (" + drainedTime / messages + "ns until written) per message");
+        }
+    }
+
+    private DebugFile newDebugFile(String debugName, AsyncDebugFileWriter writer, int capacity,
+            AsyncDebugFile.OverflowPolicy overflowPolicy) {
+        return new AsyncDebugFile(new DebugFileImpl(DefaultDebugConfiguration.getInstance(), debugName), debugName,
+                writer, capacity, overflowPolicy, 5);
+    }
+
+    private List<String> readLines(String debugName) throws IOException {
+        return Files.readAllLines(new File(debugDirectory, debugName).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private int countMessages(List<String> lines) {
+        int count = 0;
+        for (String line : lines) {
+            if (line.startsWith("message ")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int countDropped(List<String> lines) {
+        int count = 0;
+        for (String line : lines) {
+            Matcher matcher = DROPPED.matcher(line);
+            if (matcher.find()) {
+                count += Integer.parseInt(matcher.group(1));
+            }
+        }
+        return count;
+    }
+}
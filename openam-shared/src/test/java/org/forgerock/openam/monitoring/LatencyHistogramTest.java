@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.monitoring;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.shared.monitoring.LatencyHistogram;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldReturnZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMean()).isEqualTo(0);
+        assertThat(histogram.getValueAtQuantile(0.99)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRecordSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10);
+        assertThat(histogram.getSum()).isEqualTo(55);
+        assertThat(histogram.getMax()).isEqualTo(10);
+        assertThat(histogram.getValueAtQuantile(0.5)).isEqualTo(5);
+        assertThat(histogram.getValueAtQuantile(0.9)).isEqualTo(9);
+        assertThat(histogram.getValueAtQuantile(1)).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldKeepPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getValueAtQuantile(0.5)).isGreaterThanOrEqualTo(50000).isLessThanOrEqualTo(53125);
+        assertThat(histogram.getValueAtQuantile(0.99)).isGreaterThanOrEqualTo(99000).isLessThanOrEqualTo(100000);
+        assertThat(histogram.getValueAtQuantile(1)).isEqualTo(100000);
+    }
+
+    @Test
+    public void shouldRecordExtremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.getValueAtQuantile(0.5)).isEqualTo(0);
+        assertThat(histogram.getValueAtQuantile(1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldCountValuesFromConcurrentThreads() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(40000);
+        assertThat(histogram.getMax()).isEqualTo(9999);
+    }
+
+    @Test(enabled = false)
+    public void benchmarkRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final int values = 10000000;
+        for (int threadCount : new int[] {1, 2, 4, 8}) {
+            Thread[] threads = new Thread[threadCount];
+            long start = System.nanoTime();
+            for (int i = 0; i < threadCount; i++) {
+                threads[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < values; j++) {
+                            histogram.record(j & 0xFFFF);
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println(threadCount + " threads: " + elapsed / ((long) values * threadCount)
+                    + "ns per value, " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 OSSTech Corporation
+ */
+package org.forgerock.openam.monitoring;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.forgerock.openam.shared.monitoring.LatencyHistogram;
+import org.forgerock.openam.shared.monitoring.OpenMetricsWriter;
+import org.testng.annotations.Test;
+
+public class OpenMetricsWriterTest {
+
+    @Test
+    public void shouldWriteOnlyEndWhenEmpty() {
+        assertThat(new OpenMetricsWriter().toString()).isEqualTo("# EOF\n");
+    }
+
+    @Test
+    public void shouldGroupSamplesOfAFamily() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        writer.counter("openam_operations", "Operations.", 3, "operation", "create");
+        writer.gauge("openam_lag_seconds", "Lag.", 1.5);
+        writer.counter("openam_operations", "Operations.", 4, "operation", "read");
+
+        assertThat(writer.toString()).isEqualTo(
+                "# HELP openam_operations Operations.\n"
+                + "# TYPE openam_operations counter\n"
+                + "openam_operations_total{operation=\"create\"} 3\n"
+                + "openam_operations_total{operation=\"read\"} 4\n"
+                + "# HELP openam_lag_seconds Lag.\n"
+                + "# TYPE openam_lag_seconds gauge\n"
+                + "openam_lag_seconds 1.5\n"
+                + "# EOF\n");
+    }
+
+    @Test
+    public void shouldWriteSummaryOfHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5);
+        histogram.record(10);
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+
+        writer.summary("openam_duration_seconds", "Duration.", histogram, OpenMetricsWriter.MILLISECONDS,
+                "mode", "self");
+
+        assertThat(writer.toString()).isEqualTo(
+                "# HELP openam_duration_seconds Duration.\n"
+                + "# TYPE openam_duration_seconds summary\n"
+                + "openam_duration_seconds{mode=\"self\",quantile=\"0.5\"} 0.005\n"
+                + "openam_duration_seconds{mode=\"self\",quantile=\"0.9\"} 0.01\n"
+                + "openam_duration_seconds{mode=\"self\",quantile=\"0.99\"} 0.01\n"
+                + "openam_duration_seconds_count{mode=\"self\"} 2\n"
+                + "openam_duration_seconds_sum{mode=\"self\"} 0.015\n"
+                + "# EOF\n");
+    }
+
+    @Test
+    public void shouldEscapeLabelValuesAndHelp() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        writer.gauge("openam_value", "A \\ value\nover lines.", Double.NaN, "name", "a \"b\"\\c");
+
+        assertThat(writer.toString()).isEqualTo(
+                "# HELP openam_value A \\\\ value\\nover lines.\n"
+                + "# TYPE openam_value gauge\n"
+                + "openam_value{name=\"a \\\"b\\\"\\\\c\"} NaN\n"
+                + "# EOF\n");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectFamilyOfAnotherType() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        writer.counter("openam_operations", "Operations.", 3);
+        writer.gauge("openam_operations", "Operations.", 3);
+    }
+}
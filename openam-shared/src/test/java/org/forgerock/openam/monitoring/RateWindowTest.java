@@ -17,20 +17,11 @@
 
 package org.forgerock.openam.monitoring;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.fail;
 import static org.fest.assertions.Assertions.assertThat;
 
-import java.lang.reflect.Field;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.atomic.AtomicLong;
-
 import org.forgerock.openam.shared.monitoring.RateTimer;
 import org.forgerock.openam.shared.monitoring.RateWindow;
 import org.testng.annotations.BeforeMethod;
@@ -584,31 +575,49 @@ public class RateWindowTest {
     }
 
     @Test
-    public void shouldNotPutUnnecessaryIndexes() {
+    public void shouldStayBoundedWhenTimeMovesFarAhead() {
         RateWindow rateWindow = createRateWindow(10);
-        ConcurrentSkipListMap<Long, AtomicLong> window = mock(ConcurrentSkipListMap.class);
-        try {
-            Field field = rateWindow.getClass().getDeclaredField("window");
-            field.setAccessible(true);
-            field.set(rateWindow, window);
-        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
-            fail();
+
+        long timestamp1 = 1704034800L * SAMPLE_RATE; // 2024-01-01 00:00:00 JST
+        given(timer.now()).willReturn(timestamp1);
+        rateWindow.incrementForTimestamp(timestamp1);
+        rateWindow.incrementForTimestamp(timestamp1);
+
+        long timestamp2 = 1735657199L * SAMPLE_RATE; // 2024-12-31 23:59:59 JST
+        given(timer.now()).willReturn(timestamp2);
+        rateWindow.incrementForTimestamp(timestamp2);
+
+        // Only the 10 sample periods up to now are in the window, not the year in between
+        assertThat(rateWindow.getMaxRate()).isEqualTo(1);
+        assertThat(rateWindow.getMinRate()).isEqualTo(0);
+        assertEquals(rateWindow.getAverageRate(), 0D);
+
+        given(timer.now()).willReturn(timestamp2 + SAMPLE_RATE);
+        assertEquals(rateWindow.getAverageRate(), 0.1D);
+    }
+
+    @Test
+    public void shouldCountEventsFromConcurrentThreads() throws Exception {
+        final RateWindow rateWindow = createRateWindow(4);
+        final long timestamp = getNowTimestamp(SAMPLE_RATE);
+        given(timer.now()).willReturn(timestamp);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        rateWindow.incrementForTimestamp(timestamp);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
         }
 
-        Long index1 = 1704034800L * SAMPLE_RATE; // 2024-01-01 00:00:00 JST
-        given(window.isEmpty()).willReturn(true);
-        given(window.lastKey()).willReturn(1704034800L);
-        given(window.headMap(any(Long.class), eq(true))).willReturn(new ConcurrentSkipListMap<Long, AtomicLong>());
-        given(timer.now()).willReturn(index1);
-        rateWindow.incrementForTimestamp(index1);
-
-        Long index2 = 1735657199L * SAMPLE_RATE; // 2024-12-31 23:59:59 JST
-        given(window.isEmpty()).willReturn(false);
-        given(timer.now()).willReturn(index2);
-        rateWindow.incrementForTimestamp(index2);
-
-        // index1 -> 1 time in incrementForTimestamp().
-        // index2 -> 10 times in fillInWindow() and 1 time in incrementForTimestamp().
-        verify(window, times(1 + 10 + 1)).putIfAbsent(any(Long.class), any(AtomicLong.class));
+        assertThat(rateWindow.getMaxRate()).isEqualTo(40000);
     }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 OSSTech Corporation
  */
 
 package org.forgerock.openam.tokens;
@@ -84,5 +85,9 @@ public enum TokenType {
     /**
      * Push Notification System token type.
      */
-    PUSH
+    PUSH,
+    /**
+     * Stateful OAuth2 token cache invalidation token type.
+     */
+    OAUTH_STATEFUL_INVALIDATION
 }